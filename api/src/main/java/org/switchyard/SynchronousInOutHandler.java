@@ -25,6 +25,7 @@ import org.switchyard.exception.DeliveryException;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Synchronous IN_OUT exchange handler.
@@ -42,7 +43,10 @@ public class SynchronousInOutHandler implements ExchangeHandler {
 
     private static final Logger LOGGER = Logger.getLogger(SynchronousInOutHandler.class);
 
-    private BlockingQueue<Exchange> _responseQueue = new ArrayBlockingQueue<Exchange>(1);
+    private volatile BlockingQueue<Exchange> _responseQueue = new ArrayBlockingQueue<Exchange>(1);
+    // guards _responseQueue hand-off; a lock rather than synchronized so that
+    // virtual threads waiting here do not pin their carrier thread
+    private final ReentrantLock _lock = new ReentrantLock();
 
     /**
      * Wait for an OUT Exchange message.
@@ -70,15 +74,19 @@ public class SynchronousInOutHandler implements ExchangeHandler {
             try {
                 outExchange = _responseQueue.poll(timeout, TimeUnit.MILLISECONDS);
             } catch (InterruptedException e) {
-                synchronized (this) {
+                _lock.lock();
+                try {
                     _responseQueue = null;
                     throw new DeliveryException("Unexpected interrupt while waiting on OUT Exchange message.", e);
+                } finally {
+                    _lock.unlock();
                 }
             }
 
             if (outExchange == null) {
                 // we've timed out waiting on the OUT message...
-                synchronized (this) {
+                _lock.lock();
+                try {
                     if (!_responseQueue.isEmpty()) {
                         // message arrived just after timeout... we're OK...
                         outExchange = _responseQueue.poll();
@@ -86,6 +94,8 @@ public class SynchronousInOutHandler implements ExchangeHandler {
                         _responseQueue = null;
                         throw new DeliveryException("Timed out waiting on OUT Exchange message.");
                     }
+                } finally {
+                    _lock.unlock();
                 }
             }
 
@@ -96,28 +106,38 @@ public class SynchronousInOutHandler implements ExchangeHandler {
     }
 
     @Override
-    public synchronized void handleMessage(Exchange exchange) throws HandlerException {
-        if (_responseQueue == null) {
-            LOGGER.debug("OUT Exchange arrived after timeout has elapsed.");
-        } else {
-            try {
-                _responseQueue.put(exchange);
-            } catch (InterruptedException e) {
-                throw new HandlerException(e);
+    public void handleMessage(Exchange exchange) throws HandlerException {
+        _lock.lock();
+        try {
+            if (_responseQueue == null) {
+                LOGGER.debug("OUT Exchange arrived after timeout has elapsed.");
+            } else {
+                try {
+                    _responseQueue.put(exchange);
+                } catch (InterruptedException e) {
+                    throw new HandlerException(e);
+                }
             }
+        } finally {
+            _lock.unlock();
         }
     }
 
     @Override
-    public synchronized void handleFault(Exchange exchange) {
-        if (_responseQueue == null) {
-            LOGGER.debug("OUT Exchange arrived after timeout has elapsed.");
-        } else {
-            try {
-                _responseQueue.put(exchange);
-            } catch (InterruptedException e) {
-                throw new IllegalStateException("Unexpected Interrupt exception.", e);
+    public void handleFault(Exchange exchange) {
+        _lock.lock();
+        try {
+            if (_responseQueue == null) {
+                LOGGER.debug("OUT Exchange arrived after timeout has elapsed.");
+            } else {
+                try {
+                    _responseQueue.put(exchange);
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException("Unexpected Interrupt exception.", e);
+                }
             }
+        } finally {
+            _lock.unlock();
         }
     }
 }
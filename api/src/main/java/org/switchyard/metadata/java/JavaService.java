@@ -28,7 +28,8 @@ import javax.xml.namespace.QName;
 
 import org.switchyard.annotations.DefaultType;
 import org.switchyard.annotations.OperationTypes;
-import org.switchyard.common.type.Classes;
+import org.switchyard.common.lang.WeakKeyCache;
+import org.switchyard.common.type.CachedClasses;
 import org.switchyard.exception.SwitchYardException;
 import org.switchyard.metadata.BaseService;
 import org.switchyard.metadata.InOnlyOperation;
@@ -60,6 +61,13 @@ public final class JavaService extends BaseService {
      * Type prefix.
      */
     private static final String TYPE_PREFIX = TYPE + ":";
+    /**
+     * Message type names by Java type.  Weakly keyed, and the values only
+     * hold Strings, so undeployed classes can still be collected.  Lookups
+     * take no lock.
+     */
+    private static final WeakKeyCache<Class<?>, MessageTypeName> MESSAGE_TYPES =
+        new WeakKeyCache<Class<?>, MessageTypeName>();
     
     // Java class used to create this ServiceInterface
     private Class<?> _serviceInterface;
@@ -128,7 +136,7 @@ public final class JavaService extends BaseService {
      * @return The payload type.
      */
     public static QName toMessageType(Class<?> javaType) {
-        return QName.valueOf(toMessageTypeString(javaType));
+        return messageTypeName(javaType)._qname;
     }
 
     /**
@@ -141,6 +149,19 @@ public final class JavaService extends BaseService {
      * @return The payload type.
      */
     public static String toMessageTypeString(Class<?> javaType) {
+        return messageTypeName(javaType)._name;
+    }
+
+    private static MessageTypeName messageTypeName(Class<?> javaType) {
+        MessageTypeName typeName = MESSAGE_TYPES.get(javaType);
+        if (typeName == null) {
+            typeName = MESSAGE_TYPES.putIfAbsent(javaType, 
+                    new MessageTypeName(deriveMessageTypeString(javaType)));
+        }
+        return typeName;
+    }
+
+    private static String deriveMessageTypeString(Class<?> javaType) {
         DefaultType defaultType = javaType.getAnnotation(DefaultType.class);
 
         if (defaultType != null) {
@@ -170,12 +191,23 @@ public final class JavaService extends BaseService {
         final String localPart = type.getLocalPart();
         int indexOf = localPart.indexOf(':');
         if (indexOf != -1) {
-            return Classes.forName(localPart.substring(indexOf + 1));
+            return CachedClasses.forName(localPart.substring(indexOf + 1));
         } else {
             return null;
         }
     }
     
+    // Both forms of a Java type's message type name.
+    private static final class MessageTypeName {
+        private final String _name;
+        private final QName _qname;
+
+        MessageTypeName(String name) {
+            _name = name;
+            _qname = QName.valueOf(name);
+        }
+    }
+
     /**
      * Constructs QNames for method parameter and return types.
      */
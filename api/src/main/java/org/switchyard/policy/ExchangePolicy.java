@@ -33,8 +33,14 @@ import org.switchyard.Property;
  */
 public final class ExchangePolicy {
 
-    private static String PROVIDED_PROPERTY = "org.switchyard.policy.provided";
-    private static String REQUIRED_PROPERTY = "org.switchyard.policy.required";
+    /**
+     * Name of the context property holding the set of provided policies.
+     */
+    public static final String PROVIDED_PROPERTY = "org.switchyard.policy.provided";
+    /**
+     * Name of the context property holding the set of required policies.
+     */
+    public static final String REQUIRED_PROPERTY = "org.switchyard.policy.required";
     
     private ExchangePolicy() {
         
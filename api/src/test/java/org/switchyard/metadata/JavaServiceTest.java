@@ -24,6 +24,7 @@ import javax.xml.namespace.QName;
 import org.junit.Assert;
 import org.junit.Test;
 import org.switchyard.ExchangePattern;
+import org.switchyard.annotations.DefaultType;
 import org.switchyard.annotations.OperationTypes;
 import org.switchyard.metadata.java.JavaService;
 
@@ -129,6 +130,27 @@ public class JavaServiceTest {
         Assert.assertEquals(null, intClass);
     }
 
+    @Test
+    public void testToMessageTypeMemoized() {
+        QName type = JavaService.toMessageType(Integer.class);
+        Assert.assertEquals(QName.valueOf("java:java.lang.Integer"), type);
+        Assert.assertSame(type, JavaService.toMessageType(Integer.class));
+        Assert.assertEquals("java:java.lang.Integer", JavaService.toMessageTypeString(Integer.class));
+    }
+
+    @Test
+    public void testToMessageTypeDefaultType() {
+        Assert.assertEquals(QName.valueOf("{urn:test}typed"), JavaService.toMessageType(TypedPayload.class));
+        Assert.assertEquals("{urn:test}typed", JavaService.toMessageTypeString(TypedPayload.class));
+    }
+
+    @Test
+    public void testMessageTypeRoundTrip() {
+        QName type = JavaService.toMessageType(MyStuff.class);
+        Assert.assertEquals(MyStuff.class, JavaService.parseType(type));
+        Assert.assertSame(JavaService.parseType(type), JavaService.parseType(type));
+    }
+
     private void testOperationTypes(String opName, JavaService service, QName in, QName out, QName fault) {
         ServiceOperation operation = service.getOperation(opName);
         Assert.assertEquals(in, operation.getInputType());
@@ -187,3 +209,7 @@ class JavaClassImplementsInterface implements JavaInterface {
 }
 
 class MyStuff { };
+
+@DefaultType("{urn:test}typed")
+class TypedPayload {
+}
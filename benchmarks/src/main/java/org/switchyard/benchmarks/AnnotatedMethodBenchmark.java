@@ -0,0 +1,201 @@
+/* 
+ * JBoss, Home of Professional Open Source 
+ * Copyright 2012 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @author tags. All rights reserved. 
+ * See the copyright.txt in the distribution for a 
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use, 
+ * modify, copy, or redistribute it subject to the terms and conditions 
+ * of the GNU Lesser General Public License, v. 2.1. 
+ * This program is distributed in the hope that it will be useful, but WITHOUT A 
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A 
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details. 
+ * You should have received a copy of the GNU Lesser General Public License, 
+ * v.2.1 along with this distribution; if not, write to the Free Software 
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, 
+ * MA  02110-1301, USA.
+ */
+package org.switchyard.benchmarks;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.switchyard.annotations.Validator;
+import org.switchyard.exception.SwitchYardException;
+import org.switchyard.metadata.java.JavaService;
+import org.switchyard.transform.BaseTransformer;
+import org.switchyard.transform.Transformer;
+import org.switchyard.transform.TransformerUtil;
+import org.switchyard.transform.ootb.lang.NumberTransforms;
+import org.switchyard.validate.BaseValidator;
+import org.switchyard.validate.ValidatorUtil;
+
+/**
+ * Cost of calling <code>@Transformer</code> and <code>@Validator</code> methods
+ * through the adapters built by TransformerUtil and ValidatorUtil.  The
+ * <code>reflective*</code> benchmarks use an adapter written the way those
+ * utilities used to build them, and the <code>direct*</code> benchmarks call
+ * the method without an adapter.
+ */
+@State(org.openjdk.jmh.annotations.Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AnnotatedMethodBenchmark {
+
+    private final Integer _number = Integer.valueOf(1234);
+    private final Payload _payload = new Payload();
+
+    private final Transformer<?, ?> _transformer = TransformerUtil.newTransformer(NumberTransforms.class,
+            JavaService.toMessageType(Number.class), JavaService.toMessageType(String.class));
+    private final Transformer<?, ?> _reflectiveTransformer = newReflectiveTransformer(NumberTransforms.TRANSFORMER,
+            method(NumberTransforms.class, "toString", Number.class));
+
+    private final org.switchyard.validate.Validator<?> _validator = ValidatorUtil.newValidator(PayloadValidator.class,
+            JavaService.toMessageType(Payload.class));
+    private final org.switchyard.validate.Validator<?> _reflectiveValidator = newReflectiveValidator(new PayloadValidator(),
+            method(PayloadValidator.class, "validate", Payload.class));
+    private final PayloadValidator _payloadValidator = new PayloadValidator();
+
+    /**
+     * Transformer method through the TransformerUtil adapter.
+     * @return transformed value
+     */
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public Object adaptedTransform() {
+        return ((Transformer<Object, Object>) _transformer).transform(_number);
+    }
+
+    /**
+     * Transformer method through the previous reflective adapter.
+     * @return transformed value
+     */
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public Object reflectiveTransform() {
+        return ((Transformer<Object, Object>) _reflectiveTransformer).transform(_number);
+    }
+
+    /**
+     * Transformer method called directly.
+     * @return transformed value
+     */
+    @Benchmark
+    public Object directTransform() {
+        return NumberTransforms.TRANSFORMER.toString(_number);
+    }
+
+    /**
+     * Validator method through the ValidatorUtil adapter.
+     * @return validation result
+     */
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public boolean adaptedValidate() {
+        return ((org.switchyard.validate.Validator<Object>) _validator).validate(_payload);
+    }
+
+    /**
+     * Validator method through the previous reflective adapter.
+     * @return validation result
+     */
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public boolean reflectiveValidate() {
+        return ((org.switchyard.validate.Validator<Object>) _reflectiveValidator).validate(_payload);
+    }
+
+    /**
+     * Validator method called directly.
+     * @return validation result
+     */
+    @Benchmark
+    public boolean directValidate() {
+        return _payloadValidator.validate(_payload);
+    }
+
+    private static Method method(Class<?> type, String name, Class<?> parameterType) {
+        try {
+            return type.getMethod(name, parameterType);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @SuppressWarnings("rawtypes")
+    private static Transformer<?, ?> newReflectiveTransformer(final Object transformerObject, final Method publicMethod) {
+        return new BaseTransformer() {
+            @Override
+            public Object transform(Object from) {
+                try {
+                    return publicMethod.invoke(transformerObject, from);
+                } catch (InvocationTargetException e) {
+                    throw new SwitchYardException(e.getCause());
+                } catch (Exception e) {
+                    throw new SwitchYardException(e);
+                }
+            }
+
+            @Override
+            public Class<?> getFromType() {
+                return publicMethod.getParameterTypes()[0];
+            }
+
+            @Override
+            public Class<?> getToType() {
+                return publicMethod.getReturnType();
+            }
+        };
+    }
+
+    @SuppressWarnings("rawtypes")
+    private static org.switchyard.validate.Validator<?> newReflectiveValidator(final Object validatorObject, final Method publicMethod) {
+        return new BaseValidator(JavaService.toMessageType(Payload.class)) {
+            @Override
+            public boolean validate(Object subject) {
+                try {
+                    return Boolean.parseBoolean(publicMethod.invoke(validatorObject, subject).toString());
+                } catch (InvocationTargetException e) {
+                    throw new SwitchYardException(e.getCause());
+                } catch (Exception e) {
+                    throw new SwitchYardException(e);
+                }
+            }
+        };
+    }
+
+    /**
+     * Validated payload type.
+     */
+    public static class Payload {
+    }
+
+    /**
+     * Validator with an annotated method.
+     */
+    public static class PayloadValidator {
+
+        /**
+         * Validate a payload.
+         * @param payload payload
+         * @return true if not null
+         */
+        @Validator
+        public boolean validate(Payload payload) {
+            return payload != null;
+        }
+    }
+}
@@ -0,0 +1,242 @@
+/* 
+ * JBoss, Home of Professional Open Source 
+ * Copyright 2012 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @author tags. All rights reserved. 
+ * See the copyright.txt in the distribution for a 
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use, 
+ * modify, copy, or redistribute it subject to the terms and conditions 
+ * of the GNU Lesser General Public License, v. 2.1. 
+ * This program is distributed in the hope that it will be useful, but WITHOUT A 
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A 
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details. 
+ * You should have received a copy of the GNU Lesser General Public License, 
+ * v.2.1 along with this distribution; if not, write to the Free Software 
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, 
+ * MA  02110-1301, USA.
+ */
+
+package org.switchyard.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.namespace.QName;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.switchyard.BaseHandler;
+import org.switchyard.Exchange;
+import org.switchyard.ExchangeHandler;
+import org.switchyard.ExchangePattern;
+import org.switchyard.HandlerException;
+import org.switchyard.ServiceReference;
+import org.switchyard.internal.DefaultServiceRegistry;
+import org.switchyard.internal.DomainImpl;
+import org.switchyard.internal.EventManager;
+import org.switchyard.internal.LocalExchangeBus;
+import org.switchyard.internal.transform.BaseTransformerRegistry;
+import org.switchyard.internal.validate.BaseValidatorRegistry;
+import org.switchyard.metadata.BaseService;
+import org.switchyard.metadata.InOnlyOperation;
+import org.switchyard.metadata.InOutOperation;
+import org.switchyard.metadata.ServiceOperation;
+import org.switchyard.transform.BaseTransformer;
+import org.switchyard.validate.BaseValidator;
+
+/**
+ * End-to-end cost of an exchange: <code>ServiceReference.createExchange()</code>
+ * followed by <code>Exchange.send()</code> through the default DomainImpl 
+ * handler chain and LocalExchangeBus, to a provider which replies for IN_OUT.
+ * <br><br>
+ * With <code>_transform</code> the consumer and provider use different message
+ * types, so the request (and reply) pass through a registered Transformer; 
+ * with <code>_validate</code> a Validator is registered for the provider's 
+ * message types.
+ * <br><br>
+ * Run {@link #main(String[])} to measure at 1..N threads with the GC profiler
+ * and JSON results, or use the JMH command line directly.
+ */
+@State(org.openjdk.jmh.annotations.Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExchangeBenchmark {
+
+    private static final String NS = "urn:switchyard:benchmark";
+    private static final String OPERATION = "process";
+    private static final QName ORDER = new QName(NS, "order");
+    private static final QName ORDER_ACK = new QName(NS, "orderAck");
+    private static final QName EXTERNAL_ORDER = new QName(NS, "externalOrder");
+    private static final QName EXTERNAL_ORDER_ACK = new QName(NS, "externalOrderAck");
+    private static final String PAYLOAD = "<order><id>4711</id><item>widget</item></order>";
+    private static final String REPLY = "<orderAck><id>4711</id></orderAck>";
+
+    /**
+     * Exchange pattern of the service operation.
+     */
+    @Param({"IN_ONLY", "IN_OUT"})
+    private ExchangePattern _pattern;
+
+    /**
+     * Whether the consumer's message types need transforming to the provider's.
+     */
+    @Param({"false", "true"})
+    private boolean _transform;
+
+    /**
+     * Whether validators are registered for the provider's message types.
+     */
+    @Param({"false", "true"})
+    private boolean _validate;
+
+    private ServiceReference _reference;
+    private ExchangeHandler _replyHandler;
+
+    /**
+     * Registers the provider and reference, and checks one exchange completes.
+     * @throws HandlerException if the sample exchange fails
+     */
+    @Setup
+    public void setUp() throws HandlerException {
+        DomainImpl domain = new DomainImpl(new QName("benchmark"), new DefaultServiceRegistry(),
+                new LocalExchangeBus(), new BaseTransformerRegistry(), new BaseValidatorRegistry(),
+                new EventManager());
+        QName serviceName = new QName(NS, "OrderService");
+        domain.registerService(serviceName, 
+                new BaseService(operation(ORDER, ORDER_ACK)), new ProviderHandler());
+        if (_transform) {
+            _reference = domain.registerServiceReference(serviceName,
+                    new BaseService(operation(EXTERNAL_ORDER, EXTERNAL_ORDER_ACK)));
+            domain.getTransformerRegistry().addTransformer(new CopyTransformer(EXTERNAL_ORDER, ORDER));
+            domain.getTransformerRegistry().addTransformer(new CopyTransformer(ORDER_ACK, EXTERNAL_ORDER_ACK));
+        } else {
+            _reference = domain.registerServiceReference(serviceName,
+                    new BaseService(operation(ORDER, ORDER_ACK)));
+        }
+        if (_validate) {
+            domain.getValidatorRegistry().addValidator(new NotEmptyValidator(ORDER));
+            domain.getValidatorRegistry().addValidator(new NotEmptyValidator(ORDER_ACK));
+        }
+        _replyHandler = new BaseHandler();
+        
+        ReplyCapture capture = new ReplyCapture();
+        Exchange exchange = _reference.createExchange(capture);
+        exchange.send(exchange.createMessage().setContent(PAYLOAD));
+        if (_pattern == ExchangePattern.IN_OUT && !REPLY.equals(capture._reply)) {
+            throw new HandlerException("Sample exchange did not complete: " + capture._reply);
+        }
+    }
+
+    /**
+     * Creates and sends one exchange.
+     * @return exchange, to keep the call from being optimised away
+     */
+    @Benchmark
+    public Exchange send() {
+        Exchange exchange = _reference.createExchange(_replyHandler);
+        exchange.send(exchange.createMessage().setContent(PAYLOAD));
+        return exchange;
+    }
+
+    /**
+     * Runs this benchmark at 1, 2, 4 .. N threads with the GC profiler, 
+     * writing JSON results to <code>target/exchange-&lt;threads&gt;t.json</code>.
+     * N defaults to the number of processors and can be set with the 
+     * <code>benchmark.threads</code> system property.  Arguments are passed
+     * through as JMH command line options.
+     * @param args JMH command line options
+     * @throws Exception if the benchmark cannot be run
+     */
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        int maxThreads = Integer.getInteger("benchmark.threads", Runtime.getRuntime().availableProcessors());
+        List<Integer> threadCounts = new ArrayList<Integer>();
+        for (int threads = 1; threads < maxThreads; threads *= 2) {
+            threadCounts.add(threads);
+        }
+        threadCounts.add(maxThreads);
+        
+        for (int threads : threadCounts) {
+            Options options = new OptionsBuilder()
+                    .parent(commandLine)
+                    .include(ExchangeBenchmark.class.getName())
+                    .threads(threads)
+                    .addProfiler(GCProfiler.class)
+                    .resultFormat(ResultFormatType.JSON)
+                    .result("target/exchange-" + threads + "t.json")
+                    .build();
+            new Runner(options).run();
+        }
+    }
+
+    private ServiceOperation operation(QName input, QName output) {
+        if (_pattern == ExchangePattern.IN_OUT) {
+            return new InOutOperation(OPERATION, input, output);
+        }
+        return new InOnlyOperation(OPERATION, input);
+    }
+
+    private static final class ProviderHandler extends BaseHandler {
+        @Override
+        public void handleMessage(Exchange exchange) throws HandlerException {
+            if (exchange.getContract().getServiceOperation().getExchangePattern() == ExchangePattern.IN_OUT) {
+                exchange.send(exchange.createMessage().setContent(REPLY));
+            }
+        }
+    }
+
+    private static final class ReplyCapture extends BaseHandler {
+        private Object _reply;
+
+        @Override
+        public void handleMessage(Exchange exchange) throws HandlerException {
+            _reply = exchange.getMessage().getContent();
+        }
+
+        @Override
+        public void handleFault(Exchange exchange) {
+            _reply = exchange.getMessage().getContent();
+        }
+    }
+
+    private static final class CopyTransformer extends BaseTransformer<String, String> {
+        CopyTransformer(QName from, QName to) {
+            super(from, to);
+        }
+
+        @Override
+        public String transform(String from) {
+            return new String(from);
+        }
+    }
+
+    private static final class NotEmptyValidator extends BaseValidator<String> {
+        NotEmptyValidator(QName name) {
+            super(name);
+        }
+
+        @Override
+        public boolean validate(String content) {
+            return content.length() > 0;
+        }
+    }
+}
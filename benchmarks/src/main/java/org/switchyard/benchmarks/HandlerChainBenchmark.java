@@ -0,0 +1,145 @@
+/* 
+ * JBoss, Home of Professional Open Source 
+ * Copyright 2012 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @author tags. All rights reserved. 
+ * See the copyright.txt in the distribution for a 
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use, 
+ * modify, copy, or redistribute it subject to the terms and conditions 
+ * of the GNU Lesser General Public License, v. 2.1. 
+ * This program is distributed in the hope that it will be useful, but WITHOUT A 
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A 
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details. 
+ * You should have received a copy of the GNU Lesser General Public License, 
+ * v.2.1 along with this distribution; if not, write to the Free Software 
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, 
+ * MA  02110-1301, USA.
+ */
+
+package org.switchyard.benchmarks;
+
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.namespace.QName;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.switchyard.BaseHandler;
+import org.switchyard.Exchange;
+import org.switchyard.ExchangeHandler;
+import org.switchyard.HandlerException;
+import org.switchyard.internal.DefaultHandlerChain;
+import org.switchyard.internal.DefaultServiceRegistry;
+import org.switchyard.internal.DomainImpl;
+import org.switchyard.internal.EventManager;
+import org.switchyard.internal.ExchangeImpl;
+import org.switchyard.internal.LocalExchangeBus;
+import org.switchyard.internal.transform.BaseTransformerRegistry;
+import org.switchyard.internal.validate.BaseValidatorRegistry;
+import org.switchyard.metadata.ExchangeContract;
+
+/**
+ * Per-exchange cost of running a handler chain.  <code>copyOnWrite</code> 
+ * measures DefaultHandlerChain; <code>copyPerExchange</code> reproduces the 
+ * previous implementation, which took a lock and copied the chain into a new
+ * LinkedList on every call.
+ */
+@State(org.openjdk.jmh.annotations.Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HandlerChainBenchmark {
+
+    /**
+     * Number of handlers in the chain; the default domain chain has seven.
+     */
+    @Param({"7", "15"})
+    private int _handlerCount;
+
+    private DefaultHandlerChain _chain;
+    private CopyingHandlerChain _copyingChain;
+    private Exchange _exchange;
+
+    /**
+     * Builds both chains with the same no-op handlers.
+     */
+    @Setup
+    public void setUp() {
+        _chain = new DefaultHandlerChain();
+        _copyingChain = new CopyingHandlerChain();
+        for (int i = 0; i < _handlerCount; i++) {
+            ExchangeHandler handler = new CountingHandler();
+            _chain.addLast("handler-" + i, handler);
+            _copyingChain.addLast(handler);
+        }
+
+        DomainImpl domain = new DomainImpl(new QName("benchmark"), new DefaultServiceRegistry(),
+                new LocalExchangeBus(), new BaseTransformerRegistry(), new BaseValidatorRegistry(),
+                new EventManager());
+        _exchange = new ExchangeImpl(new QName("benchmark"), ExchangeContract.IN_ONLY, null, domain);
+    }
+
+    /**
+     * Current chain implementation.
+     * @return exchange, to keep the call from being optimised away
+     */
+    @Benchmark
+    public Exchange copyOnWrite() {
+        _chain.handleMessage(_exchange);
+        return _exchange;
+    }
+
+    /**
+     * Previous chain implementation.
+     * @return exchange, to keep the call from being optimised away
+     * @throws HandlerException not expected
+     */
+    @Benchmark
+    public Exchange copyPerExchange() throws HandlerException {
+        _copyingChain.handleMessage(_exchange);
+        return _exchange;
+    }
+
+    /**
+     * Iteration strategy of DefaultHandlerChain before it became copy-on-write.
+     */
+    private static final class CopyingHandlerChain {
+        private final LinkedList<ExchangeHandler> _handlers = new LinkedList<ExchangeHandler>();
+
+        synchronized void addLast(ExchangeHandler handler) {
+            _handlers.addLast(handler);
+        }
+
+        void handleMessage(Exchange exchange) throws HandlerException {
+            for (ExchangeHandler handler : listHandlers()) {
+                handler.handleMessage(exchange);
+            }
+        }
+
+        private synchronized List<ExchangeHandler> listHandlers() {
+            return new LinkedList<ExchangeHandler>(_handlers);
+        }
+    }
+
+    private static final class CountingHandler extends BaseHandler {
+        private int _count;
+
+        @Override
+        public void handleMessage(Exchange exchange) throws HandlerException {
+            _count++;
+        }
+    }
+}
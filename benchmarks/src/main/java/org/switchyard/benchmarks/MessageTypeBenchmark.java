@@ -0,0 +1,128 @@
+/* 
+ * JBoss, Home of Professional Open Source 
+ * Copyright 2012 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @author tags. All rights reserved. 
+ * See the copyright.txt in the distribution for a 
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use, 
+ * modify, copy, or redistribute it subject to the terms and conditions 
+ * of the GNU Lesser General Public License, v. 2.1. 
+ * This program is distributed in the hope that it will be useful, but WITHOUT A 
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A 
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details. 
+ * You should have received a copy of the GNU Lesser General Public License, 
+ * v.2.1 along with this distribution; if not, write to the Free Software 
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, 
+ * MA  02110-1301, USA.
+ */
+
+package org.switchyard.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.namespace.QName;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.switchyard.annotations.DefaultType;
+import org.switchyard.common.type.Classes;
+import org.switchyard.common.xml.QNameUtil;
+import org.switchyard.metadata.java.JavaService;
+
+/**
+ * Cost of mapping between Java types and <code>java:</code> message type
+ * QNames.  The <code>memoized*</code> benchmarks go through JavaService and
+ * QNameUtil; the <code>derived*</code> benchmarks repeat the work those
+ * methods did on every call before they were memoized.  The 
+ * <code>*Contended</code> variants run the memoized lookups on four threads
+ * at once, as the handler chain of a busy runtime would.
+ */
+@State(org.openjdk.jmh.annotations.Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MessageTypeBenchmark {
+
+    private static final String TYPE_PREFIX = JavaService.TYPE + ":";
+
+    private final QName _messageType = JavaService.toMessageType(Payload.class);
+
+    /**
+     * Class to QName through JavaService.
+     * @return message type
+     */
+    @Benchmark
+    public QName memoizedToMessageType() {
+        return JavaService.toMessageType(Payload.class);
+    }
+
+    /**
+     * Class to QName through JavaService, from several threads.
+     * @return message type
+     */
+    @Benchmark
+    @Threads(4)
+    public QName memoizedToMessageTypeContended() {
+        return JavaService.toMessageType(Payload.class);
+    }
+
+    /**
+     * Class to QName as JavaService used to do it.
+     * @return message type
+     */
+    @Benchmark
+    public QName derivedToMessageType() {
+        DefaultType defaultType = Payload.class.getAnnotation(DefaultType.class);
+        if (defaultType != null) {
+            return QName.valueOf(defaultType.value());
+        }
+        if (Payload.class.isMemberClass()) {
+            return QName.valueOf(TYPE_PREFIX + Payload.class.getName());
+        }
+        return QName.valueOf(TYPE_PREFIX + Payload.class.getCanonicalName());
+    }
+
+    /**
+     * QName to Class through QNameUtil.
+     * @return Java type
+     */
+    @Benchmark
+    public Class<?> memoizedToJavaType() {
+        return QNameUtil.toJavaMessageType(_messageType);
+    }
+
+    /**
+     * QName to Class through QNameUtil, from several threads.
+     * @return Java type
+     */
+    @Benchmark
+    @Threads(4)
+    public Class<?> memoizedToJavaTypeContended() {
+        return QNameUtil.toJavaMessageType(_messageType);
+    }
+
+    /**
+     * QName to Class as QNameUtil used to do it.
+     * @return Java type
+     */
+    @Benchmark
+    public Class<?> derivedToJavaType() {
+        return Classes.forName(_messageType.getLocalPart().substring(TYPE_PREFIX.length()));
+    }
+
+    /**
+     * Message payload type.
+     */
+    public static class Payload {
+    }
+}
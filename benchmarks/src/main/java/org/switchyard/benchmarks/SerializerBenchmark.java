@@ -0,0 +1,420 @@
+/* 
+ * JBoss, Home of Professional Open Source 
+ * Copyright 2012 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @author tags. All rights reserved. 
+ * See the copyright.txt in the distribution for a 
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use, 
+ * modify, copy, or redistribute it subject to the terms and conditions 
+ * of the GNU Lesser General Public License, v. 2.1. 
+ * This program is distributed in the hope that it will be useful, but WITHOUT A 
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A 
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details. 
+ * You should have received a copy of the GNU Lesser General Public License, 
+ * v.2.1 along with this distribution; if not, write to the Free Software 
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, 
+ * MA  02110-1301, USA.
+ */
+
+package org.switchyard.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.activation.DataSource;
+import javax.xml.namespace.QName;
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.switchyard.BaseHandler;
+import org.switchyard.Exchange;
+import org.switchyard.Message;
+import org.switchyard.Scope;
+import org.switchyard.ServiceReference;
+import org.switchyard.internal.DefaultContext;
+import org.switchyard.internal.DefaultMessage;
+import org.switchyard.internal.DefaultServiceRegistry;
+import org.switchyard.internal.DomainImpl;
+import org.switchyard.internal.EventManager;
+import org.switchyard.internal.LocalExchangeBus;
+import org.switchyard.internal.io.Serializer;
+import org.switchyard.internal.io.SerializerType;
+import org.switchyard.internal.transform.BaseTransformerRegistry;
+import org.switchyard.internal.validate.BaseValidatorRegistry;
+import org.switchyard.metadata.BaseService;
+import org.switchyard.metadata.InOnlyOperation;
+import org.w3c.dom.Element;
+
+/**
+ * Cost of each SerializerType on the state an exchange carries across a 
+ * bus: the DefaultContext and DefaultMessage of an ExchangeImpl which has 
+ * been sent through a DomainImpl.  Message content is one of
+ * <ul>
+ * <li><code>dom</code> - a DOM Element of an order with 100 lines</li>
+ * <li><code>largeString</code> - a 64K character String</li>
+ * <li><code>attachment</code> - a small String with a 64K DataSource attachment</li>
+ * <li><code>deepGraph</code> - a tree of 1023 Serializable beans</li>
+ * </ul>
+ * Serializers which cannot round-trip a payload fail that combination in
+ * setup rather than report a number for a lossy result.
+ * <br><br>
+ * Run {@link #main(String[])} for JSON results with the GC profiler's
+ * allocation per operation, plus a CSV of the serialized size of each 
+ * combination.
+ */
+@State(org.openjdk.jmh.annotations.Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializerBenchmark {
+
+    /**
+     * System property naming a CSV file to which each trial appends its serialized sizes.
+     */
+    public static final String BYTES_FILE = "benchmark.bytes.file";
+
+    private static final int LARGE_SIZE = 64 * 1024;
+    private static final int GRAPH_DEPTH = 10;
+    private static final int ORDER_LINES = 100;
+
+    /**
+     * Serializer under test.
+     */
+    @Param({"DEFAULT"})
+    private SerializerType _type;
+
+    /**
+     * Message content.
+     */
+    @Param({"dom", "largeString", "attachment", "deepGraph"})
+    private String _payload;
+
+    private Serializer _serializer;
+    private DefaultContext _context;
+    private DefaultMessage _message;
+    private byte[] _contextBytes;
+    private byte[] _messageBytes;
+
+    /**
+     * Builds the exchange state and checks the serializer round-trips it.
+     * @throws Exception if the serializer cannot round-trip the payload
+     */
+    @Setup
+    public void setUp() throws Exception {
+        Exchange exchange = sentExchange(payload(_payload));
+        _context = (DefaultContext)exchange.getContext();
+        _message = (DefaultMessage)exchange.getMessage();
+        _serializer = _type.instance();
+        try {
+            _contextBytes = _serializer.serialize(_context, DefaultContext.class);
+            _messageBytes = _serializer.serialize(_message, DefaultMessage.class);
+            DefaultContext context = _serializer.deserialize(_contextBytes, DefaultContext.class);
+            DefaultMessage message = _serializer.deserialize(_messageBytes, DefaultMessage.class);
+            verify(context, message);
+        } catch (Throwable t) {
+            throw new IllegalStateException(_type + " cannot round-trip " + _payload + ": " + t, t);
+        }
+    }
+
+    /**
+     * Appends the serialized sizes of this combination to the file named by 
+     * {@link #BYTES_FILE}, if set.  Done in the trial's own JVM, so that a
+     * serializer which brings down its fork only loses its own row.
+     * @param params parameters of the running trial
+     * @throws IOException if the file cannot be written
+     */
+    @TearDown
+    public void recordBytes(BenchmarkParams params) throws IOException {
+        String file = System.getProperty(BYTES_FILE);
+        if (file != null && params.getBenchmark().endsWith(".serialize")) {
+            Writer writer = new FileWriter(file, true);
+            try {
+                writer.write(_type + "," + _payload + "," + _contextBytes.length 
+                        + "," + _messageBytes.length + "\n");
+            } finally {
+                writer.close();
+            }
+        }
+    }
+
+    /**
+     * Serializes the context and message.
+     * @param blackhole sink for the serialized bytes
+     * @throws IOException if serialization fails
+     */
+    @Benchmark
+    public void serialize(Blackhole blackhole) throws IOException {
+        blackhole.consume(_serializer.serialize(_context, DefaultContext.class));
+        blackhole.consume(_serializer.serialize(_message, DefaultMessage.class));
+    }
+
+    /**
+     * Deserializes the context and message.
+     * @param blackhole sink for the deserialized objects
+     * @throws IOException if deserialization fails
+     */
+    @Benchmark
+    public void deserialize(Blackhole blackhole) throws IOException {
+        blackhole.consume(_serializer.deserialize(_contextBytes, DefaultContext.class));
+        blackhole.consume(_serializer.deserialize(_messageBytes, DefaultMessage.class));
+    }
+
+    /**
+     * Runs every SerializerType against every payload with the GC profiler,
+     * writing JSON results to <code>target/serializer.json</code> and 
+     * serialized sizes to <code>target/serializer-bytes.csv</code> (or the 
+     * file named by {@link #BYTES_FILE}).  
+     * Arguments are passed through as JMH command line options, so a subset 
+     * can be selected with e.g. <code>-p _type=DEFAULT,GRAPH_PROTOSTUFF</code>.
+     * @param args JMH command line options
+     * @throws Exception if the benchmark cannot be run
+     */
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        File sizes = new File(System.getProperty(BYTES_FILE, "target/serializer-bytes.csv"));
+        sizes.getParentFile().mkdirs();
+        Writer writer = new FileWriter(sizes);
+        try {
+            writer.write("type,payload,contextBytes,messageBytes\n");
+        } finally {
+            writer.close();
+        }
+        
+        List<String> types = new ArrayList<String>();
+        for (SerializerType type : SerializerType.values()) {
+            types.add(type.name());
+        }
+        OptionsBuilder builder = new OptionsBuilder();
+        builder.parent(commandLine)
+                .include(SerializerBenchmark.class.getName())
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result("target/serializer.json")
+                .jvmArgsAppend("-D" + BYTES_FILE + "=" + sizes.getAbsolutePath());
+        if (!commandLine.getParameter("_type").hasValue()) {
+            builder.param("_type", types.toArray(new String[types.size()]));
+        }
+        Options options = builder.build();
+        new Runner(options).run();
+    }
+
+    private static Exchange sentExchange(Object content) {
+        DomainImpl domain = new DomainImpl(new QName("benchmark"), new DefaultServiceRegistry(),
+                new LocalExchangeBus(), new BaseTransformerRegistry(), new BaseValidatorRegistry(),
+                new EventManager());
+        QName serviceName = new QName("urn:switchyard:benchmark", "OrderService");
+        BaseService service = new BaseService(new InOnlyOperation("submit"));
+        domain.registerService(serviceName, service, new BaseHandler());
+        ServiceReference reference = domain.registerServiceReference(serviceName, service);
+        
+        Exchange exchange = reference.createExchange();
+        exchange.getContext().setProperty("org.switchyard.bean.correlationId", "order-4711");
+        exchange.getContext().setProperty("customer", "ACME Corp.", Scope.IN);
+        Message message = exchange.createMessage().setContent(content);
+        if ("attachment".equals(content)) {
+            message.addAttachment("order.pdf", new BytesDataSource("order.pdf", largeText().getBytes()));
+        }
+        exchange.send(message);
+        return exchange;
+    }
+
+    private static Object payload(String payload) throws Exception {
+        if ("dom".equals(payload)) {
+            StringBuilder xml = new StringBuilder("<order xmlns='urn:switchyard:benchmark' id='4711'>");
+            for (int i = 0; i < ORDER_LINES; i++) {
+                xml.append("<line sku='SKU-").append(i).append("'><quantity>").append(i % 7 + 1)
+                    .append("</quantity><description>widget ").append(i).append("</description></line>");
+            }
+            xml.append("</order>");
+            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+            factory.setNamespaceAware(true);
+            return factory.newDocumentBuilder().parse(
+                    new ByteArrayInputStream(xml.toString().getBytes("UTF-8"))).getDocumentElement();
+        } else if ("largeString".equals(payload)) {
+            return largeText();
+        } else if ("attachment".equals(payload)) {
+            return "attachment";
+        } else if ("deepGraph".equals(payload)) {
+            return OrderNode.tree("order", GRAPH_DEPTH);
+        }
+        throw new IllegalArgumentException("Unknown payload: " + payload);
+    }
+
+    private static String largeText() {
+        StringBuilder text = new StringBuilder(LARGE_SIZE);
+        for (int i = 0; text.length() < LARGE_SIZE; i++) {
+            text.append("Line ").append(i).append(" of a large order document.\n");
+        }
+        return text.substring(0, LARGE_SIZE);
+    }
+
+    private void verify(DefaultContext context, DefaultMessage message) throws Exception {
+        if (!"order-4711".equals(context.getPropertyValue("org.switchyard.bean.correlationId"))
+                || context.getProperty(Exchange.MESSAGE_ID, Scope.IN) == null) {
+            throw new IllegalStateException("context properties lost");
+        }
+        Object content = message.getContent();
+        Object expected = _message.getContent();
+        if (expected instanceof Element) {
+            if (!(content instanceof Element) 
+                    || !((Element)content).getTextContent().equals(((Element)expected).getTextContent())) {
+                throw new IllegalStateException("DOM content lost");
+            }
+        } else if (expected instanceof OrderNode) {
+            if (!(content instanceof OrderNode) || ((OrderNode)content).count() != ((OrderNode)expected).count()) {
+                throw new IllegalStateException("object graph lost");
+            }
+        } else if (!expected.equals(content)) {
+            throw new IllegalStateException("content lost");
+        }
+        if ("attachment".equals(_payload)) {
+            DataSource attachment = message.getAttachment("order.pdf");
+            if (attachment == null || read(attachment.getInputStream()).length != LARGE_SIZE) {
+                throw new IllegalStateException("attachment lost");
+            }
+        }
+    }
+
+    private static byte[] read(InputStream is) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        for (int read = is.read(buffer); read != -1; read = is.read(buffer)) {
+            bytes.write(buffer, 0, read);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Node of an order tree, a bean so that every serializer can handle it.
+     */
+    public static final class OrderNode implements Serializable {
+        private static final long serialVersionUID = 1L;
+        private String _name;
+        private int _quantity;
+        private List<OrderNode> _children = new ArrayList<OrderNode>();
+
+        /**
+         * Bean constructor.
+         */
+        public OrderNode() {
+        }
+
+        static OrderNode tree(String name, int depth) {
+            OrderNode node = new OrderNode();
+            node.setName(name);
+            node.setQuantity(depth);
+            if (depth > 1) {
+                node.getChildren().add(tree(name + ".0", depth - 1));
+                node.getChildren().add(tree(name + ".1", depth - 1));
+            }
+            return node;
+        }
+
+        int count() {
+            int count = 1;
+            for (OrderNode child : _children) {
+                count += child.count();
+            }
+            return count;
+        }
+
+        /**
+         * @return the name
+         */
+        public String getName() {
+            return _name;
+        }
+
+        /**
+         * @param name the name
+         */
+        public void setName(String name) {
+            _name = name;
+        }
+
+        /**
+         * @return the quantity
+         */
+        public int getQuantity() {
+            return _quantity;
+        }
+
+        /**
+         * @param quantity the quantity
+         */
+        public void setQuantity(int quantity) {
+            _quantity = quantity;
+        }
+
+        /**
+         * @return the child nodes
+         */
+        public List<OrderNode> getChildren() {
+            return _children;
+        }
+
+        /**
+         * @param children the child nodes
+         */
+        public void setChildren(List<OrderNode> children) {
+            _children = children;
+        }
+    }
+
+    private static final class BytesDataSource implements DataSource {
+        private final String _name;
+        private final byte[] _bytes;
+
+        BytesDataSource(String name, byte[] bytes) {
+            _name = name;
+            _bytes = bytes;
+        }
+
+        public String getName() {
+            return _name;
+        }
+
+        public String getContentType() {
+            return "application/octet-stream";
+        }
+
+        public InputStream getInputStream() throws IOException {
+            return new ByteArrayInputStream(_bytes);
+        }
+
+        public OutputStream getOutputStream() throws IOException {
+            throw new IOException("read only");
+        }
+    }
+}
@@ -131,6 +131,11 @@ public class HornetQDispatcher implements Dispatcher, MessageHandler {
         }
     }
     
+    @Override
+    public void completed(Exchange exchange) {
+        // NOP
+    }
+    
     @Override
     public void stop() {
         try {
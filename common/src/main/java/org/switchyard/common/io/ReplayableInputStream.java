@@ -0,0 +1,210 @@
+/* 
+ * JBoss, Home of Professional Open Source 
+ * Copyright 2011 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @author tags. All rights reserved. 
+ * See the copyright.txt in the distribution for a 
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use, 
+ * modify, copy, or redistribute it subject to the terms and conditions 
+ * of the GNU Lesser General Public License, v. 2.1. 
+ * This program is distributed in the hope that it will be useful, but WITHOUT A 
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A 
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details. 
+ * You should have received a copy of the GNU Lesser General Public License, 
+ * v.2.1 along with this distribution; if not, write to the Free Software 
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, 
+ * MA  02110-1301, USA.
+ */
+
+package org.switchyard.common.io;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * An InputStream which keeps a copy of everything read through it, so that
+ * a consumer (e.g. a validator) can stream a payload once and the payload
+ * can then be handed on, unread, to the next consumer via {@link #replay()}.
+ * <p/>
+ * The copy is held in memory up to a threshold and spooled to a temporary
+ * file beyond it, which is deleted when the replayed stream is closed.
+ * {@link #close()} does not close the wrapped stream, as consumers such as
+ * XML parsers close their input when they are done with it.
+ */
+public class ReplayableInputStream extends FilterInputStream {
+
+    /**
+     * Default number of bytes held in memory before spooling to disk.
+     */
+    public static final int DEFAULT_THRESHOLD = 1024 * 1024;
+
+    private final int _threshold;
+    private Buffer _memory = new Buffer();
+    private File _file;
+    private OutputStream _copy = _memory;
+    private boolean _replayed;
+
+    /**
+     * Wraps a given InputStream, using {@link #DEFAULT_THRESHOLD}.
+     * @param in the wrapped InputStream
+     */
+    public ReplayableInputStream(InputStream in) {
+        this(in, DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * Wraps a given InputStream.
+     * @param in the wrapped InputStream
+     * @param threshold number of bytes held in memory before spooling to disk
+     */
+    public ReplayableInputStream(InputStream in, int threshold) {
+        super(in);
+        _threshold = threshold;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int read() throws IOException {
+        int b = super.read();
+        if (b != -1) {
+            copy(new byte[] {(byte)b}, 0, 1);
+        }
+        return b;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        int n = super.read(b, off, len);
+        if (n > 0) {
+            copy(b, off, n);
+        }
+        return n;
+    }
+
+    /**
+     * Reads and discards, so that skipped bytes are still replayed.
+     * @param n number of bytes to skip
+     * @return number of bytes skipped
+     * @throws IOException if a problem occurred
+     */
+    @Override
+    public long skip(long n) throws IOException {
+        if (n <= 0) {
+            return 0;
+        }
+        byte[] buf = new byte[(int)Math.min(n, 4096)];
+        long skipped = 0;
+        while (skipped < n) {
+            int r = read(buf, 0, (int)Math.min(buf.length, n - skipped));
+            if (r == -1) {
+                break;
+            }
+            skipped += r;
+        }
+        return skipped;
+    }
+
+    /**
+     * Not supported; {@link #replay()} is used instead.
+     * @return false
+     */
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    /**
+     * Does nothing; see {@link #replay()}.
+     */
+    @Override
+    public void close() {
+    }
+
+    /**
+     * Reads whatever is left of the wrapped stream, closes it, and returns a
+     * stream over the complete content.  May only be called once.
+     * @return a stream over everything the wrapped stream contained
+     * @throws IOException if a problem occurred
+     */
+    public InputStream replay() throws IOException {
+        if (_replayed) {
+            throw new IllegalStateException("Stream has already been replayed.");
+        }
+        _replayed = true;
+        boolean complete = false;
+        try {
+            byte[] buf = new byte[4096];
+            while (read(buf, 0, buf.length) != -1) {
+                // copied by read
+                continue;
+            }
+            complete = true;
+        } finally {
+            in.close();
+            _copy.close();
+            if (!complete && _file != null) {
+                _file.delete();
+            }
+        }
+        if (_file == null) {
+            return _memory.toInputStream();
+        }
+        return new DeleteOnCloseInputStream(_file);
+    }
+
+    private void copy(byte[] b, int off, int len) throws IOException {
+        if (_file == null && _memory.size() + len > _threshold) {
+            _file = File.createTempFile("switchyard-replay", ".tmp");
+            _copy = new FileOutputStream(_file);
+            _memory.writeTo(_copy);
+            _memory = null;
+        }
+        _copy.write(b, off, len);
+    }
+
+    // In-memory copy which is replayed without copying it again.
+    private static final class Buffer extends ByteArrayOutputStream {
+        private InputStream toInputStream() {
+            return new ByteArrayInputStream(buf, 0, count);
+        }
+    }
+
+    // Removes the spool file once the replayed content has been consumed.
+    // Where the platform allows deleting an open file it is removed as soon
+    // as it is opened, so it is not left behind if the stream is never closed.
+    // Also used by ReplayableReader.
+    static final class DeleteOnCloseInputStream extends FileInputStream {
+        private final File _file;
+        private boolean _deleted;
+
+        DeleteOnCloseInputStream(File file) throws IOException {
+            super(file);
+            _file = file;
+            _deleted = file.delete();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                if (!_deleted) {
+                    _deleted = _file.delete();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,182 @@
+/* 
+ * JBoss, Home of Professional Open Source 
+ * Copyright 2011 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @author tags. All rights reserved. 
+ * See the copyright.txt in the distribution for a 
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use, 
+ * modify, copy, or redistribute it subject to the terms and conditions 
+ * of the GNU Lesser General Public License, v. 2.1. 
+ * This program is distributed in the hope that it will be useful, but WITHOUT A 
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A 
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details. 
+ * You should have received a copy of the GNU Lesser General Public License, 
+ * v.2.1 along with this distribution; if not, write to the Free Software 
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, 
+ * MA  02110-1301, USA.
+ */
+
+package org.switchyard.common.io;
+
+import java.io.CharArrayReader;
+import java.io.CharArrayWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+
+/**
+ * The character counterpart of {@link ReplayableInputStream}.  The copy is
+ * held in memory up to a threshold and spooled to a UTF-8 encoded temporary
+ * file beyond it, which is deleted when the replayed Reader is closed.
+ */
+public class ReplayableReader extends FilterReader {
+
+    /**
+     * Default number of characters held in memory before spooling to disk.
+     */
+    public static final int DEFAULT_THRESHOLD = 512 * 1024;
+
+    private static final String UTF_8 = "UTF-8";
+
+    private final int _threshold;
+    private Buffer _memory = new Buffer();
+    private File _file;
+    private Writer _copy = _memory;
+    private boolean _replayed;
+
+    /**
+     * Wraps a given Reader, using {@link #DEFAULT_THRESHOLD}.
+     * @param in the wrapped Reader
+     */
+    public ReplayableReader(Reader in) {
+        this(in, DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * Wraps a given Reader.
+     * @param in the wrapped Reader
+     * @param threshold number of characters held in memory before spooling to disk
+     */
+    public ReplayableReader(Reader in, int threshold) {
+        super(in);
+        _threshold = threshold;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int read() throws IOException {
+        int c = super.read();
+        if (c != -1) {
+            copy(new char[] {(char)c}, 0, 1);
+        }
+        return c;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int read(char[] cbuf, int off, int len) throws IOException {
+        int n = super.read(cbuf, off, len);
+        if (n > 0) {
+            copy(cbuf, off, n);
+        }
+        return n;
+    }
+
+    /**
+     * Reads and discards, so that skipped characters are still replayed.
+     * @param n number of characters to skip
+     * @return number of characters skipped
+     * @throws IOException if a problem occurred
+     */
+    @Override
+    public long skip(long n) throws IOException {
+        if (n <= 0) {
+            return 0;
+        }
+        char[] buf = new char[(int)Math.min(n, 4096)];
+        long skipped = 0;
+        while (skipped < n) {
+            int r = read(buf, 0, (int)Math.min(buf.length, n - skipped));
+            if (r == -1) {
+                break;
+            }
+            skipped += r;
+        }
+        return skipped;
+    }
+
+    /**
+     * Not supported; {@link #replay()} is used instead.
+     * @return false
+     */
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    /**
+     * Does nothing; see {@link #replay()}.
+     */
+    @Override
+    public void close() {
+    }
+
+    /**
+     * Reads whatever is left of the wrapped Reader, closes it, and returns a
+     * Reader over the complete content.  May only be called once.
+     * @return a Reader over everything the wrapped Reader contained
+     * @throws IOException if a problem occurred
+     */
+    public Reader replay() throws IOException {
+        if (_replayed) {
+            throw new IllegalStateException("Reader has already been replayed.");
+        }
+        _replayed = true;
+        boolean complete = false;
+        try {
+            char[] buf = new char[4096];
+            while (read(buf, 0, buf.length) != -1) {
+                // copied by read
+                continue;
+            }
+            complete = true;
+        } finally {
+            in.close();
+            _copy.close();
+            if (!complete && _file != null) {
+                _file.delete();
+            }
+        }
+        if (_file == null) {
+            return _memory.toReader();
+        }
+        return new InputStreamReader(new ReplayableInputStream.DeleteOnCloseInputStream(_file), UTF_8);
+    }
+
+    private void copy(char[] c, int off, int len) throws IOException {
+        if (_file == null && _memory.size() + len > _threshold) {
+            _file = File.createTempFile("switchyard-replay", ".tmp");
+            _copy = new OutputStreamWriter(new FileOutputStream(_file), UTF_8);
+            _memory.writeTo(_copy);
+            _memory = null;
+        }
+        _copy.write(c, off, len);
+    }
+
+    // In-memory copy which is replayed without copying it again.
+    private static final class Buffer extends CharArrayWriter {
+        private Reader toReader() {
+            return new CharArrayReader(buf, 0, count);
+        }
+    }
+}
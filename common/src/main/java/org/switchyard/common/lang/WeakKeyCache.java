@@ -0,0 +1,141 @@
+/* 
+ * JBoss, Home of Professional Open Source 
+ * Copyright 2011 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @author tags. All rights reserved. 
+ * See the copyright.txt in the distribution for a 
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use, 
+ * modify, copy, or redistribute it subject to the terms and conditions 
+ * of the GNU Lesser General Public License, v. 2.1. 
+ * This program is distributed in the hope that it will be useful, but WITHOUT A 
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A 
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details. 
+ * You should have received a copy of the GNU Lesser General Public License, 
+ * v.2.1 along with this distribution; if not, write to the Free Software 
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, 
+ * MA  02110-1301, USA.
+ */
+package org.switchyard.common.lang;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Thread-safe cache whose keys are weakly referenced and compared by 
+ * identity, for memoizing per Class or per ClassLoader results without 
+ * keeping them reachable.
+ * <p/>
+ * Lookups take no lock.  Entries of collected keys are purged on writes.  
+ * Values must not strongly reference their key, or the entry is never 
+ * collected.  Null keys and values are not supported.
+ *
+ * @param <K> key type
+ * @param <V> value type
+ */
+public final class WeakKeyCache<K, V> {
+
+    private final ConcurrentHashMap<Object, V> _map = new ConcurrentHashMap<Object, V>();
+    private final ReferenceQueue<K> _queue = new ReferenceQueue<K>();
+
+    /**
+     * Returns the value cached for a key.
+     * @param key the key
+     * @return the cached value, or null if there is none
+     */
+    public V get(K key) {
+        return _map.get(new Lookup(key));
+    }
+
+    /**
+     * Caches a value for a key, replacing any current value.
+     * @param key the key
+     * @param value the value
+     */
+    public void put(K key, V value) {
+        expunge();
+        _map.put(new WeakKey<K>(key, _queue), value);
+    }
+
+    /**
+     * Caches a value for a key unless there already is one.
+     * @param key the key
+     * @param value the value
+     * @return the value now cached for the key, i.e. the existing value if
+     * there was one, otherwise the supplied value
+     */
+    public V putIfAbsent(K key, V value) {
+        expunge();
+        V existing = _map.putIfAbsent(new WeakKey<K>(key, _queue), value);
+        return existing != null ? existing : value;
+    }
+
+    /**
+     * Drops all cached values.
+     */
+    public void clear() {
+        _map.clear();
+        expunge();
+    }
+
+    private void expunge() {
+        Reference<? extends K> ref;
+        while ((ref = _queue.poll()) != null) {
+            _map.remove(ref);
+        }
+    }
+
+    private static Object referent(Object key) {
+        if (key instanceof WeakKey) {
+            return ((WeakKey<?>)key).get();
+        } else if (key instanceof Lookup) {
+            return ((Lookup)key)._key;
+        }
+        return null;
+    }
+
+    // stored key
+    private static final class WeakKey<K> extends WeakReference<K> {
+        private final int _hash;
+
+        WeakKey(K key, ReferenceQueue<K> queue) {
+            super(key, queue);
+            _hash = System.identityHashCode(key);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == this) {
+                return true;
+            }
+            Object key = get();
+            return key != null && key == referent(obj);
+        }
+
+        @Override
+        public int hashCode() {
+            return _hash;
+        }
+    }
+
+    // short-lived key used for lookups
+    private static final class Lookup {
+        private final Object _key;
+
+        Lookup(Object key) {
+            _key = key;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return _key != null && _key == referent(obj);
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(_key);
+        }
+    }
+}
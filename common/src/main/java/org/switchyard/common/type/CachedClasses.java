@@ -0,0 +1,84 @@
+/* 
+ * JBoss, Home of Professional Open Source 
+ * Copyright 2011 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @author tags. All rights reserved. 
+ * See the copyright.txt in the distribution for a 
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use, 
+ * modify, copy, or redistribute it subject to the terms and conditions 
+ * of the GNU Lesser General Public License, v. 2.1. 
+ * This program is distributed in the hope that it will be useful, but WITHOUT A 
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A 
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details. 
+ * You should have received a copy of the GNU Lesser General Public License, 
+ * v.2.1 along with this distribution; if not, write to the Free Software 
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, 
+ * MA  02110-1301, USA.
+ */
+
+package org.switchyard.common.type;
+
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.switchyard.common.lang.WeakKeyCache;
+
+/**
+ * Memoizing front end to {@link Classes#forName(String)} for lookups which
+ * are repeated on every message, e.g. resolving the class behind a
+ * <code>java:</code> message type.
+ * <p/>
+ * Results are cached per thread context ClassLoader, which is weakly
+ * referenced, and the cached classes are weakly referenced too, so a cache
+ * entry never keeps an undeployed application's classes alive.  Failed
+ * lookups are not cached.  Lookups take no lock.
+ */
+public final class CachedClasses {
+
+    // TCCL -> class name -> class
+    private static final WeakKeyCache<ClassLoader, ConcurrentHashMap<String, WeakReference<Class<?>>>> CLASSES =
+        new WeakKeyCache<ClassLoader, ConcurrentHashMap<String, WeakReference<Class<?>>>>();
+    // class name -> class, for threads without a TCCL
+    private static final ConcurrentHashMap<String, WeakReference<Class<?>>> NO_TCCL_CLASSES =
+        new ConcurrentHashMap<String, WeakReference<Class<?>>>();
+
+    private CachedClasses() {
+    }
+
+    /**
+     * Loads a class based on name, reusing the result of an earlier lookup
+     * made under the same thread context ClassLoader.
+     * @param name fully qualified classname
+     * @return the found class, or null if not found
+     */
+    public static Class<?> forName(String name) {
+        ClassLoader tccl = Classes.getTCCL();
+        ConcurrentHashMap<String, WeakReference<Class<?>>> classes = 
+            tccl != null ? CLASSES.get(tccl) : NO_TCCL_CLASSES;
+        if (classes != null) {
+            WeakReference<Class<?>> ref = classes.get(name);
+            Class<?> c = ref != null ? ref.get() : null;
+            if (c != null) {
+                return c;
+            }
+        }
+
+        Class<?> c = Classes.forName(name);
+        if (c != null) {
+            if (classes == null) {
+                classes = CLASSES.putIfAbsent(tccl, new ConcurrentHashMap<String, WeakReference<Class<?>>>());
+            }
+            classes.put(name, new WeakReference<Class<?>>(c));
+        }
+        return c;
+    }
+
+    /**
+     * Drops all cached lookups.
+     */
+    public static void clear() {
+        CLASSES.clear();
+        NO_TCCL_CLASSES.clear();
+    }
+}
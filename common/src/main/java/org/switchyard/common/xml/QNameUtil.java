@@ -19,7 +19,7 @@
 
 package org.switchyard.common.xml;
 
-import org.switchyard.common.type.Classes;
+import org.switchyard.common.type.CachedClasses;
 
 import javax.xml.namespace.QName;
 
@@ -63,6 +63,6 @@ public final class QNameUtil {
         }
 
         String className = name.getLocalPart().substring(JAVA_TYPE_PREFIX.length());
-        return Classes.forName(className);
+        return CachedClasses.forName(className);
     }
 }
@@ -0,0 +1,159 @@
+/* 
+ * JBoss, Home of Professional Open Source 
+ * Copyright 2011 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @author tags. All rights reserved. 
+ * See the copyright.txt in the distribution for a 
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use, 
+ * modify, copy, or redistribute it subject to the terms and conditions 
+ * of the GNU Lesser General Public License, v. 2.1. 
+ * This program is distributed in the hope that it will be useful, but WITHOUT A 
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A 
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details. 
+ * You should have received a copy of the GNU Lesser General Public License, 
+ * v.2.1 along with this distribution; if not, write to the Free Software 
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, 
+ * MA  02110-1301, USA.
+ */
+package org.switchyard.common.io;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.CharArrayReader;
+import java.io.File;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.Arrays;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for {@link ReplayableInputStream} and {@link ReplayableReader}.
+ */
+public class ReplayableInputStreamTest {
+
+    @Test
+    public void testReplayAfterPartialRead() throws Exception {
+        byte[] content = bytes(100);
+        ReplayableInputStream stream = new ReplayableInputStream(new ByteArrayInputStream(content));
+        Assert.assertEquals(0, stream.read());
+        Assert.assertEquals(10, stream.read(new byte[10], 0, 10));
+        Assert.assertEquals(5, stream.skip(5));
+        stream.close();
+        Assert.assertTrue(Arrays.equals(content, readAll(stream.replay())));
+    }
+
+    @Test
+    public void testReplaySpooledToDisk() throws Exception {
+        byte[] content = bytes(10000);
+        ReplayableInputStream stream = new ReplayableInputStream(new ByteArrayInputStream(content), 1024);
+        readAll(stream);
+        InputStream replay = stream.replay();
+        Assert.assertFalse(replay instanceof ByteArrayInputStream);
+        Assert.assertTrue(Arrays.equals(content, readAll(replay)));
+        replay.close();
+    }
+
+    @Test
+    public void testSpoolFileRemovedOnClose() throws Exception {
+        int spooled = countSpoolFiles();
+        ReplayableInputStream stream = new ReplayableInputStream(new ByteArrayInputStream(bytes(10000)), 1024);
+        readAll(stream);
+        Assert.assertEquals(spooled + 1, countSpoolFiles());
+        InputStream replay = stream.replay();
+        readAll(replay);
+        replay.close();
+        Assert.assertEquals(spooled, countSpoolFiles());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testReplayOnce() throws Exception {
+        ReplayableInputStream stream = new ReplayableInputStream(new ByteArrayInputStream(bytes(10)));
+        stream.replay();
+        stream.replay();
+    }
+
+    @Test
+    public void testReaderReplay() throws Exception {
+        ReplayableReader reader = new ReplayableReader(new StringReader("hello replay"));
+        char[] buf = new char[5];
+        Assert.assertEquals(5, reader.read(buf, 0, 5));
+        Assert.assertEquals("hello", new String(buf));
+        StringBuilder replayed = new StringBuilder();
+        Reader replay = reader.replay();
+        int c;
+        while ((c = replay.read()) != -1) {
+            replayed.append((char)c);
+        }
+        Assert.assertEquals("hello replay", replayed.toString());
+    }
+
+    @Test
+    public void testReaderReplaySpooledToDisk() throws Exception {
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 10000; i++) {
+            content.append((char)('\u00e0' + i % 32));
+        }
+        int spooled = countSpoolFiles();
+        ReplayableReader reader = new ReplayableReader(new StringReader(content.toString()), 1024);
+        Assert.assertEquals(100, reader.skip(100));
+        Assert.assertEquals(spooled, countSpoolFiles());
+        Reader replay = reader.replay();
+        Assert.assertFalse(replay instanceof CharArrayReader);
+        Assert.assertEquals(content.toString(), readAll(replay));
+        replay.close();
+        Assert.assertEquals(spooled, countSpoolFiles());
+    }
+
+    @Test
+    public void testSkipNegative() throws Exception {
+        ReplayableInputStream stream = new ReplayableInputStream(new ByteArrayInputStream(bytes(10)));
+        Assert.assertEquals(0, stream.skip(-1));
+        Assert.assertEquals(0, stream.read());
+        ReplayableReader reader = new ReplayableReader(new StringReader("abc"));
+        Assert.assertEquals(0, reader.skip(-1));
+        Assert.assertEquals('a', reader.read());
+    }
+
+    private static int countSpoolFiles() {
+        String[] names = new File(System.getProperty("java.io.tmpdir")).list(new FilenameFilter() {
+            public boolean accept(File dir, String name) {
+                return name.startsWith("switchyard-replay");
+            }
+        });
+        return names != null ? names.length : 0;
+    }
+
+    private static byte[] bytes(int size) {
+        byte[] bytes = new byte[size];
+        for (int i = 0; i < size; i++) {
+            bytes[i] = (byte)i;
+        }
+        return bytes;
+    }
+
+    private static String readAll(Reader in) throws IOException {
+        StringBuilder out = new StringBuilder();
+        char[] buf = new char[512];
+        int n;
+        while ((n = in.read(buf)) != -1) {
+            out.append(buf, 0, n);
+        }
+        return out.toString();
+    }
+
+    private static byte[] readAll(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buf = new byte[512];
+        int n;
+        while ((n = in.read(buf)) != -1) {
+            out.write(buf, 0, n);
+        }
+        return out.toByteArray();
+    }
+}
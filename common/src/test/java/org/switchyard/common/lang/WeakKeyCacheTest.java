@@ -0,0 +1,52 @@
+/* 
+ * JBoss, Home of Professional Open Source 
+ * Copyright 2011 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @author tags. All rights reserved. 
+ * See the copyright.txt in the distribution for a 
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use, 
+ * modify, copy, or redistribute it subject to the terms and conditions 
+ * of the GNU Lesser General Public License, v. 2.1. 
+ * This program is distributed in the hope that it will be useful, but WITHOUT A 
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A 
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details. 
+ * You should have received a copy of the GNU Lesser General Public License, 
+ * v.2.1 along with this distribution; if not, write to the Free Software 
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, 
+ * MA  02110-1301, USA.
+ */
+package org.switchyard.common.lang;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for {@link WeakKeyCache}.
+ */
+public class WeakKeyCacheTest {
+
+    @Test
+    public void testPutAndGet() {
+        WeakKeyCache<Object, String> cache = new WeakKeyCache<Object, String>();
+        Object key = new Object();
+        Assert.assertNull(cache.get(key));
+        Assert.assertEquals("a", cache.putIfAbsent(key, "a"));
+        Assert.assertEquals("a", cache.putIfAbsent(key, "b"));
+        Assert.assertEquals("a", cache.get(key));
+        cache.put(key, "c");
+        Assert.assertEquals("c", cache.get(key));
+        cache.clear();
+        Assert.assertNull(cache.get(key));
+    }
+
+    @Test
+    public void testIdentityKeys() {
+        WeakKeyCache<String, String> cache = new WeakKeyCache<String, String>();
+        String key = new String("key");
+        cache.put(key, "value");
+        // an equal but distinct key is a different entry
+        Assert.assertNull(cache.get(new String("key")));
+        Assert.assertEquals("value", cache.get(key));
+    }
+}
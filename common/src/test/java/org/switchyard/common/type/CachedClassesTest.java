@@ -0,0 +1,118 @@
+/* 
+ * JBoss, Home of Professional Open Source 
+ * Copyright 2011 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @author tags. All rights reserved. 
+ * See the copyright.txt in the distribution for a 
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use, 
+ * modify, copy, or redistribute it subject to the terms and conditions 
+ * of the GNU Lesser General Public License, v. 2.1. 
+ * This program is distributed in the hope that it will be useful, but WITHOUT A 
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A 
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details. 
+ * You should have received a copy of the GNU Lesser General Public License, 
+ * v.2.1 along with this distribution; if not, write to the Free Software 
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, 
+ * MA  02110-1301, USA.
+ */
+
+package org.switchyard.common.type;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for {@link CachedClasses}.
+ */
+public class CachedClassesTest {
+
+    private static final String PAYLOAD = Payload.class.getName();
+
+    @Test
+    public void testForName() {
+        Assert.assertSame(Payload.class, CachedClasses.forName(PAYLOAD));
+        Assert.assertSame(Payload.class, CachedClasses.forName(PAYLOAD));
+    }
+
+    @Test
+    public void testNotFound() {
+        Assert.assertNull(CachedClasses.forName("org.switchyard.DoesNotExist"));
+        Assert.assertNull(CachedClasses.forName("org.switchyard.DoesNotExist"));
+    }
+
+    @Test
+    public void testPerContextClassLoader() {
+        // warm the cache under the default context loader first
+        Assert.assertSame(Payload.class, CachedClasses.forName(PAYLOAD));
+
+        Thread thread = Thread.currentThread();
+        ClassLoader original = thread.getContextClassLoader();
+        ClassLoader isolated = new IsolatingClassLoader(getClass().getClassLoader());
+        thread.setContextClassLoader(isolated);
+        try {
+            Class<?> copy = CachedClasses.forName(PAYLOAD);
+            Assert.assertNotSame(Payload.class, copy);
+            Assert.assertSame(isolated, copy.getClassLoader());
+            Assert.assertSame(copy, CachedClasses.forName(PAYLOAD));
+        } finally {
+            thread.setContextClassLoader(original);
+        }
+        Assert.assertSame(Payload.class, CachedClasses.forName(PAYLOAD));
+    }
+
+    /**
+     * Loaded by the test's ClassLoader and redefined by IsolatingClassLoader.
+     */
+    public static class Payload {
+    }
+
+    // Defines its own copy of Payload, as a deployment's ClassLoader would.
+    private static class IsolatingClassLoader extends ClassLoader {
+
+        IsolatingClassLoader(ClassLoader parent) {
+            super(parent);
+        }
+
+        @Override
+        protected synchronized Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            if (!PAYLOAD.equals(name)) {
+                return super.loadClass(name, resolve);
+            }
+            Class<?> c = findLoadedClass(name);
+            if (c == null) {
+                byte[] bytes = readClass(name);
+                c = defineClass(name, bytes, 0, bytes.length);
+            }
+            return c;
+        }
+
+        private byte[] readClass(String name) throws ClassNotFoundException {
+            InputStream in = getParent().getResourceAsStream(name.replace('.', '/') + ".class");
+            if (in == null) {
+                throw new ClassNotFoundException(name);
+            }
+            try {
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                byte[] buf = new byte[4096];
+                int n;
+                while ((n = in.read(buf)) != -1) {
+                    out.write(buf, 0, n);
+                }
+                return out.toByteArray();
+            } catch (IOException ioe) {
+                throw new ClassNotFoundException(name, ioe);
+            } finally {
+                try {
+                    in.close();
+                } catch (IOException ioe) {
+                    ioe.getMessage();
+                }
+            }
+        }
+    }
+}
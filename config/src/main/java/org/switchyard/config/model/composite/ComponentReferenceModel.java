@@ -36,6 +36,9 @@ public interface ComponentReferenceModel extends NamedModel {
     /** The "multiplicity" name. */
     public static final String MULTIPLICITY = "multiplicity";
 
+    /** The "selector" name (in the switchyard namespace). */
+    public static final String SELECTOR = "selector";
+
     /**
      * Gets the parent component model.
      * @return the parent component model
@@ -55,6 +58,20 @@ public interface ComponentReferenceModel extends NamedModel {
      */
     public ComponentReferenceModel setMultiplicity(String multiplicity);
 
+    /**
+     * Gets the selector attribute, which names the strategy used to pick a
+     * provider when several services share the referenced name.
+     * @return the selector attribute
+     */
+    public String getSelector();
+
+    /**
+     * Sets the selector attribute.
+     * @param selector the selector attribute
+     * @return this ComponentReferenceModel (useful for chaining)
+     */
+    public ComponentReferenceModel setSelector(String selector);
+
     /**
      * Gets the child component reference interface model.
      * @return the child component reference interface model
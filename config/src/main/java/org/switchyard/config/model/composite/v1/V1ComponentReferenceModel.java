@@ -30,6 +30,7 @@ import org.switchyard.config.model.composite.ComponentModel;
 import org.switchyard.config.model.composite.ComponentReferenceModel;
 import org.switchyard.config.model.composite.CompositeModel;
 import org.switchyard.config.model.composite.InterfaceModel;
+import org.switchyard.config.model.switchyard.SwitchYardModel;
 
 /**
  * A version 1 ComponentReferenceModel.
@@ -101,6 +102,23 @@ public class V1ComponentReferenceModel extends BaseNamedModel implements Compone
         _interface = interfaze;
         return this;
     }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getSelector() {
+        return getModelAttribute(new QName(SwitchYardModel.DEFAULT_NAMESPACE, ComponentReferenceModel.SELECTOR));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ComponentReferenceModel setSelector(String selector) {
+        setModelAttribute(new QName(SwitchYardModel.DEFAULT_NAMESPACE, ComponentReferenceModel.SELECTOR), selector);
+        return this;
+    }
     
     /**
      * {@inheritDoc}
@@ -213,6 +213,24 @@ public class CompositeModelTests {
         Assert.assertEquals(composite_1, composite_2);
     }
 
+    @Test
+    public void testReferenceSelector() throws Exception {
+        String xml = "<composite xmlns='" + CompositeModel.DEFAULT_NAMESPACE + "'"
+            + " xmlns:sy='urn:switchyard-config:switchyard:1.0' targetNamespace='urn:selector-test:1.0' name='selector'>"
+            + "<component name='SimpleService'>"
+            + "<implementation.composite name='sy:nested'/>"
+            + "<reference name='balanced' sy:selector='roundRobin'/>"
+            + "<reference name='unbalanced'/>"
+            + "</component></composite>";
+        CompositeModel composite = _puller.pull(new StringReader(xml));
+        ComponentModel component = composite.getComponents().get(0);
+        Assert.assertEquals("roundRobin", component.getReferences().get(0).getSelector());
+        Assert.assertNull(component.getReferences().get(1).getSelector());
+        component.getReferences().get(1).setSelector("sticky");
+        Assert.assertEquals("sticky", component.getReferences().get(1).getSelector());
+        composite.assertModelValid();
+    }
+
     @Test
     public void testValidation() throws Exception {
         CompositeModel composite = _puller.pull(COMPLETE_XML, getClass());
@@ -24,7 +24,9 @@ import javax.xml.namespace.QName;
 import org.switchyard.ExchangeHandler;
 import org.switchyard.ServiceDomain;
 import org.switchyard.common.type.Classes;
+import org.switchyard.config.model.domain.DomainModel;
 import org.switchyard.config.model.domain.HandlerModel;
+import org.switchyard.config.model.domain.PropertyModel;
 import org.switchyard.config.model.switchyard.SwitchYardModel;
 import org.switchyard.exception.SwitchYardException;
 import org.switchyard.internal.DefaultServiceRegistry;
@@ -34,6 +36,7 @@ import org.switchyard.internal.LocalExchangeBus;
 import org.switchyard.internal.transform.BaseTransformerRegistry;
 import org.switchyard.internal.validate.BaseValidatorRegistry;
 import org.switchyard.spi.ExchangeBus;
+import org.switchyard.spi.MessageIdGenerator;
 import org.switchyard.spi.ServiceRegistry;
 
 /**
@@ -64,6 +67,10 @@ public class ServiceDomainManager {
      * Registry class name property.
      */
     public static final String REGISTRY_CLASS_NAME = "registryProvider";
+    /**
+     * Message id generator class name property.
+     */
+    public static final String MESSAGE_ID_GENERATOR_CLASS_NAME = "messageIdGenerator";
 
     // Share the same service registry and bus across domains to give visibility 
     // to registered services across application domains
@@ -96,11 +103,23 @@ public class ServiceDomainManager {
         // add appropriate domain config
         if (switchyardConfig != null) {
             addHandlersToDomain(domain, switchyardConfig);
+            setMessageIdGenerator(domain, switchyardConfig);
         }
 
         return domain;
     }
     
+    /**
+     * Destroy a ServiceDomain instance created by this manager, once the 
+     * application it was created for has been undeployed.
+     * @param domain The ServiceDomain instance.
+     */
+    public void destroyDomain(ServiceDomain domain) {
+        if (domain instanceof DomainImpl) {
+            ((DomainImpl)domain).destroy();
+        }
+    }
+    
     /**
      * Return the shared EventManager used for all ServiceDomain instances.
      * @return EventManager instance
@@ -133,4 +152,33 @@ public class ServiceDomainManager {
             }
         }
     }
+    
+    /**
+     * Looks for a message id generator in the domain properties of the 
+     * switchyard config and installs it on the domain.
+     */
+    private void setMessageIdGenerator(DomainImpl domain, SwitchYardModel config) {
+        DomainModel domainConfig = config.getDomain();
+        if (domainConfig == null || domainConfig.getProperties() == null) {
+            return;
+        }
+        PropertyModel property = domainConfig.getProperties().getProperty(MESSAGE_ID_GENERATOR_CLASS_NAME);
+        if (property == null || property.getValue() == null) {
+            return;
+        }
+        String className = property.getValue().trim();
+        Class<?> generatorClass = Classes.forName(className);
+        if (generatorClass == null) {
+            throw new SwitchYardException("Message id generator class not found " + className);
+        }
+        if (!MessageIdGenerator.class.isAssignableFrom(generatorClass)) {
+            throw new SwitchYardException("Message id generator " + className
+                    + " is not an instance of " + MessageIdGenerator.class.getName());
+        }
+        try {
+            domain.setMessageIdGenerator((MessageIdGenerator)generatorClass.newInstance());
+        } catch (Exception ex) {
+            throw new SwitchYardException("Failed to initialize message id generator class " + className, ex);
+        }
+    }
 }
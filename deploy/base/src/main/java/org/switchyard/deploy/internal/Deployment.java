@@ -52,6 +52,8 @@ import org.switchyard.deploy.event.ApplicationUndeployedEvent;
 import org.switchyard.exception.SwitchYardException;
 import org.switchyard.extensions.wsdl.WSDLReaderException;
 import org.switchyard.extensions.wsdl.WSDLService;
+import org.switchyard.internal.DomainImpl;
+import org.switchyard.internal.selector.ServiceSelectors;
 import org.switchyard.metadata.InOnlyOperation;
 import org.switchyard.metadata.InOnlyService;
 import org.switchyard.metadata.InOutOperation;
@@ -382,6 +384,10 @@ public class Deployment extends AbstractDeployment {
                 ServiceInterface refIntf = getComponentReferenceInterface(reference);
                 deployAutoRegisteredTransformers(refIntf);
                 references.add(getDomain().registerServiceReference(reference.getQName(), refIntf));
+                if (reference.getSelector() != null && getDomain() instanceof DomainImpl) {
+                    ((DomainImpl)getDomain()).setServiceSelector(
+                            reference.getQName(), ServiceSelectors.create(reference.getSelector()));
+                }
             }
             
             // register a service for each one declared in the component
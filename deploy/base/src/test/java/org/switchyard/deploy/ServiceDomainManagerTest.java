@@ -26,6 +26,9 @@ import org.junit.Test;
 import org.switchyard.ServiceDomain;
 import org.switchyard.config.model.ModelPuller;
 import org.switchyard.config.model.switchyard.SwitchYardModel;
+import org.switchyard.event.ServiceRegistrationEvent;
+import org.switchyard.internal.DomainImpl;
+import org.switchyard.internal.UUIDMessageIdGenerator;
 
 /**
  * @author <a href="mailto:tom.fennelly@gmail.com">tom.fennelly@gmail.com</a>
@@ -42,4 +45,26 @@ public class ServiceDomainManagerTest {
         
         Assert.assertEquals(8, domain.getHandlerChain().getHandlers().size());
     }
+
+    @Test
+    public void testMessageIdGeneratorProperty() throws Exception {
+        SwitchYardModel switchyard = new ModelPuller<SwitchYardModel>().pull(
+                "/switchyard-config-messageid-01.xml", getClass());
+        
+        DomainImpl domain = (DomainImpl)new ServiceDomainManager().createDomain(
+                new QName("test"), switchyard);
+        
+        Assert.assertTrue(domain.getMessageIdGenerator() instanceof UUIDMessageIdGenerator);
+    }
+
+    @Test
+    public void testDestroyDomain() throws Exception {
+        ServiceDomainManager manager = new ServiceDomainManager();
+        int observers = manager.getEventManager().getObserversForEvent(ServiceRegistrationEvent.class).size();
+        
+        ServiceDomain domain = manager.createDomain();
+        Assert.assertTrue(manager.getEventManager().getObserversForEvent(ServiceRegistrationEvent.class).size() > observers);
+        manager.destroyDomain(domain);
+        Assert.assertEquals(observers, manager.getEventManager().getObserversForEvent(ServiceRegistrationEvent.class).size());
+    }
 }
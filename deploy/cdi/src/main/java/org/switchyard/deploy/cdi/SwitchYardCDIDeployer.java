@@ -46,6 +46,7 @@ import org.switchyard.exception.SwitchYardException;
 public class SwitchYardCDIDeployer implements Extension {
 
     private Deployment _deployment;
+    private ServiceDomainManager _domainManager = new ServiceDomainManager();
 
     /**
      * {@link AfterDeploymentValidation} CDI event observer.
@@ -72,7 +73,7 @@ public class SwitchYardCDIDeployer implements Extension {
                     ioEx.getMessage(); // keeps checkstyle happy
                 }
             }
-            ServiceDomain domain = new ServiceDomainManager().createDomain();
+            ServiceDomain domain = _domainManager.createDomain();
             _deployment.init(domain, ActivatorLoader.createActivators(domain));
             _deployment.start();
         }
@@ -87,6 +88,7 @@ public class SwitchYardCDIDeployer implements Extension {
         if (_deployment != null) {
             _deployment.stop();
             _deployment.destroy();
+            _domainManager.destroyDomain(_deployment.getDomain());
         }
     }
 }
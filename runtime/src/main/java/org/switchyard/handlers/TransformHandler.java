@@ -20,16 +20,23 @@
 package org.switchyard.handlers;
 
 import java.util.Arrays;
+import java.util.EventObject;
 import java.util.HashSet;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.xml.namespace.QName;
 
 import org.apache.log4j.Logger;
 import org.switchyard.BaseHandler;
 import org.switchyard.Exchange;
+import org.switchyard.ExchangePhase;
 import org.switchyard.HandlerException;
+import org.switchyard.Property;
 import org.switchyard.Scope;
+import org.switchyard.event.EventObserver;
 import org.switchyard.internal.transform.BaseTransformerRegistry;
+import org.switchyard.internal.transform.TransformPlan;
+import org.switchyard.metadata.ExchangeContract;
 import org.switchyard.transform.TransformSequence;
 import org.switchyard.transform.Transformer;
 import org.switchyard.transform.TransformerRegistry;
@@ -43,11 +50,15 @@ import org.switchyard.transform.TransformerRegistry;
  * constructor.
  *
  */
-public class TransformHandler extends BaseHandler {
+public class TransformHandler extends BaseHandler implements EventObserver {
 
     private static Logger _logger = Logger.getLogger(TransformHandler.class);
 
     private TransformerRegistry _registry;
+    // compiled plans per (from, to) pair of contract types
+    private final ConcurrentHashMap<PlanKey, TransformPlan> _plans =
+        new ConcurrentHashMap<PlanKey, TransformPlan>();
+    private volatile int _version;
 
     /**
      * Create a new TransformHandler.  The specified TransformerRegistry will
@@ -73,28 +84,39 @@ public class TransformHandler extends BaseHandler {
     }
 
     /**
-     * Transform the current message on the exchange.
+     * Transform the current message on the exchange.  A TransformSequence
+     * associated with the exchange takes precedence; otherwise the message is
+     * transformed between the types declared on the exchange contract.
      * @param exchange exchange
      * @throws HandlerException handler exception
      */
     @Override
     public void handleMessage(Exchange exchange) throws HandlerException {
-        // Apply transforms to the message...
-        TransformSequence.applySequence(exchange, _registry);
-        if (!TransformSequence.assertTransformsApplied(exchange)) {
-            QName actualPayloadType = TransformSequence.getCurrentMessageType(exchange);
-            QName expectedPayloadType = TransformSequence.getTargetMessageType(exchange);
-
+        TransformPlan plan = getPlan(exchange);
+        QName actualPayloadType;
+        QName expectedPayloadType;
+        if (plan != null) {
+            actualPayloadType = plan.apply(exchange.getMessage(), getContentType(exchange));
+            expectedPayloadType = plan.getTo();
+        } else {
+            // Apply transforms to the message...
+            TransformSequence.applySequence(exchange, _registry);
+            actualPayloadType = TransformSequence.getCurrentMessageType(exchange);
+            expectedPayloadType = TransformSequence.getTargetMessageType(exchange);
+        }
+        
+        if (actualPayloadType != null && expectedPayloadType != null && !actualPayloadType.equals(expectedPayloadType)) {
             throw new HandlerException("Transformations not applied.  Required payload type of '" + expectedPayloadType + "'.  Actual payload type is '" + actualPayloadType + "'.  You must define and register a Transformer to transform between these types.");
         }
 
         // Replace the CONTENT_TYPE property to indicate current content type after transform
-        exchange.getContext().setProperty(Exchange.CONTENT_TYPE, TransformSequence.getCurrentMessageType(exchange), Scope.activeScope(exchange));
+        exchange.getContext().setProperty(Exchange.CONTENT_TYPE, actualPayloadType, Scope.activeScope(exchange));
     }
 
     @Override
     public void handleFault(Exchange exchange) {
-        // Apply transforms to the fault...
+        // Faults are only transformed by an associated TransformSequence, 
+        // never by the contract's output types
         TransformSequence.applySequence(exchange, _registry);
         if (!TransformSequence.assertTransformsApplied(exchange)) {
             QName actualPayloadType = TransformSequence.getCurrentMessageType(exchange);
@@ -108,5 +130,80 @@ public class TransformHandler extends BaseHandler {
         // Replace the CONTENT_TYPE property to indicate current content type after transform
         exchange.getContext().setProperty(Exchange.CONTENT_TYPE, TransformSequence.getCurrentMessageType(exchange), Scope.activeScope(exchange));
     }
-}
 
+    /**
+     * Drops compiled transform plans.  The runtime registers the handler for 
+     * TransformerAddedEvent and TransformerRemovedEvent, so that plans are 
+     * recompiled against the current registry.
+     * @param event registry change event
+     */
+    @Override
+    public void notify(EventObject event) {
+        _version++;
+        _plans.clear();
+    }
+
+    private TransformPlan getPlan(Exchange exchange) {
+        if (_registry == null || exchange.getContext().getProperty(
+                TransformSequence.class.getName(), Scope.activeScope(exchange)) != null) {
+            return null;
+        }
+        
+        ExchangeContract contract = exchange.getContract();
+        QName from;
+        QName to;
+        if (exchange.getPhase() == ExchangePhase.OUT) {
+            from = contract.getServiceOperation().getOutputType();
+            to = contract.getInvokerInvocationMetaData().getOutputType();
+        } else {
+            from = contract.getInvokerInvocationMetaData().getInputType();
+            to = contract.getServiceOperation().getInputType();
+        }
+        if (from == null || to == null) {
+            return null;
+        }
+        
+        PlanKey key = new PlanKey(from, to);
+        TransformPlan plan = _plans.get(key);
+        if (plan == null) {
+            int version = _version;
+            plan = TransformPlan.compile(from, to, _registry);
+            _plans.put(key, plan);
+            if (version != _version) {
+                // registry changed while compiling
+                _plans.remove(key);
+            }
+        }
+        return plan;
+    }
+
+    private QName getContentType(Exchange exchange) {
+        Property contentType = exchange.getContext().getProperty(
+                Exchange.CONTENT_TYPE, Scope.activeScope(exchange));
+        return contentType != null ? (QName)contentType.getValue() : null;
+    }
+
+    private static final class PlanKey {
+        private final QName _from;
+        private final QName _to;
+
+        PlanKey(QName from, QName to) {
+            _from = from;
+            _to = to;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof PlanKey)) {
+                return false;
+            }
+            PlanKey key = (PlanKey)obj;
+            return _from.equals(key._from) && _to.equals(key._to);
+        }
+
+        @Override
+        public int hashCode() {
+            return _from.hashCode() * 31 + _to.hashCode();
+        }
+    }
+}
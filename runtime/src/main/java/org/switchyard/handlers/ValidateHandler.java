@@ -42,7 +42,11 @@ import org.switchyard.validate.ValidatorRegistry;
  */
 public class ValidateHandler extends BaseHandler {
 
-    private static final String KEY_VALIDATED_TYPE = "org.switchyard.validatedType";
+    /**
+     * Name of the context property holding the type the message content was
+     * last validated as.
+     */
+    public static final String KEY_VALIDATED_TYPE = "org.switchyard.validatedType";
     
     private static Logger _logger = Logger.getLogger(ValidateHandler.class);
 
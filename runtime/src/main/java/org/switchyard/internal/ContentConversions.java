@@ -0,0 +1,135 @@
+/* 
+ * JBoss, Home of Professional Open Source 
+ * Copyright 2011 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @author tags. All rights reserved. 
+ * See the copyright.txt in the distribution for a 
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use, 
+ * modify, copy, or redistribute it subject to the terms and conditions 
+ * of the GNU Lesser General Public License, v. 2.1. 
+ * This program is distributed in the hope that it will be useful, but WITHOUT A 
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A 
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details. 
+ * You should have received a copy of the GNU Lesser General Public License, 
+ * v.2.1 along with this distribution; if not, write to the Free Software 
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, 
+ * MA  02110-1301, USA.
+ */
+
+package org.switchyard.internal;
+
+import java.lang.ref.WeakReference;
+
+import javax.xml.namespace.QName;
+
+import org.switchyard.common.lang.WeakKeyCache;
+import org.switchyard.internal.transform.BaseTransformerRegistry;
+import org.switchyard.metadata.java.JavaService;
+import org.switchyard.transform.Transformer;
+import org.switchyard.transform.TransformerRegistry;
+
+/**
+ * Per (source class, target class) cache of the message types and transformer
+ * used by {@link DefaultMessage#getContent(Class)}.
+ * <p/>
+ * Both classes and the registries are weakly referenced, and cached entries
+ * only hold QNames and weak references to transformers, so an entry never 
+ * keeps a deployment's classloader reachable.  Lookups take no lock.
+ */
+final class ContentConversions {
+
+    // source class -> target class -> conversion
+    private static final WeakKeyCache<Class<?>, WeakKeyCache<Class<?>, Conversion>> CONVERSIONS =
+        new WeakKeyCache<Class<?>, WeakKeyCache<Class<?>, Conversion>>();
+
+    private ContentConversions() {
+    }
+
+    /**
+     * Returns the cached conversion between two Java types, creating it on
+     * first use.
+     * @param from source type
+     * @param to target type
+     * @return conversion, never null
+     */
+    static Conversion get(Class<?> from, Class<?> to) {
+        WeakKeyCache<Class<?>, Conversion> targets = CONVERSIONS.get(from);
+        if (targets == null) {
+            targets = CONVERSIONS.putIfAbsent(from, new WeakKeyCache<Class<?>, Conversion>());
+        }
+        Conversion conversion = targets.get(to);
+        if (conversion == null) {
+            conversion = targets.putIfAbsent(to, new Conversion(
+                    JavaService.toMessageType(from), JavaService.toMessageType(to)));
+        }
+        return conversion;
+    }
+
+    /**
+     * Message types of a Java type pair, plus the transformer last resolved
+     * for them from each registry.
+     */
+    static final class Conversion {
+        private final QName _from;
+        private final QName _to;
+        private final WeakKeyCache<TransformerRegistry, Resolution> _resolutions =
+            new WeakKeyCache<TransformerRegistry, Resolution>();
+
+        private Conversion(QName from, QName to) {
+            _from = from;
+            _to = to;
+        }
+
+        /**
+         * @return source message type
+         */
+        QName getFrom() {
+            return _from;
+        }
+
+        /**
+         * @return target message type
+         */
+        QName getTo() {
+            return _to;
+        }
+
+        /**
+         * Returns the transformer for this conversion from the supplied registry.
+         * Lookups against a {@link BaseTransformerRegistry} are reused until
+         * its registrations change; other registries are asked every time.
+         * @param registry transformer registry
+         * @return transformer, or null if the registry has none
+         */
+        Transformer<?, ?> getTransformer(TransformerRegistry registry) {
+            if (!(registry instanceof BaseTransformerRegistry)) {
+                return registry.getTransformer(_from, _to);
+            }
+            int version = ((BaseTransformerRegistry) registry).getVersion();
+            Resolution resolution = _resolutions.get(registry);
+            if (resolution != null && resolution._version == version) {
+                Transformer<?, ?> transformer = resolution._transformer.get();
+                if (transformer != null) {
+                    return transformer;
+                }
+            }
+            Transformer<?, ?> transformer = registry.getTransformer(_from, _to);
+            if (transformer != null) {
+                _resolutions.put(registry, new Resolution(version, transformer));
+            }
+            return transformer;
+        }
+    }
+
+    // A transformer lookup result, tagged with the registry version it came from.
+    private static final class Resolution {
+        private final int _version;
+        private final WeakReference<Transformer<?, ?>> _transformer;
+
+        Resolution(int version, Transformer<?, ?> transformer) {
+            _version = version;
+            _transformer = new WeakReference<Transformer<?, ?>>(transformer);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+/* 
+ * JBoss, Home of Professional Open Source 
+ * Copyright 2011 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @author tags. All rights reserved. 
+ * See the copyright.txt in the distribution for a 
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use, 
+ * modify, copy, or redistribute it subject to the terms and conditions 
+ * of the GNU Lesser General Public License, v. 2.1. 
+ * This program is distributed in the hope that it will be useful, but WITHOUT A 
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A 
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details. 
+ * You should have received a copy of the GNU Lesser General Public License, 
+ * v.2.1 along with this distribution; if not, write to the Free Software 
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, 
+ * MA  02110-1301, USA.
+ */
+package org.switchyard.internal;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.switchyard.spi.MessageIdGenerator;
+
+/**
+ * Default message id generator.  Ids are a random node prefix, drawn once 
+ * per generator, followed by a counter, e.g. "3l9x0q2kq1ztf5c4x0hs1wq1y-1f".
+ * This avoids a SecureRandom draw for every message while keeping ids 
+ * unique across nodes.
+ */
+public class CounterMessageIdGenerator implements MessageIdGenerator {
+    
+    private final String _prefix;
+    private final AtomicLong _counter = new AtomicLong();
+    
+    /**
+     * Creates a new generator with a random node prefix.
+     */
+    public CounterMessageIdGenerator() {
+        UUID node = UUID.randomUUID();
+        _prefix = Long.toString(node.getMostSignificantBits() >>> 1, Character.MAX_RADIX)
+            + Long.toString(node.getLeastSignificantBits() >>> 1, Character.MAX_RADIX) + "-";
+    }
+    
+    /**
+     * Creates a new generator with the specified node prefix.  The prefix
+     * must be unique to this generator across all communicating nodes.
+     * @param prefix node prefix
+     */
+    public CounterMessageIdGenerator(String prefix) {
+        _prefix = prefix;
+    }
+
+    @Override
+    public String nextId() {
+        return _prefix.concat(Long.toString(_counter.incrementAndGet(), Character.MAX_RADIX));
+    }
+}
@@ -19,8 +19,9 @@
 
 package org.switchyard.internal;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
-import java.util.LinkedList;
 import java.util.List;
 
 import javax.xml.namespace.QName;
@@ -38,11 +39,15 @@ import org.switchyard.metadata.java.JavaService;
 import org.switchyard.transform.TransformSequence;
 
 /**
- * Default handler chain.
+ * Default handler chain.  The chain is copy-on-write: every mutation publishes
+ * a new immutable array of handlers, so handling an exchange reads the current
+ * snapshot without locking or copying.
  */
 public class DefaultHandlerChain implements HandlerChain {
     private static Logger _logger = Logger.getLogger(DefaultHandlerChain.class);
-    private final LinkedList<HandlerRef> _chain = new LinkedList<HandlerRef>();
+    private static final HandlerRef[] EMPTY_CHAIN = new HandlerRef[0];
+    // never modified once published; mutators replace the whole array
+    private volatile HandlerRef[] _chain = EMPTY_CHAIN;
     
     /**
      * Create a new handler chain with no handlers in it.
@@ -58,16 +63,19 @@ public class DefaultHandlerChain implements HandlerChain {
      * is not intended for external use - it's used by the clone() method.
      * @param handlers
      */
-    private DefaultHandlerChain(List<HandlerRef> handlers) {
-        _chain.addAll(handlers);
+    private DefaultHandlerChain(HandlerRef[] handlers) {
+        _chain = handlers;
     }
 
     @Override
     public synchronized void addFirst(String handlerName,
             ExchangeHandler handler) {
         HandlerRef handlerRef = new HandlerRef(handlerName, handler);
+        HandlerRef[] chain = new HandlerRef[_chain.length + 1];
 
-        _chain.addFirst(handlerRef);
+        chain[0] = handlerRef;
+        System.arraycopy(_chain, 0, chain, 1, _chain.length);
+        _chain = chain;
         if (_logger.isDebugEnabled()) {
             _logger.debug("Added ExchangeHandler instance at start of Handler Chain: " + handlerRef);
         }
@@ -77,8 +85,10 @@ public class DefaultHandlerChain implements HandlerChain {
     public synchronized void addLast(String handlerName,
             ExchangeHandler handler) {
         HandlerRef handlerRef = new HandlerRef(handlerName, handler);
+        HandlerRef[] chain = Arrays.copyOf(_chain, _chain.length + 1);
 
-        _chain.addLast(handlerRef);
+        chain[_chain.length] = handlerRef;
+        _chain = chain;
         if (_logger.isDebugEnabled()) {
             _logger.debug("Added ExchangeHandler instance at end of Handler Chain: " + handlerRef);
         }
@@ -86,10 +96,11 @@ public class DefaultHandlerChain implements HandlerChain {
     
     @Override
     public synchronized boolean replace(String handlerName, ExchangeHandler handler) {
-        for (int i = 0; i < _chain.size(); i++) {
-            if (_chain.get(i).getName().equals(handlerName)) {
-                _chain.remove(i);
-                _chain.add(i, new HandlerRef(handlerName, handler));
+        for (int i = 0; i < _chain.length; i++) {
+            if (_chain[i].getName().equals(handlerName)) {
+                HandlerRef[] chain = _chain.clone();
+                chain[i] = new HandlerRef(handlerName, handler);
+                _chain = chain;
                 return true;
             }
         }
@@ -100,17 +111,18 @@ public class DefaultHandlerChain implements HandlerChain {
 
     @Override
     public synchronized ExchangeHandler remove(String handlerName) {
-        ExchangeHandler handler = null;
-
-        for (HandlerRef ref : _chain) {
-            if (ref.getName().equals(handlerName)) {
-                handler = ref.getHandler();
-                _chain.remove(ref);
-                break;
+        for (int i = 0; i < _chain.length; i++) {
+            if (_chain[i].getName().equals(handlerName)) {
+                HandlerRef[] chain = new HandlerRef[_chain.length - 1];
+                System.arraycopy(_chain, 0, chain, 0, i);
+                System.arraycopy(_chain, i + 1, chain, i, chain.length - i);
+                ExchangeHandler handler = _chain[i].getHandler();
+                _chain = chain;
+                return handler;
             }
         }
 
-        return handler;
+        return null;
     }
 
     @Override
@@ -124,7 +136,7 @@ public class DefaultHandlerChain implements HandlerChain {
 
     @Override
     public void handleFault(Exchange exchange) {
-        for (HandlerRef ref : listHandlers()) {
+        for (HandlerRef ref : _chain) {
             try {
                 if (_logger.isDebugEnabled()) {
                     _logger.debug("Executing Fault ExchangeHandler (" + ref + ") on message Exchange instance (" + System.identityHashCode(exchange) + ").");
@@ -140,7 +152,7 @@ public class DefaultHandlerChain implements HandlerChain {
     public void handleMessage(Exchange exchange) {
         HandlerRef handlerRef = null;
         try {
-            for (HandlerRef ref : listHandlers()) {
+            for (HandlerRef ref : _chain) {
                 handlerRef = ref;
                 if (_logger.isDebugEnabled()) {
                     _logger.debug("Executing ExchangeHandler (" + ref + ") on message Exchange instance (" + System.identityHashCode(exchange) + ").");
@@ -170,8 +182,9 @@ public class DefaultHandlerChain implements HandlerChain {
     
     @Override
     public List<ExchangeHandler> getHandlers() {
-        List<ExchangeHandler> handlers = new LinkedList<ExchangeHandler>();
-        for (HandlerRef hr : listHandlers()) {
+        HandlerRef[] chain = _chain;
+        List<ExchangeHandler> handlers = new ArrayList<ExchangeHandler>(chain.length);
+        for (HandlerRef hr : chain) {
             handlers.add(hr.getHandler());
         }
         return Collections.unmodifiableList(handlers);
@@ -197,23 +210,37 @@ public class DefaultHandlerChain implements HandlerChain {
     }
     
     /**
-     * Create a copy of the default handler chain.
+     * Create a copy of the default handler chain.  The copy shares the 
+     * current handler snapshot, so this is cheap regardless of chain length.
      * @return copy of the default chain.
      */
     public DefaultHandlerChain copy() {
+        HandlerRef[] chain = _chain;
         if (_logger.isDebugEnabled()) {
-            _logger.debug("Cloning DefaultHandlerChain from a its list of Handlers: " + listHandlers());
+            _logger.debug("Cloning DefaultHandlerChain from a its list of Handlers: " + Arrays.toString(chain));
         }
-        return new DefaultHandlerChain(listHandlers());
+        return new DefaultHandlerChain(chain);
     }
 
-    @Override
-    public String toString() {
-        return _chain.toString();
+    /**
+     * Create a copy of this chain with one additional handler at the end.  The 
+     * handler references of this chain are shared rather than rebuilt, so the 
+     * cost is a single array copy; this is how reply chains are derived from 
+     * the domain's handler chain for every exchange.
+     * @param handlerName name of the handler to append
+     * @param handler handler to append
+     * @return new chain containing this chain's handlers followed by handler
+     */
+    public DefaultHandlerChain copyAndAddLast(String handlerName, ExchangeHandler handler) {
+        HandlerRef[] template = _chain;
+        HandlerRef[] chain = Arrays.copyOf(template, template.length + 1);
+        chain[template.length] = new HandlerRef(handlerName, handler);
+        return new DefaultHandlerChain(chain);
     }
 
-    private synchronized List<HandlerRef> listHandlers() {
-        return new LinkedList<HandlerRef>(_chain);
+    @Override
+    public String toString() {
+        return Arrays.toString(_chain);
     }
 
     // sweet little struct
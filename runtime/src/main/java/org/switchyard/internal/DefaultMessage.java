@@ -23,15 +23,12 @@ import java.util.HashMap;
 import java.util.Map;
 
 import javax.activation.DataSource;
-import javax.xml.namespace.QName;
-
 import org.switchyard.Message;
 import org.switchyard.exception.SwitchYardException;
 import org.switchyard.io.Serialization.AccessType;
 import org.switchyard.io.Serialization.CoverageType;
 import org.switchyard.io.Serialization.Exclude;
 import org.switchyard.io.Serialization.Strategy;
-import org.switchyard.metadata.java.JavaService;
 import org.switchyard.transform.Transformer;
 import org.switchyard.transform.TransformerRegistry;
 
@@ -106,11 +103,10 @@ public class DefaultMessage implements Message {
             throw new SwitchYardException("Cannot convert from '" + _content.getClass().getName() + "' to '" + type.getName() + "'.  No TransformRegistry available.");
         }
 
-        QName fromType = JavaService.toMessageType(_content.getClass());
-        QName toType = JavaService.toMessageType(type);
-        Transformer transformer = _transformerRegistry.getTransformer(fromType, toType);
+        ContentConversions.Conversion conversion = ContentConversions.get(_content.getClass(), type);
+        Transformer transformer = conversion.getTransformer(_transformerRegistry);
         if (transformer == null) {
-            throw new SwitchYardException("Cannot convert from '" + _content.getClass().getName() + "' to '" + type.getName() + "'.  No registered Transformer available for transforming from '" + fromType + "' to '" + toType + "'.  A Transformer must be registered.");
+            throw new SwitchYardException("Cannot convert from '" + _content.getClass().getName() + "' to '" + type.getName() + "'.  No registered Transformer available for transforming from '" + conversion.getFrom() + "' to '" + conversion.getTo() + "'.  A Transformer must be registered.");
         }
 
         Object transformedContent = transformer.transform(_content);
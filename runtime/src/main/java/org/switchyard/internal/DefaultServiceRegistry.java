@@ -19,12 +19,10 @@
 
 package org.switchyard.internal;
 
+import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashMap;
-import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.xml.namespace.QName;
 
@@ -36,60 +34,57 @@ import org.switchyard.spi.ServiceRegistry;
 
 /**
  * Standalone implementation of ServiceRegistry.
+ * <br><br>
+ * Lookups are lock-free.  Each service name (and each domain name) maps to an
+ * immutable snapshot of its providers, which registration and unregistration 
+ * replace rather than modify.  The lists returned by this registry are those
+ * snapshots, so they are shared and cannot be modified.
  */
 public class DefaultServiceRegistry implements ServiceRegistry {
 
     private static Logger _logger = Logger.getLogger(DefaultServiceRegistry.class);
 
-    private final Map<QName, List<Service>> _services =
-        new HashMap<QName, List<Service>>();
+    private final ConcurrentHashMap<QName, List<Service>> _services =
+        new ConcurrentHashMap<QName, List<Service>>();
+    private final ConcurrentHashMap<QName, List<Service>> _domainServices =
+        new ConcurrentHashMap<QName, List<Service>>();
+    private volatile List<Service> _allServices = Collections.emptyList();
 
     @Override
     public List<Service> getServicesForDomain(QName domainName) {
-        List<Service> domainServices = getServices();
-        // Using an explicit iterator because we are removing elements
-        for (Iterator<Service> i = domainServices.iterator(); i.hasNext();) {
-            Service sr = (Service) i.next();
-            // prune services that do not match the specified domain
-            if (!sr.getDomain().getName().equals(domainName)) {
-                i.remove();
-            }
+        List<Service> services = _domainServices.get(domainName);
+        if (services == null) {
+            return Collections.emptyList();
         }
 
-        return domainServices;
+        return services;
     }
 
     @Override
-    public synchronized List<Service> getServices() {
-        LinkedList<Service> serviceList = new LinkedList<Service>();
-        for (List<Service> services : _services.values()) {
-            serviceList.addAll(services);
-        }
-
-        return serviceList;
+    public List<Service> getServices() {
+        return _allServices;
     }
 
     @Override
-    public synchronized List<Service> getServices(QName serviceName) {
+    public List<Service> getServices(QName serviceName) {
         List<Service> services = _services.get(serviceName);
         if (services == null) {
             return Collections.emptyList();
         }
 
-        return new LinkedList<Service>(services);
+        return services;
     }
 
     @Override
     public synchronized Service registerService(
             Service service, Dispatcher endpoint, ServiceDomain domain) {
 
-        List<Service> serviceList = _services.get(service.getName());
-        if (serviceList == null) {
-            serviceList = new LinkedList<Service>();
-             _services.put(service.getName(), serviceList);
+        add(_services, service.getName(), service);
+        QName domainName = getDomainName(service);
+        if (domainName != null) {
+            add(_domainServices, domainName, service);
         }
-
-        serviceList.add(service);
+        _allServices = add(_allServices, service);
 
         if (_logger.isDebugEnabled()) {
             _logger.debug("Registered Service '" + service.getName() + "' to ServiceDomain '" + domain.getName() + "'.");
@@ -100,14 +95,65 @@ public class DefaultServiceRegistry implements ServiceRegistry {
 
     @Override
     public synchronized void unregisterService(Service service) {
-        List<Service> serviceList =_services.get(service.getName());
-        if (serviceList != null) {
-            serviceList.remove(service);
+        if (remove(_services, service.getName(), service)) {
+            QName domainName = getDomainName(service);
+            if (domainName != null) {
+                remove(_domainServices, domainName, service);
+            }
+            _allServices = remove(_allServices, service);
 
             if (_logger.isDebugEnabled()) {
-                _logger.debug("Unregistered Service '" + service.getName() + "' from ServiceDomain '" + service.getDomain().getName() + "'.");
+                _logger.debug("Unregistered Service '" + service.getName() + "' from ServiceDomain '" + domainName + "'.");
             }
         }
     }
 
+    private static QName getDomainName(Service service) {
+        ServiceDomain domain = service.getDomain();
+        return domain != null ? domain.getName() : null;
+    }
+
+    // callers hold the registry lock for all of the copy-on-write helpers
+
+    private static void add(ConcurrentHashMap<QName, List<Service>> index, QName key, Service service) {
+        List<Service> services = index.get(key);
+        index.put(key, add(services != null ? services : Collections.<Service>emptyList(), service));
+    }
+
+    private static boolean remove(ConcurrentHashMap<QName, List<Service>> index, QName key, Service service) {
+        List<Service> services = index.get(key);
+        if (services == null || !services.contains(service)) {
+            return false;
+        }
+        List<Service> remaining = remove(services, service);
+        if (remaining.isEmpty()) {
+            index.remove(key);
+        } else {
+            index.put(key, remaining);
+        }
+        return true;
+    }
+
+    private static List<Service> add(List<Service> services, Service service) {
+        Service[] copy = services.toArray(new Service[services.size() + 1]);
+        copy[services.size()] = service;
+        return Collections.unmodifiableList(Arrays.asList(copy));
+    }
+
+    private static List<Service> remove(List<Service> services, Service service) {
+        int index = services.indexOf(service);
+        if (index < 0) {
+            return services;
+        }
+        if (services.size() == 1) {
+            return Collections.emptyList();
+        }
+        Service[] copy = new Service[services.size() - 1];
+        for (int i = 0, j = 0; i < services.size(); i++) {
+            if (i != index) {
+                copy[j++] = services.get(i);
+            }
+        }
+        return Collections.unmodifiableList(Arrays.asList(copy));
+    }
 }
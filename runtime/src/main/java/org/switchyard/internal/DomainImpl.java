@@ -20,11 +20,13 @@
 package org.switchyard.internal;
 
 import java.lang.reflect.Method;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.EventObject;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.xml.namespace.QName;
 
@@ -41,6 +43,9 @@ import org.switchyard.event.EventPublisher;
 import org.switchyard.event.ReferenceRegistrationEvent;
 import org.switchyard.event.ReferenceUnregistrationEvent;
 import org.switchyard.event.ServiceRegistrationEvent;
+import org.switchyard.event.ServiceUnregistrationEvent;
+import org.switchyard.event.TransformerAddedEvent;
+import org.switchyard.event.TransformerRemovedEvent;
 import org.switchyard.exception.SwitchYardException;
 import org.switchyard.handlers.PolicyHandler;
 import org.switchyard.handlers.TransactionHandler;
@@ -55,7 +60,10 @@ import org.switchyard.policy.ExchangePolicy;
 import org.switchyard.policy.Policy;
 import org.switchyard.spi.Dispatcher;
 import org.switchyard.spi.ExchangeBus;
+import org.switchyard.spi.MessageIdGenerator;
+import org.switchyard.spi.SelectableDispatcher;
 import org.switchyard.spi.ServiceRegistry;
+import org.switchyard.spi.ServiceSelector;
 import org.switchyard.transform.TransformerRegistry;
 import org.switchyard.validate.ValidatorRegistry;
 
@@ -65,6 +73,11 @@ import org.switchyard.validate.ValidatorRegistry;
 public class DomainImpl implements ServiceDomain {
 
     private static Logger _logger = Logger.getLogger(DomainImpl.class);
+    
+    /**
+     * Name of the consumer's handler in the reply chain of an exchange.
+     */
+    static final String REPLY_HANDLER = "replyHandler";
 
     private final QName _name;
     private final DefaultHandlerChain _defaultHandlers;
@@ -74,6 +87,13 @@ public class DomainImpl implements ServiceDomain {
     private final TransformerRegistry _transformerRegistry;
     private final ValidatorRegistry _validatorRegistry;
     private final Map<QName, ServiceReference> _references;
+    private final ConcurrentHashMap<ServiceReference, ConcurrentHashMap<String, RoutingPlan>> _routingPlans;
+    private final AtomicInteger _routingVersion;
+    private final ConcurrentHashMap<QName, ServiceSelector> _selectors;
+    private final ConcurrentHashMap<Service, TrackingDispatcher> _trackers;
+    private final RoutingPlanObserver _routingObserver;
+    private final TransformHandler _transformHandler;
+    private volatile MessageIdGenerator _messageIdGenerator = new CounterMessageIdGenerator();
 
     /**
      * Constructor.
@@ -98,6 +118,18 @@ public class DomainImpl implements ServiceDomain {
         _validatorRegistry = validatorRegistry;
         _eventManager = eventManager;
         _references = new ConcurrentHashMap<QName, ServiceReference>();
+        _routingPlans = new ConcurrentHashMap<ServiceReference, ConcurrentHashMap<String, RoutingPlan>>();
+        _routingVersion = new AtomicInteger();
+        _selectors = new ConcurrentHashMap<QName, ServiceSelector>();
+        _trackers = new ConcurrentHashMap<Service, TrackingDispatcher>();
+        
+        // The service registry and event manager can be shared with other
+        // domains, so cached routing plans are invalidated through events
+        _routingObserver = new RoutingPlanObserver(_routingPlans, _routingVersion, _trackers);
+        _eventManager.addObserver(_routingObserver, ServiceRegistrationEvent.class)
+            .addObserver(_routingObserver, ServiceUnregistrationEvent.class)
+            .addObserver(_routingObserver, ReferenceRegistrationEvent.class)
+            .addObserver(_routingObserver, ReferenceUnregistrationEvent.class);
         
         setEventPublisher(_transformerRegistry);
         setEventPublisher(_validatorRegistry);
@@ -107,11 +139,15 @@ public class DomainImpl implements ServiceDomain {
         // the service provider within the chain.
         TransactionHandler transactionHandler = new TransactionHandler();
         ValidateHandler validateHandler = new ValidateHandler(_validatorRegistry);
+        _transformHandler = new TransformHandler(_transformerRegistry);
+        // compiled transform plans are dropped whenever the registry changes
+        _eventManager.addObserver(_transformHandler, TransformerAddedEvent.class)
+            .addObserver(_transformHandler, TransformerRemovedEvent.class);
         _defaultHandlers = new DefaultHandlerChain();
         _defaultHandlers.addLast("transaction-pre-invoke", transactionHandler);
         _defaultHandlers.addLast("generic-policy", new PolicyHandler());
         _defaultHandlers.addLast("validation-before-transform", validateHandler);
-        _defaultHandlers.addLast("transformation", new TransformHandler(_transformerRegistry));
+        _defaultHandlers.addLast("transformation", _transformHandler);
         _defaultHandlers.addLast("validation-after-transform", validateHandler);
         _defaultHandlers.addLast(HandlerChain.PROVIDER_HANDLER, new BaseHandler());
         _defaultHandlers.addLast("transaction-post-invoke", transactionHandler);
@@ -137,11 +173,12 @@ public class DomainImpl implements ServiceDomain {
             metadata = new InOutService();
         }
         // Create the service 
-        Service service = new ServiceImpl(serviceName, metadata, requires, this);
+        ServiceImpl service = new ServiceImpl(serviceName, metadata, requires, this);
         // Add a handler chain with the provider at the end
         HandlerChain handlers = _defaultHandlers.copy();
         handlers.replace(HandlerChain.PROVIDER_HANDLER, handler);
         Dispatcher ep = _exchangeBus.createDispatcher(service, handlers, _transformerRegistry);
+        service.setDispatcher(ep);
         
         // register the service
         _registry.registerService(service, ep, this);
@@ -211,6 +248,78 @@ public class DomainImpl implements ServiceDomain {
      */
     public Exchange createExchange(
             ServiceReference reference, String operation, ExchangeHandler handler) {
+        RoutingPlan plan = getRoutingPlan(reference, operation);
+        HandlerChain replyChain = null;
+        
+        if (handler != null) {
+            // The current snapshot of the domain chain is the template for
+            // reply chains.  Changes made through getHandlerChain() publish a
+            // new snapshot, so there is nothing to rebuild here.
+            replyChain = _defaultHandlers.copyAndAddLast(REPLY_HANDLER, handler);
+        }
+
+        // create the exchange
+        ExchangeImpl exchange = new ExchangeImpl(plan.getService().getName(), 
+                plan.getContract(), plan.getDispatcher(), this, replyChain);
+        exchange.setMessageIdGenerator(_messageIdGenerator);
+        
+        for (Policy policy : plan.getRequiredPolicy()) {
+            ExchangePolicy.require(exchange, policy);
+        }
+        return exchange;
+    }
+    
+    /**
+     * Returns the generator used to assign message ids on exchanges created
+     * by this domain.
+     * @return message id generator
+     */
+    public MessageIdGenerator getMessageIdGenerator() {
+        return _messageIdGenerator;
+    }
+    
+    /**
+     * Sets the generator used to assign message ids on exchanges created by 
+     * this domain.
+     * @param messageIdGenerator message id generator
+     */
+    public void setMessageIdGenerator(MessageIdGenerator messageIdGenerator) {
+        if (messageIdGenerator == null) {
+            throw new IllegalArgumentException("null 'messageIdGenerator' arg.");
+        }
+        _messageIdGenerator = messageIdGenerator;
+    }
+    
+    /**
+     * Returns the cached routing plan for the reference and operation, 
+     * resolving it first if there is none or the cached plan is stale.
+     */
+    private RoutingPlan getRoutingPlan(ServiceReference reference, String operation) {
+        String operationKey = operation != null ? operation : "";
+        ConcurrentHashMap<String, RoutingPlan> plans = _routingPlans.get(reference);
+        if (plans != null) {
+            RoutingPlan plan = plans.get(operationKey);
+            if (plan != null && plan.getVersion() == _routingVersion.get()) {
+                return plan;
+            }
+        } else {
+            plans = new ConcurrentHashMap<String, RoutingPlan>();
+            ConcurrentHashMap<String, RoutingPlan> existing = _routingPlans.putIfAbsent(reference, plans);
+            if (existing != null) {
+                plans = existing;
+            }
+        }
+        
+        RoutingPlan plan = resolveRoutingPlan(reference, operation);
+        plans.put(operationKey, plan);
+        return plan;
+    }
+    
+    private RoutingPlan resolveRoutingPlan(ServiceReference reference, String operation) {
+        // read the version first so that a concurrent registration leaves 
+        // this plan stale rather than cached as current
+        int version = _routingVersion.get();
+        
         // TODO : This assumes an exact match between service reference name and service name.  
         // We need to look for service wiring that might connect different names.
         List<Service> services = _registry.getServices(reference.getName());
@@ -219,15 +328,20 @@ public class DomainImpl implements ServiceDomain {
             throw new SwitchYardException("No registered service found for " + reference.getName());
         }
 
-        // At this stage, just pick the first service implementation we find and go with
-        // it.  In the future, it would be nice if we could make this pluggable.
+        // The first service defines the contract.  Services registered under
+        // the same name are expected to share an interface, and are only 
+        // considered at all if a selector is configured for the reference.
         Service service = services.get(0);
-        Dispatcher dispatcher = _exchangeBus.getDispatcher(service);
-        HandlerChain replyChain = null;
-        
-        if (handler != null) {
-            replyChain = _defaultHandlers.copy();
-            replyChain.addLast("replyHandler", handler);
+        Dispatcher dispatcher;
+        ServiceSelector selector = _selectors.get(reference.getName());
+        if (selector != null && services.size() > 1) {
+            List<SelectableDispatcher> providers = new ArrayList<SelectableDispatcher>(services.size());
+            for (Service provider : services) {
+                providers.add(getTracker(provider));
+            }
+            dispatcher = new SelectingDispatcher(Collections.unmodifiableList(providers), selector);
+        } else {
+            dispatcher = getDispatcher(service);
         }
         
         ServiceOperation referenceOp = reference.getInterface().getOperation(operation);
@@ -252,13 +366,89 @@ public class DomainImpl implements ServiceDomain {
         }
 
         ExchangeContract contract = new BaseExchangeContract(serviceOp, referenceOp);
-        // create the exchange
-        ExchangeImpl exchange = new ExchangeImpl(service.getName(), contract, dispatcher, this, replyChain);
+        List<Policy> requires = new ArrayList<Policy>(service.getRequiredPolicy());
+        return new RoutingPlan(service, dispatcher, contract, 
+                Collections.unmodifiableList(requires), version);
+    }
+    
+    private Dispatcher getDispatcher(Service service) {
+        Dispatcher dispatcher = null;
+        if (service instanceof ServiceImpl) {
+            dispatcher = ((ServiceImpl)service).getDispatcher();
+        }
+        return dispatcher != null ? dispatcher : _exchangeBus.getDispatcher(service);
+    }
+    
+    private TrackingDispatcher getTracker(Service service) {
+        TrackingDispatcher tracker = _trackers.get(service);
+        if (tracker == null) {
+            tracker = new TrackingDispatcher(getDispatcher(service));
+            TrackingDispatcher existing = _trackers.putIfAbsent(service, tracker);
+            if (existing != null) {
+                tracker = existing;
+            }
+        }
+        return tracker;
+    }
+    
+    /**
+     * Sets the selector used to pick a provider when more than one service is
+     * registered under the name invoked by a reference.  Without a selector,
+     * the first registered service receives every exchange.
+     * @param referenceName name of the service reference
+     * @param selector service selector, or null to remove the current one
+     */
+    public void setServiceSelector(QName referenceName, ServiceSelector selector) {
+        if (selector != null) {
+            _selectors.put(referenceName, selector);
+        } else {
+            _selectors.remove(referenceName);
+        }
+        // cached plans are resolved with the previous selector
+        _routingVersion.incrementAndGet();
+    }
+    
+    /**
+     * Returns the selector configured for a service reference.
+     * @param referenceName name of the service reference
+     * @return service selector, or null if none is configured
+     */
+    public ServiceSelector getServiceSelector(QName referenceName) {
+        return _selectors.get(referenceName);
+    }
+    
+    /**
+     * Returns the selection statistics of each provider registered under a 
+     * service name which has taken part in selection through this domain.
+     * @param serviceName service name
+     * @return per-provider statistics, empty if there has been no selection
+     */
+    public List<SelectableDispatcher> getProviderStatistics(QName serviceName) {
+        List<SelectableDispatcher> statistics = new ArrayList<SelectableDispatcher>();
+        for (Service service : _registry.getServices(serviceName)) {
+            TrackingDispatcher tracker = _trackers.get(service);
+            if (tracker != null) {
+                statistics.add(tracker);
+            }
+        }
+        return statistics;
+    }
+    
+    /**
+     * Releases the resources held by this domain.  The observers the domain
+     * registered on its event manager are removed, so that a domain which 
+     * shares its event manager with others can be garbage collected once its
+     * application is undeployed.  The domain must not be used afterwards.
+     */
+    public void destroy() {
+        _eventManager.removeObserver(_routingObserver);
+        _eventManager.removeObserver(_transformHandler);
+        _routingPlans.clear();
+        _trackers.clear();
         
-        for (Policy policy : service.getRequiredPolicy()) {
-            ExchangePolicy.require(exchange, policy);
+        if (_logger.isDebugEnabled()) {
+            _logger.debug("Destroyed SwitchYard ServiceDomain instance '" + _name + "'.");
         }
-        return exchange;
     }
     
     @Override
@@ -302,6 +492,20 @@ public class DomainImpl implements ServiceDomain {
         _eventManager.addObserver(observer, eventType);
         return this;
     }
+    
+    /**
+     * Register an event observer which is notified on its own delivery thread,
+     * so that publishing exchange threads never wait on it.  Events are 
+     * dropped if the observer falls behind; see 
+     * {@link EventManager#getDroppedEvents(EventObserver)}.
+     * @param observer the event observer
+     * @param eventType the type of event to observe
+     * @return a reference to this ServiceDomain for chaining calls
+     */
+    public ServiceDomain addAsyncEventObserver(EventObserver observer, Class<? extends EventObject> eventType) {
+        _eventManager.addObserver(observer, eventType, true);
+        return this;
+    }
 
     @Override
     public EventPublisher getEventPublisher() {
@@ -322,4 +526,50 @@ public class DomainImpl implements ServiceDomain {
         }
     }
 
+    /**
+     * Drops cached routing plans when services or references come and go.  
+     * Service events bump the routing version, which makes every cached plan
+     * stale, unless none of the domain's references route to that service 
+     * name; reference events discard the plans of that reference.  This 
+     * observer holds on to the routing cache only, not to the domain.
+     */
+    private static final class RoutingPlanObserver implements EventObserver {
+        private final ConcurrentHashMap<ServiceReference, ConcurrentHashMap<String, RoutingPlan>> _plans;
+        private final AtomicInteger _version;
+        private final ConcurrentHashMap<Service, TrackingDispatcher> _trackers;
+
+        RoutingPlanObserver(ConcurrentHashMap<ServiceReference, ConcurrentHashMap<String, RoutingPlan>> plans,
+                AtomicInteger version, ConcurrentHashMap<Service, TrackingDispatcher> trackers) {
+            _plans = plans;
+            _version = version;
+            _trackers = trackers;
+        }
+
+        @Override
+        public void notify(EventObject event) {
+            if (event instanceof ReferenceRegistrationEvent) {
+                _plans.remove(((ReferenceRegistrationEvent)event).getReference());
+            } else if (event instanceof ReferenceUnregistrationEvent) {
+                _plans.remove(((ReferenceUnregistrationEvent)event).getReference());
+            } else if (event instanceof ServiceRegistrationEvent) {
+                serviceChanged(((ServiceRegistrationEvent)event).getService());
+            } else if (event instanceof ServiceUnregistrationEvent) {
+                Service service = ((ServiceUnregistrationEvent)event).getService();
+                _trackers.remove(service);
+                serviceChanged(service);
+            }
+        }
+        
+        private void serviceChanged(Service service) {
+            // The registry is shared, so most events concern services of 
+            // other domains.  A reference is added to the plan cache before 
+            // its plan is resolved, so no resolution in progress is missed.
+            for (ServiceReference reference : _plans.keySet()) {
+                if (reference.getName().equals(service.getName())) {
+                    _version.incrementAndGet();
+                    return;
+                }
+            }
+        }
+    }
 }
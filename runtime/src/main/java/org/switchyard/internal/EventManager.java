@@ -19,12 +19,18 @@
 
 package org.switchyard.internal;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.EventObject;
-import java.util.LinkedList;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.log4j.Logger;
 import org.switchyard.event.EventObserver;
@@ -32,30 +38,64 @@ import org.switchyard.event.EventPublisher;
 
 /**
  * Handles registration and publication of events in a ServiceDomain.
+ * <br><br>
+ * An observer registered for an event type also receives events of any
+ * subtype.  Observers can opt in to asynchronous delivery, in which case 
+ * events are queued in a bounded buffer and handed to the observer on its own
+ * delivery thread; when the buffer is full, events for that observer are 
+ * dropped and counted rather than making the publisher wait.
  */
 public class EventManager implements EventPublisher {
 
+    /**
+     * Default number of events buffered for each asynchronous observer.
+     */
+    public static final int DEFAULT_ASYNC_QUEUE_SIZE = 1024;
+    
     private static Logger _logger = Logger.getLogger(EventManager.class);
+    private static final EventObserver[] NO_OBSERVERS = new EventObserver[0];
     
-    private Map<Class<? extends EventObject>, List<EventObserver>> _observers;
+    // registered observers per event type; arrays are replaced, never modified
+    private final Map<Class<? extends EventObject>, EventObserver[]> _observers;
+    // observers to notify per published event class, including supertypes
+    private final ConcurrentHashMap<Class<?>, EventObserver[]> _dispatch;
+    private final Map<EventObserver, AsyncObserver> _asyncObservers;
+    private final int _asyncQueueSize;
+    // bumped on every registration change, guarded by this
+    private int _version;
     
     /**
      * Creates a new instance of EventManager.
      */
     public EventManager() {
-        _observers = new ConcurrentHashMap<Class<? extends EventObject>, List<EventObserver>>();
+        this(DEFAULT_ASYNC_QUEUE_SIZE);
+    }
+    
+    /**
+     * Creates a new instance of EventManager.
+     * @param asyncQueueSize number of events buffered for each asynchronous observer
+     */
+    public EventManager(int asyncQueueSize) {
+        _observers = new ConcurrentHashMap<Class<? extends EventObject>, EventObserver[]>();
+        _dispatch = new ConcurrentHashMap<Class<?>, EventObserver[]>();
+        _asyncObservers = new ConcurrentHashMap<EventObserver, AsyncObserver>();
+        _asyncQueueSize = asyncQueueSize;
     }
     
     @Override
     public void publish(EventObject event) {
-       for (EventObserver observer : getObserversForEvent(event.getClass())) {
-           try {
-               observer.notify(event);
-           } catch (Throwable t) {
-               // do not propagate errors on event notifications
-               _logger.debug("Observer threw exception on event " + event.getClass(), t);
-           }
-       }
+        EventObserver[] observers = _dispatch.get(event.getClass());
+        if (observers == null) {
+            observers = resolveObservers(event.getClass());
+        }
+        for (EventObserver observer : observers) {
+            try {
+                observer.notify(event);
+            } catch (Throwable t) {
+                // do not propagate errors on event notifications
+                _logger.debug("Observer threw exception on event " + event.getClass(), t);
+            }
+        }
     }
     
     /**
@@ -64,31 +104,52 @@ public class EventManager implements EventPublisher {
      * @return list of EventObservers for the type or an empty list if none are registered
      */
     public List<EventObserver> getObserversForEvent(Class<? extends EventObject> event) {
-        if (_observers.containsKey(event)) {
-            return _observers.get(event);
+        EventObserver[] observers = _observers.get(event);
+        if (observers != null) {
+            return Collections.unmodifiableList(Arrays.asList(observers));
         } else {
             return Collections.emptyList();
         }
     }
     
     /**
-     * Synchronizing this method since adding an observer may lead to a 
-     * new list being created for an event entry and we don't want a race 
-     * condition if multiple threads hit this during deployment/startup.
+     * Registers an observer which is notified on the publishing thread.
      * @param observer observer instance to add
      * @param event the event to register against
      * @return a reference to this EventManger for chaining calls
      */
-    public synchronized EventManager addObserver(
+    public EventManager addObserver(
             EventObserver observer, Class<? extends EventObject> event) {
+        return addObserver(observer, event, false);
+    }
+    
+    /**
+     * Registers an observer.  Asynchronous delivery applies to the observer
+     * as a whole, for every event type it is registered against.
+     * @param observer observer instance to add
+     * @param event the event to register against
+     * @param async true if the observer should be notified on its own 
+     * delivery thread rather than the publishing thread
+     * @return a reference to this EventManger for chaining calls
+     */
+    public synchronized EventManager addObserver(
+            EventObserver observer, Class<? extends EventObject> event, boolean async) {
+        
+        if (async && !_asyncObservers.containsKey(observer)) {
+            AsyncObserver asyncObserver = new AsyncObserver(observer, _asyncQueueSize);
+            _asyncObservers.put(observer, asyncObserver);
+            asyncObserver.start();
+        }
         
-        List<EventObserver> observerList = _observers.get(event);
-        if (observerList == null) {
-            observerList = new LinkedList<EventObserver>();
-            _observers.put(event, observerList);
+        EventObserver[] observers = _observers.get(event);
+        if (observers == null) {
+            observers = NO_OBSERVERS;
         }
+        EventObserver[] added = Arrays.copyOf(observers, observers.length + 1);
+        added[observers.length] = observer;
+        _observers.put(event, added);
+        invalidate();
         
-        observerList.add(observer);
         _logger.debug("Observer added for event " + event.getCanonicalName());
         return this;
     }
@@ -98,9 +159,11 @@ public class EventManager implements EventPublisher {
      * @param observer the observer to unregister
      */
     public synchronized void removeObserver(EventObserver observer) {
-        for (List<EventObserver> observers : _observers.values()) {
-            observers.remove(observer);
+        for (Class<? extends EventObject> event : _observers.keySet()) {
+            remove(observer, event);
         }
+        stopAsync(observer);
+        invalidate();
     }
 
     /**
@@ -111,9 +174,154 @@ public class EventManager implements EventPublisher {
     public synchronized void removeObserverForEvent(
             EventObserver observer, Class<? extends EventObject> event) {
         
-        List<EventObserver> observers = _observers.get(event);
+        remove(observer, event);
+        if (!isRegistered(observer)) {
+            stopAsync(observer);
+        }
+        invalidate();
+    }
+    
+    /**
+     * Returns the number of events dropped for an asynchronous observer 
+     * because its buffer was full.
+     * @param observer an asynchronous observer
+     * @return dropped event count, 0 for synchronous or unknown observers
+     */
+    public long getDroppedEvents(EventObserver observer) {
+        AsyncObserver asyncObserver = _asyncObservers.get(observer);
+        return asyncObserver != null ? asyncObserver.getDropped() : 0;
+    }
+    
+    private void invalidate() {
+        _version++;
+        _dispatch.clear();
+    }
+    
+    private void remove(EventObserver observer, Class<? extends EventObject> event) {
+        EventObserver[] observers = _observers.get(event);
+        if (observers == null) {
+            return;
+        }
+        List<EventObserver> remaining = new ArrayList<EventObserver>(Arrays.asList(observers));
+        if (remaining.remove(observer)) {
+            if (remaining.isEmpty()) {
+                _observers.remove(event);
+            } else {
+                _observers.put(event, remaining.toArray(new EventObserver[remaining.size()]));
+            }
+        }
+    }
+    
+    private boolean isRegistered(EventObserver observer) {
+        for (EventObserver[] observers : _observers.values()) {
+            if (Arrays.asList(observers).contains(observer)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private void stopAsync(EventObserver observer) {
+        AsyncObserver asyncObserver = _asyncObservers.remove(observer);
+        if (asyncObserver != null) {
+            asyncObserver.stop();
+        }
+    }
+    
+    /**
+     * Collects the observers registered against an event class or any of its
+     * superclasses, most specific type first, and caches the
+     * result.  Resolution reads the registration map without the lock, so the
+     * result is only cached if no registration changed in the meantime.
+     */
+    private EventObserver[] resolveObservers(Class<?> eventClass) {
+        int version;
+        synchronized (this) {
+            version = _version;
+        }
+        Set<EventObserver> resolved = new LinkedHashSet<EventObserver>();
+        for (Class<?> type = eventClass; type != null; type = type.getSuperclass()) {
+            addObservers(type, resolved);
+        }
+        
+        EventObserver[] observers = new EventObserver[resolved.size()];
+        int i = 0;
+        for (EventObserver observer : resolved) {
+            AsyncObserver asyncObserver = _asyncObservers.get(observer);
+            observers[i++] = asyncObserver != null ? asyncObserver : observer;
+        }
+        synchronized (this) {
+            if (version == _version) {
+                _dispatch.put(eventClass, observers);
+            }
+        }
+        return observers;
+    }
+    
+    private void addObservers(Class<?> type, Set<EventObserver> resolved) {
+        EventObserver[] observers = _observers.get(type);
         if (observers != null) {
-            observers.remove(observer);
+            resolved.addAll(Arrays.asList(observers));
+        }
+    }
+    
+    /**
+     * Buffers events for an observer and notifies it on a dedicated daemon
+     * thread.  Publishers only ever offer to the buffer, so a slow observer
+     * costs dropped events rather than publisher latency.
+     */
+    private static final class AsyncObserver implements EventObserver, Runnable {
+        
+        private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+        
+        private final EventObserver _observer;
+        private final ArrayBlockingQueue<EventObject> _buffer;
+        private final AtomicLong _dropped = new AtomicLong();
+        private final Thread _thread;
+        private volatile boolean _running = true;
+        
+        AsyncObserver(EventObserver observer, int size) {
+            _observer = observer;
+            _buffer = new ArrayBlockingQueue<EventObject>(size);
+            _thread = new Thread(this, "SwitchYard-EventObserver-" + THREAD_COUNT.incrementAndGet());
+            _thread.setDaemon(true);
+        }
+        
+        void start() {
+            _thread.start();
+        }
+        
+        void stop() {
+            _running = false;
+            _thread.interrupt();
+        }
+        
+        long getDropped() {
+            return _dropped.get();
+        }
+        
+        @Override
+        public void notify(EventObject event) {
+            if (!_buffer.offer(event)) {
+                _dropped.incrementAndGet();
+            }
+        }
+        
+        @Override
+        public void run() {
+            while (_running) {
+                EventObject event;
+                try {
+                    event = _buffer.take();
+                } catch (InterruptedException ie) {
+                    continue;
+                }
+                try {
+                    _observer.notify(event);
+                } catch (Throwable t) {
+                    _logger.debug("Observer threw exception on event " + event.getClass(), t);
+                }
+            }
         }
     }
 }
@@ -20,8 +20,8 @@
 package org.switchyard.internal;
 
 import java.io.IOException;
-import java.util.UUID;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
 
 import javax.xml.namespace.QName;
 
@@ -46,7 +46,7 @@ import org.switchyard.metadata.ExchangeContract;
 import org.switchyard.metadata.ServiceOperation;
 import org.switchyard.runtime.event.ExchangeCompletionEvent;
 import org.switchyard.spi.Dispatcher;
-import org.switchyard.transform.TransformSequence;
+import org.switchyard.spi.MessageIdGenerator;
 import org.switchyard.transform.TransformerRegistry;
 
 /**
@@ -56,6 +56,7 @@ import org.switchyard.transform.TransformerRegistry;
 public class ExchangeImpl implements Exchange {
 
     private static Logger _log = Logger.getLogger(ExchangeImpl.class);
+    private static final MessageIdGenerator DEFAULT_ID_GENERATOR = new CounterMessageIdGenerator();
 
     @Include private ExchangeContract _contract;
     @Include private ExchangePhase    _phase;
@@ -67,7 +68,15 @@ public class ExchangeImpl implements Exchange {
     private HandlerChain              _replyChain;
     private ServiceDomain             _domain;
     private Long                      _startTime;
+    private MessageIdGenerator        _idGenerator = DEFAULT_ID_GENERATOR;
     @Include private Context          _context;
+    // explicit lock rather than synchronized so a virtual thread blocked in
+    // the handler chain does not pin its carrier thread
+    private final ReentrantLock       _sendLock = new ReentrantLock();
+    // set when the IN message is handed to another thread, which then
+    // reports completion of an IN_ONLY exchange via inHandled()
+    private boolean                   _completionDeferred;
+    private boolean                   _completed;
 
     /**
      * The serialization factory for ExchangeImpl.
@@ -161,41 +170,49 @@ public class ExchangeImpl implements Exchange {
     }
 
     @Override
-    public synchronized void send(Message message) {
-        assertMessageOK(message);
-        
-        // Set exchange phase
-        if (_phase == null) {
-            _phase = ExchangePhase.IN;
-            initInContentType();
-            initInTransformSequence();
-        } else if (_phase.equals(ExchangePhase.IN)) {
-            _phase = ExchangePhase.OUT;
-            initOutContentType();
-            initOutTransformSequence();
-            // set relatesTo header on OUT context
-            _context.setProperty(RELATES_TO, _context.getProperty(
-                    MESSAGE_ID, Scope.IN).getValue(), Scope.OUT);
-        } else {
-            throw new IllegalStateException(
-                    "Send message not allowed for exchange in phase " + _phase);
-        }
+    public void send(Message message) {
+        _sendLock.lock();
+        try {
+            assertMessageOK(message);
+            
+            // Set exchange phase
+            if (_phase == null) {
+                _phase = ExchangePhase.IN;
+                initInContentType();
+            } else if (_phase.equals(ExchangePhase.IN)) {
+                _phase = ExchangePhase.OUT;
+                initOutContentType();
+                // set relatesTo header on OUT context
+                _context.setProperty(RELATES_TO, _context.getProperty(
+                        MESSAGE_ID, Scope.IN).getValue(), Scope.OUT);
+            } else {
+                throw new IllegalStateException(
+                        "Send message not allowed for exchange in phase " + _phase);
+            }
 
-        sendInternal(message);
+            sendInternal(message);
+        } finally {
+            _sendLock.unlock();
+        }
     }
 
     @Override
-    public synchronized void sendFault(Message message) {
-        assertMessageOK(message);
-        
-        // You can't send a fault before you send a message
-        if (_phase == null) {
-            throw new IllegalStateException("Send fault no allowed on new exchanges");        
+    public void sendFault(Message message) {
+        _sendLock.lock();
+        try {
+            assertMessageOK(message);
+            
+            // You can't send a fault before you send a message
+            if (_phase == null) {
+                throw new IllegalStateException("Send fault no allowed on new exchanges");        
+            }
+            
+            _phase = ExchangePhase.OUT;
+            _state = ExchangeState.FAULT;
+            sendInternal(message);
+        } finally {
+            _sendLock.unlock();
         }
-        
-        _phase = ExchangePhase.OUT;
-        _state = ExchangeState.FAULT;
-        sendInternal(message);
     }
 
     @Override
@@ -227,6 +244,14 @@ public class ExchangeImpl implements Exchange {
         _dispatch = dispatch;
     }
 
+    /**
+     * Set the generator used to assign message ids on send.
+     * @param idGenerator message id generator
+     */
+    public void setMessageIdGenerator(MessageIdGenerator idGenerator) {
+        _idGenerator = idGenerator;
+    }
+
     /**
      * Internal send method common to sendFault and sendMessage.  This method
      * assumes that the exchange phase has been assigned for the send and that
@@ -238,10 +263,11 @@ public class ExchangeImpl implements Exchange {
             _startTime = System.nanoTime();
         }
         ExchangePhase sendPhase = _phase;
+        _completionDeferred = false;
         
         _message = message;
         // assign messageId
-        _context.setProperty(MESSAGE_ID, UUID.randomUUID().toString(), Scope.activeScope(this));
+        _context.setProperty(MESSAGE_ID, _idGenerator.nextId(), Scope.activeScope(this));
 
         if (_log.isDebugEnabled()) {
             ServiceOperation serviceOperation = _contract.getServiceOperation();
@@ -268,13 +294,50 @@ public class ExchangeImpl implements Exchange {
         }
         
         // Notify exchange completion
-        if (isDone(sendPhase)) {
-            long duration = System.nanoTime() - _startTime;
-            getContext().setProperty(ExchangeCompletionEvent.EXCHANGE_DURATION, 
-                    TimeUnit.MILLISECONDS.convert(duration, TimeUnit.NANOSECONDS));
-            _domain.getEventPublisher().publish(new ExchangeCompletionEvent(this));
+        if (isDone(sendPhase) && !_completionDeferred) {
+            complete();
         }
     }
+    
+    /**
+     * Called by a dispatcher which delivered the IN message on another thread
+     * (see {@link #deferCompletion()}) once the provider's handler chain has 
+     * returned.  An IN_ONLY exchange is complete at this point; an IN_OUT 
+     * exchange completes when its OUT message is sent.
+     */
+    void inHandled() {
+        _sendLock.lock();
+        try {
+            if (isDone(ExchangePhase.IN)) {
+                complete();
+            }
+        } finally {
+            _sendLock.unlock();
+        }
+    }
+    
+    /**
+     * Called by a dispatcher while dispatching the IN message when that 
+     * message is handled on another thread.  Completion of the exchange is
+     * then left to {@link #inHandled()}, instead of being reported as soon as
+     * the send returns.
+     */
+    void deferCompletion() {
+        _completionDeferred = true;
+    }
+    
+    // records the duration and publishes completion, at most once
+    private void complete() {
+        if (_completed) {
+            return;
+        }
+        _completed = true;
+        _dispatch.completed(this);
+        long duration = System.nanoTime() - _startTime;
+        getContext().setProperty(ExchangeCompletionEvent.EXCHANGE_DURATION, 
+                TimeUnit.MILLISECONDS.convert(duration, TimeUnit.NANOSECONDS));
+        _domain.getEventPublisher().publish(new ExchangeCompletionEvent(this));
+    }
 
     private int instanceHash() {
         return System.identityHashCode(this);
@@ -299,30 +362,6 @@ public class ExchangeImpl implements Exchange {
         return _phase;
     }
 
-    private void initInTransformSequence() {
-        QName exchangeInputType = _contract.getInvokerInvocationMetaData().getInputType();
-        QName serviceOperationInputType = _contract.getServiceOperation().getInputType();
-
-        if (exchangeInputType != null && serviceOperationInputType != null) {
-            TransformSequence.
-                    from(exchangeInputType).
-                    to(serviceOperationInputType).
-                    associateWith(this, Scope.IN);
-        }
-    }
-
-    private void initOutTransformSequence() {
-        QName serviceOperationOutputType = _contract.getServiceOperation().getOutputType();
-        QName exchangeOutputType = _contract.getInvokerInvocationMetaData().getOutputType();
-
-        if (serviceOperationOutputType != null && exchangeOutputType != null) {
-            TransformSequence.
-                    from(serviceOperationOutputType).
-                    to(exchangeOutputType).
-                    associateWith(this, Scope.OUT);
-        }
-    }
-
     private void initInContentType() {
         QName exchangeInputType = _contract.getInvokerInvocationMetaData().getInputType();
 
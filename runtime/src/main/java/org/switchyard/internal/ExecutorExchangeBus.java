@@ -0,0 +1,499 @@
+/* 
+ * JBoss, Home of Professional Open Source 
+ * Copyright 2011 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @author tags. All rights reserved. 
+ * See the copyright.txt in the distribution for a 
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use, 
+ * modify, copy, or redistribute it subject to the terms and conditions 
+ * of the GNU Lesser General Public License, v. 2.1. 
+ * This program is distributed in the hope that it will be useful, but WITHOUT A 
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A 
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details. 
+ * You should have received a copy of the GNU Lesser General Public License, 
+ * v.2.1 along with this distribution; if not, write to the Free Software 
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, 
+ * MA  02110-1301, USA.
+ */
+
+package org.switchyard.internal;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.xml.namespace.QName;
+
+import org.apache.log4j.Logger;
+import org.switchyard.Exchange;
+import org.switchyard.ExchangePhase;
+import org.switchyard.ExchangeState;
+import org.switchyard.HandlerChain;
+import org.switchyard.Message;
+import org.switchyard.Service;
+import org.switchyard.exception.DeliveryException;
+import org.switchyard.exception.SwitchYardException;
+import org.switchyard.spi.Dispatcher;
+import org.switchyard.spi.ExchangeBus;
+import org.switchyard.transform.TransformerRegistry;
+
+/**
+ * ExchangeBus implementation which hands each IN exchange to a pool of worker
+ * threads owned by the target service, instead of running the provider's 
+ * handler chain on the sender's thread.  Each service gets its own bounded 
+ * queue, so a slow provider can only exhaust its own workers. <br><br>
+ * 
+ * The bus is configured via the Map provided on construction (see 
+ * <code>WORKERS</code>, <code>QUEUE_SIZE</code> and <code>BACKPRESSURE</code>).
+ * Every setting can also be overridden for a single service by appending 
+ * "." and the service name to the key, e.g. 
+ * <code>org.switchyard.bus.executor.Workers.{urn:example}OrderService</code>.
+ */
+public class ExecutorExchangeBus implements ExchangeBus {
+
+    /**
+     * Number of worker threads created for each service.
+     */
+    public static final String WORKERS = "org.switchyard.bus.executor.Workers";
+    /**
+     * Number of exchanges which can be waiting for a worker before the 
+     * backpressure policy kicks in.
+     */
+    public static final String QUEUE_SIZE = "org.switchyard.bus.executor.QueueSize";
+    /**
+     * Name of the {@link Backpressure} policy applied when a service queue is full.
+     */
+    public static final String BACKPRESSURE = "org.switchyard.bus.executor.Backpressure";
+    /**
+     * When set to "true", every exchange is run on a thread of its own instead
+     * of a fixed worker pool.  Virtual threads are used when the JVM provides 
+     * them, so blocked providers do not hold on to a platform thread.  
+     * <code>QUEUE_SIZE</code> then bounds the number of exchanges in flight 
+     * for the service and <code>WORKERS</code> is ignored.
+     */
+    public static final String VIRTUAL_THREADS = "org.switchyard.bus.executor.VirtualThreads";
+
+    /**
+     * Default number of worker threads per service.
+     */
+    public static final int DEFAULT_WORKERS = 10;
+    /**
+     * Default queue size per service.
+     */
+    public static final int DEFAULT_QUEUE_SIZE = 1000;
+
+    /**
+     * Behaviour of a dispatcher when its service queue is full.
+     */
+    public enum Backpressure {
+        /**
+         * The sending thread waits until there is room in the queue.
+         */
+        BLOCK,
+        /**
+         * The sending thread runs the handler chain itself, just as the 
+         * {@link LocalExchangeBus} would.
+         */
+        CALLER_RUNS,
+        /**
+         * The exchange is faulted with a {@link DeliveryException}.
+         */
+        REJECT
+    }
+
+    private Map<String, Object> _busConfig;
+    private ConcurrentHashMap<QName, ExecutorDispatcher> _dispatchers = 
+        new ConcurrentHashMap<QName, ExecutorDispatcher>();
+
+    /**
+     * Create a new bus using default settings.
+     */
+    public ExecutorExchangeBus() {
+        this(new HashMap<String, Object>());
+    }
+
+    /**
+     * Create a new bus using the specified config.
+     * @param busConfig bus configuration
+     */
+    public ExecutorExchangeBus(Map<String, Object> busConfig) {
+        _busConfig = busConfig;
+    }
+
+    @Override
+    public synchronized Dispatcher createDispatcher(
+            Service service, HandlerChain handlerChain, TransformerRegistry transformerRegistry) {
+        ExecutorDispatcher dispatcher = new ExecutorDispatcher(service, handlerChain,
+                getIntConfig(WORKERS, service.getName(), DEFAULT_WORKERS),
+                getIntConfig(QUEUE_SIZE, service.getName(), DEFAULT_QUEUE_SIZE),
+                getBackpressureConfig(service.getName()),
+                getBooleanConfig(VIRTUAL_THREADS, service.getName()));
+        ExecutorDispatcher previous = _dispatchers.put(service.getName(), dispatcher);
+        if (previous != null) {
+            previous.stop();
+        }
+        dispatcher.start();
+        return dispatcher;
+    }
+
+    @Override
+    public Dispatcher getDispatcher(Service service) {
+        return _dispatchers.get(service.getName());
+    }
+
+    /**
+     * Stop the bus.  This will stop the worker pools of all created 
+     * Dispatcher instances.
+     */
+    public synchronized void stop() {
+        for (ExecutorDispatcher dispatcher : _dispatchers.values()) {
+            dispatcher.stop();
+        }
+        _dispatchers.clear();
+    }
+
+    private Object getConfig(String key, QName serviceName) {
+        Object value = _busConfig.get(key + "." + serviceName);
+        return value != null ? value : _busConfig.get(key);
+    }
+
+    private int getIntConfig(String key, QName serviceName, int defaultValue) {
+        Object value = getConfig(key, serviceName);
+        if (value == null) {
+            return defaultValue;
+        }
+        int intValue;
+        try {
+            intValue = value instanceof Number 
+                ? ((Number)value).intValue() : Integer.parseInt(value.toString().trim());
+        } catch (NumberFormatException nfe) {
+            throw new SwitchYardException("Invalid value '" + value + "' for " + key, nfe);
+        }
+        if (intValue < 1) {
+            throw new SwitchYardException("Invalid value '" + value + "' for " + key 
+                    + ".  Value must be greater than zero.");
+        }
+        return intValue;
+    }
+
+    private boolean getBooleanConfig(String key, QName serviceName) {
+        Object value = getConfig(key, serviceName);
+        return value != null && Boolean.parseBoolean(value.toString().trim());
+    }
+
+    private Backpressure getBackpressureConfig(QName serviceName) {
+        Object value = getConfig(BACKPRESSURE, serviceName);
+        if (value == null) {
+            return Backpressure.BLOCK;
+        } else if (value instanceof Backpressure) {
+            return (Backpressure)value;
+        }
+        try {
+            return Backpressure.valueOf(value.toString().trim().toUpperCase());
+        } catch (IllegalArgumentException iae) {
+            throw new SwitchYardException("Invalid value '" + value + "' for " + BACKPRESSURE, iae);
+        }
+    }
+}
+
+/**
+ * Dispatches IN exchanges to a bounded worker pool, or to a thread per 
+ * exchange when virtual threads are enabled.  Replies are delivered on the 
+ * thread which sends them, which is normally one of the workers; queueing 
+ * replies as well would let a saturated pool deadlock on its own responses.
+ */
+class ExecutorDispatcher implements Dispatcher {
+
+    private static Logger _logger = Logger.getLogger(ExecutorDispatcher.class);
+
+    private HandlerChain _handlerChain;
+    private Service _service;
+    private int _workers;
+    private int _queueSize;
+    private ExecutorExchangeBus.Backpressure _backpressure;
+    private boolean _virtualThreads;
+    private volatile ExecutorService _executor;
+    // bounds in-flight exchanges when running a thread per exchange
+    private volatile Semaphore _permits;
+
+    /**
+     * Constructor.
+     * @param service service this dispatcher delivers to
+     * @param handlerChain handler chain
+     * @param workers number of worker threads
+     * @param queueSize number of exchanges which can wait for a worker
+     * @param backpressure policy applied when the queue is full
+     * @param virtualThreads run each exchange on a virtual thread if available
+     */
+    ExecutorDispatcher(final Service service, final HandlerChain handlerChain,
+            int workers, int queueSize, ExecutorExchangeBus.Backpressure backpressure,
+            boolean virtualThreads) {
+        _service = service;
+        _handlerChain = handlerChain;
+        _workers = workers;
+        _queueSize = queueSize;
+        _backpressure = backpressure;
+        _virtualThreads = virtualThreads;
+    }
+
+    @Override
+    public void dispatch(final Exchange exchange) {
+        switch (exchange.getPhase()) {
+        case IN:
+            if (enqueue(exchange)) {
+                // the worker reports completion, see ExchangeImpl.inHandled()
+                ((ExchangeImpl)exchange).deferCompletion();
+            }
+            break;
+        case OUT:
+            ((ExchangeImpl)exchange).getReplyChain().handle(exchange);
+            break;
+        default:
+            throw new IllegalStateException("Invalid phase for dispatch: " + exchange.getPhase());
+        }
+    }
+
+    @Override
+    public void completed(Exchange exchange) {
+        // NOP
+    }
+
+    @Override
+    public Service getService() {
+        return _service;
+    }
+
+    @Override
+    public synchronized void start() {
+        if (_executor != null) {
+            return;
+        }
+        if (_virtualThreads) {
+            ExecutorService executor = newVirtualThreadExecutor(threadPrefix());
+            if (executor != null) {
+                _permits = new Semaphore(_queueSize);
+                _executor = executor;
+                return;
+            }
+            _logger.warn("Virtual threads are not supported by this JVM.  Service " 
+                    + _service.getName() + " will use a pool of " + _workers + " worker threads.");
+        }
+        _executor = new ThreadPoolExecutor(_workers, _workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<Runnable>(_queueSize), 
+                new WorkerThreadFactory(threadPrefix()),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (_executor != null) {
+            _executor.shutdown();
+            _executor = null;
+            _permits = null;
+        }
+    }
+
+    /**
+     * Number of exchanges currently waiting for a worker, or in flight when
+     * running a thread per exchange.
+     * @return queue depth
+     */
+    int getQueueDepth() {
+        ExecutorService executor = _executor;
+        Semaphore permits = _permits;
+        if (permits != null) {
+            return _queueSize - permits.availablePermits();
+        } else if (executor instanceof ThreadPoolExecutor) {
+            return ((ThreadPoolExecutor)executor).getQueue().size();
+        }
+        return 0;
+    }
+
+    // returns true if the exchange was handed to a worker
+    private boolean enqueue(final Exchange exchange) {
+        ExecutorService executor = _executor;
+        if (executor == null) {
+            reject(exchange, "Dispatcher for service " + _service.getName() + " is not started.");
+            return false;
+        }
+        
+        final Semaphore permits = _permits;
+        if (permits != null && !permits.tryAcquire()) {
+            if (!acquireOnBackpressure(exchange, permits)) {
+                return false;
+            }
+        }
+
+        Runnable task = new Runnable() {
+            public void run() {
+                try {
+                    _handlerChain.handle(exchange);
+                } catch (Throwable t) {
+                    _logger.error("Unexpected error while handling exchange for service " 
+                            + _service.getName(), t);
+                    fault(exchange, t);
+                } finally {
+                    if (permits != null) {
+                        permits.release();
+                    }
+                    ((ExchangeImpl)exchange).inHandled();
+                }
+            }
+        };
+
+        try {
+            executor.execute(task);
+            return true;
+        } catch (RejectedExecutionException ree) {
+            if (permits != null) {
+                permits.release();
+            }
+            if (executor.isShutdown()) {
+                rejectStopped(exchange);
+                return false;
+            }
+            switch (_backpressure) {
+            case BLOCK:
+                return blockOnQueue(exchange, (ThreadPoolExecutor)executor, task);
+            case CALLER_RUNS:
+                _handlerChain.handle(exchange);
+                return false;
+            default:
+                rejectQueueFull(exchange);
+                return false;
+            }
+        }
+    }
+
+    // waits for room in the pool's queue; returns true if the task was queued
+    private boolean blockOnQueue(Exchange exchange, ThreadPoolExecutor pool, Runnable task) {
+        try {
+            pool.getQueue().put(task);
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            reject(exchange, "Interrupted while waiting to deliver exchange to service " 
+                    + _service.getName());
+            return false;
+        }
+        // Queueing directly bypasses the executor's own checks.  A task added
+        // once the pool has stopped would never be picked up, so take it back.
+        if (pool.isShutdown() && pool.getQueue().remove(task)) {
+            rejectStopped(exchange);
+            return false;
+        }
+        // make sure there is a worker to pick the task up
+        pool.prestartCoreThread();
+        return true;
+    }
+
+    // returns true if a permit was acquired and the exchange should be executed
+    private boolean acquireOnBackpressure(Exchange exchange, Semaphore permits) {
+        switch (_backpressure) {
+        case BLOCK:
+            try {
+                permits.acquire();
+                return true;
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+                reject(exchange, "Interrupted while waiting to deliver exchange to service " 
+                        + _service.getName());
+                return false;
+            }
+        case CALLER_RUNS:
+            _handlerChain.handle(exchange);
+            return false;
+        default:
+            rejectQueueFull(exchange);
+            return false;
+        }
+    }
+
+    private void rejectStopped(Exchange exchange) {
+        reject(exchange, "Dispatcher for service " + _service.getName() + " has been stopped.");
+    }
+
+    private void rejectQueueFull(Exchange exchange) {
+        reject(exchange, "Delivery queue for service " + _service.getName() 
+                + " is full (" + _queueSize + " exchanges).");
+    }
+
+    private void reject(Exchange exchange, String reason) {
+        if (_logger.isDebugEnabled()) {
+            _logger.debug(reason);
+        }
+        Message fault = exchange.createMessage().setContent(new DeliveryException(reason));
+        exchange.sendFault(fault);
+    }
+
+    // faults an exchange whose handler chain failed, unless a reply or fault
+    // has already been sent on it
+    private void fault(Exchange exchange, Throwable cause) {
+        if (!ExchangePhase.IN.equals(exchange.getPhase()) 
+                || ExchangeState.FAULT.equals(exchange.getState())) {
+            return;
+        }
+        try {
+            Message fault = exchange.createMessage().setContent(new DeliveryException(
+                    "Unexpected error while handling exchange for service " + _service.getName(), cause));
+            exchange.sendFault(fault);
+        } catch (Exception ex) {
+            _logger.error("Failed to send fault for exchange on service " + _service.getName(), ex);
+        }
+    }
+
+    private String threadPrefix() {
+        return "SwitchYard-" + _service.getName().getLocalPart() + "-";
+    }
+
+    /**
+     * Creates a thread-per-task executor backed by virtual threads.  The 
+     * lookup is reflective as virtual threads are not part of the Java 
+     * version this project is compiled against.
+     * @param prefix thread name prefix
+     * @return executor, or null if the JVM does not support virtual threads
+     */
+    static ExecutorService newVirtualThreadExecutor(String prefix) {
+        try {
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, prefix, 1L);
+            ThreadFactory factory = (ThreadFactory)builderType.getMethod("factory").invoke(builder);
+            return (ExecutorService)Executors.class.getMethod(
+                    "newThreadPerTaskExecutor", ThreadFactory.class).invoke(null, factory);
+        } catch (Exception ex) {
+            if (_logger.isDebugEnabled()) {
+                _logger.debug("Virtual threads not available", ex);
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Creates named daemon worker threads for a service.
+     */
+    private static final class WorkerThreadFactory implements ThreadFactory {
+        private final AtomicInteger _count = new AtomicInteger();
+        private final String _prefix;
+
+        WorkerThreadFactory(String prefix) {
+            _prefix = prefix;
+        }
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, _prefix + _count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
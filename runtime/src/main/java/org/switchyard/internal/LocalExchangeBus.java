@@ -79,6 +79,11 @@ class LocalDispatcher implements Dispatcher {
         }
     }
 
+    @Override
+    public void completed(Exchange exchange) {
+        // NOP
+    }
+
     @Override
     public Service getService() {
         return _service;
@@ -0,0 +1,79 @@
+/* 
+ * JBoss, Home of Professional Open Source 
+ * Copyright 2012 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @author tags. All rights reserved. 
+ * See the copyright.txt in the distribution for a 
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use, 
+ * modify, copy, or redistribute it subject to the terms and conditions 
+ * of the GNU Lesser General Public License, v. 2.1. 
+ * This program is distributed in the hope that it will be useful, but WITHOUT A 
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A 
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details. 
+ * You should have received a copy of the GNU Lesser General Public License, 
+ * v.2.1 along with this distribution; if not, write to the Free Software 
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, 
+ * MA  02110-1301, USA.
+ */
+
+package org.switchyard.internal;
+
+import java.util.List;
+
+import org.switchyard.Service;
+import org.switchyard.metadata.ExchangeContract;
+import org.switchyard.policy.Policy;
+import org.switchyard.spi.Dispatcher;
+
+/**
+ * Everything DomainImpl resolves to route an exchange for a given reference 
+ * and operation: the target service, its dispatcher, the exchange contract and
+ * the policies required by the service.  Plans are immutable and cached by the
+ * domain until a service or reference event makes them stale.
+ */
+final class RoutingPlan {
+
+    private final Service _service;
+    private final Dispatcher _dispatcher;
+    private final ExchangeContract _contract;
+    private final List<Policy> _requiredPolicy;
+    private final int _version;
+
+    /**
+     * Create a new routing plan.
+     * @param service target service
+     * @param dispatcher dispatcher for the target service
+     * @param contract exchange contract for the operation
+     * @param requiredPolicy policies required by the target service
+     * @param version routing table version the plan was resolved against
+     */
+    RoutingPlan(Service service, Dispatcher dispatcher, ExchangeContract contract, 
+            List<Policy> requiredPolicy, int version) {
+        _service = service;
+        _dispatcher = dispatcher;
+        _contract = contract;
+        _requiredPolicy = requiredPolicy;
+        _version = version;
+    }
+
+    Service getService() {
+        return _service;
+    }
+
+    Dispatcher getDispatcher() {
+        return _dispatcher;
+    }
+
+    ExchangeContract getContract() {
+        return _contract;
+    }
+
+    List<Policy> getRequiredPolicy() {
+        return _requiredPolicy;
+    }
+
+    int getVersion() {
+        return _version;
+    }
+}
@@ -24,27 +24,36 @@ import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 
+import org.switchyard.Exchange;
 import org.switchyard.Property;
 import org.switchyard.Scope;
+import org.switchyard.handlers.ValidateHandler;
 import org.switchyard.io.Serialization.AccessType;
 import org.switchyard.io.Serialization.Strategy;
+import org.switchyard.policy.ExchangePolicy;
+import org.switchyard.runtime.event.ExchangeCompletionEvent;
+import org.switchyard.transform.TransformSequence;
 
 /**
  * A simple container for a set of scoped property maps.  Properties that are 
  * put and get are done stored based on the scope of the property.
+ * <br><br>
+ * Storage is indexed by scope ordinal and only allocated once a scope is
+ * actually written to.  The handful of property names which the runtime sets
+ * on nearly every exchange (message id, content type, transform sequence, 
+ * etc.) live in fixed slots so they never touch a hash map.
  */
 @Strategy(access=AccessType.FIELD)
 public class ScopedPropertyMap {
-    private Map<Scope, Map<String, Property>> _props = 
-        new HashMap<Scope, Map<String, Property>>();
+    // hot-key properties, indexed by (scope ordinal * slot count) + slot
+    private Property[] _slots;
+    // all other properties, one map per scope ordinal
+    private Map<String, Property>[] _named;
     
     /**
-     * Creates a new ScopedPropertyMap with one property map for each Scope type.
+     * Creates a new, empty ScopedPropertyMap.
      */
     public ScopedPropertyMap() {
-        for (Scope scope : Scope.values()) {
-            _props.put(scope, new HashMap<String, Property>());
-        }
     }
     
     /**
@@ -52,7 +61,16 @@ public class ScopedPropertyMap {
      * @param property property to add
      */
     public void put(Property property) {
-        _props.get(property.getScope()).put(property.getName(), property);
+        int scope = property.getScope().ordinal();
+        int slot = Slots.indexOf(property.getName());
+        if (slot >= 0) {
+            if (_slots == null) {
+                _slots = new Property[Slots.SCOPE_COUNT * Slots.SLOT_COUNT];
+            }
+            _slots[scope * Slots.SLOT_COUNT + slot] = property;
+        } else {
+            named(scope, true).put(property.getName(), property);
+        }
     }
     
     /**
@@ -63,7 +81,13 @@ public class ScopedPropertyMap {
      * null if no such property exists.
      */
     public Property get(Scope scope, String name) {
-        return _props.get(scope).get(name);
+        int slot = Slots.indexOf(name);
+        if (slot >= 0) {
+            return _slots != null 
+                ? _slots[scope.ordinal() * Slots.SLOT_COUNT + slot] : null;
+        }
+        Map<String, Property> props = named(scope.ordinal(), false);
+        return props != null ? props.get(name) : null;
     }
     
     /**
@@ -72,7 +96,9 @@ public class ScopedPropertyMap {
      * @return set of all properties in the specified scope
      */
     public Set<Property> get(Scope scope) {
-        return new HashSet<Property>(_props.get(scope).values());
+        HashSet<Property> props = new HashSet<Property>();
+        addAll(scope.ordinal(), props);
+        return props;
     }
     
     /**
@@ -81,8 +107,8 @@ public class ScopedPropertyMap {
      */
     public Set<Property> get() {
         HashSet<Property> allProps = new HashSet<Property>();
-        for (Scope scope : _props.keySet()) {
-            allProps.addAll(get(scope));
+        for (int scope = 0; scope < Slots.SCOPE_COUNT; scope++) {
+            addAll(scope, allProps);
         }
         return allProps;
     }
@@ -92,7 +118,18 @@ public class ScopedPropertyMap {
      * @param property property to remove
      */
     public void remove(Property property) {
-        _props.get(property.getScope()).remove(property.getName());
+        int scope = property.getScope().ordinal();
+        int slot = Slots.indexOf(property.getName());
+        if (slot >= 0) {
+            if (_slots != null) {
+                _slots[scope * Slots.SLOT_COUNT + slot] = null;
+            }
+        } else {
+            Map<String, Property> props = named(scope, false);
+            if (props != null) {
+                props.remove(property.getName());
+            }
+        }
     }
     
     /**
@@ -100,16 +137,23 @@ public class ScopedPropertyMap {
      * @param scope scope in which all properties should be removed.
      */
     public void clear(Scope scope) {
-        _props.get(scope).clear();
+        int offset = scope.ordinal() * Slots.SLOT_COUNT;
+        if (_slots != null) {
+            for (int i = offset; i < offset + Slots.SLOT_COUNT; i++) {
+                _slots[i] = null;
+            }
+        }
+        if (_named != null) {
+            _named[scope.ordinal()] = null;
+        }
     }
 
     /**
      * Removes all properties in all scopes.
      */
     public void clear() {
-        for (Map map : _props.values()) {
-            map.clear();
-        }
+        _slots = null;
+        _named = null;
     }
     
     /**
@@ -117,13 +161,93 @@ public class ScopedPropertyMap {
      * entries in this map to the new map.
      * @return new shallow copy of this property map
      */
+    @SuppressWarnings("unchecked")
     public ScopedPropertyMap copy() {
         ScopedPropertyMap props = new ScopedPropertyMap();
-        for (Map<String, Property> scopedMap : _props.values()) {
-            for (Property prop : scopedMap.values()) {
-                props.put(prop);
+        if (_slots != null) {
+            props._slots = _slots.clone();
+        }
+        if (_named != null) {
+            props._named = new Map[Slots.SCOPE_COUNT];
+            for (int i = 0; i < _named.length; i++) {
+                if (_named[i] != null) {
+                    props._named[i] = new HashMap<String, Property>(_named[i]);
+                }
             }
         }
         return props;
     }
+    
+    @SuppressWarnings("unchecked")
+    private Map<String, Property> named(int scope, boolean create) {
+        if (_named == null) {
+            if (!create) {
+                return null;
+            }
+            _named = new Map[Slots.SCOPE_COUNT];
+        }
+        Map<String, Property> props = _named[scope];
+        if (props == null && create) {
+            props = new HashMap<String, Property>();
+            _named[scope] = props;
+        }
+        return props;
+    }
+    
+    private void addAll(int scope, Set<Property> props) {
+        if (_slots != null) {
+            int offset = scope * Slots.SLOT_COUNT;
+            for (int i = offset; i < offset + Slots.SLOT_COUNT; i++) {
+                if (_slots[i] != null) {
+                    props.add(_slots[i]);
+                }
+            }
+        }
+        Map<String, Property> named = named(scope, false);
+        if (named != null) {
+            props.addAll(named.values());
+        }
+    }
+    
+    /**
+     * Static slot table; kept out of ScopedPropertyMap itself so it is not 
+     * picked up by field-access graph serialization.
+     */
+    private static final class Slots {
+        // property names set by the runtime on (almost) every exchange
+        static final String[] NAMES = {
+            Exchange.MESSAGE_ID,
+            Exchange.RELATES_TO,
+            Exchange.CONTENT_TYPE,
+            TransformSequence.class.getName(),
+            ExchangePolicy.PROVIDED_PROPERTY,
+            ExchangePolicy.REQUIRED_PROPERTY,
+            ValidateHandler.KEY_VALIDATED_TYPE,
+            ExchangeCompletionEvent.EXCHANGE_DURATION
+        };
+        static final int SLOT_COUNT = NAMES.length;
+        static final int SCOPE_COUNT = Scope.values().length;
+        
+        private static final Map<String, Integer> INDEX = 
+            new HashMap<String, Integer>();
+        static {
+            for (int i = 0; i < NAMES.length; i++) {
+                INDEX.put(NAMES[i], i);
+            }
+        }
+        
+        private Slots() {
+        }
+        
+        static int indexOf(String name) {
+            // callers nearly always pass the interned constant
+            for (int i = 0; i < NAMES.length; i++) {
+                if (NAMES[i] == name) {
+                    return i;
+                }
+            }
+            Integer slot = INDEX.get(name);
+            return slot != null ? slot : -1;
+        }
+    }
 }
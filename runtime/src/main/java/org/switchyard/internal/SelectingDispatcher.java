@@ -0,0 +1,92 @@
+/* 
+ * JBoss, Home of Professional Open Source 
+ * Copyright 2011 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @author tags. All rights reserved. 
+ * See the copyright.txt in the distribution for a 
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use, 
+ * modify, copy, or redistribute it subject to the terms and conditions 
+ * of the GNU Lesser General Public License, v. 2.1. 
+ * This program is distributed in the hope that it will be useful, but WITHOUT A 
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A 
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details. 
+ * You should have received a copy of the GNU Lesser General Public License, 
+ * v.2.1 along with this distribution; if not, write to the Free Software 
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, 
+ * MA  02110-1301, USA.
+ */
+package org.switchyard.internal;
+
+import java.util.List;
+
+import org.switchyard.Exchange;
+import org.switchyard.ExchangePhase;
+import org.switchyard.Service;
+import org.switchyard.exception.SwitchYardException;
+import org.switchyard.spi.Dispatcher;
+import org.switchyard.spi.SelectableDispatcher;
+import org.switchyard.spi.ServiceSelector;
+
+/**
+ * Dispatcher used by a routing plan with more than one provider.  The IN 
+ * message is handed to the provider picked by the reference's selector, and
+ * the exchange is re-pointed at that provider for the rest of its life.
+ */
+class SelectingDispatcher implements Dispatcher {
+    
+    private final List<SelectableDispatcher> _providers;
+    private final ServiceSelector _selector;
+    
+    /**
+     * Create a new SelectingDispatcher.
+     * @param providers candidate providers, not modifiable
+     * @param selector selector used to pick a provider
+     */
+    SelectingDispatcher(List<SelectableDispatcher> providers, ServiceSelector selector) {
+        _providers = providers;
+        _selector = selector;
+    }
+
+    @Override
+    public void dispatch(Exchange exchange) {
+        if (!ExchangePhase.IN.equals(exchange.getPhase())) {
+            throw new IllegalStateException("Invalid phase for dispatch: " + exchange.getPhase());
+        }
+        SelectableDispatcher provider = _selector.select(exchange, _providers);
+        if (provider == null || !_providers.contains(provider)) {
+            throw new SwitchYardException("Service selector " + _selector.getClass().getName() 
+                    + " did not select a provider for " + exchange.getServiceName());
+        }
+        ((ExchangeImpl)exchange).setOutputDispatcher(provider);
+        provider.dispatch(exchange);
+    }
+    
+    @Override
+    public void completed(Exchange exchange) {
+        // NOP - the exchange reports completion to the selected provider
+    }
+    
+    /**
+     * Returns the candidate providers.
+     * @return candidate providers
+     */
+    List<SelectableDispatcher> getProviders() {
+        return _providers;
+    }
+
+    @Override
+    public Service getService() {
+        return _providers.get(0).getService();
+    }
+
+    @Override
+    public void start() {
+        // NOP - provider dispatchers are managed by their bus
+    }
+
+    @Override
+    public void stop() {
+        // NOP - provider dispatchers are managed by their bus
+    }
+}
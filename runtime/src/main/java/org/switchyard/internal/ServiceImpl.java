@@ -29,6 +29,7 @@ import org.switchyard.ServiceDomain;
 import org.switchyard.event.ServiceUnregistrationEvent;
 import org.switchyard.metadata.ServiceInterface;
 import org.switchyard.policy.Policy;
+import org.switchyard.spi.Dispatcher;
 
 /**
  * A service registered in a SwitchYard domain.  This is an instance of the 
@@ -41,6 +42,7 @@ public class ServiceImpl implements Service {
     private ServiceInterface _interface;
     private DomainImpl _domain;
     private List<Policy> _requires;
+    private volatile Dispatcher _dispatcher;
 
     /**
      * Creates a new reference to a service.
@@ -86,6 +88,24 @@ public class ServiceImpl implements Service {
         _domain.getEventPublisher().publish(new ServiceUnregistrationEvent(this));
     }
     
+    /**
+     * Returns the dispatcher created for this service by its domain.
+     * @return service dispatcher, or null if none has been set
+     */
+    Dispatcher getDispatcher() {
+        return _dispatcher;
+    }
+    
+    /**
+     * Sets the dispatcher created for this service by its domain.  Several
+     * services can share a name, so the dispatcher is kept with the service
+     * rather than looked up by name on the bus.
+     * @param dispatcher service dispatcher
+     */
+    void setDispatcher(Dispatcher dispatcher) {
+        _dispatcher = dispatcher;
+    }
+    
     @Override
     public List<Policy> getRequiredPolicy() {
         return Collections.unmodifiableList(_requires);
@@ -0,0 +1,158 @@
+/* 
+ * JBoss, Home of Professional Open Source 
+ * Copyright 2011 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @author tags. All rights reserved. 
+ * See the copyright.txt in the distribution for a 
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use, 
+ * modify, copy, or redistribute it subject to the terms and conditions 
+ * of the GNU Lesser General Public License, v. 2.1. 
+ * This program is distributed in the hope that it will be useful, but WITHOUT A 
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A 
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details. 
+ * You should have received a copy of the GNU Lesser General Public License, 
+ * v.2.1 along with this distribution; if not, write to the Free Software 
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, 
+ * MA  02110-1301, USA.
+ */
+package org.switchyard.internal;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.switchyard.Exchange;
+import org.switchyard.ExchangePhase;
+import org.switchyard.Service;
+import org.switchyard.SynchronousInOutHandler;
+import org.switchyard.spi.Dispatcher;
+import org.switchyard.spi.SelectableDispatcher;
+
+/**
+ * Wraps a provider's dispatcher to count the exchanges routed to it.  An 
+ * exchange is outstanding from the time its IN message is dispatched until
+ * it completes.  Exchanges which never complete, e.g. because the consumer
+ * timed out waiting for a reply, are dropped once they are older than the
+ * expiry time, so that the count does not drift upwards and the exchanges
+ * are not held on to.  Expired exchanges are looked for on dispatch and
+ * whenever the outstanding count is read.
+ */
+class TrackingDispatcher implements SelectableDispatcher {
+    
+    // expired exchanges are looked for at most this often
+    private static final long EXPIRY_INTERVAL = TimeUnit.SECONDS.toNanos(1);
+    
+    private final Dispatcher _delegate;
+    private final long _expiry;
+    // dispatch time of each outstanding exchange
+    private final ConcurrentHashMap<Exchange, Long> _outstanding = 
+        new ConcurrentHashMap<Exchange, Long>();
+    private final AtomicInteger _outstandingCount = new AtomicInteger();
+    private final AtomicLong _selected = new AtomicLong();
+    private final AtomicLong _nextExpiry;
+    
+    TrackingDispatcher(Dispatcher delegate) {
+        this(delegate, SynchronousInOutHandler.DEFAULT_TIMEOUT);
+    }
+    
+    /**
+     * Create a new TrackingDispatcher.
+     * @param delegate provider dispatcher
+     * @param expiry time in milliseconds after which an exchange which has 
+     * not completed is no longer counted as outstanding
+     */
+    TrackingDispatcher(Dispatcher delegate, long expiry) {
+        _delegate = delegate;
+        _expiry = TimeUnit.MILLISECONDS.toNanos(expiry);
+        _nextExpiry = new AtomicLong(System.nanoTime() + Math.min(_expiry, EXPIRY_INTERVAL));
+    }
+
+    @Override
+    public void dispatch(Exchange exchange) {
+        if (!ExchangePhase.IN.equals(exchange.getPhase())) {
+            _delegate.dispatch(exchange);
+            return;
+        }
+        
+        // expire here as well as on read, so that exchanges which never 
+        // complete are released whichever selector (if any) is in use
+        expire();
+        _selected.incrementAndGet();
+        if (_outstanding.put(exchange, System.nanoTime()) == null) {
+            _outstandingCount.incrementAndGet();
+        }
+        try {
+            _delegate.dispatch(exchange);
+        } catch (RuntimeException e) {
+            // an exchange which could not be delivered never completes
+            completed(exchange);
+            throw e;
+        }
+    }
+    
+    @Override
+    public void completed(Exchange exchange) {
+        if (_outstanding.remove(exchange) != null) {
+            _outstandingCount.decrementAndGet();
+        }
+    }
+
+    @Override
+    public int getOutstandingExchanges() {
+        expire();
+        return _outstandingCount.get();
+    }
+
+    /**
+     * Returns the number of exchanges currently held by the tracker, without
+     * expiring any of them.
+     * @return tracked exchange count
+     */
+    int getTrackedExchanges() {
+        return _outstanding.size();
+    }
+
+    @Override
+    public long getSelectedExchanges() {
+        return _selected.get();
+    }
+
+    @Override
+    public Service getService() {
+        return _delegate.getService();
+    }
+
+    @Override
+    public void start() {
+        // NOP - the wrapped dispatcher is managed by its bus
+    }
+
+    @Override
+    public void stop() {
+        // NOP - the wrapped dispatcher is managed by its bus
+    }
+    
+    @Override
+    public String toString() {
+        return "TrackingDispatcher(service=" + getService().getName() 
+            + ", selected=" + _selected + ", outstanding=" + _outstandingCount + ")";
+    }
+    
+    private void expire() {
+        long now = System.nanoTime();
+        long next = _nextExpiry.get();
+        if (now - next < 0 
+                || !_nextExpiry.compareAndSet(next, now + Math.min(_expiry, EXPIRY_INTERVAL))) {
+            return;
+        }
+        for (Map.Entry<Exchange, Long> entry : _outstanding.entrySet()) {
+            if (now - entry.getValue() > _expiry 
+                    && _outstanding.remove(entry.getKey(), entry.getValue())) {
+                _outstandingCount.decrementAndGet();
+            }
+        }
+    }
+}
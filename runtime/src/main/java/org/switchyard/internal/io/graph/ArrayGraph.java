@@ -33,6 +33,7 @@ import java.util.Map;
 public class ArrayGraph<T> implements Graph<T[]> {
 
     private Graph<T>[] _array;
+    private int[] _nulls;
 
     /**
      * Gets the graph array.
@@ -50,15 +51,44 @@ public class ArrayGraph<T> implements Graph<T[]> {
         _array = array;
     }
 
+    /**
+     * Gets the indexes of null elements, which are not kept in the graph array.
+     * @return the null element indexes, or null if there were none
+     */
+    public int[] getNulls() {
+        return _nulls;
+    }
+
+    /**
+     * Sets the indexes of null elements, which are not kept in the graph array.
+     * @param nulls the null element indexes
+     */
+    public void setNulls(int[] nulls) {
+        _nulls = nulls;
+    }
+
     /**
      * {@inheritDoc}
      */
     @Override
     @SuppressWarnings("unchecked")
     public void compose(T[] object, Map<Integer,Object> visited) throws IOException {
-        _array = (Graph<T>[])new Graph<?>[object.length];
+        // null elements are recorded by index, since not every wire format
+        // preserves null entries in a (sparse) array
+        int nullCount = 0;
         for (int i=0; i < object.length; i++) {
-            _array[i] = GraphBuilder.build(object[i], visited);
+            if (object[i] == null) {
+                nullCount++;
+            }
+        }
+        _array = (Graph<T>[])new Graph<?>[object.length - nullCount];
+        _nulls = nullCount > 0 ? new int[nullCount] : null;
+        for (int i=0, a=0, n=0; i < object.length; i++) {
+            if (object[i] == null) {
+                _nulls[n++] = i;
+            } else {
+                _array[a++] = GraphBuilder.build(object[i], visited);
+            }
         }
     }
 
@@ -68,16 +98,21 @@ public class ArrayGraph<T> implements Graph<T[]> {
     @Override
     @SuppressWarnings("unchecked")
     public T[] decompose(Map<Integer,Object> visited) throws IOException {
-        T[] object = (T[])new Object[_array.length];
-        for (int i=0; i < _array.length; i++) {
-            object[i] = _array[i].decompose(visited);
+        int length = _array.length + (_nulls != null ? _nulls.length : 0);
+        T[] object = (T[])new Object[length];
+        for (int i=0, a=0, n=0; i < length; i++) {
+            if (_nulls != null && n < _nulls.length && _nulls[n] == i) {
+                n++;
+            } else {
+                object[i] = _array[a++].decompose(visited);
+            }
         }
         return object;
     }
 
     @Override
     public String toString() {
-        return "ArrayGraph(array=" + Arrays.toString(getArray()) + ")";
+        return "ArrayGraph(array=" + Arrays.toString(getArray()) + ", nulls=" + Arrays.toString(getNulls()) + ")";
     }
 
 }
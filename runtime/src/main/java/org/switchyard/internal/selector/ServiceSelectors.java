@@ -0,0 +1,73 @@
+/* 
+ * JBoss, Home of Professional Open Source 
+ * Copyright 2011 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @author tags. All rights reserved. 
+ * See the copyright.txt in the distribution for a 
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use, 
+ * modify, copy, or redistribute it subject to the terms and conditions 
+ * of the GNU Lesser General Public License, v. 2.1. 
+ * This program is distributed in the hope that it will be useful, but WITHOUT A 
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A 
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details. 
+ * You should have received a copy of the GNU Lesser General Public License, 
+ * v.2.1 along with this distribution; if not, write to the Free Software 
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, 
+ * MA  02110-1301, USA.
+ */
+package org.switchyard.internal.selector;
+
+import org.switchyard.common.type.Classes;
+import org.switchyard.exception.SwitchYardException;
+import org.switchyard.spi.ServiceSelector;
+
+/**
+ * Creates service selectors from their configured names.
+ */
+public final class ServiceSelectors {
+    
+    /** Name of the {@link RoundRobinServiceSelector}. */
+    public static final String ROUND_ROBIN = "roundRobin";
+    /** Name of the {@link RandomServiceSelector}. */
+    public static final String RANDOM = "random";
+    /** Name of the {@link LeastOutstandingServiceSelector}. */
+    public static final String LEAST_OUTSTANDING = "leastOutstanding";
+    /** Name of the {@link StickyServiceSelector}. */
+    public static final String STICKY = "sticky";
+    
+    private ServiceSelectors() {
+    }
+    
+    /**
+     * Creates a new service selector.
+     * @param name one of the selector names defined by this class, or the 
+     * name of a class implementing ServiceSelector
+     * @return a new selector instance
+     */
+    public static ServiceSelector create(String name) {
+        if (ROUND_ROBIN.equals(name)) {
+            return new RoundRobinServiceSelector();
+        } else if (RANDOM.equals(name)) {
+            return new RandomServiceSelector();
+        } else if (LEAST_OUTSTANDING.equals(name)) {
+            return new LeastOutstandingServiceSelector();
+        } else if (STICKY.equals(name)) {
+            return new StickyServiceSelector();
+        }
+        
+        Class<?> selectorClass = Classes.forName(name, ServiceSelectors.class);
+        if (selectorClass == null) {
+            throw new SwitchYardException("Unknown service selector " + name);
+        }
+        if (!ServiceSelector.class.isAssignableFrom(selectorClass)) {
+            throw new SwitchYardException("Service selector " + name 
+                    + " is not an instance of " + ServiceSelector.class.getName());
+        }
+        try {
+            return (ServiceSelector)selectorClass.newInstance();
+        } catch (Exception ex) {
+            throw new SwitchYardException("Failed to initialize service selector class " + name, ex);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+/* 
+ * JBoss, Home of Professional Open Source 
+ * Copyright 2011 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @author tags. All rights reserved. 
+ * See the copyright.txt in the distribution for a 
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use, 
+ * modify, copy, or redistribute it subject to the terms and conditions 
+ * of the GNU Lesser General Public License, v. 2.1. 
+ * This program is distributed in the hope that it will be useful, but WITHOUT A 
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A 
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details. 
+ * You should have received a copy of the GNU Lesser General Public License, 
+ * v.2.1 along with this distribution; if not, write to the Free Software 
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, 
+ * MA  02110-1301, USA.
+ */
+package org.switchyard.internal.selector;
+
+import java.util.List;
+
+import org.switchyard.Exchange;
+import org.switchyard.Property;
+import org.switchyard.Scope;
+import org.switchyard.spi.SelectableDispatcher;
+import org.switchyard.spi.ServiceSelector;
+
+/**
+ * Sends every exchange carrying the same key to the same provider.  The key
+ * is read from the {@link #KEY} context property; exchanges without one are
+ * handled round-robin.  Providers are ranked by rendezvous hashing, so only 
+ * the keys of a provider that goes away move when the provider list changes.
+ */
+public class StickyServiceSelector implements ServiceSelector {
+    
+    /**
+     * Context property (exchange or IN scope) holding the sticky key.
+     */
+    public static final String KEY = "org.switchyard.selector.key";
+    
+    private final RoundRobinServiceSelector _unkeyed = new RoundRobinServiceSelector();
+
+    @Override
+    public SelectableDispatcher select(Exchange exchange, List<SelectableDispatcher> providers) {
+        Object key = getKey(exchange);
+        if (key == null) {
+            return _unkeyed.select(exchange, providers);
+        }
+        int keyHash = key.hashCode();
+        SelectableDispatcher selected = null;
+        int highest = 0;
+        for (SelectableDispatcher provider : providers) {
+            int score = mix(keyHash * 31 + System.identityHashCode(provider.getService()));
+            if (selected == null || score > highest) {
+                selected = provider;
+                highest = score;
+            }
+        }
+        return selected;
+    }
+    
+    private Object getKey(Exchange exchange) {
+        Property property = exchange.getContext().getProperty(KEY);
+        if (property == null) {
+            property = exchange.getContext().getProperty(KEY, Scope.IN);
+        }
+        return property != null ? property.getValue() : null;
+    }
+    
+    // murmur3 finalizer, spreads similar inputs across the int range
+    private static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+}
@@ -24,6 +24,8 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.EventObject;
+import java.util.HashMap;
+import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -56,6 +58,15 @@ public class BaseTransformerRegistry implements TransformerRegistry {
         new ConcurrentHashMap<NameKey, Transformer<?,?>>();
     private final ConcurrentHashMap<NameKey, Transformer<?,?>> _fallbackTransformers =
         new ConcurrentHashMap<NameKey, Transformer<?,?>>();
+    // (from, to) pairs known to have no fallback transformer
+    private final ConcurrentHashMap<NameKey, Boolean> _fallbackMisses =
+        new ConcurrentHashMap<NameKey, Boolean>();
+    // target type -> transformers from a Java type to it; lists are replaced, never modified
+    private final ConcurrentHashMap<QName, List<JavaSourceFallbackTransformer>> _javaSources =
+        new ConcurrentHashMap<QName, List<JavaSourceFallbackTransformer>>();
+    // bumped by every registration change, so that lookups racing with one 
+    // do not cache a stale fallback result
+    private volatile int _version;
 
     private EventPublisher _eventPublisher;
 
@@ -78,19 +89,19 @@ public class BaseTransformerRegistry implements TransformerRegistry {
 
     @Override
     public BaseTransformerRegistry addTransformer(Transformer<?, ?> transformer) {
-        _fallbackTransformers.clear();
-        _transformers.put(new NameKey(transformer.getFrom(),
-                transformer.getTo()), transformer);
-        publishEvent(new TransformerAddedEvent(transformer));
-        return this;
+        return addTransformer(transformer, transformer.getFrom(), transformer.getTo());
     }
 
     @Override
-    public TransformerRegistry addTransformer(Transformer<?, ?> transformer, QName from, QName to) {
-        _fallbackTransformers.clear();
-        _transformers.put(new NameKey(from, to), transformer);
+    public BaseTransformerRegistry addTransformer(Transformer<?, ?> transformer, QName from, QName to) {
+        NameKey nameKey = new NameKey(from, to);
+        synchronized (this) {
+            _transformers.put(nameKey, transformer);
+            indexJavaSource(nameKey, transformer);
+            invalidateFallbacks(to);
+        }
         publishEvent(new TransformerAddedEvent(transformer));
-        return null;
+        return this;
     }
     
     /**
@@ -108,8 +119,20 @@ public class BaseTransformerRegistry implements TransformerRegistry {
 
         if (transformer == null) {
             transformer = _fallbackTransformers.get(nameKey);
-            if (transformer == null && QNameUtil.isJavaMessageType(from)) {
+            if (transformer == null && !_fallbackMisses.containsKey(nameKey) 
+                    && QNameUtil.isJavaMessageType(from)) {
+                int version = _version;
                 transformer = getJavaFallbackTransformer(from, to);
+                if (transformer != null) {
+                    _fallbackTransformers.put(nameKey, transformer);
+                } else {
+                    _fallbackMisses.put(nameKey, Boolean.TRUE);
+                }
+                if (version != _version) {
+                    // registrations changed while resolving, don't trust the result
+                    _fallbackTransformers.remove(nameKey);
+                    _fallbackMisses.remove(nameKey);
+                }
                 if (transformer != null && _log.isDebugEnabled()) {
                     _log.debug("Selecting fallback transformer: from '" + transformer.getFrom() + "' to '" + transformer.getTo() + "'. Type: " + transformer.getClass().getName());
                 } else if (_log.isDebugEnabled()) {
@@ -123,32 +146,88 @@ public class BaseTransformerRegistry implements TransformerRegistry {
         return transformer;
     }
 
+    /**
+     * Returns a counter which changes with every registration change in this
+     * registry.  Callers caching the result of {@link #getTransformer} can
+     * compare it against the value seen at lookup time to detect staleness.
+     * @return current registration version
+     */
+    public int getVersion() {
+        return _version;
+    }
+
     @Override
     public boolean hasTransformer(QName from, QName to) {
         NameKey nameKey = new NameKey(from, to);
         return _transformers.containsKey(nameKey);
     }
 
+    /**
+     * Returns the shortest chain of registered transformers which converts
+     * one type into another, e.g. A->B, B->C for A->C when there is no 
+     * transformer directly from A to C.  Intermediate hops only use exact
+     * registrations; the final hop may also be a Java fallback transformer.
+     * @param from source type
+     * @param to target type
+     * @return the transformers to apply in order and the types they were
+     * registered between, an empty path if the types are the same, or null
+     * if there is no path
+     */
+    public TransformerPath getTransformerPath(QName from, QName to) {
+        if (from.equals(to)) {
+            return new TransformerPath(Collections.singletonList(from), 
+                    Collections.<Transformer<?, ?>>emptyList());
+        }
+        // breadth first, so the first path found has the fewest hops
+        Map<QName, NameKey> reachedBy = new HashMap<QName, NameKey>();
+        LinkedList<QName> queue = new LinkedList<QName>();
+        reachedBy.put(from, null);
+        queue.add(from);
+        while (!queue.isEmpty()) {
+            QName type = queue.removeFirst();
+            Transformer<?, ?> last = getTransformer(type, to);
+            if (last != null) {
+                LinkedList<QName> types = new LinkedList<QName>();
+                LinkedList<Transformer<?, ?>> transformers = new LinkedList<Transformer<?, ?>>();
+                types.add(to);
+                types.addFirst(type);
+                transformers.add(last);
+                for (NameKey hop = reachedBy.get(type); hop != null; hop = reachedBy.get(hop.getFrom())) {
+                    Transformer<?, ?> transformer = _transformers.get(hop);
+                    if (transformer == null) {
+                        // removed while searching
+                        return null;
+                    }
+                    types.addFirst(hop.getFrom());
+                    transformers.addFirst(transformer);
+                }
+                return new TransformerPath(types, transformers);
+            }
+            for (NameKey nameKey : _transformers.keySet()) {
+                if (type.equals(nameKey.getFrom()) && !reachedBy.containsKey(nameKey.getTo())) {
+                    reachedBy.put(nameKey.getTo(), nameKey);
+                    queue.add(nameKey.getTo());
+                }
+            }
+        }
+        return null;
+    }
+
     private Transformer<?, ?> getJavaFallbackTransformer(QName from, QName to) {
+        List<JavaSourceFallbackTransformer> sources = _javaSources.get(to);
+        if (sources == null) {
+            return null;
+        }
         Class<?> javaType = QNameUtil.toJavaMessageType(from);
-
         if (javaType == null) {
             return null;
         }
 
-        Set<Map.Entry<NameKey,Transformer<?,?>>> entrySet = _transformers.entrySet();
         List<JavaSourceFallbackTransformer> fallbackTransforms = new ArrayList<JavaSourceFallbackTransformer>();
-        for (Map.Entry<NameKey,Transformer<?,?>> entry : entrySet) {
-            NameKey nameKey = entry.getKey();
-
-            // "to" must be an exact match...
-            if (nameKey.getTo().equals(to)) {
-                if (QNameUtil.isJavaMessageType(nameKey.getFrom())) {
-                    Class<?> candidateType = QNameUtil.toJavaMessageType(nameKey.getFrom());
-                    if (candidateType != null && candidateType.isAssignableFrom(javaType)) {
-                        fallbackTransforms.add(new JavaSourceFallbackTransformer(candidateType, entry.getValue()));
-                    }
-                }
+        for (JavaSourceFallbackTransformer source : sources) {
+            Class<?> candidateType = source.getJavaType();
+            if (candidateType != null && candidateType.isAssignableFrom(javaType)) {
+                fallbackTransforms.add(source);
             }
         }
 
@@ -157,9 +236,7 @@ public class BaseTransformerRegistry implements TransformerRegistry {
             return null;
         }
         if (fallbackTransforms.size() == 1) {
-            Transformer<?, ?> fallbackTransformer = fallbackTransforms.get(0)._transformer;
-            addFallbackTransformer(fallbackTransformer, from, to);
-            return fallbackTransformer;
+            return fallbackTransforms.get(0)._transformer;
         }
 
         JavaSourceFallbackTransformerComparator comparator = new JavaSourceFallbackTransformerComparator();
@@ -176,21 +253,65 @@ public class BaseTransformerRegistry implements TransformerRegistry {
         }
 
         // Closest super-type will be first in the list..
-        Transformer<?, ?> fallbackTransformer = fallbackTransforms.get(0)._transformer;
-        addFallbackTransformer(fallbackTransformer, from, to);
-        return fallbackTransformer;
+        return fallbackTransforms.get(0)._transformer;
+    }
+
+    // Adds a transformer from a Java type to the fallback index, replacing 
+    // any previous transformer registered under the same key.  Must hold the
+    // registry lock.
+    private void indexJavaSource(NameKey nameKey, Transformer<?, ?> transformer) {
+        if (!QNameUtil.isJavaMessageType(nameKey.getFrom())) {
+            return;
+        }
+        List<JavaSourceFallbackTransformer> sources = new ArrayList<JavaSourceFallbackTransformer>();
+        List<JavaSourceFallbackTransformer> current = _javaSources.get(nameKey.getTo());
+        if (current != null) {
+            for (JavaSourceFallbackTransformer source : current) {
+                if (!source._name.equals(nameKey.getFrom())) {
+                    sources.add(source);
+                }
+            }
+        }
+        if (transformer != null) {
+            Class<?> javaType = QNameUtil.toJavaMessageType(nameKey.getFrom());
+            if (javaType != null) {
+                sources.add(new JavaSourceFallbackTransformer(javaType, transformer, nameKey.getFrom()));
+            }
+        }
+        if (sources.isEmpty()) {
+            _javaSources.remove(nameKey.getTo());
+        } else {
+            _javaSources.put(nameKey.getTo(), Collections.unmodifiableList(sources));
+        }
     }
 
-    private void addFallbackTransformer(Transformer<?, ?> fallbackTransformer, QName from, QName to) {
-        // Fallback transformers are cached so as to save on lookup times...
-        _fallbackTransformers.put(new NameKey(from, to), fallbackTransformer);
+    // A change to the transformers for a target type only affects fallback
+    // lookups to that target.  Must hold the registry lock.
+    private void invalidateFallbacks(QName to) {
+        _version++;
+        for (NameKey nameKey : _fallbackTransformers.keySet()) {
+            if (to.equals(nameKey.getTo())) {
+                _fallbackTransformers.remove(nameKey);
+            }
+        }
+        for (NameKey nameKey : _fallbackMisses.keySet()) {
+            if (to.equals(nameKey.getTo())) {
+                _fallbackMisses.remove(nameKey);
+            }
+        }
     }
 
     @Override
     public boolean removeTransformer(Transformer<?, ?> transformer) {
-        _fallbackTransformers.clear();
-        boolean removed = _transformers.remove(
-                new NameKey(transformer.getFrom(), transformer.getTo())) != null;
+        NameKey nameKey = new NameKey(transformer.getFrom(), transformer.getTo());
+        boolean removed;
+        synchronized (this) {
+            removed = _transformers.remove(nameKey) != null;
+            if (removed) {
+                indexJavaSource(nameKey, null);
+                invalidateFallbacks(nameKey.getTo());
+            }
+        }
         if (removed) {
             publishEvent(new TransformerRemovedEvent(transformer));
         }
@@ -206,6 +327,36 @@ public class BaseTransformerRegistry implements TransformerRegistry {
         }
     }
 
+    /**
+     * A chain of transformers and the types they were registered between.
+     * A transformer's own from and to types need not match the types it was
+     * registered under, so the types are taken from the registrations.
+     */
+    public static final class TransformerPath {
+        private final List<QName> _types;
+        private final List<Transformer<?, ?>> _transformers;
+
+        TransformerPath(List<QName> types, List<Transformer<?, ?>> transformers) {
+            _types = Collections.unmodifiableList(new ArrayList<QName>(types));
+            _transformers = Collections.unmodifiableList(new ArrayList<Transformer<?, ?>>(transformers));
+        }
+
+        /**
+         * @return the message types along the path, starting with the source
+         * type and ending with the target type; one more than the transformers
+         */
+        public List<QName> getTypes() {
+            return _types;
+        }
+
+        /**
+         * @return the transformers to apply, in order
+         */
+        public List<Transformer<?, ?>> getTransformers() {
+            return _transformers;
+        }
+    }
+
     private class NameKey extends Key<QName, QName> {
         NameKey(QName from, QName to) {
             super(from, to);
@@ -265,6 +416,7 @@ public class BaseTransformerRegistry implements TransformerRegistry {
 
         private Class<?> _javaType;
         private Transformer<?, ?> _transformer;
+        private QName _name;
 
         /**
          * Constructor.
@@ -272,8 +424,13 @@ public class BaseTransformerRegistry implements TransformerRegistry {
          * @param transformer Transformer instance.
          */
         public JavaSourceFallbackTransformer(Class<?> javaType, Transformer<?, ?> transformer) {
+            this(javaType, transformer, null);
+        }
+
+        JavaSourceFallbackTransformer(Class<?> javaType, Transformer<?, ?> transformer, QName name) {
             this._javaType = javaType;
             this._transformer = transformer;
+            this._name = name;
         }
 
         /**
@@ -0,0 +1,183 @@
+/* 
+ * JBoss, Home of Professional Open Source 
+ * Copyright 2011 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @author tags. All rights reserved. 
+ * See the copyright.txt in the distribution for a 
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use, 
+ * modify, copy, or redistribute it subject to the terms and conditions 
+ * of the GNU Lesser General Public License, v. 2.1. 
+ * This program is distributed in the hope that it will be useful, but WITHOUT A 
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A 
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details. 
+ * You should have received a copy of the GNU Lesser General Public License, 
+ * v.2.1 along with this distribution; if not, write to the Free Software 
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, 
+ * MA  02110-1301, USA.
+ */
+
+package org.switchyard.internal.transform;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import javax.xml.namespace.QName;
+
+import org.apache.log4j.Logger;
+import org.switchyard.Message;
+import org.switchyard.internal.transform.BaseTransformerRegistry.TransformerPath;
+import org.switchyard.transform.Transformer;
+import org.switchyard.transform.TransformerRegistry;
+
+/**
+ * An immutable, resolved chain of transformers between two message types.
+ * Plans are compiled once per pair of types, so that transforming a message
+ * only runs the chain rather than looking up each transformer again.
+ */
+public final class TransformPlan {
+
+    private static Logger _log = Logger.getLogger(TransformPlan.class);
+
+    private final QName _from;
+    private final QName _to;
+    // _types[i] is the message type before _chain[i] is applied
+    private final QName[] _types;
+    private final Transformer<?, ?>[] _chain;
+
+    private TransformPlan(QName from, QName to, List<QName> types, List<Transformer<?, ?>> chain) {
+        _from = from;
+        _to = to;
+        if (chain == null) {
+            _types = new QName[] {from};
+            _chain = null;
+        } else {
+            _types = types.toArray(new QName[types.size()]);
+            _chain = chain.toArray(new Transformer<?, ?>[chain.size()]);
+        }
+    }
+
+    /**
+     * Compile the plan for transforming between two types.  Multi-hop paths 
+     * are searched for when the registry is a BaseTransformerRegistry.
+     * @param from message type the plan starts from
+     * @param to message type the plan produces
+     * @param registry registry to resolve transformers from
+     * @return the plan, which is unresolved if there is no path between the types
+     */
+    public static TransformPlan compile(QName from, QName to, TransformerRegistry registry) {
+        List<QName> types = null;
+        List<Transformer<?, ?>> chain = null;
+        if (from.equals(to)) {
+            types = Collections.singletonList(from);
+            chain = Collections.emptyList();
+        } else if (registry instanceof BaseTransformerRegistry) {
+            TransformerPath path = ((BaseTransformerRegistry)registry).getTransformerPath(from, to);
+            if (path != null) {
+                types = path.getTypes();
+                chain = path.getTransformers();
+            }
+        } else {
+            Transformer<?, ?> transformer = registry != null ? registry.getTransformer(from, to) : null;
+            if (transformer != null) {
+                types = Arrays.asList(from, to);
+                chain = Collections.<Transformer<?, ?>>singletonList(transformer);
+            }
+        }
+        
+        TransformPlan plan = new TransformPlan(from, to, types, chain);
+        if (_log.isDebugEnabled()) {
+            _log.debug("Compiled " + plan);
+        }
+        return plan;
+    }
+
+    /**
+     * @return message type the plan starts from
+     */
+    public QName getFrom() {
+        return _from;
+    }
+
+    /**
+     * @return message type the plan produces
+     */
+    public QName getTo() {
+        return _to;
+    }
+
+    /**
+     * @return true if there is a chain of transformers between the types
+     */
+    public boolean isResolved() {
+        return _chain != null;
+    }
+
+    /**
+     * Apply the remainder of the plan to a message.
+     * @param message message to transform
+     * @param current current type of the message, or null for the plan's 
+     * source type.  A type which is not part of the plan is ignored and the
+     * whole plan is applied.
+     * @return the type of the message after the plan has been applied; the 
+     * plan's target type unless a transformer is missing or returned null
+     */
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    public QName apply(Message message, QName current) {
+        int step = current == null ? 0 : indexOf(current);
+        if (step < 0) {
+            step = 0;
+        }
+        if (_chain == null) {
+            return _types[step];
+        }
+
+        for (; step < _chain.length; step++) {
+            Transformer transformer = _chain[step];
+            Object result;
+            if (Message.class.isAssignableFrom(transformer.getFromType())) {
+                // A returned object just indicates that the transformation took place.
+                result = transformer.transform(message);
+            } else {
+                // A returned object is the new Message payload.
+                result = transformer.transform(message.getContent(transformer.getFromType()));
+                if (result != null) {
+                    message.setContent(result);
+                }
+            }
+            
+            if (result == null) {
+                _log.warn("Transformer '" + transformer.getClass().getName() + "' returned a null transformation result.  Check input payload matches requirements of the Transformer implementation.");
+                break;
+            }
+            if (_log.isDebugEnabled()) {
+                _log.debug("Transformed Message (" + System.identityHashCode(message) + ") from '" + _types[step] + "' to '" + _types[step + 1] + "' using transformer type '" + transformer.getClass().getName() + "'.");
+            }
+        }
+        return _types[step];
+    }
+
+    private int indexOf(QName type) {
+        for (int i = 0; i < _types.length; i++) {
+            if (type.equals(_types[i])) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder str = new StringBuilder("TransformPlan[");
+        if (_chain == null) {
+            str.append(_from).append(" -/-> ").append(_to);
+        } else {
+            str.append(_types[0]);
+            for (int i = 1; i < _types.length; i++) {
+                str.append(" -> ").append(_types[i]);
+            }
+        }
+        return str.append(']').toString();
+    }
+}
@@ -39,6 +39,13 @@ public interface Dispatcher {
      */
     void dispatch(Exchange exchange);
     
+    /**
+     * Called once an exchange dispatched to this dispatcher is complete, 
+     * i.e. its last message or a fault has been sent.
+     * @param exchange the completed exchange
+     */
+    void completed(Exchange exchange);
+    
     /**
      * Starts delivery of exchanges via this dispatcher.
      */
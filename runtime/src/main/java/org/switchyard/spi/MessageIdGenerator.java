@@ -0,0 +1,35 @@
+/* 
+ * JBoss, Home of Professional Open Source 
+ * Copyright 2011 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @author tags. All rights reserved. 
+ * See the copyright.txt in the distribution for a 
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use, 
+ * modify, copy, or redistribute it subject to the terms and conditions 
+ * of the GNU Lesser General Public License, v. 2.1. 
+ * This program is distributed in the hope that it will be useful, but WITHOUT A 
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A 
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details. 
+ * You should have received a copy of the GNU Lesser General Public License, 
+ * v.2.1 along with this distribution; if not, write to the Free Software 
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, 
+ * MA  02110-1301, USA.
+ */
+package org.switchyard.spi;
+
+/**
+ * Generates the identifiers assigned to each message sent on an exchange
+ * (see {@link org.switchyard.Exchange#MESSAGE_ID}).  Identifiers must be 
+ * unique across every node that can share an exchange, since replies are 
+ * correlated by {@link org.switchyard.Exchange#RELATES_TO}.  Implementations
+ * must be thread-safe.
+ */
+public interface MessageIdGenerator {
+    
+    /**
+     * Returns the next message identifier.
+     * @return a unique message id
+     */
+    String nextId();
+}
@@ -0,0 +1,40 @@
+/* 
+ * JBoss, Home of Professional Open Source 
+ * Copyright 2011 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @author tags. All rights reserved. 
+ * See the copyright.txt in the distribution for a 
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use, 
+ * modify, copy, or redistribute it subject to the terms and conditions 
+ * of the GNU Lesser General Public License, v. 2.1. 
+ * This program is distributed in the hope that it will be useful, but WITHOUT A 
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A 
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details. 
+ * You should have received a copy of the GNU Lesser General Public License, 
+ * v.2.1 along with this distribution; if not, write to the Free Software 
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, 
+ * MA  02110-1301, USA.
+ */
+package org.switchyard.spi;
+
+import java.util.List;
+
+import org.switchyard.Exchange;
+
+/**
+ * Chooses which provider receives an exchange when more than one service is
+ * registered under the name a reference invokes.  Selection happens when the
+ * IN message is dispatched, so the exchange context and message are 
+ * available to the selector.  Implementations must be thread-safe.
+ */
+public interface ServiceSelector {
+
+    /**
+     * Selects the provider for an exchange.
+     * @param exchange exchange being dispatched in the IN phase
+     * @param providers candidate providers; never empty and not modifiable
+     * @return one of the candidate providers
+     */
+    SelectableDispatcher select(Exchange exchange, List<SelectableDispatcher> providers);
+}
@@ -24,6 +24,7 @@ import java.util.Set;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
+import org.switchyard.Exchange;
 import org.switchyard.Property;
 import org.switchyard.Scope;
 
@@ -146,5 +147,36 @@ public class DefaultContextTest {
         Assert.assertNull(_context.getProperty("exchange", Scope.EXCHANGE));
         Assert.assertNotNull(ctx.getProperty("exchange", Scope.EXCHANGE));
     }
-    
+
+    @Test
+    public void testWellKnownPropertiesScoped() {
+        _context.setProperty(Exchange.MESSAGE_ID, "ex");
+        _context.setProperty(Exchange.MESSAGE_ID, "in", Scope.IN);
+        _context.setProperty(Exchange.CONTENT_TYPE, "out", Scope.OUT);
+        Assert.assertEquals("ex", _context.getPropertyValue(Exchange.MESSAGE_ID));
+        Assert.assertEquals("in", _context.getProperty(Exchange.MESSAGE_ID, Scope.IN).getValue());
+        Assert.assertNull(_context.getProperty(Exchange.MESSAGE_ID, Scope.OUT));
+        Assert.assertNull(_context.getProperty(Exchange.CONTENT_TYPE, Scope.IN));
+        Assert.assertEquals(1, _context.getProperties(Scope.OUT).size());
+        Assert.assertEquals(3, _context.getProperties().size());
+
+        // a non-interned name must resolve to the same property
+        String name = new String(Exchange.MESSAGE_ID);
+        Assert.assertEquals("in", _context.getProperty(name, Scope.IN).getValue());
+
+        _context.setProperty(Exchange.MESSAGE_ID, null, Scope.IN);
+        Assert.assertNull(_context.getProperty(Exchange.MESSAGE_ID, Scope.IN));
+        _context.removeProperties(Scope.EXCHANGE);
+        Assert.assertNull(_context.getProperty(Exchange.MESSAGE_ID));
+        Assert.assertNotNull(_context.getProperty(Exchange.CONTENT_TYPE, Scope.OUT));
+    }
+
+    @Test
+    public void testCopyWellKnownProperties() {
+        _context.setProperty(Exchange.MESSAGE_ID, "id", Scope.IN);
+        DefaultContext ctx = _context.copy();
+        _context.setProperty(Exchange.MESSAGE_ID, "changed", Scope.IN);
+        Assert.assertEquals("id", ctx.getProperty(Exchange.MESSAGE_ID, Scope.IN).getValue());
+    }
+
 }
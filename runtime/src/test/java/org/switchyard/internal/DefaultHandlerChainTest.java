@@ -85,7 +85,55 @@ public class DefaultHandlerChainTest {
         
         Assert.assertEquals(m4, _chain.getHandlers().get(1));
     }
+    
+    @Test
+    public void testRemove() {
+        MockHandler m1 = new MockHandler();
+        MockHandler m2 = new MockHandler();
+        MockHandler m3 = new MockHandler();
+        
+        _chain.addLast("1", m1);
+        _chain.addLast("2", m2);
+        _chain.addLast("3", m3);
+        
+        Assert.assertNull(_chain.remove("4"));
+        Assert.assertEquals(m2, _chain.remove("2"));
+        Assert.assertEquals(2, _chain.getHandlers().size());
+        Assert.assertEquals(m1, _chain.getHandlers().get(0));
+        Assert.assertEquals(m3, _chain.getHandlers().get(1));
+    }
+    
+    @Test
+    public void testCopyIsIndependent() {
+        MockHandler m1 = new MockHandler();
+        MockHandler m2 = new MockHandler();
+        
+        DefaultHandlerChain chain = new DefaultHandlerChain();
+        chain.addLast("1", m1);
+        DefaultHandlerChain copy = chain.copy();
+        
+        // changes to either chain must not show up in the other
+        chain.addLast("2", m2);
+        copy.replace("1", m2);
+        
+        Assert.assertEquals(2, chain.getHandlers().size());
+        Assert.assertEquals(m1, chain.getHandlers().get(0));
+        Assert.assertEquals(1, copy.getHandlers().size());
+        Assert.assertEquals(m2, copy.getHandlers().get(0));
+    }
+    
+    @Test
+    public void testCopyAndAddLast() {
+        MockHandler m1 = new MockHandler();
+        MockHandler m2 = new MockHandler();
+        
+        DefaultHandlerChain chain = new DefaultHandlerChain();
+        chain.addLast("1", m1);
+        DefaultHandlerChain copy = chain.copyAndAddLast("2", m2);
+        
+        Assert.assertEquals(1, chain.getHandlers().size());
+        Assert.assertEquals(2, copy.getHandlers().size());
+        Assert.assertEquals(m1, copy.getHandlers().get(0));
+        Assert.assertEquals(m2, copy.getHandlers().get(1));
+    }
 }
-
-
-
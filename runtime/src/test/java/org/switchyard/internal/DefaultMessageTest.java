@@ -31,6 +31,10 @@ import junit.framework.Assert;
 import org.junit.Before;
 import org.junit.Test;
 import org.switchyard.Message;
+import org.switchyard.exception.SwitchYardException;
+import org.switchyard.internal.transform.BaseTransformerRegistry;
+import org.switchyard.metadata.java.JavaService;
+import org.switchyard.transform.BaseTransformer;
 
 public class DefaultMessageTest {
     
@@ -81,6 +85,74 @@ public class DefaultMessageTest {
         Assert.assertEquals(message, content);
     }
 
+    @Test
+    public void testContentConversion() throws Exception {
+        BaseTransformerRegistry registry = new BaseTransformerRegistry();
+        registry.addTransformer(new IntegerToString("int:"));
+        DefaultMessage message = new DefaultMessage().setTransformerRegistry(registry);
+        message.setContent(Integer.valueOf(1));
+        Assert.assertEquals("int:1", message.getContent(String.class));
+        // second call is served from the conversion cache
+        Assert.assertEquals("int:1", message.getContent(String.class));
+    }
+
+    @Test
+    public void testContentConversionReplacedTransformer() throws Exception {
+        BaseTransformerRegistry registry = new BaseTransformerRegistry();
+        IntegerToString first = new IntegerToString("first:");
+        registry.addTransformer(first);
+        DefaultMessage message = new DefaultMessage().setTransformerRegistry(registry);
+        message.setContent(Integer.valueOf(2));
+        Assert.assertEquals("first:2", message.getContent(String.class));
+
+        registry.removeTransformer(first);
+        registry.addTransformer(new IntegerToString("second:"));
+        Assert.assertEquals("second:2", message.getContent(String.class));
+
+        // a different registry must not see the cached transformer
+        DefaultMessage other = new DefaultMessage().setTransformerRegistry(new BaseTransformerRegistry());
+        other.setContent(Integer.valueOf(2));
+        try {
+            other.getContent(String.class);
+            Assert.fail("Expected SwitchYardException");
+        } catch (SwitchYardException e) {
+            Assert.assertTrue(e.getMessage().contains("No registered Transformer"));
+        }
+    }
+
+    @Test
+    public void testContentConversionPerRegistry() throws Exception {
+        BaseTransformerRegistry registry1 = new BaseTransformerRegistry();
+        registry1.addTransformer(new IntegerToString("one:"));
+        BaseTransformerRegistry registry2 = new BaseTransformerRegistry();
+        registry2.addTransformer(new IntegerToString("two:"));
+        DefaultMessage message1 = new DefaultMessage().setTransformerRegistry(registry1);
+        message1.setContent(Integer.valueOf(3));
+        DefaultMessage message2 = new DefaultMessage().setTransformerRegistry(registry2);
+        message2.setContent(Integer.valueOf(3));
+
+        // alternating between registries uses the right transformer each time
+        for (int i = 0; i < 2; i++) {
+            Assert.assertEquals("one:3", message1.getContent(String.class));
+            Assert.assertEquals("two:3", message2.getContent(String.class));
+        }
+    }
+
+}
+
+class IntegerToString extends BaseTransformer<Integer, String> {
+
+    private String _prefix;
+
+    IntegerToString(String prefix) {
+        super(JavaService.toMessageType(Integer.class), JavaService.toMessageType(String.class));
+        _prefix = prefix;
+    }
+
+    @Override
+    public String transform(Integer from) {
+        return _prefix + from;
+    }
 }
 
 class DummyDS implements DataSource {
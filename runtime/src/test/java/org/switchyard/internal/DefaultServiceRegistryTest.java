@@ -21,6 +21,7 @@ package org.switchyard.internal;
 
 import static org.hamcrest.CoreMatchers.is;
 
+import java.util.Arrays;
 import java.util.List;
 
 import javax.xml.namespace.QName;
@@ -56,4 +57,51 @@ public class DefaultServiceRegistryTest
         Assert.assertTrue(registry.getServices(serviceName).size() == 0);
     }
 
+    @Test
+    public void testServicesForDomain() {
+        DefaultServiceRegistry registry = new DefaultServiceRegistry();
+        DomainImpl domainA = createDomain("A", registry);
+        DomainImpl domainB = createDomain("B", registry);
+        ServiceImpl serviceA = new ServiceImpl(new QName("Foo"), null, null, domainA);
+        ServiceImpl serviceB = new ServiceImpl(new QName("Foo"), null, null, domainB);
+        registry.registerService(serviceA, null, domainA);
+        registry.registerService(serviceB, null, domainB);
+        
+        Assert.assertEquals(2, registry.getServices().size());
+        Assert.assertEquals(2, registry.getServices(new QName("Foo")).size());
+        Assert.assertEquals(Arrays.asList(serviceA), registry.getServicesForDomain(domainA.getName()));
+        Assert.assertEquals(Arrays.asList(serviceB), registry.getServicesForDomain(domainB.getName()));
+        Assert.assertTrue(registry.getServicesForDomain(new QName("C")).isEmpty());
+        
+        registry.unregisterService(serviceA);
+        Assert.assertTrue(registry.getServicesForDomain(domainA.getName()).isEmpty());
+        Assert.assertEquals(Arrays.asList(serviceB), registry.getServices(new QName("Foo")));
+        Assert.assertEquals(Arrays.asList(serviceB), registry.getServices());
+    }
+    
+    @Test
+    public void testLookupsAreSnapshots() {
+        final QName serviceName = new QName("Foo");
+        DefaultServiceRegistry registry = new DefaultServiceRegistry();
+        ServiceImpl service1 = new ServiceImpl(serviceName, null, null, null);
+        ServiceImpl service2 = new ServiceImpl(serviceName, null, null, null);
+        registry.registerService(service1, null, null);
+        List<Service> services = registry.getServices(serviceName);
+        try {
+            services.add(service2);
+            Assert.fail("Registry lookups should not be modifiable");
+        } catch (UnsupportedOperationException uoEx) {
+            // expected
+        }
+        
+        // later registrations do not change a list that was already returned
+        registry.registerService(service2, null, null);
+        Assert.assertThat(services.size(), is(1));
+        Assert.assertThat(registry.getServices(serviceName).size(), is(2));
+    }
+    
+    private DomainImpl createDomain(String name, DefaultServiceRegistry registry) {
+        return new DomainImpl(new QName(name), registry, new LocalExchangeBus(), null, null, new EventManager());
+    }
+
 }
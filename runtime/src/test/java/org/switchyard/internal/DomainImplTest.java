@@ -20,6 +20,7 @@
 package org.switchyard.internal;
 
 import java.util.EventObject;
+import java.util.List;
 
 import javax.xml.namespace.QName;
 
@@ -33,14 +34,21 @@ import org.switchyard.ExchangePattern;
 import org.switchyard.HandlerException;
 import org.switchyard.MockDomain;
 import org.switchyard.MockHandler;
+import org.switchyard.Scope;
 import org.switchyard.Service;
 import org.switchyard.ServiceReference;
 import org.switchyard.event.EventObserver;
 import org.switchyard.event.ReferenceRegistrationEvent;
+import org.switchyard.event.ReferenceUnregistrationEvent;
+import org.switchyard.event.ServiceRegistrationEvent;
+import org.switchyard.event.TransformerAddedEvent;
+import org.switchyard.exception.SwitchYardException;
+import org.switchyard.internal.selector.RoundRobinServiceSelector;
 import org.switchyard.metadata.InOnlyService;
 import org.switchyard.metadata.InOutService;
 import org.switchyard.metadata.ServiceInterface;
 import org.switchyard.metadata.java.JavaService;
+import org.switchyard.spi.SelectableDispatcher;
 
 /**
  *  Unit tests for the DomainImpl class.
@@ -75,6 +83,25 @@ public class DomainImplTest {
         Assert.assertEquals(ExchangePattern.IN_OUT, inOut.getContract().getServiceOperation().getExchangePattern());
     }
     
+    @Test
+    public void testDestroyRemovesObservers() {
+        EventManager eventManager = new EventManager();
+        DomainImpl domain = new DomainImpl(new QName("destroy"),
+                new DefaultServiceRegistry(),
+                new LocalExchangeBus(),
+                null,
+                null,
+                eventManager);
+        Assert.assertFalse(eventManager.getObserversForEvent(ServiceRegistrationEvent.class).isEmpty());
+        Assert.assertFalse(eventManager.getObserversForEvent(ReferenceUnregistrationEvent.class).isEmpty());
+        Assert.assertFalse(eventManager.getObserversForEvent(TransformerAddedEvent.class).isEmpty());
+        
+        domain.destroy();
+        Assert.assertTrue(eventManager.getObserversForEvent(ServiceRegistrationEvent.class).isEmpty());
+        Assert.assertTrue(eventManager.getObserversForEvent(ReferenceUnregistrationEvent.class).isEmpty());
+        Assert.assertTrue(eventManager.getObserversForEvent(TransformerAddedEvent.class).isEmpty());
+    }
+    
     @Test
     public void testRegisterServiceWithoutInterface() {
         Service service = _domain.registerService(
@@ -120,6 +147,131 @@ public class DomainImplTest {
         Assert.assertEquals(2, counter.getCount());
     }
     
+    @Test
+    public void testMessageIdGenerator() throws Exception {
+        QName serviceName = new QName("IdService");
+        _domain.registerService(serviceName, new InOutService(), new MockHandler().forwardInToOut());
+        ServiceReference reference = _domain.registerServiceReference(serviceName, new InOutService());
+        _domain.setMessageIdGenerator(new CounterMessageIdGenerator("test-"));
+        
+        MockHandler replyHandler = new MockHandler();
+        Exchange exchange = reference.createExchange(replyHandler);
+        exchange.send(new DefaultMessage().setContent("hello"));
+        replyHandler.waitForOKMessage();
+        
+        Assert.assertEquals("test-1", exchange.getContext().getProperty(Exchange.MESSAGE_ID, Scope.IN).getValue());
+        Assert.assertEquals("test-2", exchange.getContext().getProperty(Exchange.MESSAGE_ID, Scope.OUT).getValue());
+        Assert.assertEquals("test-1", exchange.getContext().getProperty(Exchange.RELATES_TO, Scope.OUT).getValue());
+    }
+    
+    @Test
+    public void testServiceSelector() throws Exception {
+        QName serviceName = new QName("Balanced");
+        MockHandler provider1 = new MockHandler();
+        MockHandler provider2 = new MockHandler();
+        _domain.registerService(serviceName, new InOnlyService(), provider1);
+        _domain.registerService(serviceName, new InOnlyService(), provider2);
+        ServiceReference reference = _domain.registerServiceReference(serviceName, new InOnlyService());
+        
+        // without a selector the first provider gets everything
+        reference.createExchange().send(new DefaultMessage());
+        Assert.assertEquals(1, provider1.getMessages().size());
+        Assert.assertEquals(0, provider2.getMessages().size());
+        
+        _domain.setServiceSelector(serviceName, new RoundRobinServiceSelector());
+        for (int i = 0; i < 4; i++) {
+            reference.createExchange().send(new DefaultMessage());
+        }
+        Assert.assertEquals(3, provider1.getMessages().size());
+        Assert.assertEquals(2, provider2.getMessages().size());
+        
+        List<SelectableDispatcher> statistics = _domain.getProviderStatistics(serviceName);
+        Assert.assertEquals(2, statistics.size());
+        for (SelectableDispatcher provider : statistics) {
+            Assert.assertEquals(2, provider.getSelectedExchanges());
+            Assert.assertEquals(0, provider.getOutstandingExchanges());
+        }
+    }
+    
+    @Test
+    public void testServiceSelectorOutstanding() throws Exception {
+        QName serviceName = new QName("BalancedInOut");
+        _domain.registerService(serviceName, new InOutService(), new MockHandler());
+        _domain.registerService(serviceName, new InOutService(), new MockHandler());
+        ServiceReference reference = _domain.registerServiceReference(serviceName, new InOutService());
+        _domain.setServiceSelector(serviceName, new RoundRobinServiceSelector());
+        
+        // providers never reply, so each exchange stays outstanding
+        for (int i = 0; i < 4; i++) {
+            reference.createExchange(new MockHandler()).send(new DefaultMessage());
+        }
+        for (SelectableDispatcher provider : _domain.getProviderStatistics(serviceName)) {
+            Assert.assertEquals(2, provider.getOutstandingExchanges());
+        }
+    }
+    
+    @Test
+    public void testServiceSelectorFaultCompletes() throws Exception {
+        QName serviceName = new QName("BalancedFault");
+        _domain.registerService(serviceName, new InOutService(), new MockHandler().forwardInToFault());
+        _domain.registerService(serviceName, new InOutService(), new MockHandler().forwardInToFault());
+        ServiceReference reference = _domain.registerServiceReference(serviceName, new InOutService());
+        _domain.setServiceSelector(serviceName, new RoundRobinServiceSelector());
+        
+        for (int i = 0; i < 4; i++) {
+            reference.createExchange(new MockHandler()).send(new DefaultMessage());
+        }
+        for (SelectableDispatcher provider : _domain.getProviderStatistics(serviceName)) {
+            Assert.assertEquals(2, provider.getSelectedExchanges());
+            Assert.assertEquals(0, provider.getOutstandingExchanges());
+        }
+    }
+    
+    @Test
+    public void testReplyChainFollowsDomainHandlers() throws Exception {
+        MockHandler replyHandler = new MockHandler();
+        ExchangeImpl before = (ExchangeImpl)_inOutReference.createExchange(replyHandler);
+        int defaultSize = before.getReplyChain().getHandlers().size();
+        Assert.assertSame(replyHandler, before.getReplyChain().getHandlers().get(defaultSize - 1));
+        
+        // handlers added to the domain after the fact show up in new reply chains only
+        CountingHandler counter = new CountingHandler();
+        _domain.getHandlerChain().addFirst("counter", counter);
+        ExchangeImpl after = (ExchangeImpl)_inOutReference.createExchange(replyHandler);
+        Assert.assertEquals(defaultSize + 1, after.getReplyChain().getHandlers().size());
+        Assert.assertSame(counter, after.getReplyChain().getHandlers().get(0));
+        Assert.assertEquals(defaultSize, before.getReplyChain().getHandlers().size());
+    }
+    
+    @Test
+    public void testRoutingPlanCached() {
+        Exchange ex1 = _inOnlyReference.createExchange();
+        Exchange ex2 = _inOnlyReference.createExchange();
+        Assert.assertSame(ex1.getContract(), ex2.getContract());
+    }
+    
+    @Test
+    public void testRoutingPlanFollowsRegistrations() {
+        QName serviceName = new QName("RoutedService");
+        ServiceReference reference = _domain.registerServiceReference(serviceName, new InOnlyService());
+        try {
+            reference.createExchange();
+            Assert.fail("Expected no registered service");
+        } catch (SwitchYardException syEx) {
+            // expected
+        }
+        
+        Service first = _domain.registerService(serviceName, new InOnlyService(), new MockHandler());
+        ExchangeImpl ex1 = (ExchangeImpl)reference.createExchange();
+        Assert.assertSame(first, ex1.getDispatcher().getService());
+        
+        first.unregister();
+        Service second = _domain.registerService(serviceName, new InOnlyService(), new MockHandler());
+        ExchangeImpl ex2 = (ExchangeImpl)reference.createExchange();
+        Assert.assertSame(second, ex2.getDispatcher().getService());
+        Assert.assertNotSame(ex1.getContract(), ex2.getContract());
+    }
+    
     @Test
     public void testGetEventPublisher() {
         // Test to make sure event manager is initialized in domain
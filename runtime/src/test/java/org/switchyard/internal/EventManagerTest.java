@@ -19,10 +19,17 @@
 
 package org.switchyard.internal;
 
+import java.util.ArrayList;
+import java.util.EventObject;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
 import junit.framework.Assert;
 
 import org.junit.Before;
 import org.junit.Test;
+import org.switchyard.event.EventObserver;
 
 /**
  *  Unit tests for the EventManager class.
@@ -37,6 +44,137 @@ public class EventManagerTest {
     }
     
     @Test
-    public void testSomething() {
+    public void testPublishToObserver() {
+        Observer observer = new Observer();
+        _manager.addObserver(observer, BaseEvent.class);
+        _manager.publish(new BaseEvent());
+        _manager.publish(new EventObject(this));
+        Assert.assertEquals(1, observer.events.size());
+        Assert.assertEquals(1, _manager.getObserversForEvent(BaseEvent.class).size());
+    }
+    
+    @Test
+    public void testPublishToSupertypeObservers() {
+        Observer base = new Observer();
+        Observer any = new Observer();
+        _manager.addObserver(base, BaseEvent.class)
+            .addObserver(any, EventObject.class);
+        
+        _manager.publish(new SubEvent());
+        Assert.assertEquals(1, base.events.size());
+        Assert.assertEquals(1, any.events.size());
+        
+        _manager.publish(new BaseEvent());
+        Assert.assertEquals(2, base.events.size());
+        Assert.assertEquals(2, any.events.size());
+    }
+    
+    @Test
+    public void testObserverNotifiedOnce() {
+        Observer observer = new Observer();
+        _manager.addObserver(observer, BaseEvent.class);
+        _manager.addObserver(observer, SubEvent.class);
+        _manager.publish(new SubEvent());
+        Assert.assertEquals(1, observer.events.size());
+    }
+    
+    @Test
+    public void testRegistrationInvalidatesDispatch() {
+        Observer first = new Observer();
+        Observer second = new Observer();
+        _manager.addObserver(first, BaseEvent.class);
+        _manager.publish(new SubEvent());
+        
+        _manager.addObserver(second, BaseEvent.class);
+        _manager.publish(new SubEvent());
+        Assert.assertEquals(2, first.events.size());
+        Assert.assertEquals(1, second.events.size());
+        
+        _manager.removeObserverForEvent(first, BaseEvent.class);
+        _manager.publish(new SubEvent());
+        Assert.assertEquals(2, first.events.size());
+        Assert.assertEquals(2, second.events.size());
+        
+        _manager.removeObserver(second);
+        _manager.publish(new SubEvent());
+        Assert.assertEquals(2, second.events.size());
+        Assert.assertTrue(_manager.getObserversForEvent(BaseEvent.class).isEmpty());
+    }
+    
+    @Test
+    public void testObserverExceptionIgnored() {
+        Observer observer = new Observer();
+        _manager.addObserver(new EventObserver() {
+            public void notify(EventObject event) {
+                throw new RuntimeException("observer failure");
+            }
+        }, BaseEvent.class);
+        _manager.addObserver(observer, BaseEvent.class);
+        _manager.publish(new BaseEvent());
+        Assert.assertEquals(1, observer.events.size());
+    }
+    
+    @Test
+    public void testAsyncDelivery() throws Exception {
+        final CountDownLatch delivered = new CountDownLatch(1);
+        final List<Thread> threads = new ArrayList<Thread>();
+        _manager.addObserver(new EventObserver() {
+            public void notify(EventObject event) {
+                threads.add(Thread.currentThread());
+                delivered.countDown();
+            }
+        }, BaseEvent.class, true);
+        
+        _manager.publish(new SubEvent());
+        Assert.assertTrue(delivered.await(5, TimeUnit.SECONDS));
+        Assert.assertNotSame(Thread.currentThread(), threads.get(0));
+    }
+    
+    @Test
+    public void testAsyncOverflowDropsEvents() throws Exception {
+        final CountDownLatch blocked = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        EventObserver observer = new EventObserver() {
+            public void notify(EventObject event) {
+                blocked.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        _manager = new EventManager(2);
+        _manager.addObserver(observer, BaseEvent.class, true);
+        
+        // first event occupies the delivery thread, next two fill the buffer
+        _manager.publish(new BaseEvent());
+        Assert.assertTrue(blocked.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 5; i++) {
+            _manager.publish(new BaseEvent());
+        }
+        Assert.assertEquals(3, _manager.getDroppedEvents(observer));
+        release.countDown();
+        _manager.removeObserver(observer);
+        Assert.assertEquals(0, _manager.getDroppedEvents(observer));
+    }
+    
+    private static class Observer implements EventObserver {
+        List<EventObject> events = new ArrayList<EventObject>();
+        
+        public void notify(EventObject event) {
+            events.add(event);
+        }
+    }
+    
+    private static class BaseEvent extends EventObject {
+        private static final long serialVersionUID = 1L;
+        BaseEvent() {
+            super("test");
+        }
+    }
+    
+    private static class SubEvent extends BaseEvent {
+        private static final long serialVersionUID = 1L;
     }
 }
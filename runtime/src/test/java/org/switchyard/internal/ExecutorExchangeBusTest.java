@@ -0,0 +1,312 @@
+/* 
+ * JBoss, Home of Professional Open Source 
+ * Copyright 2011 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @author tags. All rights reserved. 
+ * See the copyright.txt in the distribution for a 
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use, 
+ * modify, copy, or redistribute it subject to the terms and conditions 
+ * of the GNU Lesser General Public License, v. 2.1. 
+ * This program is distributed in the hope that it will be useful, but WITHOUT A 
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A 
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details. 
+ * You should have received a copy of the GNU Lesser General Public License, 
+ * v.2.1 along with this distribution; if not, write to the Free Software 
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, 
+ * MA  02110-1301, USA.
+ */
+
+package org.switchyard.internal;
+
+import java.util.EventObject;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.namespace.QName;
+
+import junit.framework.Assert;
+
+import org.junit.After;
+import org.junit.Test;
+import org.switchyard.BaseHandler;
+import org.switchyard.Exchange;
+import org.switchyard.ExchangeHandler;
+import org.switchyard.HandlerException;
+import org.switchyard.MockHandler;
+import org.switchyard.ServiceReference;
+import org.switchyard.SynchronousInOutHandler;
+import org.switchyard.event.EventObserver;
+import org.switchyard.exception.DeliveryException;
+import org.switchyard.internal.transform.BaseTransformerRegistry;
+import org.switchyard.internal.validate.BaseValidatorRegistry;
+import org.switchyard.metadata.InOnlyService;
+import org.switchyard.metadata.InOutService;
+import org.switchyard.metadata.ServiceInterface;
+import org.switchyard.runtime.event.ExchangeCompletionEvent;
+
+/**
+ *  Unit tests for the ExecutorExchangeBus class.
+ */
+public class ExecutorExchangeBusTest {
+
+    private static final QName SERVICE = new QName("ExecutorService");
+
+    private ExecutorExchangeBus _bus;
+    private DomainImpl _domain;
+
+    @After
+    public void tearDown() throws Exception {
+        if (_bus != null) {
+            _bus.stop();
+        }
+    }
+
+    @Test
+    public void testInOutDeliveredOnWorker() throws Exception {
+        ServiceReference reference = createService(new HashMap<String, Object>(), new ThreadRecordingHandler(null));
+        MockHandler consumer = new MockHandler();
+        Exchange exchange = reference.createExchange(consumer);
+        exchange.send(exchange.createMessage().setContent("hello"));
+
+        consumer.waitForOKMessage();
+        Exchange reply = consumer.getMessages().poll();
+        Assert.assertEquals("hello", reply.getMessage().getContent());
+        Assert.assertTrue(((String)reply.getContext().getPropertyValue("thread")).startsWith("SwitchYard-ExecutorService-"));
+    }
+
+    @Test
+    public void testVirtualThreadMode() throws Exception {
+        Map<String, Object> config = new HashMap<String, Object>();
+        config.put(ExecutorExchangeBus.VIRTUAL_THREADS, "true");
+        ServiceReference reference = createService(config, new ThreadRecordingHandler(null));
+        // falls back to a worker pool on JVMs without virtual threads
+        SynchronousInOutHandler consumer = new SynchronousInOutHandler();
+        Exchange exchange = reference.createExchange(consumer);
+        exchange.send(exchange.createMessage().setContent("hello"));
+
+        Exchange reply = consumer.waitForOut(5000);
+        Assert.assertEquals("hello", reply.getMessage().getContent());
+        Assert.assertTrue(((String)reply.getContext().getPropertyValue("thread")).startsWith("SwitchYard-ExecutorService-"));
+    }
+
+    @Test
+    public void testRejectWhenQueueFull() throws Exception {
+        CountDownLatch latch = new CountDownLatch(1);
+        ServiceReference reference = createService(
+                singleWorkerConfig(ExecutorExchangeBus.Backpressure.REJECT), new ThreadRecordingHandler(latch));
+        try {
+            MockHandler consumer = new MockHandler();
+            fillQueue(reference, consumer);
+            
+            Exchange exchange = reference.createExchange(consumer);
+            exchange.send(exchange.createMessage().setContent("go"));
+            consumer.waitForFaultMessage();
+            Object fault = consumer.getFaults().poll().getMessage().getContent();
+            Assert.assertTrue(fault instanceof DeliveryException);
+        } finally {
+            latch.countDown();
+        }
+    }
+
+    @Test
+    public void testCallerRunsWhenQueueFull() throws Exception {
+        CountDownLatch latch = new CountDownLatch(1);
+        ServiceReference reference = createService(
+                singleWorkerConfig(ExecutorExchangeBus.Backpressure.CALLER_RUNS), new ThreadRecordingHandler(latch));
+        try {
+            MockHandler consumer = new MockHandler();
+            fillQueue(reference, consumer);
+
+            Exchange exchange = reference.createExchange(consumer);
+            exchange.send(exchange.createMessage().setContent("go"));
+            // caller-runs is synchronous, so the reply is already here
+            Exchange reply = consumer.getMessages().poll();
+            Assert.assertNotNull(reply);
+            Assert.assertEquals(Thread.currentThread().getName(), reply.getContext().getPropertyValue("thread"));
+        } finally {
+            latch.countDown();
+        }
+    }
+
+    @Test
+    public void testBlockWhenQueueFull() throws Exception {
+        CountDownLatch latch = new CountDownLatch(1);
+        ServiceReference reference = createService(
+                singleWorkerConfig(ExecutorExchangeBus.Backpressure.BLOCK), new ThreadRecordingHandler(latch));
+        MockHandler consumer = new MockHandler();
+        Thread sender;
+        try {
+            fillQueue(reference, consumer);
+            sender = sendInBackground(reference, consumer);
+            sender.join(200);
+            Assert.assertTrue("sender should wait for room in the queue", sender.isAlive());
+        } finally {
+            latch.countDown();
+        }
+        sender.join(5000);
+        Assert.assertFalse(sender.isAlive());
+        Assert.assertTrue(waitForReplies(consumer, 3));
+        Assert.assertEquals(0, consumer.getFaults().size());
+    }
+
+    @Test
+    public void testBlockedExchangeNotStrandedOnStop() throws Exception {
+        CountDownLatch latch = new CountDownLatch(1);
+        ServiceReference reference = createService(
+                singleWorkerConfig(ExecutorExchangeBus.Backpressure.BLOCK), new ThreadRecordingHandler(latch));
+        MockHandler consumer = new MockHandler();
+        Thread sender;
+        try {
+            fillQueue(reference, consumer);
+            sender = sendInBackground(reference, consumer);
+            sender.join(200);
+            Assert.assertTrue(sender.isAlive());
+            _bus.stop();
+        } finally {
+            latch.countDown();
+        }
+        sender.join(5000);
+        Assert.assertFalse(sender.isAlive());
+        // the blocked exchange is either delivered by the draining pool or
+        // faulted, but it always gets an answer
+        Assert.assertTrue(waitForReplies(consumer, 3));
+    }
+
+    @Test
+    public void testHandlerErrorFaultsExchange() throws Exception {
+        ServiceReference reference = createService(new HashMap<String, Object>(), new BaseHandler() {
+            @Override
+            public void handleMessage(Exchange exchange) throws HandlerException {
+                throw new IllegalStateException("broken provider");
+            }
+        });
+        MockHandler consumer = new MockHandler();
+        Exchange exchange = reference.createExchange(consumer);
+        exchange.send(exchange.createMessage().setContent("hello"));
+
+        consumer.waitForFaultMessage();
+        Object fault = consumer.getFaults().poll().getMessage().getContent();
+        Assert.assertTrue(fault instanceof DeliveryException);
+        Assert.assertTrue(((DeliveryException)fault).getCause() instanceof IllegalStateException);
+    }
+
+    @Test
+    public void testInOnlyCompletesAfterProvider() throws Exception {
+        final CountDownLatch latch = new CountDownLatch(1);
+        ServiceReference reference = createService(new HashMap<String, Object>(), new InOnlyService(), 
+                new BaseHandler() {
+                    @Override
+                    public void handleMessage(Exchange exchange) throws HandlerException {
+                        try {
+                            latch.await(5, TimeUnit.SECONDS);
+                        } catch (InterruptedException e) {
+                            throw new HandlerException(e);
+                        }
+                    }
+                });
+        final LinkedBlockingQueue<Exchange> completed = new LinkedBlockingQueue<Exchange>();
+        _domain.addEventObserver(new EventObserver() {
+            public void notify(EventObject event) {
+                completed.add(((ExchangeCompletionEvent)event).getExchange());
+            }
+        }, ExchangeCompletionEvent.class);
+
+        Exchange exchange = reference.createExchange();
+        exchange.send(exchange.createMessage().setContent("hello"));
+        Assert.assertNull("exchange should not complete before the provider", 
+                completed.poll(100, TimeUnit.MILLISECONDS));
+        latch.countDown();
+        Assert.assertSame(exchange, completed.poll(5, TimeUnit.SECONDS));
+        Assert.assertNotNull(exchange.getContext().getPropertyValue(ExchangeCompletionEvent.EXCHANGE_DURATION));
+    }
+
+    private ServiceReference createService(Map<String, Object> config, ExchangeHandler provider) {
+        return createService(config, new InOutService(), provider);
+    }
+
+    private ServiceReference createService(Map<String, Object> config, 
+            ServiceInterface serviceInterface, ExchangeHandler provider) {
+        _bus = new ExecutorExchangeBus(config);
+        _domain = new DomainImpl(new QName("test"),
+                new DefaultServiceRegistry(),
+                _bus,
+                new BaseTransformerRegistry(),
+                new BaseValidatorRegistry(),
+                new EventManager());
+        _domain.registerService(SERVICE, serviceInterface, provider);
+        return _domain.registerServiceReference(SERVICE, serviceInterface);
+    }
+
+    private Map<String, Object> singleWorkerConfig(ExecutorExchangeBus.Backpressure backpressure) {
+        Map<String, Object> config = new HashMap<String, Object>();
+        config.put(ExecutorExchangeBus.WORKERS, 1);
+        config.put(ExecutorExchangeBus.QUEUE_SIZE + "." + SERVICE, "1");
+        config.put(ExecutorExchangeBus.BACKPRESSURE, backpressure.name());
+        return config;
+    }
+
+    // occupy the only worker and the only queue slot
+    private void fillQueue(ServiceReference reference, MockHandler consumer) throws Exception {
+        ExecutorDispatcher dispatcher = (ExecutorDispatcher)_bus.getDispatcher(_domain.getServiceRegistry().getServices(SERVICE).get(0));
+        Exchange busy = reference.createExchange(consumer);
+        busy.send(busy.createMessage().setContent("block"));
+        Exchange queued = reference.createExchange(consumer);
+        queued.send(queued.createMessage().setContent("block"));
+        long timeout = System.currentTimeMillis() + 5000;
+        while (dispatcher.getQueueDepth() < 1 && System.currentTimeMillis() < timeout) {
+            Thread.sleep(10);
+        }
+        Assert.assertEquals(1, dispatcher.getQueueDepth());
+    }
+
+    private Thread sendInBackground(final ServiceReference reference, final MockHandler consumer) {
+        Thread sender = new Thread() {
+            public void run() {
+                Exchange exchange = reference.createExchange(consumer);
+                exchange.send(exchange.createMessage().setContent("go"));
+            }
+        };
+        sender.start();
+        return sender;
+    }
+
+    private boolean waitForReplies(MockHandler consumer, int count) throws InterruptedException {
+        long timeout = System.currentTimeMillis() + 5000;
+        while (consumer.getMessages().size() + consumer.getFaults().size() < count) {
+            if (System.currentTimeMillis() > timeout) {
+                return false;
+            }
+            Thread.sleep(10);
+        }
+        return true;
+    }
+
+    /**
+     * Replies with the request content, recording the name of the thread used.
+     * Requests with a "block" payload wait on the latch first.
+     */
+    private static class ThreadRecordingHandler extends BaseHandler {
+        private CountDownLatch _latch;
+
+        ThreadRecordingHandler(CountDownLatch latch) {
+            _latch = latch;
+        }
+
+        @Override
+        public void handleMessage(Exchange exchange) throws HandlerException {
+            if ("block".equals(exchange.getMessage().getContent())) {
+                try {
+                    _latch.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    throw new HandlerException(e);
+                }
+            }
+            exchange.getContext().setProperty("thread", Thread.currentThread().getName());
+            exchange.send(exchange.getMessage());
+        }
+    }
+}
@@ -0,0 +1,76 @@
+/* 
+ * JBoss, Home of Professional Open Source 
+ * Copyright 2011 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @author tags. All rights reserved. 
+ * See the copyright.txt in the distribution for a 
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use, 
+ * modify, copy, or redistribute it subject to the terms and conditions 
+ * of the GNU Lesser General Public License, v. 2.1. 
+ * This program is distributed in the hope that it will be useful, but WITHOUT A 
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A 
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details. 
+ * You should have received a copy of the GNU Lesser General Public License, 
+ * v.2.1 along with this distribution; if not, write to the Free Software 
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, 
+ * MA  02110-1301, USA.
+ */
+package org.switchyard.internal;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+import org.switchyard.spi.MessageIdGenerator;
+
+/**
+ *  Unit tests for the MessageIdGenerator implementations.
+ */
+public class MessageIdGeneratorTest {
+    
+    private static final int THREADS = 4;
+    private static final int IDS_PER_THREAD = 10000;
+
+    @Test
+    public void testCounterIdsAreUnique() throws Exception {
+        assertUnique(new CounterMessageIdGenerator());
+    }
+
+    @Test
+    public void testCounterPrefixPerGenerator() throws Exception {
+        String id1 = new CounterMessageIdGenerator().nextId();
+        String id2 = new CounterMessageIdGenerator().nextId();
+        Assert.assertFalse(id1.equals(id2));
+    }
+
+    @Test
+    public void testUUIDIds() throws Exception {
+        String id = new UUIDMessageIdGenerator().nextId();
+        Assert.assertEquals(id, UUID.fromString(id).toString());
+        assertUnique(new UUIDMessageIdGenerator());
+    }
+    
+    private void assertUnique(final MessageIdGenerator generator) throws Exception {
+        final Set<String> ids = 
+            Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+        final CountDownLatch done = new CountDownLatch(THREADS);
+        for (int t = 0; t < THREADS; t++) {
+            new Thread(new Runnable() {
+                public void run() {
+                    for (int i = 0; i < IDS_PER_THREAD; i++) {
+                        ids.add(generator.nextId());
+                    }
+                    done.countDown();
+                }
+            }).start();
+        }
+        done.await();
+        Assert.assertEquals(THREADS * IDS_PER_THREAD, ids.size());
+    }
+}
@@ -0,0 +1,138 @@
+/* 
+ * JBoss, Home of Professional Open Source 
+ * Copyright 2011 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @author tags. All rights reserved. 
+ * See the copyright.txt in the distribution for a 
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use, 
+ * modify, copy, or redistribute it subject to the terms and conditions 
+ * of the GNU Lesser General Public License, v. 2.1. 
+ * This program is distributed in the hope that it will be useful, but WITHOUT A 
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A 
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details. 
+ * You should have received a copy of the GNU Lesser General Public License, 
+ * v.2.1 along with this distribution; if not, write to the Free Software 
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, 
+ * MA  02110-1301, USA.
+ */
+package org.switchyard.internal;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.xml.namespace.QName;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+import org.switchyard.Exchange;
+import org.switchyard.ExchangePhase;
+import org.switchyard.MockExchange;
+import org.switchyard.Service;
+import org.switchyard.exception.SwitchYardException;
+import org.switchyard.internal.selector.RoundRobinServiceSelector;
+import org.switchyard.metadata.ExchangeContract;
+import org.switchyard.spi.Dispatcher;
+import org.switchyard.spi.SelectableDispatcher;
+import org.switchyard.spi.ServiceSelector;
+
+/**
+ *  Unit tests for the TrackingDispatcher class.
+ */
+public class TrackingDispatcherTest {
+
+    @Test
+    public void testCompletedExchangeNotOutstanding() {
+        TrackingDispatcher tracker = new TrackingDispatcher(new StubDispatcher(false));
+        Exchange exchange = new MockExchange().setPhase(ExchangePhase.IN);
+        tracker.dispatch(exchange);
+        Assert.assertEquals(1, tracker.getOutstandingExchanges());
+        Assert.assertEquals(1, tracker.getSelectedExchanges());
+        
+        tracker.completed(exchange);
+        Assert.assertEquals(0, tracker.getOutstandingExchanges());
+        // completing twice does not count twice
+        tracker.completed(exchange);
+        Assert.assertEquals(0, tracker.getOutstandingExchanges());
+    }
+
+    @Test
+    public void testFailedDispatchNotOutstanding() {
+        TrackingDispatcher tracker = new TrackingDispatcher(new StubDispatcher(true));
+        try {
+            tracker.dispatch(new MockExchange().setPhase(ExchangePhase.IN));
+            Assert.fail("Expected SwitchYardException from the delegate");
+        } catch (SwitchYardException syEx) {
+            // expected
+        }
+        Assert.assertEquals(0, tracker.getOutstandingExchanges());
+        Assert.assertEquals(1, tracker.getSelectedExchanges());
+    }
+
+    @Test
+    public void testIncompleteExchangeExpires() throws Exception {
+        TrackingDispatcher tracker = new TrackingDispatcher(new StubDispatcher(false), 50);
+        tracker.dispatch(new MockExchange().setPhase(ExchangePhase.IN));
+        Assert.assertEquals(1, tracker.getOutstandingExchanges());
+        
+        Thread.sleep(150);
+        Assert.assertEquals(0, tracker.getOutstandingExchanges());
+        Assert.assertEquals(1, tracker.getSelectedExchanges());
+    }
+
+    @Test
+    public void testIncompleteExchangesReleasedWithoutReads() throws Exception {
+        // round robin never reads the outstanding count, so expiry has to
+        // happen on dispatch
+        List<SelectableDispatcher> providers = new ArrayList<SelectableDispatcher>();
+        TrackingDispatcher first = new TrackingDispatcher(new StubDispatcher(false), 50);
+        TrackingDispatcher second = new TrackingDispatcher(new StubDispatcher(false), 50);
+        providers.add(first);
+        providers.add(second);
+        ServiceSelector selector = new RoundRobinServiceSelector();
+        
+        for (int i = 0; i < 10; i++) {
+            Exchange exchange = newInOut();
+            selector.select(exchange, providers).dispatch(exchange);
+        }
+        Assert.assertEquals(5, first.getTrackedExchanges());
+        Assert.assertEquals(5, second.getTrackedExchanges());
+        
+        Thread.sleep(150);
+        for (int i = 0; i < 2; i++) {
+            Exchange exchange = newInOut();
+            selector.select(exchange, providers).dispatch(exchange);
+        }
+        Assert.assertEquals(1, first.getTrackedExchanges());
+        Assert.assertEquals(1, second.getTrackedExchanges());
+        Assert.assertEquals(6, first.getSelectedExchanges());
+    }
+    
+    private static Exchange newInOut() {
+        return new MockExchange().setPhase(ExchangePhase.IN).setContract(ExchangeContract.IN_OUT);
+    }
+
+    private static final class StubDispatcher implements Dispatcher {
+        private final Service _service = new ServiceImpl(new QName("Stub"), null, null, null);
+        private final boolean _fail;
+        
+        StubDispatcher(boolean fail) {
+            _fail = fail;
+        }
+        public Service getService() {
+            return _service;
+        }
+        public void dispatch(Exchange exchange) {
+            if (_fail) {
+                throw new SwitchYardException("delivery failed");
+            }
+        }
+        public void completed(Exchange exchange) {
+        }
+        public void start() {
+        }
+        public void stop() {
+        }
+    }
+}
@@ -0,0 +1,141 @@
+/* 
+ * JBoss, Home of Professional Open Source 
+ * Copyright 2011 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @author tags. All rights reserved. 
+ * See the copyright.txt in the distribution for a 
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use, 
+ * modify, copy, or redistribute it subject to the terms and conditions 
+ * of the GNU Lesser General Public License, v. 2.1. 
+ * This program is distributed in the hope that it will be useful, but WITHOUT A 
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A 
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details. 
+ * You should have received a copy of the GNU Lesser General Public License, 
+ * v.2.1 along with this distribution; if not, write to the Free Software 
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, 
+ * MA  02110-1301, USA.
+ */
+package org.switchyard.internal.selector;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import javax.xml.namespace.QName;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+import org.switchyard.Exchange;
+import org.switchyard.MockDomain;
+import org.switchyard.Service;
+import org.switchyard.ServiceReference;
+import org.switchyard.exception.SwitchYardException;
+import org.switchyard.internal.ServiceImpl;
+import org.switchyard.spi.SelectableDispatcher;
+import org.switchyard.spi.ServiceSelector;
+
+/**
+ *  Unit tests for the ServiceSelector implementations.
+ */
+public class ServiceSelectorTest {
+    
+    private List<SelectableDispatcher> _providers = Arrays.<SelectableDispatcher>asList(
+            new MockProvider(0), new MockProvider(0), new MockProvider(0));
+
+    @Test
+    public void testRoundRobin() {
+        ServiceSelector selector = ServiceSelectors.create(ServiceSelectors.ROUND_ROBIN);
+        for (int i = 0; i < 6; i++) {
+            Assert.assertSame(_providers.get(i % 3), selector.select(null, _providers));
+        }
+    }
+
+    @Test
+    public void testRandom() {
+        ServiceSelector selector = ServiceSelectors.create(ServiceSelectors.RANDOM);
+        for (int i = 0; i < 100; i++) {
+            Assert.assertTrue(_providers.contains(selector.select(null, _providers)));
+        }
+    }
+
+    @Test
+    public void testLeastOutstanding() {
+        List<SelectableDispatcher> providers = Arrays.<SelectableDispatcher>asList(
+                new MockProvider(3), new MockProvider(1), new MockProvider(2));
+        ServiceSelector selector = ServiceSelectors.create(ServiceSelectors.LEAST_OUTSTANDING);
+        for (int i = 0; i < 3; i++) {
+            Assert.assertSame(providers.get(1), selector.select(null, providers));
+        }
+        // ties are spread
+        Set<SelectableDispatcher> selected = new HashSet<SelectableDispatcher>();
+        for (int i = 0; i < 3; i++) {
+            selected.add(selector.select(null, _providers));
+        }
+        Assert.assertEquals(3, selected.size());
+    }
+
+    @Test
+    public void testSticky() {
+        MockDomain domain = new MockDomain();
+        ServiceReference reference = domain.createInOnlyService(new QName("Sticky"));
+        ServiceSelector selector = ServiceSelectors.create(ServiceSelectors.STICKY);
+        
+        Exchange exchange = reference.createExchange();
+        exchange.getContext().setProperty(StickyServiceSelector.KEY, "customer-1");
+        SelectableDispatcher first = selector.select(exchange, _providers);
+        for (int i = 0; i < 10; i++) {
+            Assert.assertSame(first, selector.select(exchange, _providers));
+        }
+        
+        // removing another provider does not move the key
+        List<SelectableDispatcher> remaining = new ArrayList<SelectableDispatcher>(_providers);
+        remaining.remove(first == _providers.get(0) ? _providers.get(1) : _providers.get(0));
+        Assert.assertSame(first, selector.select(exchange, remaining));
+        
+        // no key, round-robin
+        Exchange unkeyed = reference.createExchange();
+        Assert.assertNotSame(selector.select(unkeyed, _providers), selector.select(unkeyed, _providers));
+    }
+
+    @Test
+    public void testCustomSelector() {
+        Assert.assertTrue(ServiceSelectors.create(
+                RandomServiceSelector.class.getName()) instanceof RandomServiceSelector);
+        try {
+            ServiceSelectors.create("org.switchyard.NoSuchSelector");
+            Assert.fail("Expected SwitchYardException for an unknown selector");
+        } catch (SwitchYardException syEx) {
+            // expected
+        }
+    }
+    
+    private static final class MockProvider implements SelectableDispatcher {
+        private final int _outstanding;
+        private final Service _service = new ServiceImpl(new QName("Mock"), null, null, null);
+        
+        MockProvider(int outstanding) {
+            _outstanding = outstanding;
+        }
+        public int getOutstandingExchanges() {
+            return _outstanding;
+        }
+        public long getSelectedExchanges() {
+            return 0;
+        }
+        public Service getService() {
+            return _service;
+        }
+        public void dispatch(Exchange exchange) {
+        }
+        public void completed(Exchange exchange) {
+        }
+        public void start() {
+        }
+        public void stop() {
+        }
+    }
+}
@@ -101,6 +101,43 @@ public class BaseTransformerRegistryTest {
         transformer = _registry.getTransformer(getType(D.class), new QName("target1"));
     }
 
+    @Test
+    public void test_getFallbackTransformer_missThenAdded() {
+        QName target = new QName("target1");
+        Assert.assertNull(_registry.getTransformer(getType(D.class), target));
+        // a cached miss must not hide a transformer added later
+        addTransformer(B.class);
+        Assert.assertEquals(getType(B.class), _registry.getTransformer(getType(D.class), target).getFrom());
+        addTransformer(C.class);
+        Assert.assertEquals(getType(C.class), _registry.getTransformer(getType(D.class), target).getFrom());
+    }
+
+    @Test
+    public void test_getFallbackTransformer_removed() {
+        QName target = new QName("target1");
+        TestTransformer c = new TestTransformer(getType(C.class), target);
+        addTransformer(A.class);
+        _registry.addTransformer(c);
+        _registry.addTransformer(new TestTransformer(getType(C.class), new QName("target2")));
+        Assert.assertSame(c, _registry.getTransformer(getType(D.class), target));
+        Assert.assertNotNull(_registry.getTransformer(getType(D.class), new QName("target2")));
+
+        _registry.removeTransformer(c);
+        Assert.assertEquals(getType(A.class), _registry.getTransformer(getType(D.class), target).getFrom());
+        Assert.assertEquals(getType(C.class), 
+                _registry.getTransformer(getType(D.class), new QName("target2")).getFrom());
+    }
+
+    @Test
+    public void test_getFallbackTransformer_replaced() {
+        QName target = new QName("target1");
+        addTransformer(B.class);
+        TestTransformer replacement = new TestTransformer(getType(B.class), target);
+        Assert.assertNotSame(replacement, _registry.getTransformer(getType(D.class), target));
+        _registry.addTransformer(replacement);
+        Assert.assertSame(replacement, _registry.getTransformer(getType(D.class), target));
+    }
+
     private void addTransformer(Class<?> type) {
         QName fromType = getType(type);
         QName toType = new QName("target1");
@@ -0,0 +1,155 @@
+/* 
+ * JBoss, Home of Professional Open Source 
+ * Copyright 2011 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @author tags. All rights reserved. 
+ * See the copyright.txt in the distribution for a 
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use, 
+ * modify, copy, or redistribute it subject to the terms and conditions 
+ * of the GNU Lesser General Public License, v. 2.1. 
+ * This program is distributed in the hope that it will be useful, but WITHOUT A 
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A 
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details. 
+ * You should have received a copy of the GNU Lesser General Public License, 
+ * v.2.1 along with this distribution; if not, write to the Free Software 
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, 
+ * MA  02110-1301, USA.
+ */
+
+package org.switchyard.internal.transform;
+
+import javax.xml.namespace.QName;
+
+import junit.framework.Assert;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.switchyard.Message;
+import org.switchyard.internal.DefaultMessage;
+import org.switchyard.transform.BaseTransformer;
+
+/**
+ * Unit tests for the TransformPlan class.
+ */
+public class TransformPlanTest {
+
+    private static final QName A = new QName("A");
+    private static final QName B = new QName("B");
+    private static final QName C = new QName("C");
+    private static final QName D = new QName("D");
+    private static final QName E = new QName("E");
+
+    private BaseTransformerRegistry _registry;
+
+    @Before
+    public void setUp() throws Exception {
+        _registry = new BaseTransformerRegistry();
+    }
+
+    @Test
+    public void testDirect() {
+        _registry.addTransformer(new AppendTransformer(A, B));
+        TransformPlan plan = TransformPlan.compile(A, B, _registry);
+        Assert.assertTrue(plan.isResolved());
+        
+        Message message = new DefaultMessage().setContent("");
+        Assert.assertEquals(B, plan.apply(message, A));
+        Assert.assertEquals("B", message.getContent());
+    }
+
+    @Test
+    public void testSameType() {
+        TransformPlan plan = TransformPlan.compile(A, A, _registry);
+        Assert.assertTrue(plan.isResolved());
+        Message message = new DefaultMessage().setContent("");
+        Assert.assertEquals(A, plan.apply(message, A));
+        Assert.assertEquals("", message.getContent());
+    }
+
+    @Test
+    public void testShortestPath() {
+        _registry.addTransformer(new AppendTransformer(A, D));
+        _registry.addTransformer(new AppendTransformer(D, E));
+        _registry.addTransformer(new AppendTransformer(E, C));
+        _registry.addTransformer(new AppendTransformer(A, B));
+        _registry.addTransformer(new AppendTransformer(B, C));
+        
+        TransformPlan plan = TransformPlan.compile(A, C, _registry);
+        Message message = new DefaultMessage().setContent("");
+        Assert.assertEquals(C, plan.apply(message, null));
+        Assert.assertEquals("BC", message.getContent());
+    }
+
+    @Test
+    public void testResumeFromCurrentType() {
+        _registry.addTransformer(new AppendTransformer(A, B));
+        _registry.addTransformer(new AppendTransformer(B, C));
+        TransformPlan plan = TransformPlan.compile(A, C, _registry);
+        
+        Message message = new DefaultMessage().setContent("");
+        Assert.assertEquals(C, plan.apply(message, B));
+        Assert.assertEquals("C", message.getContent());
+        // already at the target type, nothing left to do
+        Assert.assertEquals(C, plan.apply(message, C));
+        Assert.assertEquals("C", message.getContent());
+    }
+
+    @Test
+    public void testUnknownCurrentTypeAppliesWholePlan() {
+        _registry.addTransformer(new AppendTransformer(A, B));
+        _registry.addTransformer(new AppendTransformer(B, C));
+        TransformPlan plan = TransformPlan.compile(A, C, _registry);
+        
+        Message message = new DefaultMessage().setContent("");
+        Assert.assertEquals(C, plan.apply(message, D));
+        Assert.assertEquals("BC", message.getContent());
+    }
+
+    @Test
+    public void testTypesFromRegistration() {
+        // registered under types which differ from the transformers' own
+        _registry.addTransformer(new AppendTransformer(A, null), A, B);
+        _registry.addTransformer(new AppendTransformer(D, E), B, C);
+        TransformPlan plan = TransformPlan.compile(A, C, _registry);
+        Assert.assertEquals("TransformPlan[A -> B -> C]", plan.toString());
+        
+        Message message = new DefaultMessage().setContent("");
+        Assert.assertEquals(C, plan.apply(message, B));
+        Assert.assertEquals("E", message.getContent());
+    }
+
+    @Test
+    public void testUnresolved() {
+        _registry.addTransformer(new AppendTransformer(A, B));
+        TransformPlan plan = TransformPlan.compile(A, C, _registry);
+        Assert.assertFalse(plan.isResolved());
+        Message message = new DefaultMessage().setContent("");
+        Assert.assertEquals(A, plan.apply(message, A));
+        Assert.assertEquals("", message.getContent());
+    }
+
+    @Test
+    public void testNullResultStopsPlan() {
+        _registry.addTransformer(new AppendTransformer(A, B));
+        _registry.addTransformer(new BaseTransformer<String, String>(B, C) {
+            public String transform(String from) {
+                return null;
+            }
+        });
+        TransformPlan plan = TransformPlan.compile(A, C, _registry);
+        Message message = new DefaultMessage().setContent("");
+        Assert.assertEquals(B, plan.apply(message, A));
+        Assert.assertEquals("B", message.getContent());
+    }
+
+    private static class AppendTransformer extends BaseTransformer<String, String> {
+        AppendTransformer(QName from, QName to) {
+            super(from, to);
+        }
+
+        public String transform(String from) {
+            return getTo() != null ? from + getTo().getLocalPart() : from;
+        }
+    }
+}
@@ -32,6 +32,8 @@ import org.switchyard.MockDomain;
 import org.switchyard.MockHandler;
 import org.switchyard.Scope;
 import org.switchyard.ServiceReference;
+import org.switchyard.metadata.BaseService;
+import org.switchyard.metadata.InOnlyOperation;
 import org.switchyard.transform.BaseTransformer;
 import org.switchyard.transform.TransformSequence;
 import org.switchyard.transform.Transformer;
@@ -141,4 +143,65 @@ public class TransformationTest {
         Assert.assertTrue(content instanceof HandlerException);
         Assert.assertEquals("Transformations not applied.  Required payload type of 'toB'.  Actual payload type is 'fromA'.  You must define and register a Transformer to transform between these types.", ((HandlerException)content).getMessage());
     }
+
+    /**
+     * Types declared on the service and reference are transformed through 
+     * an intermediate type when there is no direct transformer.
+     */
+    @Test
+    public void testContractTransformationMultiHop() throws Exception {
+        final QName serviceName = new QName("multiHopTransform");
+        final QName orderType = new QName("order");
+        final QName xmlType = new QName("xml");
+        final QName beanType = new QName("bean");
+        
+        _domain.getTransformerRegistry().addTransformer(appender(orderType, xmlType));
+        _domain.getTransformerRegistry().addTransformer(appender(xmlType, beanType));
+        
+        MockHandler provider = new MockHandler();
+        _domain.registerService(serviceName, new BaseService(new InOnlyOperation("submit", beanType)), provider);
+        ServiceReference service = _domain.registerServiceReference(
+                serviceName, new BaseService(new InOnlyOperation("submit", orderType)));
+        
+        Exchange exchange = service.createExchange();
+        exchange.send(exchange.createMessage().setContent("order"));
+        provider.waitForOKMessage();
+        Exchange received = provider.getMessages().poll();
+        Assert.assertEquals("order>xml>bean", received.getMessage().getContent());
+        Assert.assertEquals(beanType, received.getContext().getProperty(Exchange.CONTENT_TYPE, Scope.IN).getValue());
+    }
+
+    /**
+     * Compiled transformations are dropped when a transformer is added.
+     */
+    @Test
+    public void testContractTransformationAddedLater() throws Exception {
+        final QName serviceName = new QName("addedTransform");
+        final QName fromType = new QName("from");
+        final QName toType = new QName("to");
+        
+        MockHandler provider = new MockHandler();
+        _domain.registerService(serviceName, new BaseService(new InOnlyOperation("submit", toType)), provider);
+        ServiceReference service = _domain.registerServiceReference(
+                serviceName, new BaseService(new InOnlyOperation("submit", fromType)));
+        
+        MockHandler invokerHandler = new MockHandler();
+        Exchange exchange = service.createExchange(invokerHandler);
+        exchange.send(exchange.createMessage().setContent("msg"));
+        invokerHandler.waitForFaultMessage();
+        
+        _domain.getTransformerRegistry().addTransformer(appender(fromType, toType));
+        exchange = service.createExchange();
+        exchange.send(exchange.createMessage().setContent("msg"));
+        provider.waitForOKMessage();
+        Assert.assertEquals("msg>to", provider.getMessages().poll().getMessage().getContent());
+    }
+
+    private Transformer<String, String> appender(QName from, QName to) {
+        return new BaseTransformer<String, String>(from, to) {
+            public String transform(String content) {
+                return content + ">" + getTo().getLocalPart();
+            }
+        };
+    }
 }
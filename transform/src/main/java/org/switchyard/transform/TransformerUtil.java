@@ -243,31 +243,8 @@ public final class TransformerUtil {
         return false;
     }
 
-    private static Transformer newTransformer(final Object transformerObject, final Method publicMethod, QName from, QName to) {
-        Transformer transformer = new BaseTransformer(from, to) {
-            @Override
-            public Object transform(Object from) {
-                try {
-                    return publicMethod.invoke(transformerObject, from);
-                } catch (InvocationTargetException e) {
-                    throw new SwitchYardException("Error executing @Transformer method '" + publicMethod.getName() + "' on class '" + publicMethod.getDeclaringClass().getName() + "'.", e.getCause());
-                } catch (Exception e) {
-                    throw new SwitchYardException("Error executing @Transformer method '" + publicMethod.getName() + "' on class '" + publicMethod.getDeclaringClass().getName() + "'.", e);
-                }
-            }
-            
-            @Override
-            public Class<?> getFromType() {
-                return publicMethod.getParameterTypes()[0];
-            }
-            
-            @Override
-            public Class<?> getToType() {
-                return publicMethod.getReturnType();
-            }
-        };
-
-        return transformer;
+    private static Transformer newTransformer(Object transformerObject, Method publicMethod, QName from, QName to) {
+        return new MethodTransformer(transformerObject, publicMethod, from, to);
     }
 
     private static boolean isAssignableFrom(QName a, QName b) {
@@ -360,4 +337,51 @@ public final class TransformerUtil {
             return _method;
         }
     }
+
+    /**
+     * Adapts an {@link org.switchyard.annotations.Transformer @Transformer} method to the
+     * {@link Transformer} interface.  The method's from/to types are resolved once, and
+     * reflective access checks are suppressed so each call is a plain invocation.
+     */
+    private static final class MethodTransformer extends BaseTransformer {
+
+        private final Object _transformerObject;
+        private final Method _method;
+        private final Class<?> _fromType;
+        private final Class<?> _toType;
+
+        private MethodTransformer(Object transformerObject, Method method, QName from, QName to) {
+            super(from, to);
+            _transformerObject = transformerObject;
+            _method = method;
+            _fromType = method.getParameterTypes()[0];
+            _toType = method.getReturnType();
+            try {
+                _method.setAccessible(true);
+            } catch (SecurityException e) {
+                // Not permitted.  Calls are access checked instead.
+            }
+        }
+
+        @Override
+        public Object transform(Object from) {
+            try {
+                return _method.invoke(_transformerObject, from);
+            } catch (InvocationTargetException e) {
+                throw new SwitchYardException("Error executing @Transformer method '" + _method.getName() + "' on class '" + _method.getDeclaringClass().getName() + "'.", e.getCause());
+            } catch (Exception e) {
+                throw new SwitchYardException("Error executing @Transformer method '" + _method.getName() + "' on class '" + _method.getDeclaringClass().getName() + "'.", e);
+            }
+        }
+
+        @Override
+        public Class<?> getFromType() {
+            return _fromType;
+        }
+
+        @Override
+        public Class<?> getToType() {
+            return _toType;
+        }
+    }
 }
@@ -30,4 +30,22 @@ public interface JAXBTransformModel extends TransformModel {
 
     /** The "jaxb" name. */
     public static final String JAXB = "jaxb";
+
+    /** The "compact" attribute name. */
+    public static final String COMPACT = "compact";
+
+    /**
+     * Whether Java to XML transforms write unindented UTF-8 bytes instead of
+     * a pretty printed String.
+     * @return true if compact
+     */
+    boolean isCompact();
+
+    /**
+     * Sets whether Java to XML transforms write unindented UTF-8 bytes
+     * instead of a pretty printed String.
+     * @param compact true if compact
+     * @return this JAXBTransformModel (useful for chaining)
+     */
+    JAXBTransformModel setCompact(boolean compact);
 }
@@ -32,4 +32,24 @@ public interface JSONTransformModel extends TransformModel{
      * json transform model namespace. 
      */
     public static final String JSON = "json";
+
+    /**
+     * The "byteOutput" attribute name.
+     */
+    public static final String BYTE_OUTPUT = "byteOutput";
+
+    /**
+     * Whether Java to JSON transforms produce UTF-8 encoded byte[] rather
+     * than a String.
+     * @return true for byte output
+     */
+    boolean isByteOutput();
+
+    /**
+     * Sets whether Java to JSON transforms produce UTF-8 encoded byte[]
+     * rather than a String.
+     * @param byteOutput true for byte output
+     * @return this JSONTransformModel (useful for chaining)
+     */
+    JSONTransformModel setByteOutput(boolean byteOutput);
 }
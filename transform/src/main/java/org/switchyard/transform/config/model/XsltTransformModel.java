@@ -35,6 +35,9 @@ public interface XsltTransformModel extends TransformModel {
 
     /**  whether a warning should be reported as an Exception.   */
     String FAIL_ON_WARNING = "failOnWarning";
+
+    /** whether stream payloads are transformed without building a DOM. */
+    String STREAMING = "streaming";
     
     /**
      * @return xslt identifier
@@ -61,4 +64,18 @@ public interface XsltTransformModel extends TransformModel {
      * @return model representation
      */
     XsltTransformModel setFailOnWarning(boolean failOnWarning);
+
+    /** Return whether stream payloads are transformed without building a DOM.
+     * If streaming attribute is "true", InputStream, Reader, String and byte[]
+     * payloads are read as a stream and the result is serialized straight to
+     * the target type unless that is a DOM type.
+     * @return whether the transformer streams its input and output
+     */
+    boolean isStreaming();
+
+    /** Set whether stream payloads are transformed without building a DOM.
+     * @param streaming whether the transformer streams its input and output
+     * @return model representation
+     */
+    XsltTransformModel setStreaming(boolean streaming);
 }
@@ -52,4 +52,21 @@ public class V1JAXBTransformModel extends V1BaseTransformModel implements JAXBTr
     public V1JAXBTransformModel(Configuration config, Descriptor desc) {
         super(config, desc);
     }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isCompact() {
+        return Boolean.parseBoolean(getModelAttribute(COMPACT));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public JAXBTransformModel setCompact(boolean compact) {
+        setModelAttribute(COMPACT, Boolean.toString(compact));
+        return this;
+    }
 }
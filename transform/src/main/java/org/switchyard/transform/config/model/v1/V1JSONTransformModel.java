@@ -52,4 +52,21 @@ public class V1JSONTransformModel extends V1BaseTransformModel implements JSONTr
     public V1JSONTransformModel(Configuration config, Descriptor desc) {
         super(config, desc);
     }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isByteOutput() {
+        return Boolean.parseBoolean(getModelAttribute(BYTE_OUTPUT));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public JSONTransformModel setByteOutput(boolean byteOutput) {
+        setModelAttribute(BYTE_OUTPUT, Boolean.toString(byteOutput));
+        return this;
+    }
 }
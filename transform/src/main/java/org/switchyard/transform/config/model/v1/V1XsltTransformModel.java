@@ -88,4 +88,21 @@ public class V1XsltTransformModel extends V1BaseTransformModel implements
         return this;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isStreaming() {
+        return Boolean.parseBoolean(getModelAttribute(STREAMING));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public XsltTransformModel setStreaming(boolean streaming) {
+        setModelAttribute(STREAMING, Boolean.toString(streaming));
+        return this;
+    }
+
 }
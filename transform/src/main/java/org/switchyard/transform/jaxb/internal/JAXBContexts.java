@@ -0,0 +1,91 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2011 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+
+package org.switchyard.transform.jaxb.internal;
+
+import java.lang.ref.WeakReference;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+
+import org.switchyard.common.type.Classes;
+
+/**
+ * JAXBContext cache shared by all JAXB transformers.
+ * <p/>
+ * Creating a JAXBContext is expensive, and every service interface using a
+ * JAXB package used to create its own for each input and output type.
+ * Contexts are cached per ClassLoader and context path.  The ClassLoader is
+ * weakly referenced, and so is the context, which stays cached for as long
+ * as a transformer uses it.  An undeployed application's classes can
+ * therefore still be collected.
+ */
+final class JAXBContexts {
+
+    // ClassLoader (may be null) -> context path -> context
+    private static final Map<ClassLoader, Map<String, WeakReference<JAXBContext>>> CONTEXTS =
+        new WeakHashMap<ClassLoader, Map<String, WeakReference<JAXBContext>>>();
+
+    private JAXBContexts() {
+    }
+
+    /**
+     * Returns the JAXBContext for a context path, creating it on first use.
+     * @param contextPath JAXB context path (Java package).
+     * @param classLoader ClassLoader used to locate the JAXB classes, or null
+     * to use the thread context ClassLoader, as JAXBContext.newInstance(String) does.
+     * @return the JAXBContext
+     * @throws JAXBException Failed to create the JAXBContext.
+     */
+    static JAXBContext getContext(String contextPath, ClassLoader classLoader) throws JAXBException {
+        ClassLoader loader = classLoader != null ? classLoader : Classes.getTCCL();
+        synchronized (CONTEXTS) {
+            Map<String, WeakReference<JAXBContext>> contexts = CONTEXTS.get(loader);
+            if (contexts != null) {
+                WeakReference<JAXBContext> ref = contexts.get(contextPath);
+                JAXBContext context = ref != null ? ref.get() : null;
+                if (context != null) {
+                    return context;
+                }
+            }
+        }
+
+        // create outside the lock, this can take a while for large packages
+        JAXBContext context = loader != null
+            ? JAXBContext.newInstance(contextPath, loader)
+            : JAXBContext.newInstance(contextPath);
+        synchronized (CONTEXTS) {
+            Map<String, WeakReference<JAXBContext>> contexts = CONTEXTS.get(loader);
+            if (contexts == null) {
+                contexts = new HashMap<String, WeakReference<JAXBContext>>();
+                CONTEXTS.put(loader, contexts);
+            }
+            WeakReference<JAXBContext> ref = contexts.get(contextPath);
+            JAXBContext existing = ref != null ? ref.get() : null;
+            if (existing != null) {
+                return existing;
+            }
+            contexts.put(contextPath, new WeakReference<JAXBContext>(context));
+        }
+        return context;
+    }
+}
@@ -30,10 +30,15 @@ import javax.xml.bind.JAXBElement;
 import javax.xml.bind.JAXBException;
 import javax.xml.bind.Marshaller;
 import javax.xml.namespace.QName;
+import java.io.ByteArrayOutputStream;
 import java.io.StringWriter;
 
 /**
  * JAXB Marshalling transformer.
+ * <p/>
+ * By default the result is pretty printed into a String.  In compact mode it
+ * is written without indentation, as UTF-8 bytes, and the message content
+ * becomes a <code>byte[]</code>.
  *
  * @author <a href="mailto:tom.fennelly@gmail.com">tom.fennelly@gmail.com</a>
  *
@@ -45,6 +50,10 @@ public class JAXBMarshalTransformer<F, T> extends BaseTransformer<Message, Messa
 
     private String _contextPath;
     private JAXBContext _jaxbContext;
+    private Class<?> _javaType;
+    private boolean _compact;
+    // Marshallers are not thread-safe, but can be reused by one thread
+    private final ThreadLocal<Marshaller> _marshallers = new ThreadLocal<Marshaller>();
 
     /**
      * Public constructor.
@@ -54,38 +63,81 @@ public class JAXBMarshalTransformer<F, T> extends BaseTransformer<Message, Messa
      * @throws SwitchYardException Failed to create JAXBContext.
      */
     public JAXBMarshalTransformer(QName from, QName to, String contextPath) throws SwitchYardException {
+        this(from, to, contextPath, null, false);
+    }
+
+    /**
+     * Public constructor.
+     * @param from From type.
+     * @param to To type.
+     * @param contextPath JAXB context path (Java package).
+     * @param classLoader ClassLoader of the JAXB classes, or null for the thread context ClassLoader.
+     * @param compact Write unindented UTF-8 bytes instead of a pretty printed String.
+     * @throws SwitchYardException Failed to create JAXBContext.
+     */
+    public JAXBMarshalTransformer(QName from, QName to, String contextPath, ClassLoader classLoader, boolean compact) throws SwitchYardException {
         super(from, to);
         this._contextPath = contextPath;
+        this._compact = compact;
         try {
-            _jaxbContext = JAXBContext.newInstance(contextPath);
+            _jaxbContext = JAXBContexts.getContext(contextPath, classLoader);
         } catch (JAXBException e) {
             throw new SwitchYardException("Failed to create JAXBContext for contextPath '" + _contextPath + "'.", e);
         }
+        if (QNameUtil.isJavaMessageType(from)) {
+            _javaType = QNameUtil.toJavaMessageType(from);
+        }
+    }
+
+    /**
+     * Whether the result is written as unindented UTF-8 bytes.
+     * @return true if compact
+     */
+    public boolean isCompact() {
+        return _compact;
     }
 
     @Override
     public Message transform(Message message) {
-        Marshaller marshaller;
+        Marshaller marshaller = getMarshaller();
 
         try {
-            marshaller = _jaxbContext.createMarshaller();
-        } catch (JAXBException e) {
-            throw new SwitchYardException("Failed to create Marshaller for contextPath '" + _contextPath + "'.", e);
-        }
-
-        try {
-            StringWriter resultWriter = new StringWriter();
             Object javaObject = message.getContent();
-            JAXBElement jaxbElement = new JAXBElement(getTo(), QNameUtil.toJavaMessageType(getFrom()), javaObject);
-
-            marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, Boolean.TRUE);
-            marshaller.marshal(jaxbElement, resultWriter);
+            Class<?> javaType = _javaType != null ? _javaType : QNameUtil.toJavaMessageType(getFrom());
+            JAXBElement jaxbElement = new JAXBElement(getTo(), javaType, javaObject);
 
-            message.setContent(resultWriter.toString());
+            if (_compact) {
+                ByteArrayOutputStream resultStream = new ByteArrayOutputStream();
+                marshaller.marshal(jaxbElement, resultStream);
+                message.setContent(resultStream.toByteArray());
+            } else {
+                StringWriter resultWriter = new StringWriter();
+                marshaller.marshal(jaxbElement, resultWriter);
+                message.setContent(resultWriter.toString());
+            }
         } catch (JAXBException e) {
+            _marshallers.remove();
             throw new SwitchYardException("Failed to unmarshall for contextPath '" + _contextPath + "'.", e);
         }
 
         return message;
     }
+
+    private Marshaller getMarshaller() {
+        Marshaller marshaller = _marshallers.get();
+        if (marshaller == null) {
+            try {
+                marshaller = _jaxbContext.createMarshaller();
+                if (_compact) {
+                    marshaller.setProperty(Marshaller.JAXB_ENCODING, "UTF-8");
+                } else {
+                    marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, Boolean.TRUE);
+                }
+            } catch (JAXBException e) {
+                throw new SwitchYardException("Failed to create Marshaller for contextPath '" + _contextPath + "'.", e);
+            }
+            _marshallers.set(marshaller);
+        }
+        return marshaller;
+    }
 }
@@ -55,7 +55,7 @@ public class JAXBTransformerFactory implements TransformerFactory<JAXBTransformM
         QName fromType = model.getFrom();
         QName toType = model.getTo();
 
-        return newTransformer(fromType, toType);
+        return newTransformer(fromType, toType, model.isCompact());
     }
 
     /**
@@ -68,10 +68,26 @@ public class JAXBTransformerFactory implements TransformerFactory<JAXBTransformM
      * @return The transformer instance.
      */
     public static Transformer<?, ?> newTransformer(QName fromType, QName toType) {
+        return newTransformer(fromType, toType, false);
+    }
+
+    /**
+     * Create a new JAX Transformer for the give from and to types.
+     * <p/>
+     * Either the from or the to must be a JAXB annotated type.
+     *
+     * @param fromType From type.
+     * @param toType To type.
+     * @param compact Marshal to unindented UTF-8 bytes rather than a pretty printed String.
+     * @return The transformer instance.
+     */
+    public static Transformer<?, ?> newTransformer(QName fromType, QName toType, boolean compact) {
         if (toJavaTransformType(fromType, toType) == JavaTransformType.JAVA2XML) {
-            return new JAXBMarshalTransformer(fromType, toType, getJavaPackage(fromType));
+            Class<?> javaType = QNameUtil.toJavaMessageType(fromType);
+            return new JAXBMarshalTransformer(fromType, toType, getJavaPackage(javaType), javaType.getClassLoader(), compact);
         } else {
-            return new JAXBUnmarshalTransformer(fromType, toType, getJavaPackage(toType));
+            Class<?> javaType = QNameUtil.toJavaMessageType(toType);
+            return new JAXBUnmarshalTransformer(fromType, toType, getJavaPackage(javaType), javaType.getClassLoader());
         }
     }
 
@@ -121,7 +137,7 @@ public class JAXBTransformerFactory implements TransformerFactory<JAXBTransformM
 
             if (fromType != null) {
                 QName toType = JavaService.toMessageType(inType);
-                transformers.add(new JAXBUnmarshalTransformer(fromType, toType, inType.getPackage().getName()));
+                transformers.add(new JAXBUnmarshalTransformer(fromType, toType, inType.getPackage().getName(), inType.getClassLoader()));
             } else if (_log.isDebugEnabled()) {
                 _log.debug(createMissingFactoryMethodMessage(inType, objectFactory));
             }
@@ -136,7 +152,7 @@ public class JAXBTransformerFactory implements TransformerFactory<JAXBTransformM
 
             if (toType != null) {
                 QName fromType = JavaService.toMessageType(outType);
-                transformers.add(new JAXBMarshalTransformer(fromType, toType, outType.getPackage().getName()));
+                transformers.add(new JAXBMarshalTransformer(fromType, toType, outType.getPackage().getName(), outType.getClassLoader(), false));
             } else if (_log.isDebugEnabled()) {
                 _log.debug(createMissingFactoryMethodMessage(outType, objectFactory));
             }
@@ -217,7 +233,7 @@ public class JAXBTransformerFactory implements TransformerFactory<JAXBTransformM
         }
     }
 
-    private static String getJavaPackage(QName type) {
-        return QNameUtil.toJavaMessageType(type).getPackage().getName();
+    private static String getJavaPackage(Class<?> type) {
+        return type.getPackage().getName();
     }
 }
@@ -44,6 +44,8 @@ public class JAXBUnmarshalTransformer<F, T> extends BaseTransformer<Message, Mes
 
     private String _contextPath;
     private JAXBContext _jaxbContext;
+    // Unmarshallers are not thread-safe, but can be reused by one thread
+    private final ThreadLocal<Unmarshaller> _unmarshallers = new ThreadLocal<Unmarshaller>();
 
     /**
      * Public constructor.
@@ -53,10 +55,22 @@ public class JAXBUnmarshalTransformer<F, T> extends BaseTransformer<Message, Mes
      * @throws SwitchYardException Failed to create JAXBContext.
      */
     public JAXBUnmarshalTransformer(QName from, QName to, String contextPath) throws SwitchYardException {
+        this(from, to, contextPath, null);
+    }
+
+    /**
+     * Public constructor.
+     * @param from From type.
+     * @param to To type.
+     * @param contextPath JAXB context path (Java package).
+     * @param classLoader ClassLoader of the JAXB classes, or null for the thread context ClassLoader.
+     * @throws SwitchYardException Failed to create JAXBContext.
+     */
+    public JAXBUnmarshalTransformer(QName from, QName to, String contextPath, ClassLoader classLoader) throws SwitchYardException {
         super(from, to);
         this._contextPath = contextPath;
         try {
-            _jaxbContext = JAXBContext.newInstance(contextPath);
+            _jaxbContext = JAXBContexts.getContext(contextPath, classLoader);
         } catch (JAXBException e) {
             throw new SwitchYardException("Failed to create JAXBContext for contextPath '" + _contextPath + "'.", e);
         }
@@ -64,13 +78,7 @@ public class JAXBUnmarshalTransformer<F, T> extends BaseTransformer<Message, Mes
 
     @Override
     public Message transform(Message message) {
-        Unmarshaller unmarshaller;
-
-        try {
-            unmarshaller = _jaxbContext.createUnmarshaller();
-        } catch (JAXBException e) {
-            throw new SwitchYardException("Failed to create Unmarshaller for contextPath '" + _contextPath + "'.", e);
-        }
+        Unmarshaller unmarshaller = getUnmarshaller();
 
         try {
             Object unmarshalledObject = unmarshaller.unmarshal(message.getContent(Source.class));
@@ -81,9 +89,23 @@ public class JAXBUnmarshalTransformer<F, T> extends BaseTransformer<Message, Mes
                 message.setContent(unmarshalledObject);
             }
         } catch (JAXBException e) {
+            _unmarshallers.remove();
             throw new SwitchYardException("Failed to unmarshall for contextPath '" + _contextPath + "'.", e);
         }
 
         return message;
     }
+
+    private Unmarshaller getUnmarshaller() {
+        Unmarshaller unmarshaller = _unmarshallers.get();
+        if (unmarshaller == null) {
+            try {
+                unmarshaller = _jaxbContext.createUnmarshaller();
+            } catch (JAXBException e) {
+                throw new SwitchYardException("Failed to create Unmarshaller for contextPath '" + _contextPath + "'.", e);
+            }
+            _unmarshallers.set(unmarshaller);
+        }
+        return unmarshaller;
+    }
 }
@@ -20,19 +20,26 @@
 package org.switchyard.transform.json.internal;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.Reader;
+import java.nio.ByteBuffer;
 
 import javax.xml.namespace.QName;
 
 import org.codehaus.jackson.JsonParseException;
 import org.codehaus.jackson.map.JsonMappingException;
 import org.codehaus.jackson.map.ObjectMapper;
+import org.codehaus.jackson.map.ObjectReader;
 import org.switchyard.Message;
 import org.switchyard.exception.SwitchYardException;
 import org.switchyard.transform.BaseTransformer;
 
 /**
  * JSON to Java Transformer.
+ * <p/>
+ * byte[], ByteBuffer and InputStream content is parsed directly from bytes,
+ * with Jackson detecting the Unicode encoding, and String content directly
+ * from the String; other content is read as a Reader.
  *
  * @author Alejandro Montenegro &lt;<a href="mailto:aamonten@gmail.com">aamonten@gmail.com</a>&gt;
  *
@@ -41,7 +48,9 @@ import org.switchyard.transform.BaseTransformer;
  */
 public class JSON2JavaTransformer<F, T> extends BaseTransformer<Message, Message> {
 
+    // keeps the shared mapper, which ObjectMappers only holds weakly, in use
     private ObjectMapper _mapper;
+    private ObjectReader _reader;
     private Class _clazz;
 
     /**
@@ -55,6 +64,7 @@ public class JSON2JavaTransformer<F, T> extends BaseTransformer<Message, Message
     public JSON2JavaTransformer(QName from, QName to, ObjectMapper mapper, Class clazz) {
         super(from, to);
         this._mapper = mapper;
+        this._reader = mapper.reader(clazz);
         this._clazz = clazz;
     }
 
@@ -62,7 +72,7 @@ public class JSON2JavaTransformer<F, T> extends BaseTransformer<Message, Message
     public Message transform(Message message) {
 
         try {
-            Object result = _mapper.readValue(message.getContent(Reader.class), _clazz);
+            Object result = read(message);
 
             if (_clazz.isInstance(result)) {
                 message.setContent(result);
@@ -78,4 +88,24 @@ public class JSON2JavaTransformer<F, T> extends BaseTransformer<Message, Message
             throw new SwitchYardException("Unexpected I/O exception, check your transformer configuration", e);
         }
     }
+
+    private Object read(Message message) throws IOException {
+        Object content = message.getContent();
+        if (content instanceof byte[]) {
+            return _reader.readValue((byte[])content);
+        } else if (content instanceof ByteBuffer) {
+            ByteBuffer buffer = (ByteBuffer)content;
+            if (buffer.hasArray()) {
+                return _reader.readValue(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+            }
+            byte[] bytes = new byte[buffer.remaining()];
+            buffer.duplicate().get(bytes);
+            return _reader.readValue(bytes);
+        } else if (content instanceof InputStream) {
+            return _reader.readValue((InputStream)content);
+        } else if (content instanceof String) {
+            return _reader.readValue((String)content);
+        }
+        return _reader.readValue(message.getContent(Reader.class));
+    }
 }
@@ -21,7 +21,6 @@ package org.switchyard.transform.json.internal;
 
 import javax.xml.namespace.QName;
 
-import org.codehaus.jackson.map.ObjectMapper;
 import org.switchyard.common.xml.QNameUtil;
 import org.switchyard.exception.SwitchYardException;
 import org.switchyard.transform.Transformer;
@@ -50,11 +49,14 @@ public final class JSONTransformFactory implements TransformerFactory<JSONTransf
         if (QNameUtil.isJavaMessageType(from)) {
             // Java to JSON....
             Class clazz = toJavaMessageType(from);
-            return new Java2JSONTransformer(from, to, new ObjectMapper(), clazz);
+            if (model.isByteOutput()) {
+                return new Java2JSONBytesTransformer(from, to, ObjectMappers.getMapper(clazz), clazz);
+            }
+            return new Java2JSONTransformer(from, to, ObjectMappers.getMapper(clazz), clazz);
         } else {
             // JSON to Java....
             Class clazz = toJavaMessageType(to);
-            return new JSON2JavaTransformer(from, to, new ObjectMapper(), clazz);
+            return new JSON2JavaTransformer(from, to, ObjectMappers.getMapper(clazz), clazz);
         }
     }
 
@@ -0,0 +1,78 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2011 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+
+package org.switchyard.transform.json.internal;
+
+import java.io.IOException;
+
+import javax.xml.namespace.QName;
+
+import org.codehaus.jackson.JsonProcessingException;
+import org.codehaus.jackson.map.ObjectMapper;
+import org.codehaus.jackson.map.ObjectWriter;
+import org.switchyard.exception.SwitchYardException;
+import org.switchyard.transform.BaseTransformer;
+
+/**
+ * Java to JSON Transformer producing UTF-8 encoded <code>byte[]</code>
+ * rather than a String, for content which is written straight to a wire.
+ * Used in place of {@link Java2JSONTransformer} when the transform is
+ * configured with <code>byteOutput="true"</code>.
+ *
+ * @param <F> From Type
+ * @param <T> To Type.
+ */
+public class Java2JSONBytesTransformer<F, T> extends BaseTransformer<Object, byte[]> {
+
+    // keeps the shared mapper, which ObjectMappers only holds weakly, in use
+    private ObjectMapper _mapper;
+    private ObjectWriter _writer;
+    private Class _clazz;
+
+    /**
+     * Public constructor.
+     *
+     * @param from   From type.
+     * @param to     To type.
+     * @param mapper JSON Object Mapper instance.
+     * @param clazz  The Java type being mapped.
+     */
+    public Java2JSONBytesTransformer(QName from, QName to, ObjectMapper mapper, Class clazz) {
+        super(from, to);
+        this._mapper = mapper;
+        this._writer = mapper.writer();
+        this._clazz = clazz;
+    }
+
+    @Override
+    public byte[] transform(Object from) {
+
+        try {
+            if (_clazz.isInstance(from)) {
+                return _writer.writeValueAsBytes(from);
+            } else {
+                throw new SwitchYardException("The object to transform is of wrong instance type " + from.getClass());
+            }
+        } catch (JsonProcessingException e) {
+            throw new SwitchYardException("Unexpected JSON processing exception, check your transformer configuration", e);
+        } catch (IOException e) {
+            throw new SwitchYardException("Unexpected I/O exception, check your transformer configuration", e);
+        }
+    }
+}
@@ -20,12 +20,12 @@
 package org.switchyard.transform.json.internal;
 
 import java.io.IOException;
-import java.io.StringWriter;
 
 import javax.xml.namespace.QName;
 
 import org.codehaus.jackson.JsonProcessingException;
 import org.codehaus.jackson.map.ObjectMapper;
+import org.codehaus.jackson.map.ObjectWriter;
 import org.switchyard.exception.SwitchYardException;
 import org.switchyard.transform.BaseTransformer;
 
@@ -39,7 +39,9 @@ import org.switchyard.transform.BaseTransformer;
  */
 public class Java2JSONTransformer<F, T> extends BaseTransformer<Object, String> {
 
+    // keeps the shared mapper, which ObjectMappers only holds weakly, in use
     private ObjectMapper _mapper;
+    private ObjectWriter _writer;
     private Class _clazz;
 
     /**
@@ -53,6 +55,7 @@ public class Java2JSONTransformer<F, T> extends BaseTransformer<Object, String>
     public Java2JSONTransformer(QName from, QName to, ObjectMapper mapper, Class clazz) {
         super(from, to);
         this._mapper = mapper;
+        this._writer = mapper.writer();
         this._clazz = clazz;
     }
 
@@ -60,11 +63,8 @@ public class Java2JSONTransformer<F, T> extends BaseTransformer<Object, String>
     public String transform(Object from) {
 
         try {
-            StringWriter writer = new StringWriter();
-
             if (_clazz.isInstance(from)) {
-                _mapper.writeValue(writer, from);
-                return writer.toString();
+                return _writer.writeValueAsString(from);
             } else {
                 throw new SwitchYardException("The object to transform is of wrong instance type " + from.getClass());
             }
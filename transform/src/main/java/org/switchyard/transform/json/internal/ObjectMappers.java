@@ -0,0 +1,63 @@
+/* 
+ * JBoss, Home of Professional Open Source 
+ * Copyright 2011 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @author tags. All rights reserved. 
+ * See the copyright.txt in the distribution for a 
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use, 
+ * modify, copy, or redistribute it subject to the terms and conditions 
+ * of the GNU Lesser General Public License, v. 2.1. 
+ * This program is distributed in the hope that it will be useful, but WITHOUT A 
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A 
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details. 
+ * You should have received a copy of the GNU Lesser General Public License, 
+ * v.2.1 along with this distribution; if not, write to the Free Software 
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, 
+ * MA  02110-1301, USA.
+ */
+
+package org.switchyard.transform.json.internal;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import org.codehaus.jackson.map.ObjectMapper;
+
+/**
+ * Shared Jackson ObjectMappers for the JSON transformers.
+ * <p/>
+ * An ObjectMapper is thread-safe once configured, and its serializer and
+ * deserializer caches only pay off when it is reused, so all transformers
+ * for types from the same ClassLoader share one.  The ClassLoader and the
+ * mapper are both weakly referenced here; each transformer holds a strong
+ * reference to its mapper, so a mapper lives for as long as a transformer
+ * uses it and does not keep undeployed classes reachable.
+ */
+final class ObjectMappers {
+
+    private static final Map<ClassLoader, WeakReference<ObjectMapper>> MAPPERS =
+        new WeakHashMap<ClassLoader, WeakReference<ObjectMapper>>();
+
+    private ObjectMappers() {
+    }
+
+    /**
+     * Returns the shared ObjectMapper for the ClassLoader of a mapped type.
+     * @param type the Java type being mapped
+     * @return the ObjectMapper
+     */
+    static ObjectMapper getMapper(Class<?> type) {
+        ClassLoader loader = type.getClassLoader();
+        synchronized (MAPPERS) {
+            WeakReference<ObjectMapper> ref = MAPPERS.get(loader);
+            ObjectMapper mapper = ref != null ? ref.get() : null;
+            if (mapper == null) {
+                mapper = new ObjectMapper();
+                MAPPERS.put(loader, new WeakReference<ObjectMapper>(mapper));
+            }
+            return mapper;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2011 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *  *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.switchyard.transform.ootb.io;
+
+import org.switchyard.annotations.Transformer;
+
+import java.io.CharArrayReader;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * {@link ByteBuffer} Transforms.
+ * <p/>
+ * Transforms read the remaining bytes of the supplied {@link ByteBuffer} without
+ * changing its position, and share its backing array where possible.
+ * Bytes are decoded as UTF-8.
+ */
+public class ByteBufferTransforms {
+
+    /**
+     * Singleton Instance.
+     */
+    public static final ByteBufferTransforms TRANSFORMER = new ByteBufferTransforms();
+
+    /**
+     * Transform to String.
+     * @param buffer Input Buffer.
+     * @return String.
+     */
+    @Transformer
+    public String toString(ByteBuffer buffer) {
+        return IOBuffers.toString(buffer, IOBuffers.UTF_8);
+    }
+
+    /**
+     * Transform to CharSequence.
+     * @param buffer Input Buffer.
+     * @return CharSequence.
+     */
+    @Transformer
+    public CharSequence toCharSequence(ByteBuffer buffer) {
+        return IOBuffers.decode(buffer, IOBuffers.UTF_8);
+    }
+
+    /**
+     * Transform to char[].
+     * @param buffer Input Buffer.
+     * @return char[].
+     */
+    @Transformer
+    public char[] toChars(ByteBuffer buffer) {
+        return IOBuffers.toArray(IOBuffers.decode(buffer, IOBuffers.UTF_8));
+    }
+
+    /**
+     * Transform to Reader.
+     * @param buffer Input Buffer.
+     * @return Reader.
+     */
+    @Transformer
+    public Reader toReader(ByteBuffer buffer) {
+        CharBuffer chars = IOBuffers.decode(buffer, IOBuffers.UTF_8);
+        return new CharArrayReader(chars.array(), chars.arrayOffset() + chars.position(), chars.remaining());
+    }
+
+    /**
+     * Transform to byte[].
+     * @param buffer Input Buffer.
+     * @return byte[], the backing array itself if it holds exactly the remaining bytes.
+     */
+    @Transformer
+    public byte[] toBytes(ByteBuffer buffer) {
+        return IOBuffers.toArray(buffer);
+    }
+
+    /**
+     * Transform to InputStream.
+     * @param buffer Input Buffer.
+     * @return InputStream over the backing array.
+     */
+    @Transformer
+    public InputStream toInputStream(ByteBuffer buffer) {
+        return IOBuffers.toInputStream(buffer);
+    }
+
+    /**
+     * Transform to ReadableByteChannel.
+     * @param buffer Input Buffer.
+     * @return ReadableByteChannel over the backing array.
+     */
+    @Transformer
+    public ReadableByteChannel toReadableByteChannel(ByteBuffer buffer) {
+        return Channels.newChannel(IOBuffers.toInputStream(buffer));
+    }
+}
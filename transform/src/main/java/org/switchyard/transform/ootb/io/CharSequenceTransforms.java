@@ -0,0 +1,111 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2011 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *  *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.switchyard.transform.ootb.io;
+
+import org.switchyard.annotations.Transformer;
+
+import java.io.CharArrayReader;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+
+/**
+ * {@link CharSequence} Transforms.
+ * <p/>
+ * Covers {@link StringBuilder}, {@link CharBuffer} and other sequences without a
+ * more specific transform.  A {@link CharBuffer} is read without changing its
+ * position, and its backing array is shared where possible.  Characters are
+ * encoded as UTF-8.
+ */
+public class CharSequenceTransforms {
+
+    /**
+     * Singleton Instance.
+     */
+    public static final CharSequenceTransforms TRANSFORMER = new CharSequenceTransforms();
+
+    /**
+     * Transform to String.
+     * @param chars Input Characters.
+     * @return String.
+     */
+    @Transformer
+    public String toString(CharSequence chars) {
+        return chars.toString();
+    }
+
+    /**
+     * Transform to char[].
+     * @param chars Input Characters.
+     * @return char[].
+     */
+    @Transformer
+    public char[] toChars(CharSequence chars) {
+        if (chars instanceof CharBuffer) {
+            return IOBuffers.toArray((CharBuffer) chars);
+        }
+        return chars.toString().toCharArray();
+    }
+
+    /**
+     * Transform to Reader.
+     * @param chars Input Characters.
+     * @return Reader.
+     */
+    @Transformer
+    public Reader toReader(CharSequence chars) {
+        if (chars instanceof CharBuffer && ((CharBuffer) chars).hasArray()) {
+            CharBuffer buffer = (CharBuffer) chars;
+            return new CharArrayReader(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+        }
+        return new StringReader(chars.toString());
+    }
+
+    /**
+     * Transform to ByteBuffer.
+     * @param chars Input Characters.
+     * @return ByteBuffer.
+     */
+    @Transformer
+    public ByteBuffer toByteBuffer(CharSequence chars) {
+        return IOBuffers.encode(chars, IOBuffers.UTF_8);
+    }
+
+    /**
+     * Transform to byte[].
+     * @param chars Input Characters.
+     * @return byte[].
+     */
+    @Transformer
+    public byte[] toBytes(CharSequence chars) {
+        return IOBuffers.toArray(IOBuffers.encode(chars, IOBuffers.UTF_8));
+    }
+
+    /**
+     * Transform to InputStream.
+     * @param chars Input Characters.
+     * @return InputStream.
+     */
+    @Transformer
+    public InputStream toInputStream(CharSequence chars) {
+        return IOBuffers.toInputStream(IOBuffers.encode(chars, IOBuffers.UTF_8));
+    }
+}
@@ -0,0 +1,229 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2011 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *  *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.switchyard.transform.ootb.io;
+
+import org.apache.log4j.Logger;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+/**
+ * Buffer handling shared by the io transforms.
+ * <p/>
+ * Content is read straight into a growing array (no intermediate copy buffer),
+ * and the resulting array is wrapped rather than copied wherever the target
+ * type allows it.
+ */
+final class IOBuffers {
+
+    /**
+     * Charset used when converting between bytes and characters.
+     */
+    static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private static final Logger LOGGER = Logger.getLogger(IOBuffers.class);
+    private static final int BUFFER_SIZE = 8192;
+
+    private IOBuffers() {
+    }
+
+    /**
+     * Read the stream fully and close it.
+     * @param inStream Input Stream.
+     * @return A buffer wrapping the bytes read.
+     */
+    static ByteBuffer read(InputStream inStream) {
+        byte[] bytes = null;
+        int count = 0;
+
+        try {
+            // Sized to what is available so fully buffered streams are read without resizing.
+            int available = inStream.available();
+            bytes = new byte[available > 0 ? available : BUFFER_SIZE];
+            while (true) {
+                if (count == bytes.length) {
+                    int next = inStream.read();
+                    if (next == -1) {
+                        break;
+                    }
+                    bytes = Arrays.copyOf(bytes, Math.max(count * 2, BUFFER_SIZE));
+                    bytes[count++] = (byte) next;
+                }
+                int readCount = inStream.read(bytes, count, bytes.length - count);
+                if (readCount == -1) {
+                    break;
+                }
+                count += readCount;
+            }
+        } catch (IOException e) {
+            LOGGER.debug("Error reading from InputStream.", e);
+        } finally {
+            close(inStream);
+        }
+
+        return bytes != null ? ByteBuffer.wrap(bytes, 0, count) : ByteBuffer.allocate(0);
+    }
+
+    /**
+     * Read the reader fully and close it.
+     * @param reader Input Reader.
+     * @return A buffer wrapping the characters read.
+     */
+    static CharBuffer read(Reader reader) {
+        char[] chars = new char[BUFFER_SIZE];
+        int count = 0;
+
+        try {
+            int readCount;
+            while ((readCount = reader.read(chars, count, chars.length - count)) != -1) {
+                count += readCount;
+                if (count == chars.length) {
+                    chars = Arrays.copyOf(chars, count * 2);
+                }
+            }
+        } catch (IOException e) {
+            LOGGER.debug("Error reading from reader.", e);
+        } finally {
+            close(reader);
+        }
+
+        return CharBuffer.wrap(chars, 0, count);
+    }
+
+    /**
+     * Read the channel fully and close it.
+     * @param channel Input Channel.
+     * @return A flipped buffer holding the bytes read.
+     */
+    static ByteBuffer read(ReadableByteChannel channel) {
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+        try {
+            while (channel.read(buffer) != -1) {
+                if (!buffer.hasRemaining()) {
+                    buffer.flip();
+                    buffer = ByteBuffer.allocate(buffer.capacity() * 2).put(buffer);
+                }
+            }
+        } catch (IOException e) {
+            LOGGER.debug("Error reading from channel.", e);
+        } finally {
+            close(channel);
+        }
+
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * Get the remaining bytes of a buffer as an array, without moving its position.
+     * <p/>
+     * The backing array itself is returned when it holds exactly the remaining bytes.
+     * @param buffer The buffer.
+     * @return The bytes.
+     */
+    static byte[] toArray(ByteBuffer buffer) {
+        if (buffer.hasArray() && buffer.arrayOffset() == 0 && buffer.position() == 0
+                && buffer.remaining() == buffer.array().length) {
+            return buffer.array();
+        }
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.duplicate().get(bytes);
+        return bytes;
+    }
+
+    /**
+     * Get the remaining characters of a buffer as an array, without moving its position.
+     * <p/>
+     * The backing array itself is returned when it holds exactly the remaining characters.
+     * @param buffer The buffer.
+     * @return The characters.
+     */
+    static char[] toArray(CharBuffer buffer) {
+        if (buffer.hasArray() && buffer.arrayOffset() == 0 && buffer.position() == 0
+                && buffer.remaining() == buffer.array().length) {
+            return buffer.array();
+        }
+        char[] chars = new char[buffer.remaining()];
+        buffer.duplicate().get(chars);
+        return chars;
+    }
+
+    /**
+     * Get a stream over the remaining bytes of a buffer, without moving its position.
+     * @param buffer The buffer.
+     * @return The stream, sharing the backing array where there is one.
+     */
+    static InputStream toInputStream(ByteBuffer buffer) {
+        if (buffer.hasArray()) {
+            return new ByteArrayInputStream(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+        }
+        return new ByteArrayInputStream(toArray(buffer));
+    }
+
+    /**
+     * Decode the remaining bytes of a buffer, without moving its position.
+     * @param buffer The buffer.
+     * @param charset The charset.
+     * @return The decoded String.
+     */
+    static String toString(ByteBuffer buffer, Charset charset) {
+        if (buffer.hasArray()) {
+            return new String(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining(), charset);
+        }
+        return charset.decode(buffer.duplicate()).toString();
+    }
+
+    /**
+     * Decode the remaining bytes of a buffer, without moving its position.
+     * @param buffer The buffer.
+     * @param charset The charset.
+     * @return The decoded characters.
+     */
+    static CharBuffer decode(ByteBuffer buffer, Charset charset) {
+        return charset.decode(buffer.duplicate());
+    }
+
+    /**
+     * Encode a character sequence.
+     * @param chars The characters.
+     * @param charset The charset.
+     * @return The encoded bytes.
+     */
+    static ByteBuffer encode(CharSequence chars, Charset charset) {
+        CharBuffer buffer = chars instanceof CharBuffer ? ((CharBuffer) chars).duplicate() : CharBuffer.wrap(chars);
+        return charset.encode(buffer);
+    }
+
+    private static void close(Closeable closeable) {
+        try {
+            closeable.close();
+        } catch (IOException e) {
+            LOGGER.debug("Failed to close " + closeable.getClass().getName() + " instance.", e);
+        }
+    }
+}
@@ -22,15 +22,19 @@ package org.switchyard.transform.ootb.io;
 import org.switchyard.annotations.Transformer;
 import org.xml.sax.InputSource;
 
-import java.io.ByteArrayInputStream;
+import java.io.CharArrayReader;
 import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.io.Reader;
-import java.io.StringReader;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
 
 /**
  * {@link InputSource} Transforms.
  * <p/>
  * All transforms close the supplied {@link InputSource} stream/reader before returning.
+ * Byte streams are decoded using the {@link InputSource#getEncoding() encoding} of the
+ * source, or UTF-8 if it has none.
  *
  * @author <a href="mailto:tom.fennelly@gmail.com">tom.fennelly@gmail.com</a>
  */
@@ -56,7 +60,7 @@ public class InputSourceTransforms {
 
         InputStream stream = inSource.getByteStream();
         if (stream != null) {
-            return InputStreamTransforms.TRANSFORMER.toString(stream);
+            return IOBuffers.toString(IOBuffers.read(stream), getCharset(inSource));
         }
 
         return null;
@@ -72,7 +76,13 @@ public class InputSourceTransforms {
         Reader reader = inSource.getCharacterStream();
 
         if (reader != null) {
-            return new StringReader(ReaderTransforms.TRANSFORMER.toString(reader));
+            CharBuffer chars = IOBuffers.read(reader);
+            return new CharArrayReader(chars.array(), 0, chars.remaining());
+        }
+
+        InputStream stream = inSource.getByteStream();
+        if (stream != null) {
+            return new InputStreamReader(IOBuffers.toInputStream(IOBuffers.read(stream)), getCharset(inSource));
         }
 
         return null;
@@ -88,7 +98,7 @@ public class InputSourceTransforms {
         InputStream stream = inSource.getByteStream();
 
         if (stream != null) {
-            return new ByteArrayInputStream(InputStreamTransforms.TRANSFORMER.toBytes(stream));
+            return IOBuffers.toInputStream(IOBuffers.read(stream));
         }
 
         return null;
@@ -185,4 +195,9 @@ public class InputSourceTransforms {
     public Float toFloat(InputSource inSource) {
         return Float.parseFloat(toString(inSource));
     }
+
+    private static Charset getCharset(InputSource inSource) {
+        String encoding = inSource.getEncoding();
+        return encoding != null ? Charset.forName(encoding) : IOBuffers.UTF_8;
+    }
 }
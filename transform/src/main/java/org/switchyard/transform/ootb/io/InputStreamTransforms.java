@@ -18,22 +18,21 @@
  */
 package org.switchyard.transform.ootb.io;
 
-import org.apache.log4j.Logger;
 import org.switchyard.annotations.Transformer;
 import org.xml.sax.InputSource;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
-import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
 
 /**
  * {@link java.io.InputStream} Transforms.
  * <p/>
  * All transforms close the supplied {@link java.io.InputStream} before returning.
+ * Bytes are decoded as UTF-8.
  *
  * @author <a href="mailto:tom.fennelly@gmail.com">tom.fennelly@gmail.com</a>
  */
@@ -43,10 +42,6 @@ public class InputStreamTransforms {
      * Singleton Instance.
      */
     public static final InputStreamTransforms TRANSFORMER = new InputStreamTransforms();
-    /**
-     * Logger.
-     */
-    private static final Logger LOGGER = Logger.getLogger(ReaderTransforms.class);
 
     /**
      * Transform to String.
@@ -55,7 +50,7 @@ public class InputStreamTransforms {
      */
     @Transformer
     public String toString(InputStream inStream) {
-        return ReaderTransforms.TRANSFORMER.toString(new InputStreamReader(inStream));
+        return IOBuffers.toString(IOBuffers.read(inStream), IOBuffers.UTF_8);
     }
 
     /**
@@ -65,7 +60,7 @@ public class InputStreamTransforms {
      */
     @Transformer
     public Reader toReader(InputStream inStream) {
-        return new StringReader(toString(inStream));
+        return new InputStreamReader(IOBuffers.toInputStream(IOBuffers.read(inStream)), IOBuffers.UTF_8);
     }
 
     /**
@@ -75,10 +70,9 @@ public class InputStreamTransforms {
      */
     @Transformer
     public InputSource toInputSource(InputStream inStream) {
-        byte[] bytes = toBytes(inStream);
         InputSource inputSource = new InputSource();
 
-        inputSource.setByteStream(new ByteArrayInputStream(bytes));
+        inputSource.setByteStream(IOBuffers.toInputStream(IOBuffers.read(inStream)));
         // Purposely not setting the character stream because we cannot guarantee decoding of the bytes.
 
         return inputSource;
@@ -121,7 +115,7 @@ public class InputStreamTransforms {
      */
     @Transformer
     public char[] toChars(InputStream inStream) {
-        return toString(inStream).toCharArray();
+        return IOBuffers.toArray(IOBuffers.decode(IOBuffers.read(inStream), IOBuffers.UTF_8));
     }
 
     /**
@@ -141,26 +135,37 @@ public class InputStreamTransforms {
      */
     @Transformer
     public byte[] toBytes(InputStream inStream) {
-        ByteArrayOutputStream byteBuffer = new ByteArrayOutputStream();
-
-        try {
-            byte[] readBuffer = new byte[56];
-            int readCount;
-
-            while ((readCount = inStream.read(readBuffer)) != -1) {
-                byteBuffer.write(readBuffer, 0, readCount);
-            }
-        } catch (IOException e) {
-            LOGGER.debug("Error reading from InputStream.", e);
-        } finally {
-            try {
-                inStream.close();
-            } catch (IOException e) {
-                LOGGER.debug("Failed to close InputStream instance.", e);
-            }
-        }
-
-        return byteBuffer.toByteArray();
+        return IOBuffers.toArray(IOBuffers.read(inStream));
+    }
+
+    /**
+     * Transform to ByteBuffer.
+     * @param inStream Input Stream.
+     * @return ByteBuffer wrapping the bytes read.
+     */
+    @Transformer
+    public ByteBuffer toByteBuffer(InputStream inStream) {
+        return IOBuffers.read(inStream);
+    }
+
+    /**
+     * Transform to ReadableByteChannel.
+     * @param inStream Input Stream.
+     * @return ReadableByteChannel.
+     */
+    @Transformer
+    public ReadableByteChannel toReadableByteChannel(InputStream inStream) {
+        return Channels.newChannel(IOBuffers.toInputStream(IOBuffers.read(inStream)));
+    }
+
+    /**
+     * Transform to CharSequence.
+     * @param inStream Input Stream.
+     * @return CharSequence.
+     */
+    @Transformer
+    public CharSequence toCharSequence(InputStream inStream) {
+        return IOBuffers.decode(IOBuffers.read(inStream), IOBuffers.UTF_8);
     }
 
     /**
@@ -0,0 +1,101 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2011 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *  *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.switchyard.transform.ootb.io;
+
+import org.switchyard.annotations.Transformer;
+
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * {@link ReadableByteChannel} Transforms.
+ * <p/>
+ * All transforms read the supplied {@link ReadableByteChannel} to the end and close
+ * it before returning.  Bytes are decoded as UTF-8.
+ */
+public class ReadableByteChannelTransforms {
+
+    /**
+     * Singleton Instance.
+     */
+    public static final ReadableByteChannelTransforms TRANSFORMER = new ReadableByteChannelTransforms();
+
+    /**
+     * Transform to ByteBuffer.
+     * @param channel Input Channel.
+     * @return ByteBuffer holding the bytes read.
+     */
+    @Transformer
+    public ByteBuffer toByteBuffer(ReadableByteChannel channel) {
+        return IOBuffers.read(channel);
+    }
+
+    /**
+     * Transform to byte[].
+     * @param channel Input Channel.
+     * @return byte[].
+     */
+    @Transformer
+    public byte[] toBytes(ReadableByteChannel channel) {
+        return IOBuffers.toArray(IOBuffers.read(channel));
+    }
+
+    /**
+     * Transform to InputStream.
+     * @param channel Input Channel.
+     * @return InputStream.
+     */
+    @Transformer
+    public InputStream toInputStream(ReadableByteChannel channel) {
+        return IOBuffers.toInputStream(IOBuffers.read(channel));
+    }
+
+    /**
+     * Transform to String.
+     * @param channel Input Channel.
+     * @return String.
+     */
+    @Transformer
+    public String toString(ReadableByteChannel channel) {
+        return IOBuffers.toString(IOBuffers.read(channel), IOBuffers.UTF_8);
+    }
+
+    /**
+     * Transform to CharSequence.
+     * @param channel Input Channel.
+     * @return CharSequence.
+     */
+    @Transformer
+    public CharSequence toCharSequence(ReadableByteChannel channel) {
+        return IOBuffers.decode(IOBuffers.read(channel), IOBuffers.UTF_8);
+    }
+
+    /**
+     * Transform to Reader.
+     * @param channel Input Channel.
+     * @return Reader.
+     */
+    @Transformer
+    public Reader toReader(ReadableByteChannel channel) {
+        return new InputStreamReader(IOBuffers.toInputStream(IOBuffers.read(channel)), IOBuffers.UTF_8);
+    }
+}
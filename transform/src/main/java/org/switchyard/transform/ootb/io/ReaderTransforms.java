@@ -18,20 +18,20 @@
  */
 package org.switchyard.transform.ootb.io;
 
-import org.apache.log4j.Logger;
 import org.switchyard.annotations.Transformer;
 import org.xml.sax.InputSource;
 
-import java.io.ByteArrayInputStream;
-import java.io.IOException;
+import java.io.CharArrayReader;
 import java.io.InputStream;
 import java.io.Reader;
-import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
 
 /**
  * {@link Reader} Transforms.
  * <p/>
  * All transforms close the supplied {@link Reader} before returning.
+ * Characters are encoded as UTF-8.
  *
  * @author <a href="mailto:tom.fennelly@gmail.com">tom.fennelly@gmail.com</a>
  */
@@ -41,10 +41,6 @@ public class ReaderTransforms {
      * Singleton Instance.
      */
     public static final ReaderTransforms TRANSFORMER = new ReaderTransforms();
-    /**
-     * Logger.
-     */
-    private static final Logger LOGGER = Logger.getLogger(ReaderTransforms.class);
 
     /**
      * Transform to String.
@@ -53,26 +49,7 @@ public class ReaderTransforms {
      */
     @Transformer
     public String toString(Reader reader) {
-        StringBuilder builder = new StringBuilder();
-
-        try {
-            char[] readBuffer = new char[56];
-            int readCount;
-
-            while ((readCount = reader.read(readBuffer)) != -1) {
-                builder.append(readBuffer, 0, readCount);
-            }
-        } catch (IOException e) {
-            LOGGER.debug("Error reading from reader.", e);
-        } finally {
-            try {
-                reader.close();
-            } catch (IOException e) {
-                LOGGER.debug("Failed to close reader instance.", e);
-            }
-        }
-
-        return builder.toString();
+        return IOBuffers.read(reader).toString();
     }
 
     /**
@@ -82,7 +59,7 @@ public class ReaderTransforms {
      */
     @Transformer
     public InputStream toInputStream(Reader reader) {
-        return new ByteArrayInputStream(toString(reader).getBytes());
+        return IOBuffers.toInputStream(toByteBuffer(reader));
     }
 
     /**
@@ -92,11 +69,12 @@ public class ReaderTransforms {
      */
     @Transformer
     public InputSource toInputSource(Reader reader) {
-        String string = toString(reader);
+        CharBuffer chars = IOBuffers.read(reader);
         InputSource inputSource = new InputSource();
 
-        inputSource.setByteStream(new ByteArrayInputStream(string.getBytes()));
-        inputSource.setCharacterStream(new StringReader(string));
+        inputSource.setByteStream(IOBuffers.toInputStream(IOBuffers.encode(chars, IOBuffers.UTF_8)));
+        inputSource.setCharacterStream(new CharArrayReader(chars.array(), 0, chars.remaining()));
+        inputSource.setEncoding(IOBuffers.UTF_8.name());
 
         return inputSource;
     }
@@ -138,7 +116,7 @@ public class ReaderTransforms {
      */
     @Transformer
     public char[] toChars(Reader reader) {
-        return toString(reader).toCharArray();
+        return IOBuffers.toArray(IOBuffers.read(reader));
     }
 
     /**
@@ -158,7 +136,27 @@ public class ReaderTransforms {
      */
     @Transformer
     public byte[] toBytes(Reader reader) {
-        return toString(reader).getBytes();
+        return IOBuffers.toArray(toByteBuffer(reader));
+    }
+
+    /**
+     * Transform to ByteBuffer.
+     * @param reader Input Reader.
+     * @return ByteBuffer.
+     */
+    @Transformer
+    public ByteBuffer toByteBuffer(Reader reader) {
+        return IOBuffers.encode(IOBuffers.read(reader), IOBuffers.UTF_8);
+    }
+
+    /**
+     * Transform to CharSequence.
+     * @param reader Input Reader.
+     * @return CharSequence wrapping the characters read.
+     */
+    @Transformer
+    public CharSequence toCharSequence(Reader reader) {
+        return IOBuffers.read(reader);
     }
 
     /**
@@ -25,6 +25,7 @@ import java.io.ByteArrayInputStream;
 import java.io.InputStream;
 import java.io.Reader;
 import java.io.StringReader;
+import java.nio.charset.Charset;
 
 /**
  * String Transformations.
@@ -38,6 +39,9 @@ public class StringTransforms {
      */
     public static final StringTransforms TRANSFORMER = new StringTransforms();
 
+    // Matches the charset the io transforms decode with.
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
     /**
      * Transform to Reader.
      * @param string Input String.
@@ -55,7 +59,7 @@ public class StringTransforms {
      */
     @Transformer
     public InputStream toInputStream(String string) {
-        return new ByteArrayInputStream(string.getBytes());
+        return new ByteArrayInputStream(string.getBytes(UTF_8));
     }
 
     /**
@@ -66,7 +70,7 @@ public class StringTransforms {
     @Transformer
     public InputSource toInputSource(String string) {
         InputSource inputSource = new InputSource();
-        inputSource.setByteStream(new ByteArrayInputStream(string.getBytes()));
+        inputSource.setByteStream(new ByteArrayInputStream(string.getBytes(UTF_8)));
         inputSource.setCharacterStream(new StringReader(string));
         return inputSource;
     }
@@ -132,7 +136,7 @@ public class StringTransforms {
      */
     @Transformer
     public byte[] toBytes(String string) {
-        return string.getBytes();
+        return string.getBytes(UTF_8);
     }
 
     /**
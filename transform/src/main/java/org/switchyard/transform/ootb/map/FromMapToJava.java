@@ -30,6 +30,7 @@ import java.beans.BeanInfo;
 import java.beans.IntrospectionException;
 import java.beans.Introspector;
 import java.beans.PropertyDescriptor;
+import java.lang.ref.WeakReference;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
@@ -42,11 +43,16 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.WeakHashMap;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Transformer that takes a Map graph and from it, builds a Java object
  * graph.
+ * <p/>
+ * The property setters of each bean type are resolved once and shared by all
+ * transformer instances, and the conversion used for each property is
+ * resolved on first use, so binding a message does no introspection.
  *
  * @param <F> From Type
  * @param <T> To Type.
@@ -57,9 +63,16 @@ public class FromMapToJava<F, T> extends BaseTransformer<Map, Object> {
 
     private static Logger _logger = Logger.getLogger(FromMapToJava.class);
 
+    // Property writers per bean type.  The writers reference the bean class through
+    // their setter Methods, so they are only weakly held by the cache.
+    private static final Map<Class<?>, WeakReference<Map<String, PropertyWriter>>> WRITERS =
+        new WeakHashMap<Class<?>, WeakReference<Map<String, PropertyWriter>>>();
+
+    private static Map<Class, Class> primitives = new HashMap<Class, Class>();
+
     private GraphBuilder _graphBuilder;
 
-    private static Map<Class, Class> primitives = new HashMap<Class, Class>(); {
+    static {
         primitives.put(Integer.TYPE, Integer.class);
         primitives.put(Long.TYPE, Long.class);
         primitives.put(Double.TYPE, Double.class);
@@ -93,23 +106,94 @@ public class FromMapToJava<F, T> extends BaseTransformer<Map, Object> {
         return _graphBuilder.build(from);
     }
 
+    private static Map<String, PropertyWriter> getWriters(Class<?> javaType) {
+        synchronized (WRITERS) {
+            WeakReference<Map<String, PropertyWriter>> ref = WRITERS.get(javaType);
+            Map<String, PropertyWriter> writers = ref != null ? ref.get() : null;
+
+            if (writers == null) {
+                BeanInfo beanInfo;
+                try {
+                    beanInfo = Introspector.getBeanInfo(javaType);
+                } catch (IntrospectionException e) {
+                    throw new SwitchYardException("Failed to extract bean information from bean type '" + javaType.getName() + "'.", e);
+                }
+
+                PropertyDescriptor[] propertyDescs = beanInfo.getPropertyDescriptors();
+                writers = new HashMap<String, PropertyWriter>(propertyDescs.length * 4 / 3 + 1);
+                for (PropertyDescriptor propertyDesc : propertyDescs) {
+                    Method setterMethod = propertyDesc.getWriteMethod();
+                    if (setterMethod != null) {
+                        writers.put(propertyDesc.getName(), new PropertyWriter(setterMethod));
+                    }
+                }
+                WRITERS.put(javaType, new WeakReference<Map<String, PropertyWriter>>(writers));
+            }
+
+            return writers;
+        }
+    }
+
+    /**
+     * Bean property setter, along with the conversion applied to values that are
+     * not already of the property type.
+     */
+    private static final class PropertyWriter {
+
+        private Method _setterMethod;
+        private Class<?> _propertyType;
+        private volatile Constructor<?> _stringConstructor;
+        private volatile boolean _stringConstructorResolved;
+
+        private PropertyWriter(Method setterMethod) {
+            _setterMethod = setterMethod;
+            try {
+                // Public setters on non-public bean classes, and no access check per call.
+                _setterMethod.setAccessible(true);
+            } catch (SecurityException e) {
+                _logger.debug("Unable to suppress access checks on setter method '" + setterMethod + "'.", e);
+            }
+            Class<?> propertyType = setterMethod.getParameterTypes()[0];
+            _propertyType = propertyType.isPrimitive() ? primitives.get(propertyType) : propertyType;
+        }
+
+        private Method getSetterMethod() {
+            return _setterMethod;
+        }
+
+        private boolean accepts(Object propertyVal) {
+            return _propertyType.isInstance(propertyVal);
+        }
+
+        private Object fromString(String propertyVal) throws Exception {
+            if (!_stringConstructorResolved) {
+                try {
+                    _stringConstructor = _propertyType.getConstructor(String.class);
+                } catch (NoSuchMethodException e) {
+                    _stringConstructor = null;
+                }
+                _stringConstructorResolved = true;
+            }
+            if (_stringConstructor == null) {
+                throw new NoSuchMethodException(_propertyType.getName() + ".<init>(java.lang.String)");
+            }
+            return _stringConstructor.newInstance(propertyVal);
+        }
+    }
+
     private abstract class GraphBuilder {
 
         private Class _javaType;
         private String _parentPropertyName;
         private GraphBuilder _parentNode;
-        private Method _parentSetterMethod;
-        private BeanInfo _beanInfo;
+        private PropertyWriter _parentWriter;
+        private volatile Map<String, PropertyWriter> _writers;
+        private volatile Constructor<?> _constructor;
 
-        private GraphBuilder(Class javaType, GraphBuilder parentBuilder, Method parentSetterMethod) {
+        private GraphBuilder(Class javaType, GraphBuilder parentBuilder, PropertyWriter parentWriter) {
             this._javaType = javaType;
             this._parentNode = parentBuilder;
-            this._parentSetterMethod = parentSetterMethod;
-            try {
-                _beanInfo = Introspector.getBeanInfo(_javaType);
-            } catch (IntrospectionException e) {
-                throw new SwitchYardException("Failed to extract bean information from bean type '" + _javaType.getName() + "'.", e);
-            }
+            this._parentWriter = parentWriter;
         }
 
         public Class getJavaType() {
@@ -126,22 +210,17 @@ public class FromMapToJava<F, T> extends BaseTransformer<Map, Object> {
 
         abstract Object build(Object value);
 
-        protected void setPropertyValue(Object instance, Object propertyVal, Method parentSetterMethod) throws IllegalAccessException, InvocationTargetException {
-            Class<?> paramType = parentSetterMethod.getParameterTypes()[0];
+        protected void setPropertyValue(Object instance, Object propertyVal, PropertyWriter parentWriter) throws IllegalAccessException, InvocationTargetException {
+            Method parentSetterMethod = parentWriter.getSetterMethod();
 
-            if (paramType.isInstance(propertyVal)) {
+            if (parentWriter.accepts(propertyVal)) {
                 parentSetterMethod.invoke(instance, propertyVal);
                 return;
             }
 
-            if (paramType.isPrimitive()) {
-                paramType = primitives.get(paramType);
-            }
-
             // Try building from a String ...
             try {
-                Constructor<?> stringConstructor = paramType.getConstructor(String.class);
-                parentSetterMethod.invoke(instance, stringConstructor.newInstance(propertyVal.toString()));
+                parentSetterMethod.invoke(instance, parentWriter.fromString(propertyVal.toString()));
                 return;
             } catch (Exception e) {
                 if (_logger.isDebugEnabled()) {
@@ -151,66 +230,71 @@ public class FromMapToJava<F, T> extends BaseTransformer<Map, Object> {
         }
 
         protected GraphBuilder newBuilder(String propertyName, Class mapType) {
-            Method propertySetter = getSetter(propertyName);
-            Class propertyType = propertySetter.getParameterTypes()[0];
-            GraphBuilder builder = newBuilder(mapType, propertyType, propertySetter);
+            PropertyWriter propertyWriter = getWriter(propertyName);
+            Class propertyType = propertyWriter.getSetterMethod().getParameterTypes()[0];
+            GraphBuilder builder = newBuilder(mapType, propertyType, propertyWriter);
 
             builder.setParentPropertyName(propertyName);
 
             return builder;
         }
 
-        protected GraphBuilder newBuilder(Class mapType, Class javaType, Method parentSetter) {
+        protected GraphBuilder newBuilder(Class mapType, Class javaType, PropertyWriter parentWriter) {
             GraphBuilder nodeBuilder = null;
 
             if (Collection.class.isAssignableFrom(mapType)) {
-                Type[] generics = parentSetter.getGenericParameterTypes();
+                Type[] generics = parentWriter.getSetterMethod().getGenericParameterTypes();
 
                 if (Collection.class.isAssignableFrom(javaType)) {
                     if (generics != null && generics.length == 1 && generics[0] != null) {
                         ParameterizedType genericType = (ParameterizedType) generics[0];
                         Type collectionEntryType = genericType.getActualTypeArguments()[0];
 
-                        nodeBuilder = new CollectionTypeBuilder(javaType, (Class<?>) collectionEntryType, this, parentSetter);
+                        nodeBuilder = new CollectionTypeBuilder(javaType, (Class<?>) collectionEntryType, this, parentWriter);
                     }
                 }
             } else {
                 if (Map.class.isAssignableFrom(mapType)) {
-                    nodeBuilder = new ComplexTypeBuilder(javaType, this, parentSetter);
+                    nodeBuilder = new ComplexTypeBuilder(javaType, this, parentWriter);
                 } else {
-                    nodeBuilder = new SimpleTypeBuilder(javaType, this, parentSetter);
+                    nodeBuilder = new SimpleTypeBuilder(javaType, this, parentWriter);
                 }
             }
 
             return nodeBuilder;
         }
 
-        private Method getSetter(String propertyName) {
-            Method setterMethod = null;
-
-            for (PropertyDescriptor propertyDesc : _beanInfo.getPropertyDescriptors()) {
-                if (propertyDesc.getName().equals(propertyName)) {
-                    setterMethod = propertyDesc.getWriteMethod();
-                    break;
-                }
+        private PropertyWriter getWriter(String propertyName) {
+            if (_writers == null) {
+                _writers = getWriters(_javaType);
             }
 
-            if (setterMethod == null) {
+            PropertyWriter propertyWriter = _writers.get(propertyName);
+            if (propertyWriter == null) {
                 throw new SwitchYardException("No setter method for property '" + propertyName + "' on class '" + _javaType.getName() + "'.");
             }
 
-            return setterMethod;
+            return propertyWriter;
         }
 
         protected Object newInstance() {
+            return newInstance(10);
+        }
+
+        protected Object newInstance(int size) {
             if (_javaType == Collection.class) {
-                return new ArrayList();
+                return new ArrayList(size);
             }
             if (_javaType == List.class) {
-                return new ArrayList();
+                return new ArrayList(size);
             }
             try {
-                return _javaType.newInstance();
+                if (_constructor == null) {
+                    Constructor<?> constructor = _javaType.getDeclaredConstructor();
+                    constructor.setAccessible(true);
+                    _constructor = constructor;
+                }
+                return _constructor.newInstance();
             } catch (Exception e) {
                 throw new SwitchYardException("Unable to create instance of type '" + _javaType.getName() + "'.", e);
             }
@@ -219,8 +303,8 @@ public class FromMapToJava<F, T> extends BaseTransformer<Map, Object> {
 
     private final class SimpleTypeBuilder extends GraphBuilder {
 
-        private SimpleTypeBuilder(Class javaType, GraphBuilder parentBuilder, Method parentSetterMethod) {
-            super(javaType, parentBuilder, parentSetterMethod);
+        private SimpleTypeBuilder(Class javaType, GraphBuilder parentBuilder, PropertyWriter parentWriter) {
+            super(javaType, parentBuilder, parentWriter);
         }
 
         @Override
@@ -233,8 +317,8 @@ public class FromMapToJava<F, T> extends BaseTransformer<Map, Object> {
 
         private Map<String, GraphBuilder> _childNodes = new ConcurrentHashMap<String, GraphBuilder>();
 
-        private ComplexTypeBuilder(Class javaType, GraphBuilder parentBuilder, Method parentSetterMethod) {
-            super(javaType, parentBuilder, parentSetterMethod);
+        private ComplexTypeBuilder(Class javaType, GraphBuilder parentBuilder, PropertyWriter parentWriter) {
+            super(javaType, parentBuilder, parentWriter);
         }
 
         @Override
@@ -249,6 +333,11 @@ public class FromMapToJava<F, T> extends BaseTransformer<Map, Object> {
                     Map.Entry entry = (Map.Entry) propertyIterator.next();
                     String propertyName = (String) entry.getKey();
                     Object propertyValue = entry.getValue();
+
+                    if (propertyValue == null) {
+                        continue;
+                    }
+
                     GraphBuilder nodeBuilder = _childNodes.get(propertyName);
 
                     if (nodeBuilder == null) {
@@ -258,9 +347,9 @@ public class FromMapToJava<F, T> extends BaseTransformer<Map, Object> {
 
                     Object propertyVal = nodeBuilder.build(propertyValue);
                     try {
-                        setPropertyValue(instance, propertyVal, nodeBuilder._parentSetterMethod);
+                        setPropertyValue(instance, propertyVal, nodeBuilder._parentWriter);
                     } catch (Exception e) {
-                        throw new SwitchYardException("Error invoking setter method '" + nodeBuilder._parentSetterMethod.getName() + "' on type '" + getJavaType().getName() + "'.", e);
+                        throw new SwitchYardException("Error invoking setter method '" + nodeBuilder._parentWriter.getSetterMethod().getName() + "' on type '" + getJavaType().getName() + "'.", e);
                     }
                 }
             }
@@ -274,27 +363,31 @@ public class FromMapToJava<F, T> extends BaseTransformer<Map, Object> {
         private volatile GraphBuilder _collectionEntryBuilder;
         private Class<?> _collectionEntryType;
 
-        private CollectionTypeBuilder(Class<?> collectionType, Class<?> collectionEntryType, GraphBuilder parentBuilder, Method parentSetterMethod) {
-            super(collectionType, parentBuilder, parentSetterMethod);
+        private CollectionTypeBuilder(Class<?> collectionType, Class<?> collectionEntryType, GraphBuilder parentBuilder, PropertyWriter parentWriter) {
+            super(collectionType, parentBuilder, parentWriter);
             this._collectionEntryType = collectionEntryType;
         }
 
         @Override
         Object build(Object value) {
-            synchronized (this) {
-                Collection instance = (Collection) newInstance();
-
-                if (value instanceof Collection) {
-                    for (Object arrayEntry : (Collection)value) {
-                        if (_collectionEntryBuilder == null) {
-                            _collectionEntryBuilder = newBuilder(arrayEntry.getClass(), _collectionEntryType, null);
-                        }
-                        instance.add(_collectionEntryBuilder.build(arrayEntry));
-                    }
-                }
+            if (!(value instanceof Collection)) {
+                return newInstance();
+            }
+
+            Collection entries = (Collection) value;
+            Collection instance = (Collection) newInstance(entries.size());
 
-                return instance;
+            for (Object arrayEntry : entries) {
+                GraphBuilder entryBuilder = _collectionEntryBuilder;
+                if (entryBuilder == null) {
+                    // Racing threads create equivalent builders, so the last one set wins.
+                    entryBuilder = newBuilder(arrayEntry.getClass(), _collectionEntryType, null);
+                    _collectionEntryBuilder = entryBuilder;
+                }
+                instance.add(entryBuilder.build(arrayEntry));
             }
+
+            return instance;
         }
     }
 }
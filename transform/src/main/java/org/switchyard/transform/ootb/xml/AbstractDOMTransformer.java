@@ -31,19 +31,29 @@ import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.transform.OutputKeys;
+import javax.xml.transform.Result;
+import javax.xml.transform.Source;
 import javax.xml.transform.Transformer;
 import javax.xml.transform.TransformerConfigurationException;
 import javax.xml.transform.TransformerException;
 import javax.xml.transform.TransformerFactory;
 import javax.xml.transform.dom.DOMSource;
 import javax.xml.transform.stream.StreamResult;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.Reader;
 import java.io.StringWriter;
 
 /**
  * Abstract DOM transformer.
+ * <p/>
+ * Parsers and serializers are pooled per thread and reset after each use.
+ * Serialization is pretty-printed by default; the non-indented "wire" format
+ * can be enabled per transformer via {@link #setWireFormat(boolean)}, or for
+ * all DOM transformers via the {@link #WIRE_FORMAT_PROPERTY} system property.
  *
  * @param <F> Java type representing the from, or source, format
  * @param <T> Java type representing the to, or target, format
@@ -52,11 +62,20 @@ import java.io.StringWriter;
  */
 public abstract class AbstractDOMTransformer<F, T> extends BaseTransformer<F, T> {
 
+    /**
+     * System property which, when "true", makes the non-indented wire format the default.
+     */
+    public static final String WIRE_FORMAT_PROPERTY = "org.switchyard.transform.dom.wireFormat";
+
     private static final Logger LOGGER = Logger.getLogger(AbstractDOMTransformer.class);
+    private static final String UTF_8 = "UTF-8";
     private Logger _log;
+    private boolean _wireFormat = Boolean.getBoolean(WIRE_FORMAT_PROPERTY);
 
     private static DocumentBuilderFactory _docBuilderFactory;
     private static TransformerFactory _transformerFactory = TransformerFactory.newInstance();
+    private static ThreadLocal<DocumentBuilder> _docBuilders = new ThreadLocal<DocumentBuilder>();
+    private static ThreadLocal<Transformer> _serializers = new ThreadLocal<Transformer>();
 
     static {
         _docBuilderFactory = DocumentBuilderFactory.newInstance();
@@ -86,27 +105,54 @@ public abstract class AbstractDOMTransformer<F, T> extends BaseTransformer<F, T>
         return _log;
     }
 
+    /**
+     * Is this transformer serializing DOM nodes in the non-indented wire format.
+     * @return true if the wire format is used, false if output is pretty-printed.
+     */
+    public boolean isWireFormat() {
+        return _wireFormat;
+    }
+
+    /**
+     * Set whether this transformer serializes DOM nodes in the non-indented wire format.
+     * @param wireFormat true for the wire format, false for pretty-printed output.
+     */
+    public void setWireFormat(boolean wireFormat) {
+        _wireFormat = wireFormat;
+    }
+
     /**
      * Parse the specified source and produce a {@link Document}.
      * @param source The source.
      * @return The {@link Document}.
      */
     public static Document parse(InputSource source) {
-        DocumentBuilder docBuilder;
+        DocumentBuilder docBuilder = _docBuilders.get();
 
-        try {
-            docBuilder = _docBuilderFactory.newDocumentBuilder();
-        } catch (ParserConfigurationException e) {
-            throw new SwitchYardException("Unexpected DOM parser configuration exception.", e);
+        if (docBuilder == null) {
+            try {
+                docBuilder = _docBuilderFactory.newDocumentBuilder();
+            } catch (ParserConfigurationException e) {
+                throw new SwitchYardException("Unexpected DOM parser configuration exception.", e);
+            }
+            _docBuilders.set(docBuilder);
         }
 
+        boolean reusable = false;
         try {
-            return docBuilder.parse(source);
+            Document document = docBuilder.parse(source);
+            reusable = true;
+            return document;
         } catch (SAXException e) {
             throw new SwitchYardException("Error parsing DOM source.", e);
         } catch (IOException e) {
             throw new SwitchYardException("Error reading DOM source.", e);
         } finally {
+            if (reusable) {
+                docBuilder.reset();
+            } else {
+                _docBuilders.remove();
+            }
             InputStream stream = source.getByteStream();
             Reader reader = source.getCharacterStream();
             try {
@@ -126,31 +172,131 @@ public abstract class AbstractDOMTransformer<F, T> extends BaseTransformer<F, T>
     }
 
     /**
-     * Serialize the supplied DOM node to a String.
+     * Serialize the supplied DOM node to a pretty-printed String.
      * @param node The DOM node.
      * @return The serialized XML.
      */
     public static String serialize(Node node) {
-        Transformer transformer;
+        return serialize(node, false);
+    }
 
+    /**
+     * Serialize the supplied DOM node to a String.
+     * @param node The DOM node.
+     * @param wireFormat true for non-indented output, false for pretty-printed output.
+     * @return The serialized XML.
+     */
+    public static String serialize(Node node, boolean wireFormat) {
+        StringWriter writer = new StringWriter();
+        serialize(node, new StreamResult(writer), null, wireFormat);
+        return writer.toString();
+    }
+
+    /**
+     * Serialize the supplied DOM node to a stream, UTF-8 encoded.
+     * @param node The DOM node.
+     * @param stream The stream to write to.  The stream is not closed.
+     * @param wireFormat true for non-indented output, false for pretty-printed output.
+     */
+    public static void serialize(Node node, OutputStream stream, boolean wireFormat) {
+        serialize(node, new StreamResult(stream), UTF_8, wireFormat);
+    }
+
+    /**
+     * Serialize the supplied DOM node to UTF-8 encoded bytes.
+     * @param node The DOM node.
+     * @param wireFormat true for non-indented output, false for pretty-printed output.
+     * @return The serialized XML.
+     */
+    public static byte[] toBytes(Node node, boolean wireFormat) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        serialize(node, bytes, wireFormat);
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Serialize the supplied DOM node to a stream over its UTF-8 encoded bytes.
+     * @param node The DOM node.
+     * @param wireFormat true for non-indented output, false for pretty-printed output.
+     * @return A stream over the serialized XML.
+     */
+    public static InputStream toInputStream(Node node, boolean wireFormat) {
+        EncodedBytes bytes = new EncodedBytes();
+        serialize(node, bytes, wireFormat);
+        return bytes.toInputStream();
+    }
+
+    /**
+     * Copy the supplied source to the supplied result with an identity transform,
+     * using the default output properties (i.e. including the XML declaration).
+     * @param source The source.
+     * @param result The result.
+     * @throws TransformerException Error transforming the source.
+     */
+    protected static void copy(Source source, Result result) throws TransformerException {
+        Transformer transformer = getSerializer();
+
+        boolean reusable = false;
         try {
-            transformer = _transformerFactory.newTransformer();
-        } catch (TransformerConfigurationException e) {
-            throw new SwitchYardException("Unexpected exception creating JDK Transformer instance.", e);
+            transformer.transform(source, result);
+            reusable = true;
+        } finally {
+            if (reusable) {
+                transformer.reset();
+            } else {
+                _serializers.remove();
+            }
         }
+    }
 
-        transformer.setOutputProperty(OutputKeys.OMIT_XML_DECLARATION, "yes");
-        transformer.setOutputProperty(OutputKeys.INDENT, "yes");
-        transformer.setOutputProperty("{http://xml.apache.org/xalan}indent-amount", "4");
+    private static Transformer getSerializer() {
+        Transformer transformer = _serializers.get();
 
-        StringWriter writer = new StringWriter();
+        if (transformer == null) {
+            try {
+                transformer = _transformerFactory.newTransformer();
+            } catch (TransformerConfigurationException e) {
+                throw new SwitchYardException("Unexpected exception creating JDK Transformer instance.", e);
+            }
+            _serializers.set(transformer);
+        }
+        return transformer;
+    }
+
+    private static void serialize(Node node, StreamResult result, String encoding, boolean wireFormat) {
+        Transformer transformer = getSerializer();
+
+        transformer.setOutputProperty(OutputKeys.OMIT_XML_DECLARATION, "yes");
+        if (encoding != null) {
+            transformer.setOutputProperty(OutputKeys.ENCODING, encoding);
+        }
+        if (!wireFormat) {
+            transformer.setOutputProperty(OutputKeys.INDENT, "yes");
+            transformer.setOutputProperty("{http://xml.apache.org/xalan}indent-amount", "4");
+        }
 
+        boolean reusable = false;
         try {
-            transformer.transform(new DOMSource(node), new StreamResult(writer));
+            transformer.transform(new DOMSource(node), result);
+            reusable = true;
         } catch (TransformerException e) {
             throw new SwitchYardException("Error serializing DOM node.", e);
+        } finally {
+            if (reusable) {
+                // Also clears the output properties set above.
+                transformer.reset();
+            } else {
+                _serializers.remove();
+            }
         }
+    }
 
-        return writer.toString();
+    /**
+     * Byte buffer that can be read back without copying its contents.
+     */
+    private static final class EncodedBytes extends ByteArrayOutputStream {
+        private InputStream toInputStream() {
+            return new ByteArrayInputStream(buf, 0, count);
+        }
     }
 }
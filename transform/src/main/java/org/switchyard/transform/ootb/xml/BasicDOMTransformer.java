@@ -27,7 +27,6 @@ import org.xml.sax.InputSource;
 
 import javax.xml.namespace.QName;
 import javax.xml.transform.TransformerException;
-import javax.xml.transform.TransformerFactory;
 import javax.xml.transform.dom.DOMSource;
 import javax.xml.transform.stream.StreamResult;
 
@@ -49,6 +48,7 @@ public class BasicDOMTransformer extends AbstractDOMTransformer {
     private static final QName TYPE_ELEMENT      = toMessageType(Element.class);
     private static final QName TYPE_STRING       = toMessageType(String.class);
     private static final QName TYPE_CHAR_ARRAY   = toMessageType(char[].class);
+    private static final QName TYPE_BYTE_ARRAY   = toMessageType(byte[].class);
     private static final QName TYPE_INPUTSOURCE  = toMessageType(InputSource.class);
     private static final QName TYPE_READER       = toMessageType(Reader.class);
     private static final QName TYPE_INPUTSTREAM  = toMessageType(InputStream.class);
@@ -94,19 +94,22 @@ public class BasicDOMTransformer extends AbstractDOMTransformer {
             }
         }
         if (getTo().equals(TYPE_STRING)) {
-            return serialize(from);
+            return serialize(from, isWireFormat());
         }
         if (getTo().equals(TYPE_CHAR_ARRAY)) {
-            return serialize(from).toCharArray();
+            return serialize(from, isWireFormat()).toCharArray();
         }
         if (getTo().equals(TYPE_INPUTSOURCE)) {
-            return new InputSource(new StringReader(serialize(from)));
+            return new InputSource(new StringReader(serialize(from, isWireFormat())));
         }
         if (getTo().equals(TYPE_READER)) {
-            return new StringReader(serialize(from));
+            return new StringReader(serialize(from, isWireFormat()));
         }
         if (getTo().equals(TYPE_INPUTSTREAM)) {
-            return new ByteArrayInputStream(serialize(from).getBytes());
+            return toInputStream(from, isWireFormat());
+        }
+        if (getTo().equals(TYPE_BYTE_ARRAY)) {
+            return toBytes(from, isWireFormat());
         }
 
         return null;
@@ -139,7 +142,7 @@ public class BasicDOMTransformer extends AbstractDOMTransformer {
             StringWriter writer = new StringWriter();
             StreamResult result = new StreamResult(writer);
             try {
-                TransformerFactory.newInstance().newTransformer().transform(source, result);
+                copy(source, result);
             } catch (TransformerException e) {
                 return null;
             }
@@ -66,7 +66,7 @@ public final class XsltTransformFactory implements TransformerFactory<XsltTransf
             tFactory.setErrorListener(new XsltTransformFactoryErrorListener(failOnWarning));
             Templates templates = tFactory.newTemplates(new StreamSource(stylesheetStream));
             
-            return new XsltTransformer(from, to, templates, failOnWarning);
+            return new XsltTransformer(from, to, templates, failOnWarning, model.isStreaming());
         } catch (TransformerConfigurationException e) {
             throw new SwitchYardException(
                     "An unexpected error ocurred while creating the xslt transformer",
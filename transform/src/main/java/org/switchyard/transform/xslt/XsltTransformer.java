@@ -20,21 +20,38 @@
 
 package org.switchyard.transform.xslt;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+
 import javax.xml.namespace.QName;
 import javax.xml.transform.ErrorListener;
+import javax.xml.transform.Source;
 import javax.xml.transform.Templates;
 import javax.xml.transform.TransformerException;
 import javax.xml.transform.dom.DOMSource;
 import javax.xml.transform.dom.DOMResult;
+import javax.xml.transform.stream.StreamResult;
+import javax.xml.transform.stream.StreamSource;
 import org.apache.log4j.Logger;
 import org.switchyard.Message;
+import org.switchyard.common.xml.QNameUtil;
 import org.switchyard.config.model.Scannable;
 import org.switchyard.exception.SwitchYardException;
 import org.switchyard.transform.BaseTransformer;
 import org.w3c.dom.Document;
+import org.w3c.dom.Node;
 
 /**
  * XSLT Transformer {@link org.switchyard.transform.Transformer}.
+ * <p/>
+ * In streaming mode, stream, reader, String and byte[] payloads are read
+ * through a StreamSource rather than converted to a DOM, and unless the
+ * target type is a DOM type the result is serialized directly into the
+ * target type (String by default) rather than built as a DOM.
  * 
  * @author <a href="mailto:aamonten@gmail.com">Alejandro Montenegro</a>
  * @param <F> From Type
@@ -46,6 +63,13 @@ public class XsltTransformer<F, T> extends BaseTransformer<Message, Message> {
     private static final Logger LOGGER = Logger.getLogger(XsltTransformer.class);
     private Templates _templates;
     private boolean  _failOnWarning;
+    private boolean _streaming;
+    // Java type of the target message type, if it is one
+    private Class<?> _toType;
+    private ErrorListener _errorListener;
+    // javax.xml.transform.Transformer is not thread-safe, so one per thread
+    private final ThreadLocal<javax.xml.transform.Transformer> _transformers =
+        new ThreadLocal<javax.xml.transform.Transformer>();
     
     /**
      * Public constructor.
@@ -56,26 +80,110 @@ public class XsltTransformer<F, T> extends BaseTransformer<Message, Message> {
      * @param failOnWarning whether a warning should be reported as an SwitchYardException or just log
      */
     public XsltTransformer(QName from, QName to, Templates templates, boolean failOnWarning) {
+        this(from, to, templates, failOnWarning, false);
+    }
+
+    /**
+     * Public constructor.
+     * 
+     * @param from From type.
+     * @param to To type.
+     * @param templates XSL Template instance
+     * @param failOnWarning whether a warning should be reported as an SwitchYardException or just log
+     * @param streaming whether stream payloads are transformed without building a DOM
+     */
+    public XsltTransformer(QName from, QName to, Templates templates, boolean failOnWarning, boolean streaming) {
         super(from, to);
         this._templates = templates;
         this._failOnWarning = failOnWarning;
+        this._streaming = streaming;
+        this._errorListener = new XsltTransformerErrorListener(failOnWarning);
+        if (to != null && QNameUtil.isJavaMessageType(to)) {
+            _toType = QNameUtil.toJavaMessageType(to);
+        }
+    }
+
+    /**
+     * Whether stream payloads are transformed without building a DOM.
+     * @return true if streaming
+     */
+    public boolean isStreaming() {
+        return _streaming;
     }
 
     @Override
     public Message transform(Message message) {
 
         try {
-            DOMSource source = message.getContent(DOMSource.class);
+            javax.xml.transform.Transformer transformer = getTransformer();
+            try {
+                if (_streaming) {
+                    streamingTransform(transformer, message);
+                } else {
+                    DOMSource source = message.getContent(DOMSource.class);
+                    DOMResult result = new DOMResult();
+                    transformer.transform(source, result);
+                    message.setContent(((Document)result.getNode()).getDocumentElement());
+                }
+            } finally {
+                transformer.reset();
+            }
+        } catch (Exception e) {
+            // don't reuse a transformer which failed part way through
+            _transformers.remove();
+            throw new SwitchYardException("Error during xslt transformation", e);
+        }
+        return message;
+    }
+
+    private void streamingTransform(javax.xml.transform.Transformer transformer, Message message) throws TransformerException {
+        Source source = toSource(message);
+        if (_toType != null && (Node.class.isAssignableFrom(_toType) || DOMSource.class.equals(_toType))) {
             DOMResult result = new DOMResult();
-            javax.xml.transform.Transformer transformer = _templates.newTransformer();
-            transformer.setErrorListener(new XsltTransformerErrorListener(_failOnWarning));
             transformer.transform(source, result);
             message.setContent(((Document)result.getNode()).getDocumentElement());
+        } else if (_toType != null && (byte[].class.equals(_toType) || InputStream.class.equals(_toType))) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            transformer.transform(source, new StreamResult(bytes));
+            if (byte[].class.equals(_toType)) {
+                message.setContent(bytes.toByteArray());
+            } else {
+                message.setContent(new ByteArrayInputStream(bytes.toByteArray()));
+            }
+        } else {
+            StringWriter writer = new StringWriter();
+            transformer.transform(source, new StreamResult(writer));
+            if (_toType != null && Reader.class.equals(_toType)) {
+                message.setContent(new StringReader(writer.toString()));
+            } else {
+                message.setContent(writer.toString());
+            }
+        }
+    }
 
-        } catch (Exception e) {
-            throw new SwitchYardException("Error during xslt transformation", e);
+    private Source toSource(Message message) {
+        Object content = message.getContent();
+        if (content instanceof InputStream) {
+            return new StreamSource((InputStream)content);
+        } else if (content instanceof Reader) {
+            return new StreamSource((Reader)content);
+        } else if (content instanceof String) {
+            return new StreamSource(new StringReader((String)content));
+        } else if (content instanceof byte[]) {
+            return new StreamSource(new ByteArrayInputStream((byte[])content));
         }
-        return message;
+        return message.getContent(DOMSource.class);
+    }
+
+    private javax.xml.transform.Transformer getTransformer() throws TransformerException {
+        javax.xml.transform.Transformer transformer = _transformers.get();
+        if (transformer == null) {
+            transformer = _templates.newTransformer();
+            _transformers.set(transformer);
+        }
+        // reset() may also reset the listener, so always set it
+        transformer.setErrorListener(_errorListener);
+        return transformer;
     }
 
     private class XsltTransformerErrorListener implements ErrorListener {
@@ -89,6 +89,14 @@ public class TransformerUtilTest {
     }
 
 
+    @Test
+    public void test_transform_anno_types() {
+        org.switchyard.transform.Transformer transformer = TransformerUtil.newTransformer(TestTransformer.class, QName.valueOf("X"), QName.valueOf("Y"));
+
+        Assert.assertEquals(String.class, transformer.getFromType());
+        Assert.assertEquals(String.class, transformer.getToType());
+    }
+
     @Test
     public void test_listNSdTransformations() {
         List<TransformerTypes> transformTypes = TransformerUtil.listTransformations(NSdTestTransformer.class);
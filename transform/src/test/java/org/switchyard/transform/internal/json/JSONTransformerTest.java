@@ -21,8 +21,10 @@ package org.switchyard.transform.internal.json;
 
 import static org.junit.Assert.assertEquals;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.util.List;
 import java.util.Map;
 
@@ -47,6 +49,7 @@ import org.switchyard.transform.internal.json.User.Gender;
 import org.switchyard.transform.internal.json.User.Name;
 import org.switchyard.transform.json.internal.JSON2JavaTransformer;
 import org.switchyard.transform.json.internal.JSONTransformFactory;
+import org.switchyard.transform.json.internal.Java2JSONBytesTransformer;
 import org.switchyard.transform.json.internal.Java2JSONTransformer;
 
 /**
@@ -158,6 +161,43 @@ public class JSONTransformerTest {
 		}
 	}
 
+    @Test
+    public void test_JSONResultBytes() throws Exception {
+        Transformer transformer = getTransformer("switchyard-config-07.xml");
+        Assert.assertTrue(transformer instanceof Java2JSONBytesTransformer);
+        Object result = transformer.transform(new Person("Alejandro", 31));
+        Assert.assertTrue(result instanceof byte[]);
+        assertEquals(toObject(JSON_PERSON, Person.class), toObject(new String((byte[]) result, "UTF-8"), Person.class));
+    }
+
+    @Test
+    public void test_JAVAResultFromBytes() throws Exception {
+        Transformer transformer = getTransformer("switchyard-config-02.xml");
+        byte[] json = JSON_PERSON.getBytes("UTF-8");
+
+        DefaultMessage message = newMessage(json);
+        transformer.transform(message);
+        assertEquals(new Person("Alejandro", 31), message.getContent());
+
+        message = newMessage(new ByteArrayInputStream(json));
+        transformer.transform(message);
+        assertEquals(new Person("Alejandro", 31), message.getContent());
+
+        // heap buffer over part of a larger array
+        byte[] padded = new byte[json.length + 4];
+        System.arraycopy(json, 0, padded, 2, json.length);
+        ByteBuffer slice = ByteBuffer.wrap(padded, 2, json.length).slice();
+        message = newMessage(slice);
+        transformer.transform(message);
+        assertEquals(new Person("Alejandro", 31), message.getContent());
+
+        ByteBuffer direct = ByteBuffer.allocateDirect(json.length);
+        direct.put(json).flip();
+        message = newMessage(direct);
+        transformer.transform(message);
+        assertEquals(new Person("Alejandro", 31), message.getContent());
+    }
+
 	private Transformer getTransformer(String config) throws IOException {
 		InputStream swConfigStream = getClass().getResourceAsStream(config);
 
@@ -179,7 +219,8 @@ public class JSONTransformerTest {
 
 		Transformer transformer = new JSONTransformFactory().newTransformer(jsonTransformModel);
 
-		if (!(transformer instanceof JSON2JavaTransformer ||transformer instanceof Java2JSONTransformer)) {
+		if (!(transformer instanceof JSON2JavaTransformer ||transformer instanceof Java2JSONTransformer
+		        || transformer instanceof Java2JSONBytesTransformer)) {
 			Assert.fail("Not an instance of a JSONTransformer.");
 		}
 
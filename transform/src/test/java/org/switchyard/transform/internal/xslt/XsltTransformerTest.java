@@ -18,6 +18,7 @@
  */
 package org.switchyard.transform.internal.xslt;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import org.custommonkey.xmlunit.Diff;
@@ -44,6 +45,10 @@ import org.switchyard.transform.xslt.XsltTransformer;
 import org.xml.sax.SAXException;
 
 import javax.xml.namespace.QName;
+import javax.xml.transform.Templates;
+import javax.xml.transform.stream.StreamSource;
+
+import org.w3c.dom.Element;
 
 /**
  * @author Alejandro Montenegro <a
@@ -163,6 +168,66 @@ public class XsltTransformerTest extends AbstractTransformerTestCase {
         }
     }
 
+    @Test
+    public void test_streaming_config() throws Exception {
+        InputStream swConfigStream = Classes.getResourceAsStream("xslt-config-streaming.xml", getClass());
+        try {
+            SwitchYardModel switchyardConfig = new ModelPuller<SwitchYardModel>().pull(swConfigStream);
+            switchyardConfig.assertModelValid();
+        } finally {
+            swConfigStream.close();
+        }
+        XsltTransformer<?, ?> transformer = (XsltTransformer<?, ?>)getTransformer("xslt-config-streaming.xml");
+        Assert.assertTrue(transformer.isStreaming());
+        Assert.assertFalse(((XsltTransformer<?, ?>)getTransformer("xslt-config-03.xml")).isStreaming());
+    }
+
+    @Test
+    public void test_streaming_result() throws Exception {
+        Transformer transformer = getTransformer("xslt-config-streaming.xml");
+        XMLUnit.setIgnoreWhitespace(true);
+
+        DefaultMessage message = newMessage(INITIAL);
+        transformer.transform(message);
+        Assert.assertTrue(message.getContent() instanceof String);
+        Diff diff = new Diff(EXPECTED, (String)message.getContent());
+        Assert.assertTrue(diff.toString(), diff.identical());
+
+        // the per-thread transformer is reused for the next message
+        message = newMessage(new ByteArrayInputStream(INITIAL.getBytes("UTF-8")));
+        transformer.transform(message);
+        diff = new Diff(EXPECTED, (String)message.getContent());
+        Assert.assertTrue(diff.toString(), diff.identical());
+    }
+
+    @Test
+    public void test_streaming_dom_target() throws Exception {
+        Templates templates = javax.xml.transform.TransformerFactory.newInstance().newTemplates(
+                new StreamSource(Classes.getResourceAsStream("org/switchyard/transform/internal/xslt/topics.xslt")));
+        XsltTransformer<?, ?> transformer = new XsltTransformer<Object, Object>(new QName("A"),
+                new QName("java:org.w3c.dom.Element"), templates, false, true);
+        DefaultMessage message = newMessage(INITIAL.getBytes("UTF-8"));
+        transformer.transform(message);
+        Assert.assertTrue(message.getContent() instanceof Element);
+        Assert.assertEquals("index", ((Element)message.getContent()).getNodeName());
+    }
+
+    @Test
+    public void test_streaming_fail_then_recover() throws Exception {
+        Transformer transformer = getTransformer("xslt-config-streaming.xml");
+        try {
+            transformer.transform(newMessage(INITIAL_FAIL));
+            Assert.fail("xml to transform should be invalid");
+        } catch (SwitchYardException e) {
+            Assert.assertEquals("Error during xslt transformation", e.getMessage());
+        }
+        DefaultMessage message = newMessage(INITIAL);
+        transformer.transform(message);
+        XMLUnit.setIgnoreWhitespace(true);
+        Diff diff = new Diff(EXPECTED, (String)message.getContent());
+        Assert.assertTrue(diff.toString(), diff.identical());
+    }
+
     private DefaultMessage newMessage(Object content) {
         DefaultMessage message = new DefaultMessage().setContent(content);
         message.setTransformerRegistry(xformReg);
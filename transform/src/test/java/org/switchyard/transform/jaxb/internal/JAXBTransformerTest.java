@@ -77,6 +77,35 @@ public class JAXBTransformerTest extends AbstractTransformerTestCase {
         Assert.assertEquals("A", marshalingTransformer.getTo().toString());
     }
 
+    @Test
+    public void test_compact() throws Exception {
+        JAXBMarshalTransformer marshalTransformer = (JAXBMarshalTransformer) getTransformer("switchyard-config-03.xml");
+        Assert.assertTrue(marshalTransformer.isCompact());
+        Assert.assertFalse(((JAXBMarshalTransformer) getTransformer("switchyard-config-02.xml")).isCompact());
+
+        List<Transformer<?,?>> transformers = JAXBTransformerFactory.newTransformers(OrderService.class);
+        DefaultMessage message = new DefaultMessage();
+        message.setContent(new StreamSource(new StringReader(PO_XML)));
+        ((JAXBUnmarshalTransformer) transformers.get(0)).transform(message);
+        marshalTransformer.transform(message);
+
+        Assert.assertTrue(message.getContent() instanceof byte[]);
+        String resultXML = new String((byte[]) message.getContent(), "UTF-8");
+        Assert.assertFalse(resultXML.contains("\n    "));
+        XMLUnit.setIgnoreWhitespace(true);
+        Assert.assertTrue(XMLUnit.compareXML(PO_XML.replace("purchaseOrder", "A"), resultXML).similar());
+    }
+
+    @Test
+    public void test_sharedContext() throws Exception {
+        String contextPath = POType.class.getPackage().getName();
+        List<Transformer<?,?>> transformers = JAXBTransformerFactory.newTransformers(OrderService.class);
+        Assert.assertSame(JAXBContexts.getContext(contextPath, POType.class.getClassLoader()),
+                JAXBContexts.getContext(contextPath, POType.class.getClassLoader()));
+        // keep the transformers, and so the cached context, reachable until here
+        Assert.assertEquals(2, transformers.size());
+    }
+
     @Test
     public void test_createMissingFactoryMethodMessage() throws IOException, SAXException {
         String message = JAXBTransformerFactory.createMissingFactoryMethodMessage(
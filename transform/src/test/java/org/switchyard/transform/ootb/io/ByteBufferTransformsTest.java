@@ -0,0 +1,89 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2011 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *  *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+
+package org.switchyard.transform.ootb.io;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+
+public class ByteBufferTransformsTest {
+
+    @Test
+    public void testToString() throws Exception {
+        Assert.assertEquals("Hello \u00e9t\u00e9", ByteBufferTransforms.TRANSFORMER.toString(newBuffer("Hello \u00e9t\u00e9")));
+    }
+
+    @Test
+    public void testToCharSequence() throws Exception {
+        Assert.assertEquals("Hello SwitchYard", ByteBufferTransforms.TRANSFORMER.toCharSequence(newBuffer("Hello SwitchYard")).toString());
+    }
+
+    @Test
+    public void testToChars() throws Exception {
+        Assert.assertEquals("12345", new String(ByteBufferTransforms.TRANSFORMER.toChars(newBuffer("12345"))));
+    }
+
+    @Test
+    public void testToReader() throws Exception {
+        Reader reader = ByteBufferTransforms.TRANSFORMER.toReader(newBuffer("Hello SwitchYard"));
+        Assert.assertEquals("Hello SwitchYard", ReaderTransforms.TRANSFORMER.toString(reader));
+    }
+
+    @Test
+    public void testToBytesSharesArray() throws Exception {
+        byte[] bytes = "12345".getBytes("UTF-8");
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+
+        Assert.assertSame(bytes, ByteBufferTransforms.TRANSFORMER.toBytes(buffer));
+        Assert.assertEquals(0, buffer.position());
+    }
+
+    @Test
+    public void testToBytesSlice() throws Exception {
+        ByteBuffer buffer = ByteBuffer.wrap("12345".getBytes("UTF-8"), 1, 3);
+
+        Assert.assertEquals("234", new String(ByteBufferTransforms.TRANSFORMER.toBytes(buffer), "UTF-8"));
+        Assert.assertEquals(1, buffer.position());
+    }
+
+    @Test
+    public void testToInputStream() throws Exception {
+        ByteBuffer direct = ByteBuffer.allocateDirect(5);
+        direct.put("12345".getBytes("UTF-8")).flip();
+
+        InputStream stream = ByteBufferTransforms.TRANSFORMER.toInputStream(direct);
+        Assert.assertEquals("12345", InputStreamTransforms.TRANSFORMER.toString(stream));
+        Assert.assertEquals(0, direct.position());
+    }
+
+    @Test
+    public void testToReadableByteChannel() throws Exception {
+        ReadableByteChannel channel = ByteBufferTransforms.TRANSFORMER.toReadableByteChannel(newBuffer("12345"));
+        Assert.assertEquals("12345", ReadableByteChannelTransforms.TRANSFORMER.toString(channel));
+    }
+
+    private ByteBuffer newBuffer(String s) throws Exception {
+        return ByteBuffer.wrap(s.getBytes("UTF-8"));
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2011 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *  *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+
+package org.switchyard.transform.ootb.io;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.switchyard.internal.DefaultMessage;
+import org.switchyard.transform.ootb.AbstractTransformerTest;
+
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+
+public class CharSequenceTransformsTest extends AbstractTransformerTest {
+
+    @Test
+    public void testToString() throws Exception {
+        Assert.assertEquals("Hello SwitchYard", CharSequenceTransforms.TRANSFORMER.toString(new StringBuilder("Hello SwitchYard")));
+    }
+
+    @Test
+    public void testToCharsSharesArray() throws Exception {
+        char[] chars = "12345".toCharArray();
+        Assert.assertSame(chars, CharSequenceTransforms.TRANSFORMER.toChars(CharBuffer.wrap(chars)));
+    }
+
+    @Test
+    public void testToReader() throws Exception {
+        CharBuffer buffer = CharBuffer.wrap("12345".toCharArray(), 1, 3);
+        Reader reader = CharSequenceTransforms.TRANSFORMER.toReader(buffer);
+
+        Assert.assertEquals("234", ReaderTransforms.TRANSFORMER.toString(reader));
+        Assert.assertEquals(1, buffer.position());
+    }
+
+    @Test
+    public void testToBytes() throws Exception {
+        byte[] bytes = CharSequenceTransforms.TRANSFORMER.toBytes(new StringBuilder("Hello \u00e9t\u00e9"));
+        Assert.assertArrayEquals("Hello \u00e9t\u00e9".getBytes("UTF-8"), bytes);
+    }
+
+    @Test
+    public void testToByteBuffer() throws Exception {
+        ByteBuffer buffer = CharSequenceTransforms.TRANSFORMER.toByteBuffer("\u00e9");
+        Assert.assertEquals(2, buffer.remaining());
+    }
+
+    @Test
+    public void testToInputStream() throws Exception {
+        Assert.assertEquals("12345", InputStreamTransforms.TRANSFORMER.toString(CharSequenceTransforms.TRANSFORMER.toInputStream("12345")));
+    }
+
+    @Test
+    public void testMessageContent() throws Exception {
+        DefaultMessage message = newMessage();
+
+        message.setContent(new StringBuilder("Hello \u00e9t\u00e9"));
+        Assert.assertEquals("Hello \u00e9t\u00e9", message.getContent(String.class));
+
+        message.setContent("Hello \u00e9t\u00e9");
+        Assert.assertEquals("Hello \u00e9t\u00e9", IOBuffers.toString(message.getContent(ByteBuffer.class), IOBuffers.UTF_8));
+
+        message.setContent(ByteBuffer.wrap("Hello \u00e9t\u00e9".getBytes("UTF-8")));
+        Assert.assertEquals("Hello \u00e9t\u00e9", message.getContent(String.class));
+    }
+}
@@ -24,6 +24,8 @@ import org.junit.Test;
 import org.switchyard.transform.ootb.lang.StringTransforms;
 import org.xml.sax.InputSource;
 
+import java.io.ByteArrayInputStream;
+
 /**
  * @author <a href="mailto:tom.fennelly@gmail.com">tom.fennelly@gmail.com</a>
  */
@@ -84,6 +86,19 @@ public class InputSourceTransformsTest {
         Assert.assertEquals((Float)1F, InputSourceTransforms.TRANSFORMER.toFloat(newInputSource("1")));
     }
 
+    @Test
+    public void testToStringEncoding() throws Exception {
+        InputSource inputSource = new InputSource(new ByteArrayInputStream("\u00e9t\u00e9".getBytes("ISO-8859-1")));
+        inputSource.setEncoding("ISO-8859-1");
+        Assert.assertEquals("\u00e9t\u00e9", InputSourceTransforms.TRANSFORMER.toString(inputSource));
+    }
+
+    @Test
+    public void testToReaderFromByteStream() throws Exception {
+        InputSource inputSource = new InputSource(new ByteArrayInputStream("12345".getBytes("UTF-8")));
+        Assert.assertEquals("12345", ReaderTransforms.TRANSFORMER.toString(InputSourceTransforms.TRANSFORMER.toReader(inputSource)));
+    }
+
     private InputSource newInputSource(String s) {
         return StringTransforms.TRANSFORMER.toInputSource(s);
     }
@@ -24,6 +24,8 @@ import org.junit.Test;
 
 import java.io.ByteArrayInputStream;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 
 /**
  * @author <a href="mailto:tom.fennelly@gmail.com">tom.fennelly@gmail.com</a>
@@ -85,6 +87,44 @@ public class InputStreamTransformsTest {
         Assert.assertEquals((Float)1F, InputStreamTransforms.TRANSFORMER.toFloat(newInputStream("1")));
     }
 
+    @Test
+    public void testToStringUTF8() throws Exception {
+        InputStream stream = new ByteArrayInputStream("Hello \u00e9t\u00e9".getBytes("UTF-8"));
+        Assert.assertEquals("Hello \u00e9t\u00e9", InputStreamTransforms.TRANSFORMER.toString(stream));
+    }
+
+    @Test
+    public void testToBytesLarge() throws Exception {
+        byte[] bytes = new byte[100000];
+        Arrays.fill(bytes, (byte) 'x');
+
+        // An unbuffered stream that reports nothing as available...
+        InputStream stream = new ByteArrayInputStream(bytes) {
+            @Override
+            public synchronized int available() {
+                return 0;
+            }
+        };
+        Assert.assertTrue(Arrays.equals(bytes, InputStreamTransforms.TRANSFORMER.toBytes(stream)));
+    }
+
+    @Test
+    public void testToByteBuffer() throws Exception {
+        ByteBuffer buffer = InputStreamTransforms.TRANSFORMER.toByteBuffer(newInputStream("12345"));
+        Assert.assertEquals(5, buffer.remaining());
+        Assert.assertEquals(5, buffer.array().length);
+    }
+
+    @Test
+    public void testToCharSequence() throws Exception {
+        Assert.assertEquals("12345", InputStreamTransforms.TRANSFORMER.toCharSequence(newInputStream("12345")).toString());
+    }
+
+    @Test
+    public void testToReadableByteChannel() throws Exception {
+        Assert.assertEquals("12345", ReadableByteChannelTransforms.TRANSFORMER.toString(InputStreamTransforms.TRANSFORMER.toReadableByteChannel(newInputStream("12345"))));
+    }
+
     private InputStream newInputStream(String s) {
         return new ByteArrayInputStream(s.getBytes());
     }
@@ -0,0 +1,74 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2011 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *  *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+
+package org.switchyard.transform.ootb.io;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Arrays;
+
+public class ReadableByteChannelTransformsTest {
+
+    @Test
+    public void testToByteBuffer() throws Exception {
+        ByteBuffer buffer = ReadableByteChannelTransforms.TRANSFORMER.toByteBuffer(newChannel("Hello SwitchYard"));
+        Assert.assertEquals(16, buffer.remaining());
+    }
+
+    @Test
+    public void testToBytesLarge() throws Exception {
+        byte[] bytes = new byte[100000];
+        Arrays.fill(bytes, (byte) 'x');
+
+        ReadableByteChannel channel = Channels.newChannel(new ByteArrayInputStream(bytes));
+        Assert.assertTrue(Arrays.equals(bytes, ReadableByteChannelTransforms.TRANSFORMER.toBytes(channel)));
+        Assert.assertFalse(channel.isOpen());
+    }
+
+    @Test
+    public void testToInputStream() throws Exception {
+        InputStream stream = ReadableByteChannelTransforms.TRANSFORMER.toInputStream(newChannel("12345"));
+        Assert.assertEquals("12345", InputStreamTransforms.TRANSFORMER.toString(stream));
+    }
+
+    @Test
+    public void testToString() throws Exception {
+        Assert.assertEquals("Hello \u00e9t\u00e9", ReadableByteChannelTransforms.TRANSFORMER.toString(newChannel("Hello \u00e9t\u00e9")));
+    }
+
+    @Test
+    public void testToCharSequence() throws Exception {
+        Assert.assertEquals("12345", ReadableByteChannelTransforms.TRANSFORMER.toCharSequence(newChannel("12345")).toString());
+    }
+
+    @Test
+    public void testToReader() throws Exception {
+        Assert.assertEquals("12345", ReaderTransforms.TRANSFORMER.toString(ReadableByteChannelTransforms.TRANSFORMER.toReader(newChannel("12345"))));
+    }
+
+    private ReadableByteChannel newChannel(String s) throws Exception {
+        return Channels.newChannel(new ByteArrayInputStream(s.getBytes("UTF-8")));
+    }
+}
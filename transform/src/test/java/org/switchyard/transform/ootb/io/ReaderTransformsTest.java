@@ -25,6 +25,8 @@ import org.switchyard.transform.ootb.lang.NumberTransforms;
 
 import java.io.Reader;
 import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 
 /**
  * @author <a href="mailto:tom.fennelly@gmail.com">tom.fennelly@gmail.com</a>
@@ -86,6 +88,29 @@ public class ReaderTransformsTest {
         Assert.assertEquals((Float)1F, ReaderTransforms.TRANSFORMER.toFloat(newReader("1")));
     }
 
+    @Test
+    public void testToStringLarge() throws Exception {
+        char[] chars = new char[100000];
+        Arrays.fill(chars, 'x');
+        Assert.assertEquals(new String(chars), ReaderTransforms.TRANSFORMER.toString(newReader(new String(chars))));
+    }
+
+    @Test
+    public void testToBytesUTF8() throws Exception {
+        Assert.assertArrayEquals("\u00e9t\u00e9".getBytes("UTF-8"), ReaderTransforms.TRANSFORMER.toBytes(newReader("\u00e9t\u00e9")));
+    }
+
+    @Test
+    public void testToByteBuffer() throws Exception {
+        ByteBuffer buffer = ReaderTransforms.TRANSFORMER.toByteBuffer(newReader("12345"));
+        Assert.assertEquals(5, buffer.remaining());
+    }
+
+    @Test
+    public void testToCharSequence() throws Exception {
+        Assert.assertEquals("12345", ReaderTransforms.TRANSFORMER.toCharSequence(newReader("12345")).toString());
+    }
+
     private Reader newReader(String s) {
         return new StringReader(s);
     }
@@ -25,6 +25,7 @@ import org.junit.Test;
 import org.switchyard.metadata.java.JavaService;
 import org.switchyard.transform.Transformer;
 import org.switchyard.transform.TransformerUtil;
+import org.switchyard.transform.ootb.map.ordermodel.Header;
 import org.switchyard.transform.ootb.map.ordermodel.Item;
 import org.switchyard.transform.ootb.map.ordermodel.Order;
 
@@ -33,6 +34,10 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * @author <a href="mailto:tom.fennelly@gmail.com">tom.fennelly@gmail.com</a>
@@ -69,6 +74,54 @@ public class FromMapToJavaTest {
         Assert.assertEquals("Y", items.get(1).getProductId());
     }
 
+    @Test
+    public void test_coercion() {
+        Map<String, Object> header = new HashMap<String, Object>();
+        Map<String, Object> customerDetails = new HashMap<String, Object>();
+        FromMapToJava transformer = new FromMapToJava();
+
+        header.put("orderId", "1234");
+        header.put("originType", null);
+        header.put("customerDetails", customerDetails);
+        customerDetails.put("custId", "not-a-number");
+        customerDetails.put("name", "Seamus Ungabunga");
+        transformer.setTo(JavaService.toMessageType(Header.class));
+
+        Header headerOut = (Header) transformer.transform(header);
+
+        Assert.assertEquals(1234, headerOut.getOrderId());
+        Assert.assertNull(headerOut.getOriginType());
+        // Values that cannot be coerced are skipped...
+        Assert.assertEquals(0, headerOut.getCustomerDetails().getCustId());
+        Assert.assertEquals("Seamus Ungabunga", headerOut.getCustomerDetails().getName());
+    }
+
+    @Test
+    public void test_concurrentTransform() throws Exception {
+        final FromMapToJava transformer = new FromMapToJava();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<Order>> results = new ArrayList<Future<Order>>();
+
+        transformer.setTo(JavaService.toMessageType(Order.class));
+        try {
+            for (int i = 0; i < 50; i++) {
+                results.add(executor.submit(new Callable<Order>() {
+                    public Order call() {
+                        return (Order) transformer.transform(buildOrderMap());
+                    }
+                }));
+            }
+            for (Future<Order> result : results) {
+                Order order = result.get();
+                Assert.assertEquals(1234, order.getHeader().getOrderId());
+                Assert.assertEquals(2, order.getItems().size());
+                Assert.assertEquals("Y", order.getItems().get(1).getProductId());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
     private Map buildOrderMap() {
         Map<String, Object> order = new HashMap<String, Object>();
         Map<String, Object> header = new HashMap<String, Object>();
@@ -23,6 +23,7 @@ import org.custommonkey.xmlunit.XMLAssert;
 import org.custommonkey.xmlunit.XMLUnit;
 import org.junit.Assert;
 import org.junit.Test;
+import org.switchyard.exception.SwitchYardException;
 import org.switchyard.internal.DefaultMessage;
 import org.switchyard.transform.ootb.AbstractTransformerTest;
 import org.w3c.dom.Document;
@@ -33,9 +34,11 @@ import org.xml.sax.SAXException;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.StringReader;
 import java.io.StringWriter;
 
+import javax.xml.namespace.QName;
 import javax.xml.transform.TransformerException;
 import javax.xml.transform.TransformerFactory;
 import javax.xml.transform.dom.DOMSource;
@@ -100,6 +103,23 @@ public class BasicDOMTransformerTest extends AbstractTransformerTest {
 
         XMLAssert.assertXMLEqual("<x><y/></x>", new String(stringOut));
     }
+
+    @Test
+    public void test_DOMSource2StringKeepsDeclaration() throws IOException, SAXException {
+        Document docIn = XMLUnit.buildTestDocument("<x><y/></x>");
+        BasicDOMTransformer transformer = new BasicDOMTransformer();
+        transformer.setTo(new QName("java:java.lang.String"));
+
+        // the pooled serializer must not carry output properties across uses
+        AbstractDOMTransformer.serialize(docIn, true);
+        for (int i = 0; i < 2; i++) {
+            String stringOut = (String) transformer.transform(new DOMSource(docIn));
+
+            Assert.assertTrue(stringOut.startsWith("<?xml"));
+            XMLAssert.assertXMLEqual("<x><y/></x>", stringOut);
+        }
+        Assert.assertEquals("<x><y/></x>", AbstractDOMTransformer.serialize(docIn, true));
+    }
     
     @Test
     public void test_String2Document() throws IOException, SAXException {
@@ -173,6 +193,57 @@ public class BasicDOMTransformerTest extends AbstractTransformerTest {
         testToDOM("<x><y/></x>".toCharArray(), Element.class);
     }
 
+    @Test
+    public void test_Document2Bytes() throws Exception {
+        Document docIn = XMLUnit.buildTestDocument("<x><y>\u00e9t\u00e9</y></x>");
+        DefaultMessage message = newMessage();
+
+        message.setContent(docIn);
+        byte[] bytesOut = message.getContent(byte[].class);
+
+        XMLAssert.assertXMLEqual("<x><y>\u00e9t\u00e9</y></x>", new String(bytesOut, "UTF-8"));
+    }
+
+    @Test
+    public void test_Element2InputStream() throws Exception {
+        Document docIn = XMLUnit.buildTestDocument("<x><y>\u00e9t\u00e9</y></x>");
+        DefaultMessage message = newMessage();
+
+        message.setContent(docIn.getDocumentElement());
+        InputStream streamOut = message.getContent(InputStream.class);
+        Document docOut = AbstractDOMTransformer.parse(new InputSource(streamOut));
+
+        Assert.assertEquals("\u00e9t\u00e9", docOut.getDocumentElement().getTextContent().trim());
+    }
+
+    @Test
+    public void test_wireFormat() throws IOException, SAXException {
+        Document docIn = XMLUnit.buildTestDocument("<x><y/></x>");
+        BasicDOMTransformer transformer = new BasicDOMTransformer();
+        transformer.setTo(new QName("java:java.lang.String"));
+
+        Assert.assertFalse(transformer.isWireFormat());
+        Assert.assertTrue(((String) transformer.transform(docIn)).indexOf('\n') != -1);
+
+        transformer.setWireFormat(true);
+        Assert.assertEquals("<x><y/></x>", transformer.transform(docIn));
+    }
+
+    @Test
+    public void test_parseAfterError() {
+        try {
+            AbstractDOMTransformer.parse(new InputSource(new StringReader("<x><y></x>")));
+            Assert.fail("Expected parse failure.");
+        } catch (SwitchYardException e) {
+            // expected
+        }
+        for (int i = 0; i < 3; i++) {
+            Document doc = AbstractDOMTransformer.parse(new InputSource(new StringReader("<x><y/></x>")));
+            Assert.assertEquals("x", doc.getDocumentElement().getNodeName());
+            Assert.assertEquals("<x><y/></x>", AbstractDOMTransformer.serialize(doc, true));
+        }
+    }
+
     private <T extends Node> void testToDOM(Object fromXmlContent, Class<T> toNodeType) throws IOException, SAXException {
         DefaultMessage message = newMessage();
 
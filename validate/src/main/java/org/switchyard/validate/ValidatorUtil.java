@@ -235,26 +235,8 @@ public final class ValidatorUtil {
         return false;
     }
 
-    private static Validator newValidator(final Object validatorObject, final Method publicMethod, QName name) {
-        Validator validator = new BaseValidator(name) {
-            @Override
-            public boolean validate(Object subject) {
-                try {
-                    return Boolean.parseBoolean(publicMethod.invoke(validatorObject, subject).toString());
-                } catch (InvocationTargetException e) {
-                    throw new SwitchYardException("Error executing @Validator method '" + publicMethod.getName() + "' on class '" + publicMethod.getDeclaringClass().getName() + "'.", e.getCause());
-                } catch (Exception e) {
-                    throw new SwitchYardException("Error executing @Validator method '" + publicMethod.getName() + "' on class '" + publicMethod.getDeclaringClass().getName() + "'.", e);
-                }
-            }
-            
-            @Override
-            public Class<?> getType() {
-                return publicMethod.getReturnType();
-            }
-        };
-
-        return validator;
+    private static Validator newValidator(Object validatorObject, Method publicMethod, QName name) {
+        return new MethodValidator(validatorObject, publicMethod, name);
     }
 
     private static boolean isAssignableFrom(QName a, QName b) {
@@ -335,4 +317,50 @@ public final class ValidatorUtil {
             return _method;
         }
     }
+
+    /**
+     * Adapts a {@link org.switchyard.annotations.Validator @Validator} method to the
+     * {@link Validator} interface.  Reflective access checks are suppressed, and
+     * boolean results are used as-is rather than parsed from their String form.
+     */
+    private static final class MethodValidator extends BaseValidator {
+
+        private final Object _validatorObject;
+        private final Method _method;
+        private final Class<?> _type;
+        private final boolean _booleanResult;
+
+        private MethodValidator(Object validatorObject, Method method, QName name) {
+            super(name);
+            _validatorObject = validatorObject;
+            _method = method;
+            _type = method.getParameterTypes()[0];
+            _booleanResult = method.getReturnType() == Boolean.TYPE || method.getReturnType() == Boolean.class;
+            try {
+                _method.setAccessible(true);
+            } catch (SecurityException e) {
+                // Not permitted.  Calls are access checked instead.
+            }
+        }
+
+        @Override
+        public boolean validate(Object subject) {
+            try {
+                Object result = _method.invoke(_validatorObject, subject);
+                if (_booleanResult) {
+                    return ((Boolean) result).booleanValue();
+                }
+                return Boolean.parseBoolean(result.toString());
+            } catch (InvocationTargetException e) {
+                throw new SwitchYardException("Error executing @Validator method '" + _method.getName() + "' on class '" + _method.getDeclaringClass().getName() + "'.", e.getCause());
+            } catch (Exception e) {
+                throw new SwitchYardException("Error executing @Validator method '" + _method.getName() + "' on class '" + _method.getDeclaringClass().getName() + "'.", e);
+            }
+        }
+
+        @Override
+        public Class<?> getType() {
+            return _type;
+        }
+    }
 }
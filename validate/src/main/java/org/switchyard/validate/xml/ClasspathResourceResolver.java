@@ -0,0 +1,205 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2011 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+
+package org.switchyard.validate.xml;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.log4j.Logger;
+import org.switchyard.common.type.Classes;
+import org.w3c.dom.ls.LSInput;
+import org.w3c.dom.ls.LSResourceResolver;
+
+/**
+ * Resolves schema imports and includes.  Locations are first resolved
+ * relative to the importing document, as a SchemaFactory would by default,
+ * and then looked up on the classpath, which allows schemas to reference
+ * each other by classpath location (e.g. <code>/org/example/types.xsd</code>).
+ * The location and content digest of every resolved document is recorded, so
+ * that a compiled schema can tell when one of its imports has changed.
+ */
+class ClasspathResourceResolver implements LSResourceResolver {
+
+    private static final Logger LOGGER = Logger.getLogger(ClasspathResourceResolver.class);
+
+    // location -> content digest, in resolution order
+    private final Map<String, String> _resolved = 
+        Collections.synchronizedMap(new LinkedHashMap<String, String>());
+
+    /**
+     * Returns the documents resolved so far.
+     * @return location and content digest of each resolved document
+     */
+    Map<String, String> getResolved() {
+        synchronized (_resolved) {
+            return new LinkedHashMap<String, String>(_resolved);
+        }
+    }
+
+    @Override
+    public LSInput resolveResource(String type, String namespaceURI, String publicId, String systemId, String baseURI) {
+        if (systemId == null) {
+            return null;
+        }
+        URL url = relativeURL(systemId, baseURI);
+        byte[] content = read(url);
+        if (content == null) {
+            try {
+                url = Classes.getResource(systemId);
+            } catch (IOException ioe) {
+                LOGGER.debug("Unable to look up schema resource '" + systemId + "' on the classpath", ioe);
+                url = null;
+            }
+            content = read(url);
+        }
+        if (content == null) {
+            // returning null lets the parser report the missing resource
+            return null;
+        }
+        _resolved.put(url.toExternalForm(), CompiledSchemas.digest(content));
+        return new StreamInput(publicId, url.toExternalForm(), baseURI, new ByteArrayInputStream(content));
+    }
+
+    private URL relativeURL(String systemId, String baseURI) {
+        try {
+            if (new URI(systemId).isAbsolute()) {
+                return new URL(systemId);
+            } else if (baseURI != null) {
+                return new URL(new URL(baseURI), systemId);
+            }
+        } catch (URISyntaxException use) {
+            LOGGER.debug("Invalid schema location '" + systemId + "'", use);
+        } catch (MalformedURLException mue) {
+            LOGGER.debug("Invalid schema location '" + systemId + "'", mue);
+        }
+        return null;
+    }
+
+    private byte[] read(URL url) {
+        if (url == null) {
+            return null;
+        }
+        try {
+            return CompiledSchemas.read(url);
+        } catch (IOException ioe) {
+            return null;
+        }
+    }
+
+    // LSInput over an already opened stream.
+    private static final class StreamInput implements LSInput {
+        private String _publicId;
+        private String _systemId;
+        private String _baseURI;
+        private InputStream _byteStream;
+
+        StreamInput(String publicId, String systemId, String baseURI, InputStream byteStream) {
+            _publicId = publicId;
+            _systemId = systemId;
+            _baseURI = baseURI;
+            _byteStream = byteStream;
+        }
+
+        @Override
+        public Reader getCharacterStream() {
+            return null;
+        }
+
+        @Override
+        public void setCharacterStream(Reader characterStream) {
+        }
+
+        @Override
+        public InputStream getByteStream() {
+            return _byteStream;
+        }
+
+        @Override
+        public void setByteStream(InputStream byteStream) {
+            _byteStream = byteStream;
+        }
+
+        @Override
+        public String getStringData() {
+            return null;
+        }
+
+        @Override
+        public void setStringData(String stringData) {
+        }
+
+        @Override
+        public String getSystemId() {
+            return _systemId;
+        }
+
+        @Override
+        public void setSystemId(String systemId) {
+            _systemId = systemId;
+        }
+
+        @Override
+        public String getPublicId() {
+            return _publicId;
+        }
+
+        @Override
+        public void setPublicId(String publicId) {
+            _publicId = publicId;
+        }
+
+        @Override
+        public String getBaseURI() {
+            return _baseURI;
+        }
+
+        @Override
+        public void setBaseURI(String baseURI) {
+            _baseURI = baseURI;
+        }
+
+        @Override
+        public String getEncoding() {
+            return null;
+        }
+
+        @Override
+        public void setEncoding(String encoding) {
+        }
+
+        @Override
+        public boolean getCertifiedText() {
+            return false;
+        }
+
+        @Override
+        public void setCertifiedText(boolean certifiedText) {
+        }
+    }
+}
@@ -0,0 +1,186 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2011 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+
+package org.switchyard.validate.xml;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.xml.transform.stream.StreamSource;
+import javax.xml.validation.Schema;
+import javax.xml.validation.SchemaFactory;
+
+import org.switchyard.common.lang.WeakKeyCache;
+import org.switchyard.common.type.Classes;
+import org.xml.sax.SAXException;
+
+/**
+ * Compiled {@link Schema} instances shared by all XmlValidators.
+ * <p/>
+ * Schemas are cached per thread context ClassLoader, by schema language and
+ * resource path.  A cached Schema is reused only while the schema resource
+ * and every document it imports or includes still have the content it was
+ * compiled from, so a redeployed application with a changed schema gets a
+ * fresh one.  Only the latest Schema is kept for each path, and the cache
+ * does not keep an undeployed application's ClassLoader reachable.  Schema
+ * instances are immutable and thread-safe.
+ */
+final class CompiledSchemas {
+
+    // context ClassLoader -> language and path -> compiled schema
+    private static final WeakKeyCache<ClassLoader, ConcurrentHashMap<String, CompiledSchema>> SCHEMAS =
+        new WeakKeyCache<ClassLoader, ConcurrentHashMap<String, CompiledSchema>>();
+    // language and path -> compiled schema, for threads without a TCCL
+    private static final ConcurrentHashMap<String, CompiledSchema> NO_TCCL_SCHEMAS =
+        new ConcurrentHashMap<String, CompiledSchema>();
+
+    private CompiledSchemas() {
+    }
+
+    /**
+     * Returns the compiled Schema for a classpath resource, compiling it on
+     * first use or when the resource or one of its imports has changed.
+     * Imports and includes are resolved relative to the schema and then
+     * against the classpath.
+     * @param schemaTypeUri schema language, as accepted by SchemaFactory
+     * @param schemaFile classpath location of the schema
+     * @return compiled schema
+     * @throws IOException the schema resource could not be read
+     * @throws SAXException the schema could not be compiled
+     */
+    static Schema getSchema(String schemaTypeUri, String schemaFile) throws IOException, SAXException {
+        URL url = Classes.getResource(schemaFile);
+        if (url == null) {
+            throw new IOException("Schema file '" + schemaFile + "' not found on the classpath.");
+        }
+        byte[] content = read(url);
+        String key = schemaTypeUri + '|' + schemaFile;
+        String digest = digest(content);
+
+        Map<String, CompiledSchema> schemas = getSchemas();
+        CompiledSchema compiled = schemas.get(key);
+        if (compiled != null && compiled.isCurrent(url, digest)) {
+            return compiled._schema;
+        }
+
+        SchemaFactory schemaFactory = SchemaFactory.newInstance(schemaTypeUri);
+        ClasspathResourceResolver resolver = new ClasspathResourceResolver();
+        schemaFactory.setResourceResolver(resolver);
+        StreamSource source = new StreamSource(new ByteArrayInputStream(content), url.toExternalForm());
+        Schema schema = schemaFactory.newSchema(source);
+        // a concurrent compile of the same schema may replace this one, 
+        // which only costs a recompile later
+        schemas.put(key, new CompiledSchema(schema, url.toExternalForm(), digest, resolver.getResolved()));
+        return schema;
+    }
+
+    private static Map<String, CompiledSchema> getSchemas() {
+        ClassLoader tccl = Thread.currentThread().getContextClassLoader();
+        if (tccl == null) {
+            return NO_TCCL_SCHEMAS;
+        }
+        ConcurrentHashMap<String, CompiledSchema> schemas = SCHEMAS.get(tccl);
+        if (schemas == null) {
+            schemas = SCHEMAS.putIfAbsent(tccl, new ConcurrentHashMap<String, CompiledSchema>());
+        }
+        return schemas;
+    }
+
+    /**
+     * Reads the content of a resource.
+     * @param url resource location
+     * @return resource content
+     * @throws IOException the resource could not be read
+     */
+    static byte[] read(URL url) throws IOException {
+        InputStream in = url.openStream();
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buf = new byte[4096];
+            int n;
+            while ((n = in.read(buf)) != -1) {
+                out.write(buf, 0, n);
+            }
+            return out.toByteArray();
+        } finally {
+            in.close();
+        }
+    }
+
+    /**
+     * Returns a digest of resource content.
+     * @param content resource content
+     * @return hex encoded digest
+     */
+    static String digest(byte[] content) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-1").digest(content);
+            StringBuilder hex = new StringBuilder(hash.length * 2);
+            for (byte b : hash) {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16));
+                hex.append(Character.forDigit(b & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException nsae) {
+            // every JRE ships SHA-1, but fall back to something usable anyway
+            return Integer.toHexString(Arrays.hashCode(content)) + ':' + content.length;
+        }
+    }
+
+    // A compiled schema and the content it was compiled from.
+    private static final class CompiledSchema {
+        private final Schema _schema;
+        private final String _location;
+        private final String _digest;
+        // location -> digest of each imported or included document
+        private final Map<String, String> _imports;
+
+        CompiledSchema(Schema schema, String location, String digest, Map<String, String> imports) {
+            _schema = schema;
+            _location = location;
+            _digest = digest;
+            _imports = imports;
+        }
+
+        boolean isCurrent(URL url, String digest) {
+            if (!_location.equals(url.toExternalForm()) || !_digest.equals(digest)) {
+                return false;
+            }
+            for (Map.Entry<String, String> entry : _imports.entrySet()) {
+                try {
+                    if (!entry.getValue().equals(digest(read(new URL(entry.getKey()))))) {
+                        return false;
+                    }
+                } catch (IOException ioe) {
+                    // gone or unreadable, so recompile and let that report it
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
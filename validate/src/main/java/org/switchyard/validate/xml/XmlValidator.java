@@ -1,11 +1,16 @@
 package org.switchyard.validate.xml;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.StringReader;
 
 import javax.xml.XMLConstants;
 import javax.xml.namespace.QName;
 import javax.xml.transform.ErrorListener;
 import javax.xml.transform.OutputKeys;
+import javax.xml.transform.Source;
 import javax.xml.transform.Transformer;
 import javax.xml.transform.TransformerException;
 import javax.xml.transform.TransformerFactory;
@@ -13,12 +18,12 @@ import javax.xml.transform.dom.DOMSource;
 import javax.xml.transform.stream.StreamResult;
 import javax.xml.transform.stream.StreamSource;
 import javax.xml.validation.Schema;
-import javax.xml.validation.SchemaFactory;
 import javax.xml.validation.Validator;
 
 import org.apache.log4j.Logger;
 import org.switchyard.Message;
-import org.switchyard.common.type.Classes;
+import org.switchyard.common.io.ReplayableInputStream;
+import org.switchyard.common.io.ReplayableReader;
 import org.switchyard.config.model.Scannable;
 import org.switchyard.exception.SwitchYardException;
 import org.switchyard.validate.BaseValidator;
@@ -41,6 +46,12 @@ public class XmlValidator extends BaseValidator<Message> {
     private String _schemaTypeUri;
     private String _schemaFile;
     private boolean _failOnWarning;
+    // compiled once, shared with other validators using the same schema
+    private Schema _schema;
+    // reported on validate(), as it was when schemas were compiled per message
+    private Exception _schemaError;
+    private final ThreadLocal<Validator> _validators = new ThreadLocal<Validator>();
+    private final ThreadLocal<Transformer> _transformers = new ThreadLocal<Transformer>();
         
     /**
      * constructor.
@@ -73,40 +84,118 @@ public class XmlValidator extends BaseValidator<Message> {
         
         _failOnWarning = model.failOnWarning();
         
+        if (!XMLConstants.XML_DTD_NS_URI.equals(_schemaTypeUri)) {
+            try {
+                _schema = CompiledSchemas.getSchema(_schemaTypeUri, _schemaFile);
+            } catch (SAXException e) {
+                _schemaError = e;
+            } catch (IOException ioe) {
+                _schemaError = ioe;
+            }
+            if (_schemaError != null) {
+                LOGGER.warn("Could not compile '" + _schemaFile + "' as '" + _schemaType + "'", _schemaError);
+            }
+        }
     }
     
     @Override
     public boolean validate(Message msg) {
+        // Stream and text payloads are validated as they are parsed rather
+        // than converted to a DOM first.  Streams are consumed by that, so 
+        // the message gets a replay of the same content afterwards.
+        Object content = msg.getContent();
+        if (content instanceof InputStream) {
+            ReplayableInputStream stream = new ReplayableInputStream((InputStream)content);
+            try {
+                validate(new StreamSource(stream));
+            } finally {
+                msg.setContent(replay(stream));
+            }
+        } else if (content instanceof Reader) {
+            ReplayableReader reader = new ReplayableReader((Reader)content);
+            try {
+                validate(new StreamSource(reader));
+            } finally {
+                msg.setContent(replay(reader));
+            }
+        } else if (content instanceof String) {
+            validate(new StreamSource(new StringReader((String)content)));
+        } else if (content instanceof byte[]) {
+            validate(new StreamSource(new ByteArrayInputStream((byte[])content)));
+        } else {
+            validate(msg.getContent(DOMSource.class));
+        }
+        
+        return true;
+    }
+
+    private void validate(Source source) {
         if (XMLConstants.W3C_XML_SCHEMA_NS_URI.equals(_schemaTypeUri) || XMLConstants.RELAXNG_NS_URI.equals(_schemaTypeUri)) {
             // XML Schema or RELAX NG Validation
 
-            SchemaFactory schemaFactory = SchemaFactory.newInstance(_schemaTypeUri);
+            if (_schema == null) {
+                throw new SwitchYardException("Error during validation with '" + _schemaFile + "' as '" + _schemaType + "'.", _schemaError);
+            }
+            Validator validator = getValidator();
             try {
-                Schema schema = schemaFactory.newSchema(new StreamSource(Classes.getResourceAsStream(_schemaFile)));
-                Validator validator = schema.newValidator();
-                validator.setErrorHandler(new XmlValidationErrorHandler(_failOnWarning));
-                validator.validate(msg.getContent(DOMSource.class));
+                validator.validate(source);
             } catch (SAXException e) {
+                _validators.remove();
                 throw new SwitchYardException("Error during validation with '" + _schemaFile + "' as '" + _schemaType + "'.", e);
             } catch (IOException ioe) {
+                _validators.remove();
                 throw new SwitchYardException("Error during validation with '" + _schemaFile + "' as '" + _schemaType + "'.", ioe);
             }
         } else if (XMLConstants.XML_DTD_NS_URI.equals(_schemaTypeUri)) {
             // DTD Validation
             try {
-                Transformer transformer = TransformerFactory.newInstance().newTransformer();
-                transformer.setOutputProperty(OutputKeys.DOCTYPE_SYSTEM, _schemaFile);
-                transformer.setErrorListener(new XmlValidationErrorListener(_failOnWarning));
-                transformer.transform(msg.getContent(DOMSource.class), new StreamResult());
+                getTransformer().transform(source, new StreamResult());
             } catch (Exception e) {
+                _transformers.remove();
                 throw new SwitchYardException("Error during validation with '" + _schemaFile + "' as '" + _schemaType + "'.", e);
             }
             
         } else {
             throw new SwitchYardException("Unknown XML Schema type '" + _schemaType + "', should be one of '" + XmlSchemaType.values() + "'.");
         }
-        
-        return true;
+    }
+
+    private InputStream replay(ReplayableInputStream stream) {
+        try {
+            return stream.replay();
+        } catch (IOException ioe) {
+            throw new SwitchYardException("Unable to restore message content after validation with '" + _schemaFile + "'.", ioe);
+        }
+    }
+
+    private Reader replay(ReplayableReader reader) {
+        try {
+            return reader.replay();
+        } catch (IOException ioe) {
+            throw new SwitchYardException("Unable to restore message content after validation with '" + _schemaFile + "'.", ioe);
+        }
+    }
+
+    // Validators are not thread-safe, so each thread gets its own
+    private Validator getValidator() {
+        Validator validator = _validators.get();
+        if (validator == null) {
+            validator = _schema.newValidator();
+            validator.setErrorHandler(new XmlValidationErrorHandler(_failOnWarning));
+            _validators.set(validator);
+        }
+        return validator;
+    }
+
+    private Transformer getTransformer() throws TransformerException {
+        Transformer transformer = _transformers.get();
+        if (transformer == null) {
+            transformer = TransformerFactory.newInstance().newTransformer();
+            transformer.setOutputProperty(OutputKeys.DOCTYPE_SYSTEM, _schemaFile);
+            transformer.setErrorListener(new XmlValidationErrorListener(_failOnWarning));
+            _transformers.set(transformer);
+        }
+        return transformer;
     }
 
     private class XmlValidationErrorHandler extends DefaultHandler {
@@ -91,6 +91,34 @@ public class ValidatorUtilTest {
         Assert.assertEquals(new QName("http://b", "B"), validateTypes.get(0).getName());
     }
 
+    @Test
+    public void test_validate_anno_type() {
+        org.switchyard.validate.Validator validator = ValidatorUtil.newValidator(TestValidator.class, QName.valueOf("X"));
+
+        Assert.assertEquals(String.class, validator.getType());
+        Assert.assertFalse(validator.validate("Y"));
+    }
+
+    @Test
+    public void test_validate_anno_string_result() {
+        org.switchyard.validate.Validator validator = ValidatorUtil.newValidator(StringResultValidator.class, QName.valueOf("S"));
+
+        Assert.assertTrue(validator.validate("true"));
+        Assert.assertFalse(validator.validate("nope"));
+    }
+
+    @Test
+    public void test_validate_anno_exception() {
+        org.switchyard.validate.Validator validator = ValidatorUtil.newValidator(StringResultValidator.class, QName.valueOf("S"));
+
+        try {
+            validator.validate(null);
+            Assert.fail("Expected Exception");
+        } catch (RuntimeException e) {
+            Assert.assertTrue(e.getCause() instanceof NullPointerException);
+        }
+    }
+
     public static class TestValidator extends BaseValidator {
 
         public TestValidator() {
@@ -127,6 +155,14 @@ public class ValidatorUtilTest {
         }
     }
 
+    public static class StringResultValidator {
+
+        @Validator(name = "S")
+        public String validateS(String s) {
+            return s.trim();
+        }
+    }
+
     public static class A {
 
     }
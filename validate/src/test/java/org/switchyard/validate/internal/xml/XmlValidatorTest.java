@@ -19,8 +19,18 @@
 
 package org.switchyard.validate.internal.xml;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
 import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
@@ -106,6 +116,126 @@ public class XmlValidatorTest extends AbstractValidatorTestCase {
         }
     }
 
+    @Test
+    public void test_valid_after_invalid_xml() throws Exception {
+        Validator validator = getValidator("sw-config-xmlv-01.xml");
+        try {
+            validator.validate(new DefaultMessage().setContent(toSource("<person name='foo'/>")));
+            Assert.fail("Expected validation to fail");
+        } catch (RuntimeException e) {
+            Assert.assertEquals("Error during validation with '/org/switchyard/validate/internal/xml/person.xsd' as 'XML_SCHEMA'.", e.getMessage());
+        }
+        Assert.assertTrue(validator.validate(new DefaultMessage().setContent(toSource("<person name='foo' age='50' />"))));
+    }
+
+    @Test
+    public void test_classpath_include() throws Exception {
+        Validator validator = getValidator("sw-config-xmlv-include.xml");
+        Assert.assertTrue(validator.validate(new DefaultMessage().setContent(
+                toSource("<person name='foo'><address city='bar'/></person>"))));
+        try {
+            validator.validate(new DefaultMessage().setContent(toSource("<person name='foo'><address/></person>")));
+            Assert.fail("Expected validation to fail");
+        } catch (RuntimeException e) {
+            Assert.assertEquals("Error during validation with '/org/switchyard/validate/internal/xml/person-address.xsd' as 'XML_SCHEMA'.", e.getMessage());
+        }
+    }
+
+    @Test
+    public void test_concurrent_validation() throws Exception {
+        final Validator validator = getValidator("sw-config-xmlv-01.xml");
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Boolean>> results = new ArrayList<Future<Boolean>>();
+            for (int i = 0; i < 100; i++) {
+                final boolean valid = i % 3 != 0;
+                results.add(executor.submit(new Callable<Boolean>() {
+                    public Boolean call() throws Exception {
+                        String xml = valid ? "<person name='foo' age='50' />" : "<person name='foo'/>";
+                        try {
+                            return validator.validate(new DefaultMessage().setContent(toSource(xml)));
+                        } catch (RuntimeException e) {
+                            return false;
+                        }
+                    }
+                }));
+            }
+            for (int i = 0; i < results.size(); i++) {
+                Assert.assertEquals(i % 3 != 0, results.get(i).get().booleanValue());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void test_stream_content() throws Exception {
+        Validator validator = getValidator("sw-config-xmlv-01.xml");
+        String xml = "<person name='foo' age='50' />";
+        DefaultMessage message = new DefaultMessage();
+        message.setContent(new ByteArrayInputStream(xml.getBytes("UTF-8")));
+        Assert.assertTrue(validator.validate(message));
+        // downstream handlers still see the whole payload
+        Assert.assertTrue(message.getContent() instanceof InputStream);
+        Assert.assertEquals(xml, new String(readAll((InputStream)message.getContent()), "UTF-8"));
+    }
+
+    @Test
+    public void test_invalid_stream_content() throws Exception {
+        Validator validator = getValidator("sw-config-xmlv-01.xml");
+        String xml = "<person name='foo'/>";
+        DefaultMessage message = new DefaultMessage();
+        message.setContent(new ByteArrayInputStream(xml.getBytes("UTF-8")));
+        try {
+            validator.validate(message);
+            Assert.fail("Expected validation to fail");
+        } catch (RuntimeException e) {
+            Assert.assertEquals("Error during validation with '/org/switchyard/validate/internal/xml/person.xsd' as 'XML_SCHEMA'.", e.getMessage());
+        }
+        Assert.assertEquals(xml, new String(readAll((InputStream)message.getContent()), "UTF-8"));
+    }
+
+    @Test
+    public void test_reader_and_string_content() throws Exception {
+        Validator validator = getValidator("sw-config-xmlv-01.xml");
+        String xml = "<person name='foo' age='50' />";
+        DefaultMessage message = new DefaultMessage();
+        message.setContent(new StringReader(xml));
+        Assert.assertTrue(validator.validate(message));
+        Reader reader = (Reader)message.getContent();
+        StringBuilder replayed = new StringBuilder();
+        int c;
+        while ((c = reader.read()) != -1) {
+            replayed.append((char)c);
+        }
+        Assert.assertEquals(xml, replayed.toString());
+
+        message.setContent(xml);
+        Assert.assertTrue(validator.validate(message));
+        Assert.assertSame(xml, message.getContent());
+        try {
+            validator.validate(new DefaultMessage().setContent("<person name='foo'/>"));
+            Assert.fail("Expected validation to fail");
+        } catch (RuntimeException e) {
+            Assert.assertEquals("Error during validation with '/org/switchyard/validate/internal/xml/person.xsd' as 'XML_SCHEMA'.", e.getMessage());
+        }
+    }
+
+    private byte[] readAll(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buf = new byte[512];
+        int n;
+        while ((n = in.read(buf)) != -1) {
+            out.write(buf, 0, n);
+        }
+        return out.toByteArray();
+    }
+
+    private DOMSource toSource(String xml) throws Exception {
+        // DocumentBuilder is not thread-safe, so don't share the test's builder
+        DocumentBuilder documentBuilder = DocumentBuilderFactory.newInstance().newDocumentBuilder();
+        return new DOMSource(documentBuilder.parse(new InputSource(new StringReader(xml))).getDocumentElement());
+    }
 
     protected Validator getValidator(String config) throws IOException {
         Validator validator = super.getValidator(config);
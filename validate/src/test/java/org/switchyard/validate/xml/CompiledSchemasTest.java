@@ -0,0 +1,129 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2011 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+
+package org.switchyard.validate.xml;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.net.URL;
+import java.net.URLClassLoader;
+
+import javax.xml.XMLConstants;
+import javax.xml.transform.stream.StreamSource;
+import javax.xml.validation.Schema;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.xml.sax.SAXException;
+
+/**
+ * Unit tests for the CompiledSchemas class.
+ */
+public class CompiledSchemasTest {
+
+    private static final String SCHEMA = "/compiled-schemas/person.xsd";
+
+    private File _root;
+    private ClassLoader _tccl;
+
+    @Before
+    public void setUp() throws IOException {
+        _root = File.createTempFile("compiled-schemas", "");
+        _root.delete();
+        new File(_root, "compiled-schemas").mkdirs();
+        write("person.xsd", 
+                "<xs:schema xmlns:xs='http://www.w3.org/2001/XMLSchema'>"
+                + "<xs:include schemaLocation='/compiled-schemas/types.xsd'/>"
+                + "<xs:element name='person' type='personType'/>"
+                + "</xs:schema>");
+        writeTypes("optional");
+        _tccl = Thread.currentThread().getContextClassLoader();
+    }
+
+    @After
+    public void tearDown() {
+        Thread.currentThread().setContextClassLoader(_tccl);
+        for (File file : new File(_root, "compiled-schemas").listFiles()) {
+            file.delete();
+        }
+        new File(_root, "compiled-schemas").delete();
+        _root.delete();
+    }
+
+    @Test
+    public void testChangedIncludeRecompiles() throws Exception {
+        useClassLoader();
+        Schema schema = CompiledSchemas.getSchema(XMLConstants.W3C_XML_SCHEMA_NS_URI, SCHEMA);
+        Assert.assertSame(schema, CompiledSchemas.getSchema(XMLConstants.W3C_XML_SCHEMA_NS_URI, SCHEMA));
+        Assert.assertTrue(isValid(schema, "<person/>"));
+
+        // only the included schema changes
+        writeTypes("required");
+        Schema changed = CompiledSchemas.getSchema(XMLConstants.W3C_XML_SCHEMA_NS_URI, SCHEMA);
+        Assert.assertNotSame(schema, changed);
+        Assert.assertFalse(isValid(changed, "<person/>"));
+        Assert.assertTrue(isValid(changed, "<person name='foo'/>"));
+        Assert.assertSame(changed, CompiledSchemas.getSchema(XMLConstants.W3C_XML_SCHEMA_NS_URI, SCHEMA));
+    }
+
+    @Test
+    public void testSchemasScopedByClassLoader() throws Exception {
+        useClassLoader();
+        Schema schema = CompiledSchemas.getSchema(XMLConstants.W3C_XML_SCHEMA_NS_URI, SCHEMA);
+        useClassLoader();
+        Assert.assertNotSame(schema, CompiledSchemas.getSchema(XMLConstants.W3C_XML_SCHEMA_NS_URI, SCHEMA));
+    }
+
+    private void useClassLoader() throws IOException {
+        URL[] urls = new URL[] {_root.toURI().toURL()};
+        Thread.currentThread().setContextClassLoader(new URLClassLoader(urls, _tccl));
+    }
+
+    private void writeTypes(String use) throws IOException {
+        write("types.xsd", 
+                "<xs:schema xmlns:xs='http://www.w3.org/2001/XMLSchema'>"
+                + "<xs:complexType name='personType'>"
+                + "<xs:attribute name='name' type='xs:string' use='" + use + "'/>"
+                + "</xs:complexType>"
+                + "</xs:schema>");
+    }
+
+    private void write(String name, String content) throws IOException {
+        OutputStream out = new FileOutputStream(new File(new File(_root, "compiled-schemas"), name));
+        try {
+            out.write(content.getBytes("UTF-8"));
+        } finally {
+            out.close();
+        }
+    }
+
+    private boolean isValid(Schema schema, String xml) throws IOException {
+        try {
+            schema.newValidator().validate(new StreamSource(new StringReader(xml)));
+            return true;
+        } catch (SAXException e) {
+            return false;
+        }
+    }
+}